@@ -0,0 +1,168 @@
+-- Attachment storage provider with separately stored entries
+SELECT register_migration_script('202610171200_AttachmentDBEntry.sql') FROM dual;
+
+SET SQLBLANKLINES ON
+SET DEFINE OFF
+
+-- Oct 17, 2026, 12:00:01 PM CEST
+INSERT INTO AD_Table (AD_Table_ID,Name,Description,TableName,LoadSeq,AccessLevel,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,IsSecurityEnabled,IsDeleteable,IsHighVolume,IsView,EntityType,ImportTable,IsChangeLog,ReplicationType,CopyColumnsFromTable,IsCentrallyMaintained,AD_Table_UU,Processing,DatabaseViewDrop,CopyComponentsFromView,CreateWindowFromTable,IsShowInDrillOptions) VALUES (200383,'Attachment Data','Content of an attachment entry, shared by entries with the same content','AD_AttachmentData',0,'6',0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:01','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:01','YYYY-MM-DD HH24:MI:SS'),100,'N','Y','Y','N','D','N','N','L','N','Y','99d09419-f281-474f-9469-11e94bec524a','N','N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:02 PM CEST
+INSERT INTO AD_Sequence (Name,CurrentNext,IsAudited,StartNewYear,Description,IsActive,IsTableID,AD_Client_ID,AD_Org_ID,Created,CreatedBy,Updated,UpdatedBy,AD_Sequence_ID,IsAutoSequence,StartNo,IncrementNo,CurrentNextSys,AD_Sequence_UU) VALUES ('AD_AttachmentData',1000000,'N','N','Table AD_AttachmentData','Y','Y',0,0,TO_TIMESTAMP('2026-10-17 12:00:02','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:02','YYYY-MM-DD HH24:MI:SS'),100,200311,'Y',1000000,1,200000,'6386db22-7619-4640-a48f-2ef2ab083ded')
+;
+
+-- Oct 17, 2026, 12:00:03 PM CEST
+INSERT INTO AD_Element (AD_Element_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,ColumnName,Name,Description,Help,PrintName,EntityType,AD_Element_UU) VALUES (203813,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:03','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:03','YYYY-MM-DD HH24:MI:SS'),100,'AD_AttachmentData_ID','Attachment Data','Content of an attachment entry',NULL,'Attachment Data','D','7e486208-837d-4c55-a483-68e3f4daea9a')
+;
+
+-- Oct 17, 2026, 12:00:04 PM CEST
+INSERT INTO AD_Element (AD_Element_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,ColumnName,Name,Description,Help,PrintName,EntityType,AD_Element_UU) VALUES (203814,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:04','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:04','YYYY-MM-DD HH24:MI:SS'),100,'AD_AttachmentData_UU','AD_AttachmentData_UU',NULL,NULL,'AD_AttachmentData_UU','D','4103748a-70b1-4408-804f-edf2a7042b9a')
+;
+
+-- Oct 17, 2026, 12:00:05 PM CEST
+INSERT INTO AD_Element (AD_Element_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,ColumnName,Name,Description,Help,PrintName,EntityType,AD_Element_UU) VALUES (203815,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:05','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:05','YYYY-MM-DD HH24:MI:SS'),100,'ContentHash','Content Hash','SHA-256 hash of the content','The content hash identifies identical content, which is stored only once.','Content Hash','D','27f695fe-dca2-4e53-991e-866b95ea3799')
+;
+
+-- Oct 17, 2026, 12:00:06 PM CEST
+INSERT INTO AD_Element (AD_Element_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,ColumnName,Name,Description,Help,PrintName,EntityType,AD_Element_UU) VALUES (203816,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:06','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:06','YYYY-MM-DD HH24:MI:SS'),100,'RefCount','Reference Count','Number of references to the record','The record is deleted when it is not referenced anymore.','Reference Count','D','2a9e9f67-c56e-4c48-ad9c-17c356a28b8f')
+;
+
+-- Oct 17, 2026, 12:00:07 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215849,0,'Attachment Data','Content of an attachment entry',NULL,200383,'AD_AttachmentData_ID',22,'Y','N','Y','N','N',0,'N',13,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:07','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:07','YYYY-MM-DD HH24:MI:SS'),100,203813,'N','N','D','N','N','N','Y','bda52f1f-d99d-4c08-b29b-5a56295ea9d5','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:08 PM CEST
+CREATE TABLE AD_AttachmentData (AD_AttachmentData_ID NUMBER(10) NOT NULL, CONSTRAINT AD_AttachmentData_Key PRIMARY KEY (AD_AttachmentData_ID))
+;
+
+-- Oct 17, 2026, 12:00:09 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215850,0,'AD_AttachmentData_UU',NULL,NULL,200383,'AD_AttachmentData_UU',36,'N','N','N','N','N',0,'N',10,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:09','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:09','YYYY-MM-DD HH24:MI:SS'),100,203814,'N','N','D','N','N','N','Y','e089e43e-4b07-4b1a-ac1d-2f529ec657b8','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:10 PM CEST
+ALTER TABLE AD_AttachmentData ADD AD_AttachmentData_UU VARCHAR2(36 CHAR) DEFAULT NULL 
+;
+
+-- Oct 17, 2026, 12:00:11 PM CEST
+ALTER TABLE AD_AttachmentData ADD CONSTRAINT AD_AttachmentData_UU_idx UNIQUE (AD_AttachmentData_UU)
+;
+
+-- Oct 17, 2026, 12:00:12 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,AD_Val_Rule_ID,ColumnName,DefaultValue,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215851,0,'Tenant','Tenant for this installation.','A Tenant is a company or a legal entity. You cannot share data between Tenants.',200383,129,'AD_Client_ID','@#AD_Client_ID@',22,'N','N','Y','N','N',0,'N',19,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:12','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:12','YYYY-MM-DD HH24:MI:SS'),100,102,'N','N','D','N','N','N','Y','bff88763-80bf-422b-9628-6624e67ad908','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:13 PM CEST
+ALTER TABLE AD_AttachmentData ADD AD_Client_ID NUMBER(10) NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:14 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,AD_Val_Rule_ID,ColumnName,DefaultValue,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215852,0,'Organization','Organizational entity within tenant','An organization is a unit of your tenant or legal entity - examples are store, department. You can share data between organizations.',200383,104,'AD_Org_ID','@#AD_Org_ID@',22,'N','N','Y','N','N',0,'N',19,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:14','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:14','YYYY-MM-DD HH24:MI:SS'),100,113,'N','N','D','N','N','N','Y','78ef5d75-36ff-4b73-91ac-7d0c1ba502f3','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:15 PM CEST
+ALTER TABLE AD_AttachmentData ADD AD_Org_ID NUMBER(10) NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:16 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,DefaultValue,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215853,0,'Created','Date this record was created','The Created field indicates the date that this record was created.',200383,'Created','SYSDATE',7,'N','N','Y','N','N',0,'N',16,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:16','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:16','YYYY-MM-DD HH24:MI:SS'),100,245,'N','N','D','N','N','N','Y','70690098-fbba-40c7-ab69-214d551182dc','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:17 PM CEST
+ALTER TABLE AD_AttachmentData ADD Created DATE DEFAULT SYSDATE NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:18 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Reference_Value_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215854,0,'Created By','User who created this records','The Created By field indicates the user who created this record.',200383,'CreatedBy',22,'N','N','Y','N','N',0,'N',30,110,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:18','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:18','YYYY-MM-DD HH24:MI:SS'),100,246,'N','N','D','N','N','N','Y','f2cb4aeb-b10f-4749-9def-e547fe2b490b','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:19 PM CEST
+ALTER TABLE AD_AttachmentData ADD CreatedBy NUMBER(10) NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:20 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,DefaultValue,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215855,0,'Updated','Date this record was updated','The Updated field indicates the date that this record was updated.',200383,'Updated','SYSDATE',7,'N','N','Y','N','N',0,'N',16,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:20','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:20','YYYY-MM-DD HH24:MI:SS'),100,607,'N','N','D','N','N','N','Y','8543b0a7-182a-439b-ab4d-a7287ba11e73','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:21 PM CEST
+ALTER TABLE AD_AttachmentData ADD Updated DATE DEFAULT SYSDATE NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:22 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Reference_Value_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215856,0,'Updated By','User who updated this records','The Updated By field indicates the user who updated this record.',200383,'UpdatedBy',22,'N','N','Y','N','N',0,'N',30,110,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:22','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:22','YYYY-MM-DD HH24:MI:SS'),100,608,'N','N','D','N','N','N','Y','44c8aa70-401b-48e4-a63e-6e66646ea65a','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:23 PM CEST
+ALTER TABLE AD_AttachmentData ADD UpdatedBy NUMBER(10) NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:24 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,DefaultValue,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215857,0,'Active','The record is active in the system','There are two methods of making records unavailable in the system: One is to delete the record, the other is to de-activate the record. A de-activated record is not available for selection, but available for reports.
+There are two reasons for de-activating and not deleting records:
+(1) The system requires the record for audit purposes.
+(2) The record is referenced by other records. E.g., you cannot delete a Business Partner, if there are invoices for this partner record existing. You de-activate the Business Partner and prevent that this record is used for future entries.',200383,'IsActive','Y',1,'N','N','Y','N','N',0,'N',20,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:24','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:24','YYYY-MM-DD HH24:MI:SS'),100,348,'Y','N','D','N','N','N','Y','db715295-f841-4b26-a73a-401e8c74100a','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:25 PM CEST
+ALTER TABLE AD_AttachmentData ADD IsActive CHAR(1) DEFAULT 'Y' CHECK (IsActive IN ('Y','N')) NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:26 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215858,0,'Binary Data','Binary Data','The Binary field stores binary data.',200383,'BinaryData',0,'N','N','N','N','N',0,'N',23,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:26','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:26','YYYY-MM-DD HH24:MI:SS'),100,174,'Y','N','D','N','N','N','N','4e2a3cdd-2ae1-4a82-85af-9cc61f989883','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:27 PM CEST
+ALTER TABLE AD_AttachmentData ADD BinaryData BLOB DEFAULT NULL 
+;
+
+-- Oct 17, 2026, 12:00:28 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215859,0,'Content Hash','SHA-256 hash of the content','The content hash identifies identical content, which is stored only once.',200383,'ContentHash',64,'N','N','Y','N','Y',0,'N',10,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:28','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:28','YYYY-MM-DD HH24:MI:SS'),100,203815,'N','N','D','N','N','N','Y','f942d92c-1e81-4b46-8174-a4fbae06b2e5','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:29 PM CEST
+ALTER TABLE AD_AttachmentData ADD ContentHash VARCHAR2(64 CHAR) NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:30 PM CEST
+INSERT INTO AD_Column (AD_Column_ID,Version,Name,Description,Help,AD_Table_ID,ColumnName,DefaultValue,FieldLength,IsKey,IsParent,IsMandatory,IsTranslated,IsIdentifier,SeqNo,IsEncrypted,AD_Reference_ID,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,AD_Element_ID,IsUpdateable,IsSelectionColumn,EntityType,IsSyncDatabase,IsAlwaysUpdateable,IsAutocomplete,IsAllowLogging,AD_Column_UU,IsAllowCopy,SeqNoSelection,IsToolbarButton,IsSecure,FKConstraintType,IsHtml) VALUES (215860,0,'Reference Count','Number of references to the record','The record is deleted when it is not referenced anymore.',200383,'RefCount','0',10,'N','N','Y','N','N',0,'N',11,0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:30','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:30','YYYY-MM-DD HH24:MI:SS'),100,203816,'Y','N','D','N','N','N','Y','a90cac27-589c-4c08-86e7-9c25ab17e1eb','N',0,'N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:31 PM CEST
+ALTER TABLE AD_AttachmentData ADD RefCount NUMBER(10) DEFAULT 0 NOT NULL
+;
+
+-- Oct 17, 2026, 12:00:32 PM CEST
+ALTER TABLE AD_AttachmentData ADD CONSTRAINT ADClient_ADAttachmentData FOREIGN KEY (AD_Client_ID) REFERENCES ad_client(ad_client_id) DEFERRABLE INITIALLY DEFERRED
+;
+
+-- Oct 17, 2026, 12:00:33 PM CEST
+ALTER TABLE AD_AttachmentData ADD CONSTRAINT ADOrg_ADAttachmentData FOREIGN KEY (AD_Org_ID) REFERENCES ad_org(ad_org_id) DEFERRABLE INITIALLY DEFERRED
+;
+
+-- Oct 17, 2026, 12:00:34 PM CEST
+UPDATE AD_Column SET FKConstraintName='ADClient_ADAttachmentData', FKConstraintType='N',Updated=TO_TIMESTAMP('2026-10-17 12:00:34','YYYY-MM-DD HH24:MI:SS'),UpdatedBy=100 WHERE AD_Column_ID=215851
+;
+
+-- Oct 17, 2026, 12:00:35 PM CEST
+UPDATE AD_Column SET FKConstraintName='ADOrg_ADAttachmentData', FKConstraintType='N',Updated=TO_TIMESTAMP('2026-10-17 12:00:35','YYYY-MM-DD HH24:MI:SS'),UpdatedBy=100 WHERE AD_Column_ID=215852
+;
+
+-- Oct 17, 2026, 12:00:36 PM CEST
+INSERT INTO AD_TableIndex (AD_Client_ID,AD_Org_ID,AD_TableIndex_ID,AD_TableIndex_UU,Created,CreatedBy,EntityType,IsActive,Name,Updated,UpdatedBy,AD_Table_ID,IsCreateConstraint,IsUnique,Processing,TableIndexDrop,IsKey) VALUES (0,0,201180,'04ff0e08-d38a-428d-a20a-e51a0400bb50',TO_TIMESTAMP('2026-10-17 12:00:36','YYYY-MM-DD HH24:MI:SS'),100,'D','Y','ad_attachmentdata_hash',TO_TIMESTAMP('2026-10-17 12:00:36','YYYY-MM-DD HH24:MI:SS'),100,200383,'N','N','N','N','N')
+;
+
+-- Oct 17, 2026, 12:00:37 PM CEST
+INSERT INTO AD_IndexColumn (AD_Client_ID,AD_Org_ID,AD_IndexColumn_ID,AD_IndexColumn_UU,Created,CreatedBy,EntityType,IsActive,Updated,UpdatedBy,AD_Column_ID,AD_TableIndex_ID,SeqNo) VALUES (0,0,201617,'e64f2056-32a2-4ad5-9497-66f7feccced5',TO_TIMESTAMP('2026-10-17 12:00:37','YYYY-MM-DD HH24:MI:SS'),100,'D','Y',TO_TIMESTAMP('2026-10-17 12:00:37','YYYY-MM-DD HH24:MI:SS'),100,215851,201180,10)
+;
+
+-- Oct 17, 2026, 12:00:38 PM CEST
+INSERT INTO AD_IndexColumn (AD_Client_ID,AD_Org_ID,AD_IndexColumn_ID,AD_IndexColumn_UU,Created,CreatedBy,EntityType,IsActive,Updated,UpdatedBy,AD_Column_ID,AD_TableIndex_ID,SeqNo) VALUES (0,0,201618,'6511a502-5c71-48d1-bd6e-7fdc9beca6b0',TO_TIMESTAMP('2026-10-17 12:00:38','YYYY-MM-DD HH24:MI:SS'),100,'D','Y',TO_TIMESTAMP('2026-10-17 12:00:38','YYYY-MM-DD HH24:MI:SS'),100,215859,201180,20)
+;
+
+-- Oct 17, 2026, 12:00:39 PM CEST
+CREATE INDEX ad_attachmentdata_hash ON AD_AttachmentData (AD_Client_ID,ContentHash)
+;
+
+-- Oct 17, 2026, 12:00:40 PM CEST
+INSERT INTO AD_Ref_List (AD_Ref_List_ID,Name,Description,AD_Reference_ID,Value,AD_Client_ID,AD_Org_ID,IsActive,Created,CreatedBy,Updated,UpdatedBy,EntityType,AD_Ref_List_UU) VALUES (200644,'Database Per Entry','Attachment entries stored separately in the database, identical content is stored once',200019,'DBEntry',0,0,'Y',TO_TIMESTAMP('2026-10-17 12:00:40','YYYY-MM-DD HH24:MI:SS'),100,TO_TIMESTAMP('2026-10-17 12:00:40','YYYY-MM-DD HH24:MI:SS'),100,'D','f8ff02a8-2173-41eb-8c57-daa1ecabe660')
+;
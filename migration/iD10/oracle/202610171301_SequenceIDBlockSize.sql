@@ -0,0 +1,10 @@
+-- Table ID blocks per server
+SELECT register_migration_script('202610171301_SequenceIDBlockSize.sql') FROM dual;
+
+SET SQLBLANKLINES ON
+SET DEFINE OFF
+
+-- Oct 17, 2026, 1:01:00 PM CEST
+INSERT INTO AD_SysConfig (AD_SysConfig_ID,AD_Client_ID,AD_Org_ID,Created,Updated,CreatedBy,UpdatedBy,IsActive,Name,Value,Description,EntityType,ConfigurationLevel,AD_SysConfig_UU) VALUES (200234,0,0,TO_TIMESTAMP('2026-10-17 13:01:00','YYYY-MM-DD HH24:MI:SS'),TO_TIMESTAMP('2026-10-17 13:01:00','YYYY-MM-DD HH24:MI:SS'),100,100,'Y','MSEQUENCE_ID_BLOCK_SIZE',' ','Number of table IDs reserved per update of AD_Sequence, comma separated list of TableName=Size, * for all other tables. For example: Fact_Acct=500,M_Transaction=100,*=10. Not used with native sequences','D','S','7538e091-573c-4287-b17a-c995e0b22047')
+;
+
@@ -0,0 +1,10 @@
+-- Reserved DocumentNo pools
+SELECT register_migration_script('202610171302_DocumentNoPoolSize.sql') FROM dual;
+
+SET SQLBLANKLINES ON
+SET DEFINE OFF
+
+-- Oct 17, 2026, 1:02:00 PM CEST
+INSERT INTO AD_SysConfig (AD_SysConfig_ID,AD_Client_ID,AD_Org_ID,Created,Updated,CreatedBy,UpdatedBy,IsActive,Name,Value,Description,EntityType,ConfigurationLevel,AD_SysConfig_UU) VALUES (200235,0,0,TO_TIMESTAMP('2026-10-17 13:02:00','YYYY-MM-DD HH24:MI:SS'),TO_TIMESTAMP('2026-10-17 13:02:00','YYYY-MM-DD HH24:MI:SS'),100,100,'Y','MSEQUENCE_DOCUMENTNO_POOL_SIZE',' ','Comma separated list of SequenceName=Size of document sequences that reserve DocumentNo in pools of Size numbers, for example DocumentNo_C_Order=20. Numbers of a pool that are not used are lost, only for sequences where gaps are allowed','D','C','9f3a976b-65f8-4650-8c15-e0de9191ce14')
+;
+
@@ -0,0 +1,10 @@
+-- Parallel posting of the accounting processor
+SELECT register_migration_script('202610171303_AcctProcessorParallelThreads.sql') FROM dual;
+
+SET SQLBLANKLINES ON
+SET DEFINE OFF
+
+-- Oct 17, 2026, 1:03:00 PM CEST
+INSERT INTO AD_SysConfig (AD_SysConfig_ID,AD_Client_ID,AD_Org_ID,Created,Updated,CreatedBy,UpdatedBy,IsActive,Name,Value,Description,EntityType,ConfigurationLevel,AD_SysConfig_UU) VALUES (200236,0,0,TO_TIMESTAMP('2026-10-17 13:03:00','YYYY-MM-DD HH24:MI:SS'),TO_TIMESTAMP('2026-10-17 13:03:00','YYYY-MM-DD HH24:MI:SS'),100,100,'Y','ACCT_PROCESSOR_PARALLEL_THREADS','0','Number of worker threads of the accounting processor to post documents in parallel, 0 or 1 to post the documents one after the other','D','C','ee2456c6-7748-4a25-ac4e-09fccb3a92c3')
+;
+
@@ -0,0 +1,10 @@
+-- Change log of tables spooled after the commit
+SELECT register_migration_script('202610171305_ChangeLogAsyncTables.sql') FROM dual;
+
+SET SQLBLANKLINES ON
+SET DEFINE OFF
+
+-- Oct 17, 2026, 1:05:00 PM CEST
+INSERT INTO AD_SysConfig (AD_SysConfig_ID,AD_Client_ID,AD_Org_ID,Created,Updated,CreatedBy,UpdatedBy,IsActive,Name,Value,Description,EntityType,ConfigurationLevel,AD_SysConfig_UU) VALUES (200238,0,0,TO_TIMESTAMP('2026-10-17 13:05:00','YYYY-MM-DD HH24:MI:SS'),TO_TIMESTAMP('2026-10-17 13:05:00','YYYY-MM-DD HH24:MI:SS'),100,100,'Y','CHANGELOG_ASYNC_TABLES',' ','Comma separated table names whose change log is spooled and inserted after the commit','D','S','3a4795db-5077-4975-b9e7-0ddbfe40e94c')
+;
+
@@ -0,0 +1,10 @@
+-- Role access sql with array parameters
+SELECT register_migration_script('202610171306_RoleAccessSQLArrayParameters.sql') FROM dual;
+
+SET SQLBLANKLINES ON
+SET DEFINE OFF
+
+-- Oct 17, 2026, 1:06:00 PM CEST
+INSERT INTO AD_SysConfig (AD_SysConfig_ID,AD_Client_ID,AD_Org_ID,Created,Updated,CreatedBy,UpdatedBy,IsActive,Name,Value,Description,EntityType,ConfigurationLevel,AD_SysConfig_UU) VALUES (200239,0,0,TO_TIMESTAMP('2026-10-17 13:06:00','YYYY-MM-DD HH24:MI:SS'),TO_TIMESTAMP('2026-10-17 13:06:00','YYYY-MM-DD HH24:MI:SS'),100,100,'Y','ROLE_ACCESS_SQL_ARRAY_PARAMETERS','N','Y to append the client and organization access of the role as array parameters (PostgreSQL), the statement text is the same for all roles','D','C','a7d9b693-3c4e-45a9-a71e-e6315265dc3d')
+;
+
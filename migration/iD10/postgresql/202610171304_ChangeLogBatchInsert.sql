@@ -0,0 +1,7 @@
+-- Batch insert of the change log
+SELECT register_migration_script('202610171304_ChangeLogBatchInsert.sql') FROM dual;
+
+-- Oct 17, 2026, 1:04:00 PM CEST
+INSERT INTO AD_SysConfig (AD_SysConfig_ID,AD_Client_ID,AD_Org_ID,Created,Updated,CreatedBy,UpdatedBy,IsActive,Name,Value,Description,EntityType,ConfigurationLevel,AD_SysConfig_UU) VALUES (200237,0,0,TO_TIMESTAMP('2026-10-17 13:04:00','YYYY-MM-DD HH24:MI:SS'),TO_TIMESTAMP('2026-10-17 13:04:00','YYYY-MM-DD HH24:MI:SS'),100,100,'Y','CHANGELOG_BATCH_INSERT','Y','Y to insert the change log of a transaction with one batch statement before the commit','D','S','db4fced7-d5a5-44f4-bcf4-a58e155055b9')
+;
+
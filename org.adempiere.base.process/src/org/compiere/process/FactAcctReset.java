@@ -44,6 +44,7 @@ import org.compiere.model.MPeriodControl;
 import org.compiere.model.MProcessPara;
 import org.compiere.model.MProduction;
 import org.compiere.model.MProjectIssue;
+import org.compiere.model.MReportCube;
 import org.compiere.model.MRequisition;
 import org.compiere.model.X_M_Production;
 import org.compiere.util.DB;
@@ -301,6 +302,9 @@ public class FactAcctReset extends SvrProcess
 		if (log.isLoggable(Level.FINE))log.log(Level.FINE, sql2);
 		
 		int deleted = DB.executeUpdate(sql2, get_TrxName());
+		//	bulk delete - rebuild report cubes on next update
+		if (deleted > 0)
+			MReportCube.invalidate(p_AD_Client_ID, get_TrxName());
 		//
 		m_countReset += reset;
 
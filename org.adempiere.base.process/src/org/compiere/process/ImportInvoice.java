@@ -21,6 +21,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.compiere.model.MBPartner;
@@ -30,6 +32,7 @@ import org.compiere.model.MInvoiceLine;
 import org.compiere.model.MLocation;
 import org.compiere.model.MProcessPara;
 import org.compiere.model.MUser;
+import org.compiere.model.PO;
 import org.compiere.model.X_I_Invoice;
 import org.compiere.util.DB;
 import org.compiere.util.Env;
@@ -649,6 +652,8 @@ public class ImportInvoice extends SvrProcess
 			//
 			MInvoice invoice = null;
 			int lineNo = 0;
+			List<MInvoiceLine> lines = new ArrayList<MInvoiceLine>();
+			List<X_I_Invoice> imps = new ArrayList<X_I_Invoice>();
 			while (rs.next ())
 			{
 				X_I_Invoice imp = new X_I_Invoice (getCtx (), rs, get_TrxName());
@@ -662,6 +667,7 @@ public class ImportInvoice extends SvrProcess
 				{
 					if (invoice != null)
 					{
+						noInsertLine += saveLines(lines, imps);
 						if (!invoice.processIt(m_docAction)) {
 							log.warning("Invoice Process Failed: " + invoice + " - " + invoice.getProcessMsg());
 							throw new IllegalStateException("Invoice Process Failed: " + invoice + " - " + invoice.getProcessMsg());
@@ -752,17 +758,12 @@ public class ImportInvoice extends SvrProcess
 				if (taxAmt != null && Env.ZERO.compareTo(taxAmt) != 0)
 					line.setTaxAmt(taxAmt);
 				line.setC_1099Box_ID(imp.getC_1099Box_ID());
-				line.saveEx();
-				//
-				imp.setC_InvoiceLine_ID(line.getC_InvoiceLine_ID());
-				imp.setI_IsImported(true);
-				imp.setProcessed(true);
-				//
-				if (imp.save())
-					noInsertLine++;
+				lines.add(line);
+				imps.add(imp);
 			}
 			if (invoice != null)
 			{
+				noInsertLine += saveLines(lines, imps);
 				if(!invoice.processIt (m_docAction)) {
 					log.warning("Invoice Process Failed: " + invoice + " - " + invoice.getProcessMsg());
 					throw new IllegalStateException("Invoice Process Failed: " + invoice + " - " + invoice.getProcessMsg());
@@ -794,4 +795,29 @@ public class ImportInvoice extends SvrProcess
 		return "";
 	}	//	doIt
 
+	/**
+	 * 	Save invoice lines of an invoice with batch insert and mark import records as imported
+	 *	@param lines new invoice lines
+	 *	@param imps import records of lines
+	 *	@return number of import records updated
+	 */
+	private int saveLines(List<MInvoiceLine> lines, List<X_I_Invoice> imps)
+	{
+		int noInsertLine = 0;
+		PO.saveAllEx(lines, get_TrxName());
+		for (int i = 0; i < lines.size(); i++)
+		{
+			X_I_Invoice imp = imps.get(i);
+			imp.setC_InvoiceLine_ID(lines.get(i).getC_InvoiceLine_ID());
+			imp.setI_IsImported(true);
+			imp.setProcessed(true);
+			//
+			if (imp.save())
+				noInsertLine++;
+		}
+		lines.clear();
+		imps.clear();
+		return noInsertLine;
+	}	//	saveLines
+
 }	//	ImportInvoice
\ No newline at end of file
@@ -21,6 +21,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.compiere.model.MBPartner;
@@ -30,6 +32,7 @@ import org.compiere.model.MOrder;
 import org.compiere.model.MOrderLine;
 import org.compiere.model.MProcessPara;
 import org.compiere.model.MUser;
+import org.compiere.model.PO;
 import org.compiere.model.X_I_Order;
 import org.compiere.util.DB;
 import org.compiere.util.Env;
@@ -651,6 +654,8 @@ public class ImportOrder extends SvrProcess
 			//
 			MOrder order = null;
 			int lineNo = 0;
+			List<MOrderLine> lines = new ArrayList<MOrderLine>();
+			List<X_I_Order> imps = new ArrayList<X_I_Order>();
 			while (rs.next ())
 			{
 				X_I_Order imp = new X_I_Order (getCtx (), rs, get_TrxName());
@@ -665,6 +670,7 @@ public class ImportOrder extends SvrProcess
 				{
 					if (order != null)
 					{
+						noInsertLine += saveLines(lines, imps);
 						if (m_docAction != null && m_docAction.length() > 0)
 						{
 							order.setDocAction(m_docAction);
@@ -760,16 +766,12 @@ public class ImportOrder extends SvrProcess
 					line.setFreightAmt(imp.getFreightAmt());
 				if (imp.getLineDescription() != null)
 					line.setDescription(imp.getLineDescription());
-				line.saveEx();
-				imp.setC_OrderLine_ID(line.getC_OrderLine_ID());
-				imp.setI_IsImported(true);
-				imp.setProcessed(true);
-				//
-				if (imp.save())
-					noInsertLine++;
+				lines.add(line);
+				imps.add(imp);
 			}
 			if (order != null)
 			{
+				noInsertLine += saveLines(lines, imps);
 				if (m_docAction != null && m_docAction.length() > 0)
 				{
 					order.setDocAction(m_docAction);
@@ -806,4 +808,29 @@ public class ImportOrder extends SvrProcess
 		return msgreturn.toString();
 	}	//	doIt
 
+	/**
+	 * 	Save order lines of an order with batch insert and mark import records as imported
+	 *	@param lines new order lines
+	 *	@param imps import records of lines
+	 *	@return number of import records updated
+	 */
+	private int saveLines(List<MOrderLine> lines, List<X_I_Order> imps)
+	{
+		int noInsertLine = 0;
+		PO.saveAllEx(lines, get_TrxName());
+		for (int i = 0; i < lines.size(); i++)
+		{
+			X_I_Order imp = imps.get(i);
+			imp.setC_OrderLine_ID(lines.get(i).getC_OrderLine_ID());
+			imp.setI_IsImported(true);
+			imp.setProcessed(true);
+			//
+			if (imp.save())
+				noInsertLine++;
+		}
+		lines.clear();
+		imps.clear();
+		return noInsertLine;
+	}	//	saveLines
+
 }	//	ImportOrder
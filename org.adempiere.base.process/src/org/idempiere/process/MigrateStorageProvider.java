@@ -28,6 +28,8 @@ package org.idempiere.process;
 
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.compiere.model.IArchiveStore;
@@ -233,9 +235,15 @@ public class MigrateStorageProvider extends SvrProcess {
 			MClient client, int odometer) throws SQLException {
 		// migrate attachment
 		status(idxClient, totalClients, "Migrating attachments for " + client.getName());
-		final String where = "AD_Client_ID=? AND (?=0 OR AD_Attachment_ID>=?) AND (?=0 OR AD_Attachment_ID<=?) AND COALESCE(AD_StorageProvider_ID,0)!=?";
+		String where = "AD_Client_ID=? AND (?=0 OR AD_Attachment_ID>=?) AND (?=0 OR AD_Attachment_ID<=?) AND COALESCE(AD_StorageProvider_ID,0)!=?";
+		List<Object> params = new ArrayList<Object>(List.of(clientid, p_IDFrom, p_IDFrom, p_IDTo, p_IDTo, p_AD_StorageProvider_ID));
+		if (MStorageProvider.METHOD_DatabasePerEntry.equals(newProvider.getMethod())) {
+			// convert zip data saved before the provider was switched to one record per entry
+			where = "AD_Client_ID=? AND (?=0 OR AD_Attachment_ID>=?) AND (?=0 OR AD_Attachment_ID<=?) AND (COALESCE(AD_StorageProvider_ID,0)!=? OR (BinaryData IS NOT NULL AND Title!=?))";
+			params.add(MAttachment.MANIFEST);
+		}
 		int[] attachIds = new Query(getCtx(), MAttachment.Table_Name, where, get_TrxName())
-				.setParameters(clientid, p_IDFrom, p_IDFrom, p_IDTo, p_IDTo, p_AD_StorageProvider_ID)
+				.setParameters(params)
 				.setOrderBy("AD_Attachment_ID")
 				.getIDs();
 		int cntRecords = attachIds.length;
@@ -259,7 +267,7 @@ public class MigrateStorageProvider extends SvrProcess {
 			// commit on every record migrated
 			commitEx();
 
-			if (p_DeleteOld) {
+			if (p_DeleteOld && oldProviderId != newProvider.getAD_StorageProvider_ID()) { // converted on the same provider
 				MStorageProvider oldProvider = MStorageProvider.get(getCtx(), oldProviderId);
 				if (! (oldProviderId == 0 || MStorageProvider.METHOD_Database.equals(oldProvider.getMethod()))) { // DB method doesn't require delete
 					IAttachmentStore oldStore = oldProvider.getAttachmentStore();
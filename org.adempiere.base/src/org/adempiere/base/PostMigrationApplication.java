@@ -13,13 +13,16 @@
  *****************************************************************************/
 package org.adempiere.base;
 
+import java.io.IOException;
 import java.util.logging.Level;
 
 import org.adempiere.util.ProcessUtil;
 import org.compiere.Adempiere;
+import org.compiere.model.DictionarySnapshot;
 import org.compiere.model.SystemIDs;
 import org.compiere.process.ProcessInfo;
 import org.compiere.util.CLogMgt;
+import org.compiere.util.CLogger;
 import org.compiere.util.Env;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
@@ -40,10 +43,19 @@ public class PostMigrationApplication implements IApplication {
 		addMissingTranslation();
 		roleAccessUpdate();
 		checkSequence();
+		buildDictionarySnapshot();
 		
 		return IApplication.EXIT_OK;
 	}
 
+	private void buildDictionarySnapshot() {
+		try {
+			DictionarySnapshot.build();
+		} catch (IOException e) {
+			CLogger.getCLogger(getClass()).log(Level.SEVERE, "Dictionary snapshot not built", e);
+		}
+	}
+
 	private void checkSequence() {
 		ProcessInfo pi = new ProcessInfo("Sequence Check", 258);
 		pi.setAD_Client_ID(0);
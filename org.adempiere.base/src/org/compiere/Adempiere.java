@@ -31,7 +31,10 @@ import javax.swing.event.EventListenerList;
 
 import org.adempiere.base.Core;
 import org.compiere.db.CConnection;
+import org.compiere.model.ChangeLogSpool;
+import org.compiere.model.DictionarySnapshot;
 import org.compiere.model.MClient;
+import org.compiere.model.MSequence;
 import org.compiere.model.MSysConfig;
 import org.compiere.model.MSystem;
 import org.compiere.model.ModelValidationEngine;
@@ -680,7 +683,13 @@ public final class Adempiere
 		}
 		
 		if (!isClient)
+		{
 			DB.updateMail();
+			//	insert change log left in the spool
+			ChangeLogSpool.start();
+			//	dictionary snapshot built by post migration
+			DictionarySnapshot.open();
+		}
 				
 		return true;
 	}	//	startupEnvironment
@@ -690,6 +699,7 @@ public final class Adempiere
 	}
 	
 	public static synchronized void stop() {
+		MSequence.logUnusedDocumentNos();
 		if (threadPoolExecutor != null) {
 			threadPoolExecutor.shutdown();
 			threadPoolExecutor = null;
@@ -46,6 +46,7 @@ import org.compiere.model.MMatchPO;
 import org.compiere.model.MNote;
 import org.compiere.model.MPeriod;
 import org.compiere.model.MRefList;
+import org.compiere.model.MReportCube;
 import org.compiere.model.ModelValidationEngine;
 import org.compiere.model.ModelValidator;
 import org.compiere.model.PO;
@@ -703,6 +704,9 @@ public abstract class Doc
 	 */
 	protected int deleteAcct()
 	{
+		//	remove from the summary of report cubes
+		MReportCube.updateSummary(m_as.getAD_Client_ID(), "f.AD_Table_ID=? AND f.Record_ID=? AND f.C_AcctSchema_ID=?",
+			new Object[] {get_Table_ID(), p_po.get_ID(), m_as.getC_AcctSchema_ID()}, true, getTrxName());
 		StringBuilder sql = new StringBuilder ("DELETE FROM Fact_Acct WHERE AD_Table_ID=")
 			.append(get_Table_ID())
 			.append(" AND Record_ID=").append(p_po.get_ID())
@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.logging.Level;
 
+import org.adempiere.exceptions.AdempiereException;
 import org.compiere.model.MAccount;
 import org.compiere.model.MAcctSchema;
 import org.compiere.model.MAcctSchemaElement;
@@ -30,6 +31,8 @@ import org.compiere.model.MDistribution;
 import org.compiere.model.MDistributionLine;
 import org.compiere.model.MElementValue;
 import org.compiere.model.MFactAcct;
+import org.compiere.model.MReportCube;
+import org.compiere.model.PO;
 import org.compiere.util.CLogger;
 import org.compiere.util.Env;
 
@@ -864,12 +867,29 @@ public final class Fact
 	public boolean save (String trxName)
 	{
 		m_trxName = trxName;
-		//  save Lines
-		for (int i = 0; i < m_lines.size(); i++)
+		//  save Lines with batch insert, abort on first error
+		try
 		{
-			FactLine fl = (FactLine)m_lines.get(i);
-			if (!fl.save(trxName))  //  abort on first error
-				return false;
+			PO.saveAllEx(m_lines, trxName);
+			//	add lines to the summary of report cubes
+			for (int from = 0; from < m_lines.size(); from += 1000)
+			{
+				int to = Math.min(from + 1000, m_lines.size());
+				StringBuilder where = new StringBuilder("f.Fact_Acct_ID IN (");
+				for (int i = from; i < to; i++)
+				{
+					if (i > from)
+						where.append(",");
+					where.append(m_lines.get(i).getFact_Acct_ID());
+				}
+				where.append(")");
+				MReportCube.updateSummary(m_lines.get(0).getAD_Client_ID(), where.toString(), new Object[0], false, trxName);
+			}
+		}
+		catch (AdempiereException e)
+		{
+			log.log(Level.SEVERE, "Save failed - " + e.getLocalizedMessage(), e);
+			return false;
 		}
 		return true;
 	}   //  commit
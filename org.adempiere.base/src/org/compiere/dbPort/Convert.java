@@ -32,7 +32,6 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Vector;
 import java.util.logging.Level;
@@ -70,6 +69,14 @@ public abstract class Convert
 	/** RegEx: insensitive and dot to include line end characters   */
 	public static final int         REGEX_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.DOTALL;
 
+	/** RegEx: white space to clean up */
+	private static final Pattern    WHITESPACE_PATTERN = Pattern.compile("\\s+");
+	/** RegEx: quoted string */
+	private static final Pattern    QUOTED_STRING_PATTERN = Pattern.compile("'[[^']*]*'");
+
+	/** Compiled ConvertMap             */
+	private volatile ConvertMapTranslator m_convertMapTranslator = null;
+
 	/** Statement used                  */
 	protected Statement               m_stmt = null;
 
@@ -287,7 +294,7 @@ public abstract class Convert
 		String clean = statement.trim();
 
 		// Convert cr/lf/tab to single space
-		Matcher m = Pattern.compile("\\s+").matcher(clean);
+		Matcher m = WHITESPACE_PATTERN.matcher(clean);
 		clean = m.replaceAll(" ");
 
 		clean = clean.trim();
@@ -311,8 +318,7 @@ public abstract class Convert
 		final String quoteMarker = "<--QUOTE"+nonce+"-->";
 		inputValue = inputValue.replace("''", quoteMarker);
 		
-		Pattern p = Pattern.compile("'[[^']*]*'");
-		Matcher m = p.matcher(inputValue);
+		Matcher m = QUOTED_STRING_PATTERN.matcher(inputValue);
 		int i = 0;
 		StringBuilder retValue = new StringBuilder(inputValue.length());
 		while (m.find()) {
@@ -374,33 +380,32 @@ public abstract class Convert
 		
 		String retValue = sqlStatement;
 
-		Pattern p;
-		Matcher m;
-
 		// for each iteration in the conversion map
 		Map<String,String> convertMap = getConvertMap();
 		if (convertMap != null) {
-			Iterator<?> iter = convertMap.keySet().iterator();
-			while (iter.hasNext()) {
-	
-			    // replace the key on convertmap (i.e.: number by numeric)   
-				String regex = (String) iter.next();
-				String replacement = (String) convertMap.get(regex);
-				try {
-					p = Pattern.compile(regex, REGEX_FLAGS);
-					m = p.matcher(retValue);
-					retValue = m.replaceAll(replacement);
-	
-				} catch (Exception e) {
-					String error = "Error expression: " + regex + " - " + e;
-					log.warning(error);
-					m_conversionError = error;
-				}
-			}
+		    // replace the key on convertmap (i.e.: number by numeric)   
+			retValue = getConvertMapTranslator(convertMap).translate(retValue, error -> {
+				log.warning(error);
+				m_conversionError = error;
+			});
 		}
 		return retValue;
 	} // convertSimpleStatement
 	
+	/**
+	 * Get compiled ConvertMap, compile again if convert map has changed
+	 * @param convertMap
+	 * @return convert map translator
+	 */
+	private ConvertMapTranslator getConvertMapTranslator(Map<String,String> convertMap) {
+		ConvertMapTranslator translator = m_convertMapTranslator;
+		if (translator == null || translator.getConvertMap() != convertMap || translator.getSize() != convertMap.size()) {
+			translator = new ConvertMapTranslator(convertMap, REGEX_FLAGS);
+			m_convertMapTranslator = translator;
+		}
+		return translator;
+	}
+
 	/**
 	 * do convert map base conversion
 	 * @param sqlStatement
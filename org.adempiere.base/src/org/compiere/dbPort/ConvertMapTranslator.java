@@ -0,0 +1,493 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.dbPort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of a convert map (regular expression to replacement).<br/>
+ * The result is the same as applying each entry of the map in iteration order with
+ * {@link Matcher#replaceAll(String)}, but:
+ * <ul>
+ * <li>patterns are compiled once</li>
+ * <li>a regular expression is skipped when the statement doesn't contain its literal text</li>
+ * <li>consecutive whole word entries (for e.g. \bNUMBER\b) are applied together in one scan of the statement</li>
+ * </ul>
+ */
+public final class ConvertMapTranslator
+{
+	/** Whole word regular expression with a plain replacement */
+	private static final Pattern WORD_RULE = Pattern.compile("\\\\b([A-Za-z0-9_]+)\\\\b");
+
+	/** flags that change the meaning of a plain ASCII expression */
+	private static final int UNSUPPORTED_FLAGS = Pattern.LITERAL | Pattern.COMMENTS | Pattern.UNICODE_CASE | Pattern.UNICODE_CHARACTER_CLASS;
+
+	/** true if regular expression word boundary is only between ASCII word and non word characters */
+	private static final boolean ASCII_WORD_BOUNDARY = Pattern.compile("\\bA").matcher("\u00e9A").find();
+
+	private final Map<String, String> convertMap;
+	private final int flags;
+	/** size of convert map when compiled */
+	private final int size;
+	/** rules in convert map order */
+	private final Rule[] rules;
+	/** upper case word to index of rule */
+	private final Map<String, Integer> words = new HashMap<String, Integer>();
+	/** length of longest word */
+	private int maxWordLength = 0;
+
+	/**
+	 * @param convertMap regular expression to replacement, applied in iteration order
+	 * @param flags regular expression flags
+	 */
+	public ConvertMapTranslator(Map<String, String> convertMap, int flags)
+	{
+		this.convertMap = convertMap;
+		this.flags = flags;
+		this.size = convertMap.size();
+		List<Rule> list = new ArrayList<Rule>(convertMap.size());
+		for (Map.Entry<String, String> entry : convertMap.entrySet())
+		{
+			String regex = entry.getKey();
+			String replacement = entry.getValue();
+			Matcher m = WORD_RULE.matcher(regex);
+			if (isSupported(flags) && m.matches() && replacement != null
+				&& replacement.indexOf('$') < 0 && replacement.indexOf('\\') < 0)
+			{
+				String word = toUpperCaseASCII(m.group(1));
+				Integer index = Integer.valueOf(list.size());
+				//an earlier entry for the same word has already replaced all occurrences
+				if (words.putIfAbsent(word, index) == null)
+				{
+					list.add(new Rule(regex, replacement, word));
+					maxWordLength = Math.max(maxWordLength, word.length());
+				}
+			}
+			else
+			{
+				list.add(new Rule(regex, replacement, flags));
+			}
+		}
+		rules = list.toArray(new Rule[0]);
+
+		for (int i = 0; i < rules.length; i++)
+		{
+			if (rules[i].word == null)
+			{
+				//literal check before replacing pending words
+				for (int j = 0; j < i && rules[i].literals != null && !rules[i].sensitive; j++)
+				{
+					if (rules[j].word == null)
+						continue;
+					for (String literal : rules[i].literals)
+					{
+						if (canCreate(literal, toUpperCaseASCII(rules[j].replacement)))
+							rules[i].sensitive = true;
+					}
+				}
+				continue;
+			}
+			//the replacement of a word must not be replaced again by a later word in the same scan
+			String replacement = rules[i].replacement;
+			int start = -1;
+			for (int p = 0; p <= replacement.length(); p++)
+			{
+				boolean wordChar = p < replacement.length() && isWordChar(replacement.charAt(p));
+				if (wordChar && start < 0)
+					start = p;
+				else if (!wordChar && start >= 0)
+				{
+					Integer j = words.get(toUpperCaseASCII(replacement.substring(start, p)));
+					if (j != null && j.intValue() > i)
+						rules[j.intValue()].scanBreak = true;
+					start = -1;
+				}
+			}
+		}
+	}	//	ConvertMapTranslator
+
+	/**
+	 * @return convert map
+	 */
+	public Map<String, String> getConvertMap()
+	{
+		return convertMap;
+	}
+
+	/**
+	 * @return number of convert map entries when compiled
+	 */
+	public int getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * @return regular expression flags
+	 */
+	public int getFlags()
+	{
+		return flags;
+	}
+
+	/**
+	 * Apply convert map to statement
+	 * @param statement
+	 * @param errorHandler receive error message of an entry that can't be applied
+	 * @return converted statement
+	 */
+	public String translate(String statement, Consumer<String> errorHandler)
+	{
+		String retValue = statement;
+		String upper = toUpperCaseASCII(retValue);
+		int scanStart = -1;
+		for (int i = 0; i < rules.length; i++)
+		{
+			Rule rule = rules[i];
+			if (rule.word != null)
+			{
+				if (rule.scanBreak && scanStart >= 0)
+				{
+					retValue = replaceWords(retValue, upper, scanStart, i);
+					upper = toUpperCaseASCII(retValue);
+					scanStart = -1;
+				}
+				if (scanStart < 0)
+					scanStart = i;
+				continue;
+			}
+			if (rule.pattern == null)
+			{
+				errorHandler.accept(rule.error);
+				continue;
+			}
+			//pending words can't create the literal text of an insensitive rule
+			if (scanStart >= 0 && rule.sensitive)
+			{
+				retValue = replaceWords(retValue, upper, scanStart, i);
+				upper = toUpperCaseASCII(retValue);
+				scanStart = -1;
+			}
+			if (!rule.isCandidate(upper))
+				continue;
+			String before = retValue;
+			if (scanStart >= 0)
+			{
+				retValue = replaceWords(retValue, upper, scanStart, i);
+				scanStart = -1;
+			}
+			try
+			{
+				retValue = rule.pattern.matcher(retValue).replaceAll(rule.replacement);
+			}
+			catch (Exception e)
+			{
+				errorHandler.accept("Error expression: " + rule.regex + " - " + e);
+			}
+			if (retValue != before)
+				upper = toUpperCaseASCII(retValue);
+		}
+		if (scanStart >= 0)
+			retValue = replaceWords(retValue, upper, scanStart, rules.length);
+		return retValue;
+	}	//	translate
+
+	/**
+	 * Replace words of rules[from] to rules[to-1] in one scan
+	 * @param statement
+	 * @param upper statement with ASCII letters in upper case
+	 * @param from
+	 * @param to
+	 * @return converted statement
+	 */
+	private String replaceWords(String statement, String upper, int from, int to)
+	{
+		StringBuilder retValue = null;
+		int copied = 0;
+		int length = statement.length();
+		int p = 0;
+		while (p < length)
+		{
+			if (!isWordChar(statement.charAt(p)))
+			{
+				p++;
+				continue;
+			}
+			int start = p;
+			while (p < length && isWordChar(statement.charAt(p)))
+				p++;
+			if (p - start > maxWordLength)
+				continue;
+			Integer index = words.get(upper.substring(start, p));
+			if (index == null || index.intValue() < from || index.intValue() >= to)
+				continue;
+			if (retValue == null)
+				retValue = new StringBuilder(length + 16);
+			retValue.append(statement, copied, start).append(rules[index.intValue()].replacement);
+			copied = p;
+		}
+		if (retValue == null)
+			return statement;
+		retValue.append(statement, copied, length);
+		return retValue.toString();
+	}	//	replaceWords
+
+	/**
+	 * @param flags regular expression flags
+	 * @return true if expressions can be matched with ASCII case insensitive comparison
+	 */
+	private static boolean isSupported(int flags)
+	{
+		return (flags & Pattern.CASE_INSENSITIVE) != 0 && (flags & UNSUPPORTED_FLAGS) == 0;
+	}
+
+	/**
+	 * @param c
+	 * @return true if c is a word character for regular expression word boundary
+	 */
+	private static boolean isWordChar(char c)
+	{
+		if (isASCIIWordChar(c))
+			return true;
+		return c > 127 && !ASCII_WORD_BOUNDARY
+			&& (Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK);
+	}
+
+	/**
+	 * @param c
+	 * @return true if c is an ASCII letter, digit or underscore
+	 */
+	private static boolean isASCIIWordChar(char c)
+	{
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	/**
+	 * @param s
+	 * @return s with ASCII letters in upper case, other characters unchanged
+	 */
+	private static String toUpperCaseASCII(String s)
+	{
+		char[] chars = null;
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			if (c >= 'a' && c <= 'z')
+			{
+				if (chars == null)
+					chars = s.toCharArray();
+				chars[i] = (char) (c - 32);
+			}
+		}
+		return chars != null ? new String(chars) : s;
+	}
+
+	/**
+	 * Text that must be part of every match of a regular expression.<br/>
+	 * Only text outside of groups and character classes is used, the last character is dropped when it has a quantifier.
+	 * @param regex
+	 * @return upper case literal texts, null if not known
+	 */
+	private static List<String> getLiterals(String regex)
+	{
+		if (regex.indexOf('|') >= 0 || regex.contains("(?") || regex.contains("\\Q"))
+			return null;
+		List<String> literals = new ArrayList<String>();
+		StringBuilder run = new StringBuilder();
+		int groupDepth = 0;
+		int classDepth = 0;
+		int p = 0;
+		while (p < regex.length())
+		{
+			char c = regex.charAt(p);
+			if (c == '\\')
+			{
+				addLiteral(literals, run);
+				p += 2;
+			}
+			else if (classDepth > 0)
+			{
+				if (c == '[')
+					classDepth++;
+				else if (c == ']')
+					classDepth--;
+				p++;
+			}
+			else if (c == '[')
+			{
+				addLiteral(literals, run);
+				classDepth++;
+				p++;
+			}
+			else if (c == '(' || c == ')')
+			{
+				addLiteral(literals, run);
+				groupDepth += c == '(' ? 1 : -1;
+				p++;
+			}
+			else if (c == '?' || c == '*' || c == '+' || c == '{')
+			{
+				//last character is optional or repeated
+				if (run.length() > 0)
+					run.setLength(run.length() - 1);
+				addLiteral(literals, run);
+				if (c == '{')
+				{
+					int end = regex.indexOf('}', p);
+					p = end > p ? end + 1 : regex.length();
+				}
+				else
+				{
+					p++;
+				}
+			}
+			else if (groupDepth == 0 && (isASCIIWordChar(c) || c == ' '))
+			{
+				run.append(c);
+				p++;
+			}
+			else
+			{
+				addLiteral(literals, run);
+				p++;
+			}
+		}
+		addLiteral(literals, run);
+		return literals.isEmpty() ? null : literals;
+	}	//	getLiterals
+
+	/**
+	 * Add run to literals if it has a letter or digit, clear run
+	 * @param literals
+	 * @param run
+	 */
+	private static void addLiteral(List<String> literals, StringBuilder run)
+	{
+		if (run.toString().trim().length() > 0)
+			literals.add(toUpperCaseASCII(run.toString()));
+		run.setLength(0);
+	}
+
+	/**
+	 * @param literal upper case literal text of a regular expression
+	 * @param replacement upper case replacement of a word
+	 * @return true if replacing a word with replacement can create literal
+	 */
+	private static boolean canCreate(String literal, String replacement)
+	{
+		if (replacement.length() == 0)
+			return literal.contains("  ");
+		if (literal.contains(replacement) || replacement.contains(literal))
+			return true;
+		//text next to a word is not a word character, i.e. space in literal
+		for (int k = 1; k < literal.length() && k < replacement.length(); k++)
+		{
+			if (literal.charAt(k) == ' ' && replacement.endsWith(literal.substring(0, k)))
+				return true;
+			if (literal.charAt(literal.length() - k - 1) == ' ' && replacement.startsWith(literal.substring(literal.length() - k)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Entry of convert map
+	 */
+	private static final class Rule
+	{
+		private final String regex;
+		private final String replacement;
+		/** upper case word of whole word rule */
+		private final String word;
+		private final Pattern pattern;
+		private final String error;
+		/** upper case texts every match contains, null if not known */
+		private final List<String> literals;
+		/** true if first literal is after \b */
+		private final boolean wordStart;
+		/** true if words before this rule must be replaced before this word */
+		private boolean scanBreak = false;
+		/** true if replacement of an earlier word can create a literal */
+		private boolean sensitive = false;
+
+		private Rule(String regex, String replacement, String word)
+		{
+			this.regex = regex;
+			this.replacement = replacement;
+			this.word = word;
+			this.pattern = null;
+			this.error = null;
+			this.literals = null;
+			this.wordStart = false;
+		}
+
+		private Rule(String regex, String replacement, int flags)
+		{
+			this.regex = regex;
+			this.replacement = replacement;
+			this.word = null;
+			Pattern pattern = null;
+			String error = null;
+			try
+			{
+				pattern = Pattern.compile(regex, flags);
+			}
+			catch (Exception e)
+			{
+				error = "Error expression: " + regex + " - " + e;
+			}
+			this.pattern = pattern;
+			this.error = error;
+			this.literals = isSupported(flags) ? getLiterals(regex) : null;
+			this.wordStart = literals != null && regex.startsWith("\\b") && regex.length() > 2 && isASCIIWordChar(regex.charAt(2));
+		}
+
+		/**
+		 * @param upper statement with ASCII letters in upper case
+		 * @return false if regular expression can't match statement
+		 */
+		private boolean isCandidate(String upper)
+		{
+			if (literals == null)
+				return true;
+			for (int i = 0; i < literals.size(); i++)
+			{
+				String literal = literals.get(i);
+				int index = upper.indexOf(literal);
+				if (i == 0 && wordStart)
+				{
+					while (index > 0 && isASCIIWordChar(upper.charAt(index - 1)))
+						index = upper.indexOf(literal, index + 1);
+				}
+				if (index < 0)
+					return false;
+			}
+			return true;
+		}
+	}	//	Rule
+}	//	ConvertMapTranslator
@@ -0,0 +1,74 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.model;
+
+import java.util.Properties;
+
+import org.compiere.util.Trx;
+
+/**
+ * Lazy data source of an attachment entry stored in AD_AttachmentData by {@link AttachmentDBEntrySystem}
+ */
+public class AttachmentDBEntryLazyDataSource implements IAttachmentLazyDataSource {
+
+	private final Properties m_ctx;
+	private final int m_AD_AttachmentData_ID;
+	private final int m_AD_Client_ID;
+	private final String m_trxName;
+
+	/**
+	 * @param ctx
+	 * @param AD_AttachmentData_ID
+	 * @param AD_Client_ID
+	 * @param trxName transaction of the attachment
+	 */
+	public AttachmentDBEntryLazyDataSource(Properties ctx, int AD_AttachmentData_ID, int AD_Client_ID, String trxName) {
+		m_ctx = ctx;
+		m_AD_AttachmentData_ID = AD_AttachmentData_ID;
+		m_AD_Client_ID = AD_Client_ID;
+		m_trxName = trxName;
+	}
+
+	@Override
+	public byte[] getData() {
+		//	entries are often read after the transaction that loaded the attachment is closed
+		String trxName = m_trxName != null && Trx.get(m_trxName, false) != null ? m_trxName : null;
+		X_AD_AttachmentData data = new X_AD_AttachmentData(m_ctx, m_AD_AttachmentData_ID, trxName);
+		if (data.get_ID() != m_AD_AttachmentData_ID)
+			return null;
+		return data.getBinaryData();
+	}
+
+	/**
+	 * @return AD_AttachmentData_ID
+	 */
+	public int getAD_AttachmentData_ID() {
+		return m_AD_AttachmentData_ID;
+	}
+
+	/**
+	 * @return AD_Client_ID of the data record
+	 */
+	public int getAD_Client_ID() {
+		return m_AD_Client_ID;
+	}
+}
@@ -0,0 +1,259 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+
+import org.compiere.util.CLogger;
+import org.compiere.util.DB;
+import org.compiere.util.Secure;
+
+/**
+ * Attachment store keeping every entry in its own AD_AttachmentData record.<br/>
+ * AD_Attachment.BinaryData holds a small manifest (data record and name of each entry), saving an attachment
+ * only stores the added or changed entries and a data record is read when its entry is accessed.
+ * Entries of a tenant with the same content share one data record, the record is deleted with its last reference.
+ * Attachments saved by {@link AttachmentDBSystem} are read as before and converted on the next save.
+ */
+public class AttachmentDBEntrySystem implements IAttachmentStore {
+
+	private static final CLogger log = CLogger.getCLogger(AttachmentDBEntrySystem.class);
+
+	private static final int MANIFEST_VERSION = 1;
+
+	/** Store of attachments not converted yet */
+	private final AttachmentDBSystem legacyStore = new AttachmentDBSystem();
+
+	@Override
+	public boolean loadLOBData(MAttachment attach, MStorageProvider prov) {
+		if (!MAttachment.MANIFEST.equals(attach.getTitle()))
+			return legacyStore.loadLOBData(attach, prov);
+
+		attach.m_items = new ArrayList<MAttachmentEntry>();
+		byte[] data = attach.getBinaryData();
+		if (data == null || data.length == 0)
+			return true;
+		try {
+			readManifest(data, (AD_AttachmentData_ID, name) -> attach.m_items.add(new MAttachmentEntry(name, attach.m_items.size()+1,
+					new AttachmentDBEntryLazyDataSource(attach.getCtx(), AD_AttachmentData_ID, attach.getAD_Client_ID(), attach.get_TrxName()))));
+		} catch (IOException e) {
+			log.log(Level.SEVERE, "loadLOBData", e);
+			attach.m_items = null;
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean save(MAttachment attach, MStorageProvider prov) {
+		//	reference changes by AD_AttachmentData_ID
+		Map<Integer, Integer> changes = new TreeMap<Integer, Integer>();
+		for (int AD_AttachmentData_ID : getSavedReferences(attach))
+			changes.merge(AD_AttachmentData_ID, -1, Integer::sum);
+
+		try {
+			byte[] manifest = null;
+			if (attach.m_items != null && attach.m_items.size() > 0) {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(bos);
+				out.writeInt(MANIFEST_VERSION);
+				out.writeInt(attach.m_items.size());
+				for (MAttachmentEntry item : attach.m_items) {
+					int AD_AttachmentData_ID = getDataID(attach, item);
+					if (AD_AttachmentData_ID > 0) {
+						//	unchanged entry, only the reference of the manifest
+						changes.merge(AD_AttachmentData_ID, 1, Integer::sum);
+					} else {
+						AD_AttachmentData_ID = store(attach, item.getData());
+						item.setLazyDataSource(new AttachmentDBEntryLazyDataSource(attach.getCtx(), AD_AttachmentData_ID,
+								attach.getAD_Client_ID(), attach.get_TrxName()));
+						item.setUpdated(false);
+					}
+					out.writeInt(AD_AttachmentData_ID);
+					out.writeUTF(item.getName());
+				}
+				out.flush();
+				manifest = bos.toByteArray();
+			}
+			for (Map.Entry<Integer, Integer> change : changes.entrySet())
+				updateRefCount(change.getKey(), change.getValue(), attach.get_TrxName());
+
+			attach.setBinaryData(manifest);
+			attach.setTitle(MAttachment.MANIFEST);
+			return true;
+		} catch (Exception e) {
+			log.log(Level.SEVERE, "saveLOBData", e);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean delete(MAttachment attach, MStorageProvider prov) {
+		List<Integer> references = getSavedReferences(attach);
+		//	attachment migrated to another provider, the manifest is replaced but the entries are still loaded
+		if (references.isEmpty() && attach.m_items != null) {
+			for (MAttachmentEntry item : attach.m_items) {
+				if (item.getLazyDataSource() instanceof AttachmentDBEntryLazyDataSource)
+					references.add(((AttachmentDBEntryLazyDataSource) item.getLazyDataSource()).getAD_AttachmentData_ID());
+			}
+		}
+		Map<Integer, Integer> changes = new TreeMap<Integer, Integer>();
+		for (int AD_AttachmentData_ID : references)
+			changes.merge(AD_AttachmentData_ID, -1, Integer::sum);
+		try {
+			for (Map.Entry<Integer, Integer> change : changes.entrySet())
+				updateRefCount(change.getKey(), change.getValue(), attach.get_TrxName());
+		} catch (Exception e) {
+			log.log(Level.SEVERE, "delete", e);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean deleteEntry(MAttachment attach, MStorageProvider provider, int index) {
+		//	the reference is released when the attachment is saved
+		attach.m_items.remove(index);
+		return true;
+	}
+
+	/**
+	 * @param attach
+	 * @param item
+	 * @return AD_AttachmentData_ID of an unchanged entry of the tenant or 0
+	 */
+	private int getDataID(MAttachment attach, MAttachmentEntry item) {
+		if (item.isUpdated() || !(item.getLazyDataSource() instanceof AttachmentDBEntryLazyDataSource))
+			return 0;
+		AttachmentDBEntryLazyDataSource ds = (AttachmentDBEntryLazyDataSource) item.getLazyDataSource();
+		return ds.getAD_Client_ID() == attach.getAD_Client_ID() ? ds.getAD_AttachmentData_ID() : 0;
+	}
+
+	/**
+	 * Add a reference to the data record with the content, create the record if the tenant doesn't have it
+	 * @param attach
+	 * @param data
+	 * @return AD_AttachmentData_ID
+	 */
+	private int store(MAttachment attach, byte[] data) {
+		if (data == null)
+			data = new byte[0];
+		String hash = getContentHash(data);
+		String trxName = attach.get_TrxName();
+		int AD_AttachmentData_ID = DB.getSQLValueEx(trxName,
+				"SELECT MIN(AD_AttachmentData_ID) FROM AD_AttachmentData WHERE AD_Client_ID=? AND ContentHash=? AND RefCount>0",
+				attach.getAD_Client_ID(), hash);
+		//	the record can be released by another transaction in between
+		if (AD_AttachmentData_ID > 0 && DB.executeUpdateEx("UPDATE AD_AttachmentData SET RefCount=RefCount+1, Updated=getDate() "
+				+ "WHERE AD_AttachmentData_ID=? AND RefCount>0", new Object[] {AD_AttachmentData_ID}, trxName) == 1)
+			return AD_AttachmentData_ID;
+
+		X_AD_AttachmentData record = new X_AD_AttachmentData(attach.getCtx(), 0, trxName);
+		record.setClientOrg(attach.getAD_Client_ID(), 0);
+		record.setContentHash(hash);
+		record.setBinaryData(data);
+		record.setRefCount(1);
+		record.saveEx();
+		return record.getAD_AttachmentData_ID();
+	}
+
+	/**
+	 * Change the reference count of a data record, delete the record without references
+	 * @param AD_AttachmentData_ID
+	 * @param change
+	 * @param trxName
+	 */
+	private void updateRefCount(int AD_AttachmentData_ID, int change, String trxName) {
+		if (change == 0)
+			return;
+		DB.executeUpdateEx("UPDATE AD_AttachmentData SET RefCount=RefCount+?, Updated=getDate() WHERE AD_AttachmentData_ID=?",
+				new Object[] {change, AD_AttachmentData_ID}, trxName);
+		if (change < 0)
+			DB.executeUpdateEx("DELETE FROM AD_AttachmentData WHERE AD_AttachmentData_ID=? AND RefCount<=0",
+					new Object[] {AD_AttachmentData_ID}, trxName);
+	}
+
+	/**
+	 * @param attach
+	 * @return AD_AttachmentData_ID of the entries in the saved manifest
+	 */
+	private List<Integer> getSavedReferences(MAttachment attach) {
+		List<Integer> references = new ArrayList<Integer>();
+		if (attach.is_new() || !MAttachment.MANIFEST.equals(attach.get_ValueOld(MAttachment.COLUMNNAME_Title)))
+			return references;
+		byte[] data = (byte[]) attach.get_ValueOld(MAttachment.COLUMNNAME_BinaryData);
+		if (data == null || data.length == 0)
+			return references;
+		try {
+			readManifest(data, (AD_AttachmentData_ID, name) -> references.add(AD_AttachmentData_ID));
+		} catch (IOException e) {
+			log.log(Level.SEVERE, "Invalid manifest of " + attach, e);
+		}
+		return references;
+	}
+
+	/**
+	 * @param data
+	 * @param consumer
+	 * @throws IOException
+	 */
+	private static void readManifest(byte[] data, ManifestConsumer consumer) throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			int version = in.readInt();
+			if (version != MANIFEST_VERSION)
+				throw new IOException("Unknown manifest version " + version);
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				int AD_AttachmentData_ID = in.readInt();
+				consumer.accept(AD_AttachmentData_ID, in.readUTF());
+			}
+		}
+	}
+
+	/**
+	 * @param data
+	 * @return SHA-256 of data as hex string
+	 */
+	private static String getContentHash(byte[] data) {
+		try {
+			return Secure.convertToHexString(MessageDigest.getInstance("SHA-256").digest(data));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface ManifestConsumer {
+		void accept(int AD_AttachmentData_ID, String name);
+	}
+}
@@ -0,0 +1,185 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.model;
+
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import org.compiere.util.CLogger;
+import org.compiere.util.Trx;
+import org.compiere.util.TrxEventListener;
+
+/**
+ * Change log entries of a transaction, inserted with one batch statement before the transaction is committed.<br/>
+ * Entries of a save rolled back to its savepoint are discarded. Entries of tables in {@link MSysConfig#CHANGELOG_ASYNC_TABLES}
+ * are written to the {@link ChangeLogSpool} after the commit instead.
+ */
+final class ChangeLogBatch implements TrxEventListener {
+
+	/** Batch by transaction name */
+	private static final ConcurrentHashMap<String, ChangeLogBatch> s_batches = new ConcurrentHashMap<String, ChangeLogBatch>();
+
+	private static final CLogger s_log = CLogger.getCLogger(ChangeLogBatch.class);
+
+	private final String trxName;
+	private List<MChangeLog> entries = new ArrayList<MChangeLog>();
+	/** Number of entries when savepoint was created, by savepoint in creation order */
+	private final Map<Savepoint, Integer> marks = new LinkedHashMap<Savepoint, Integer>();
+	/** true while entries are inserted, savepoints of the insert are not tracked */
+	private boolean flushing = false;
+
+	private ChangeLogBatch(String trxName) {
+		this.trxName = trxName;
+	}
+
+	/**
+	 * Add change log to the batch of its transaction
+	 * @param trx
+	 * @param changeLog
+	 */
+	static void add(Trx trx, MChangeLog changeLog) {
+		ChangeLogBatch batch = s_batches.computeIfAbsent(trx.getTrxName(), name -> {
+			ChangeLogBatch b = new ChangeLogBatch(name);
+			trx.addTrxEventListener(b);
+			return b;
+		});
+		batch.add(changeLog);
+	}
+
+	private synchronized void add(MChangeLog changeLog) {
+		entries.add(changeLog);
+	}
+
+	@Override
+	public synchronized void afterSetSavepoint(Trx trx, Savepoint savepoint) {
+		if (!flushing)
+			marks.put(savepoint, entries.size());
+	}
+
+	@Override
+	public synchronized void afterReleaseSavepoint(Trx trx, Savepoint savepoint) {
+		if (flushing || marks.remove(savepoint) == null)
+			return;
+		//	no save can be rolled back anymore, don't keep large batches in memory
+		if (marks.isEmpty() && entries.size() >= PO.SAVE_BATCH_SIZE)
+			flush(trx);
+	}
+
+	@Override
+	public synchronized void afterRollbackToSavepoint(Trx trx, Savepoint savepoint) {
+		if (flushing)
+			return;
+		Integer mark = marks.get(savepoint);
+		if (mark == null) {
+			//	savepoint created before the first entry
+			entries.clear();
+			marks.clear();
+			return;
+		}
+		entries.subList(mark.intValue(), entries.size()).clear();
+		//	savepoints created after the savepoint are invalid
+		boolean after = false;
+		for (Iterator<Savepoint> it = marks.keySet().iterator(); it.hasNext(); ) {
+			Savepoint sp = it.next();
+			if (after)
+				it.remove();
+			else if (sp == savepoint)
+				after = true;
+		}
+	}
+
+	@Override
+	public synchronized void beforeCommit(Trx trx) {
+		flush(trx);
+	}
+
+	@Override
+	public void afterCommit(Trx trx, boolean success) {
+		List<MChangeLog> async;
+		synchronized (this) {
+			async = entries;
+			entries = new ArrayList<MChangeLog>();
+			marks.clear();
+		}
+		remove(trx);
+		if (success && !async.isEmpty())
+			ChangeLogSpool.write(async);
+	}
+
+	@Override
+	public void afterRollback(Trx trx, boolean success) {
+		synchronized (this) {
+			entries.clear();
+			marks.clear();
+		}
+		remove(trx);
+	}
+
+	@Override
+	public void afterClose(Trx trx) {
+		remove(trx);
+	}
+
+	private void remove(Trx trx) {
+		trx.removeTrxEventListener(this);
+		s_batches.remove(trxName, this);
+	}
+
+	/**
+	 * Insert entries of tables not logged asynchronously
+	 * @param trx
+	 */
+	private void flush(Trx trx) {
+		List<MChangeLog> insert = new ArrayList<MChangeLog>(entries.size());
+		List<MChangeLog> async = new ArrayList<MChangeLog>();
+		for (MChangeLog cl : entries) {
+			if (ChangeLogSpool.isAsync(cl.getAD_Table_ID()))
+				async.add(cl);
+			else
+				insert.add(cl);
+		}
+		entries = async;
+		if (insert.isEmpty())
+			return;
+
+		flushing = true;
+		//	flush can run inside the save of the caller, keep its cross tenant flag
+		boolean crossTenantSafe = PO.isCrossTenantSafe();
+		try {
+			PO.setCrossTenantSafe();
+			PO.saveAllEx(insert, trx.getTrxName());
+		} catch (Exception e) {
+			//	change log doesn't fail the transaction, same as the single insert
+			s_log.log(Level.SEVERE, trx.getTrxName() + " #" + insert.size(), e);
+		} finally {
+			if (!crossTenantSafe)
+				PO.clearCrossTenantSafe();
+			flushing = false;
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.compiere.Adempiere;
+import org.compiere.util.CLogger;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.Ini;
+import org.compiere.util.Util;
+
+/**
+ * Local spool of change log entries of tables logged asynchronously ({@link MSysConfig#CHANGELOG_ASYNC_TABLES}).<br/>
+ * The entries of a committed transaction are written to a spool file in the changelog folder of iDempiere home,
+ * the file is synced to disk before it is renamed to *.spool. A background task inserts the spooled entries
+ * and deletes the file, files left by a stopped server are inserted after the next start.
+ */
+public final class ChangeLogSpool {
+
+	private static final CLogger s_log = CLogger.getCLogger(ChangeLogSpool.class);
+
+	private static final String SPOOL_SUFFIX = ".spool";
+	private static final int FILE_VERSION = 1;
+	/** Delay between spool scans in seconds */
+	private static final int DRAIN_DELAY = 5;
+
+	private static final AtomicLong s_sequence = new AtomicLong();
+
+	private static volatile String s_asyncTables = null;
+	private static volatile Set<Integer> s_asyncTableIDs = Collections.emptySet();
+	private static boolean s_started = false;
+	/** Lock of {@link #drain()} */
+	private static final Object s_drainLock = new Object();
+
+	private ChangeLogSpool() {
+	}
+
+	/**
+	 * @param AD_Table_ID
+	 * @return true if the change log of the table is written asynchronously
+	 */
+	static boolean isAsync(int AD_Table_ID) {
+		String tables = MSysConfig.getValue(MSysConfig.CHANGELOG_ASYNC_TABLES, "");
+		if (!tables.equals(s_asyncTables)) {
+			Set<Integer> ids = new HashSet<Integer>();
+			for (String tableName : tables.split(",")) {
+				if (Util.isEmpty(tableName, true))
+					continue;
+				int id = MTable.getTable_ID(tableName.trim());
+				if (id > 0)
+					ids.add(id);
+				else
+					s_log.warning(MSysConfig.CHANGELOG_ASYNC_TABLES + ": table not found " + tableName);
+			}
+			s_asyncTableIDs = ids;
+			s_asyncTables = tables;
+		}
+		return s_asyncTableIDs.contains(AD_Table_ID);
+	}
+
+	/**
+	 * Start background insert of spooled entries
+	 */
+	public static synchronized void start() {
+		if (s_started)
+			return;
+		s_started = true;
+		Adempiere.getThreadPoolExecutor().scheduleWithFixedDelay(() -> {
+			try {
+				drain();
+			} catch (Exception e) {
+				//	keep the task scheduled
+				s_log.log(Level.SEVERE, "Change log spool", e);
+			}
+		}, 0, DRAIN_DELAY, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * @return spool folder
+	 */
+	private static File getSpoolFolder() {
+		File folder = new File(Ini.getAdempiereHome(), "changelog");
+		if (!folder.exists())
+			folder.mkdirs();
+		return folder;
+	}
+
+	/**
+	 * Write committed change log entries to a new spool file.<br/>
+	 * AD_ChangeLog_UU is assigned to the entries without one, a file inserted twice is detected with it.
+	 * @param entries
+	 */
+	public static void write(List<MChangeLog> entries) {
+		File folder = getSpoolFolder();
+		String name = System.currentTimeMillis() + "-" + s_sequence.incrementAndGet();
+		File tmp = new File(folder, name + ".tmp");
+		try {
+			try (FileOutputStream fos = new FileOutputStream(tmp);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+				out.writeInt(FILE_VERSION);
+				out.writeInt(entries.size());
+				for (MChangeLog cl : entries) {
+					if (Util.isEmpty(cl.getAD_ChangeLog_UU()))
+						cl.setAD_ChangeLog_UU(UUID.randomUUID().toString());
+					out.writeUTF(cl.getAD_ChangeLog_UU());
+					out.writeInt(cl.getAD_ChangeLog_ID());
+					out.writeInt(cl.getAD_Session_ID());
+					out.writeInt(cl.getAD_Table_ID());
+					out.writeInt(cl.getAD_Column_ID());
+					out.writeInt(cl.getRecord_ID());
+					out.writeInt(cl.getAD_Client_ID());
+					out.writeInt(cl.getAD_Org_ID());
+					out.writeInt(cl.getCreatedBy());
+					out.writeLong(cl.getCreated().getTime());
+					writeString(out, cl.getOldValue());
+					writeString(out, cl.getNewValue());
+					writeString(out, cl.getEventChangeLog());
+					writeString(out, cl.getTrxName());
+				}
+				out.flush();
+				fos.getFD().sync();
+			}
+			Files.move(tmp.toPath(), new File(folder, name + SPOOL_SUFFIX).toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			s_log.log(Level.SEVERE, "Change log not spooled, inserted now", e);
+			tmp.delete();
+			insert(entries);
+			return;
+		}
+		start();
+	}
+
+	/**
+	 * Insert spooled entries, oldest file first.<br/>
+	 * A file is not inserted by two concurrent calls.
+	 */
+	public static void drain() {
+		synchronized (s_drainLock) {
+			drainFiles();
+		}
+	}
+
+	private static void drainFiles() {
+		File[] files = getSpoolFolder().listFiles((dir, name) -> name.endsWith(SPOOL_SUFFIX));
+		if (files == null || files.length == 0)
+			return;
+		Arrays.sort(files, (a, b) -> {
+			long diff = spoolTime(a) - spoolTime(b);
+			return diff != 0 ? Long.signum(diff) : a.getName().compareTo(b.getName());
+		});
+		for (File file : files) {
+			List<MChangeLog> entries;
+			try {
+				entries = read(file);
+			} catch (IOException e) {
+				s_log.log(Level.SEVERE, "Invalid change log spool " + file, e);
+				file.renameTo(new File(file.getPath() + ".bad"));
+				continue;
+			}
+			//	all entries of a file are inserted in one transaction, the file can be left after the commit
+			if (entries.isEmpty() || DB.getSQLValueEx(null, "SELECT COUNT(*) FROM AD_ChangeLog WHERE AD_ChangeLog_UU=?",
+					entries.get(0).getAD_ChangeLog_UU()) == 0) {
+				if (!insert(entries))
+					return;	//	retry later
+			}
+			if (!file.delete())
+				s_log.warning("Not deleted " + file);
+		}
+	}
+
+	private static long spoolTime(File file) {
+		String name = file.getName();
+		int index = name.indexOf('-');
+		try {
+			return Long.parseLong(index > 0 ? name.substring(0, index) : name);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * @param entries
+	 * @return true if inserted
+	 */
+	private static boolean insert(List<MChangeLog> entries) {
+		try {
+			PO.setCrossTenantSafe();
+			PO.saveAllEx(entries, null);
+			return true;
+		} catch (Exception e) {
+			s_log.log(Level.SEVERE, "Change log #" + entries.size(), e);
+			return false;
+		} finally {
+			PO.clearCrossTenantSafe();
+		}
+	}
+
+	private static List<MChangeLog> read(File file) throws IOException {
+		Map<String, Properties> contexts = new HashMap<String, Properties>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			int version = in.readInt();
+			if (version != FILE_VERSION)
+				throw new IOException("Unknown version " + version);
+			int size = in.readInt();
+			List<MChangeLog> entries = new ArrayList<MChangeLog>(size);
+			for (int i = 0; i < size; i++) {
+				String uu = in.readUTF();
+				int AD_ChangeLog_ID = in.readInt();
+				int AD_Session_ID = in.readInt();
+				int AD_Table_ID = in.readInt();
+				int AD_Column_ID = in.readInt();
+				int Record_ID = in.readInt();
+				int AD_Client_ID = in.readInt();
+				int AD_Org_ID = in.readInt();
+				int CreatedBy = in.readInt();
+				Timestamp created = new Timestamp(in.readLong());
+				//	context of the user who made the change, for the standard columns
+				Properties ctx = contexts.computeIfAbsent(AD_Client_ID + "_" + CreatedBy, key -> {
+					Properties p = new Properties();
+					Env.setContext(p, Env.AD_CLIENT_ID, AD_Client_ID);
+					Env.setContext(p, Env.AD_USER_ID, CreatedBy);
+					return p;
+				});
+				MChangeLog cl = new MChangeLog(ctx, 0, null);
+				cl.setAD_ChangeLog_UU(uu);
+				cl.setAD_ChangeLog_ID(AD_ChangeLog_ID);
+				cl.setAD_Session_ID(AD_Session_ID);
+				cl.setAD_Table_ID(AD_Table_ID);
+				cl.setAD_Column_ID(AD_Column_ID);
+				cl.setRecord_ID(Record_ID);
+				cl.setClientOrg(AD_Client_ID, AD_Org_ID);
+				cl.set_ValueNoCheck("Created", created);
+				cl.set_ValueNoCheck("Updated", created);
+				cl.setOldValue(readString(in));
+				cl.setNewValue(readString(in));
+				cl.setEventChangeLog(readString(in));
+				cl.setTrxName(readString(in));
+				entries.add(cl);
+			}
+			return entries;
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		if (!in.readBoolean())
+			return null;
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,396 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+
+import org.adempiere.exceptions.DBException;
+import org.compiere.Adempiere;
+import org.compiere.util.CCache;
+import org.compiere.util.CLogger;
+import org.compiere.util.CacheChangeListener;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.Ini;
+
+/**
+ * Binary snapshot of the application dictionary for a fast cold start.<br/>
+ * The snapshot holds the base language {@link POInfo} of all tables and the field value objects of all tabs
+ * ({@link GridTabVO}). It is built after migration ({@link #build()}) and memory mapped at server start.
+ * The snapshot is used only if its checksum matches the dictionary in the database, a cache reset of a
+ * dictionary table ({@link org.compiere.util.CacheMgt}) closes it.
+ */
+public final class DictionarySnapshot {
+
+	private static final CLogger s_log = CLogger.getCLogger(DictionarySnapshot.class);
+
+	private static final String FILE_NAME = "dictionary.snapshot";
+	private static final int MAGIC = 0x49444453;
+	private static final int FILE_VERSION = 1;
+	private static final String POINFO_KEY = "POInfo|";
+	private static final String FIELDS_KEY = "GridFieldVO|";
+
+	/** Tables of the dictionary checksum, a cache reset of one of them closes the snapshot */
+	private static final String[] DICTIONARY_TABLES = new String[] {
+		MTable.Table_Name, MColumn.Table_Name, M_Element.Table_Name, MValRule.Table_Name,
+		MTab.Table_Name, MField.Table_Name, X_AD_FieldGroup.Table_Name, MReference.Table_Name
+	};
+
+	private static volatile DictionarySnapshot s_snapshot = null;
+	private static ResetListener s_listener = null;
+
+	/** Mapped snapshot file */
+	private final ByteBuffer buffer;
+	/** Offset and length of entry by key */
+	private final Map<String, int[]> index;
+
+	private DictionarySnapshot(ByteBuffer buffer, Map<String, int[]> index) {
+		this.buffer = buffer;
+		this.index = index;
+	}
+
+	/**
+	 * @return snapshot file in iDempiere home
+	 */
+	public static File getDefaultFile() {
+		return new File(Ini.getAdempiereHome(), FILE_NAME);
+	}
+
+	/**
+	 * Build snapshot file in iDempiere home
+	 * @throws IOException
+	 */
+	public static void build() throws IOException {
+		build(getDefaultFile());
+	}
+
+	/**
+	 * Build snapshot file
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void build(File file) throws IOException {
+		//	checksum before the dictionary is read, changes made during the build make the snapshot stale
+		String checksum = getChecksum();
+		Properties ctx = Env.getCtx();
+		File tmp = new File(file.getPath() + ".tmp");
+		int count = 0;
+		try (FileOutputStream fos = new FileOutputStream(tmp);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FILE_VERSION);
+			writeBytes(out, checksum.getBytes(StandardCharsets.UTF_8));
+
+			List<String> keys = new ArrayList<String>();
+			List<int[]> entries = new ArrayList<int[]>();
+			for (int AD_Table_ID : DB.getIDsEx(null, "SELECT AD_Table_ID FROM AD_Table WHERE IsActive='Y' ORDER BY AD_Table_ID")) {
+				POInfo info = POInfo.loadBaseLanguage(ctx, AD_Table_ID);
+				if (info.getColumnCount() > 0)
+					writeEntry(out, POINFO_KEY + AD_Table_ID, info, keys, entries);
+			}
+			int[] tabs = DB.getIDsEx(null, "SELECT AD_Tab_ID FROM AD_Tab WHERE IsActive='Y' ORDER BY AD_Tab_ID");
+			//	with and without advanced fields
+			for (boolean accessAdvanced : new boolean[] {true, false}) {
+				String sql = GridFieldVO.getSQL(true, null, accessAdvanced);
+				PreparedStatement pstmt = null;
+				ResultSet rs = null;
+				try {
+					pstmt = DB.prepareStatement(sql, null);
+					for (int AD_Tab_ID : tabs) {
+						pstmt.setInt(1, AD_Tab_ID);
+						rs = pstmt.executeQuery();
+						ArrayList<GridFieldVO> fields = new ArrayList<GridFieldVO>();
+						while (rs.next()) {
+							GridFieldVO vo = GridFieldVO.createFromResultSet(ctx, 0, 0, 0, AD_Tab_ID, false, rs);
+							if (vo == null)
+								continue;
+							//	context is set and column SQL is parsed when the field is used
+							vo.ColumnSQL = rs.getString("ColumnSQL");
+							vo.ctx = null;
+							fields.add(vo);
+						}
+						DB.close(rs);
+						rs = null;
+						if (!fields.isEmpty())
+							writeEntry(out, FIELDS_KEY + sql + "|" + AD_Tab_ID, fields, keys, entries);
+					}
+				} catch (SQLException e) {
+					throw new DBException(e, sql);
+				} finally {
+					DB.close(rs, pstmt);
+				}
+			}
+
+			//	index and trailer
+			int indexOffset = out.size();
+			out.writeInt(keys.size());
+			for (int i = 0; i < keys.size(); i++) {
+				writeBytes(out, keys.get(i).getBytes(StandardCharsets.UTF_8));
+				out.writeInt(entries.get(i)[0]);
+				out.writeInt(entries.get(i)[1]);
+			}
+			out.writeInt(indexOffset);
+			out.writeInt(MAGIC);
+			//	size is Integer.MAX_VALUE on overflow
+			if (out.size() == Integer.MAX_VALUE)
+				throw new IOException("Dictionary snapshot too large");
+			out.flush();
+			fos.getFD().sync();
+			count = keys.size();
+		} catch (IOException | RuntimeException e) {
+			tmp.delete();
+			throw e;
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		if (s_log.isLoggable(Level.INFO)) s_log.info(file + " #" + count + " (" + file.length() + " bytes)");
+	}
+
+	private static void writeEntry(DataOutputStream out, String key, Object value, List<String> keys, List<int[]> entries) throws IOException {
+		ByteArrayOutputStream bas = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bas)) {
+			oos.writeObject(value);
+		}
+		keys.add(key);
+		entries.add(new int[] {out.size(), bas.size()});
+		bas.writeTo(out);
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Open snapshot file of iDempiere home
+	 * @return true if opened
+	 */
+	public static boolean open() {
+		return open(getDefaultFile());
+	}
+
+	/**
+	 * Map snapshot file, it is used if the checksum matches the dictionary
+	 * @param file
+	 * @return true if opened
+	 */
+	public static synchronized boolean open(File file) {
+		close();
+		if (!file.exists())
+			return false;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FILE_VERSION) {
+				s_log.warning("Invalid dictionary snapshot " + file);
+				return false;
+			}
+			String checksum = new String(readBytes(buffer), StandardCharsets.UTF_8);
+			if (!checksum.equals(getChecksum())) {
+				s_log.warning("Dictionary changed, snapshot not used " + file);
+				return false;
+			}
+			int limit = buffer.limit();
+			if (buffer.getInt(limit - 4) != MAGIC)
+				throw new IOException("Incomplete dictionary snapshot");
+			buffer.position(buffer.getInt(limit - 8));
+			int size = buffer.getInt();
+			Map<String, int[]> index = new HashMap<String, int[]>(size * 4 / 3 + 1);
+			for (int i = 0; i < size; i++) {
+				String key = new String(readBytes(buffer), StandardCharsets.UTF_8);
+				index.put(key, new int[] {buffer.getInt(), buffer.getInt()});
+			}
+			if (s_listener == null)
+				s_listener = new ResetListener();
+			s_snapshot = new DictionarySnapshot(buffer, index);
+			if (s_log.isLoggable(Level.INFO)) s_log.info(file + " #" + size);
+			return true;
+		} catch (Exception e) {
+			s_log.log(Level.WARNING, "Dictionary snapshot not used " + file, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Stop using the snapshot
+	 */
+	public static void close() {
+		if (s_snapshot != null) {
+			s_snapshot = null;
+			s_log.info("Dictionary snapshot closed");
+		}
+	}
+
+	/**
+	 * @return true if snapshot is used
+	 */
+	public static boolean isOpen() {
+		return s_snapshot != null;
+	}
+
+	/**
+	 * @param AD_Table_ID
+	 * @return base language POInfo of table or null
+	 */
+	static POInfo getPOInfo(int AD_Table_ID) {
+		DictionarySnapshot snapshot = s_snapshot;
+		return snapshot != null ? (POInfo) snapshot.read(POINFO_KEY + AD_Table_ID) : null;
+	}
+
+	/**
+	 * @param sql SQL of {@link GridFieldVO#getSQL(java.util.Properties)}
+	 * @param AD_Tab_ID
+	 * @return field value objects of tab without context, column SQL is not parsed; null if not in snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	static ArrayList<GridFieldVO> getGridFields(String sql, int AD_Tab_ID) {
+		DictionarySnapshot snapshot = s_snapshot;
+		return snapshot != null ? (ArrayList<GridFieldVO>) snapshot.read(FIELDS_KEY + sql + "|" + AD_Tab_ID) : null;
+	}
+
+	/**
+	 * @param key
+	 * @return deserialized entry or null
+	 */
+	private Object read(String key) {
+		int[] entry = index.get(key);
+		if (entry == null)
+			return null;
+		byte[] bytes = new byte[entry[1]];
+		ByteBuffer data = buffer.duplicate();
+		data.position(entry[0]);
+		data.get(bytes);
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return ois.readObject();
+		} catch (Exception e) {
+			//	e.g. changed classes after an update
+			s_log.log(Level.WARNING, "Dictionary snapshot entry " + key, e);
+			close();
+			return null;
+		}
+	}
+
+	/**
+	 * @return checksum of dictionary tables and version
+	 */
+	static String getChecksum() {
+		StringBuilder sb = new StringBuilder(Adempiere.MAIN_VERSION).append("|").append(Adempiere.DATE_VERSION);
+		for (String tableName : DICTIONARY_TABLES) {
+			String sql = "SELECT COUNT(*), MAX(Updated) FROM " + tableName;
+			PreparedStatement pstmt = null;
+			ResultSet rs = null;
+			try {
+				pstmt = DB.prepareStatement(sql, null);
+				rs = pstmt.executeQuery();
+				if (rs.next()) {
+					Timestamp updated = rs.getTimestamp(2);
+					sb.append("|").append(tableName).append(":").append(rs.getInt(1))
+						.append(":").append(updated != null ? updated.getTime() : 0);
+				}
+			} catch (SQLException e) {
+				throw new DBException(e, sql);
+			} finally {
+				DB.close(rs, pstmt);
+			}
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest)
+				hex.append(String.format("%02x", b));
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Close the snapshot when a dictionary table is reset
+	 */
+	private static final class ResetListener extends CCache<String, Object> implements CacheChangeListener {
+
+		private static final long serialVersionUID = -2470553426081950315L;
+
+		private ResetListener() {
+			super(null, "DictionarySnapshot", 0, 0, false, 0);
+		}
+
+		@Override
+		public int reset() {
+			int count = size();
+			close();
+			return count;
+		}
+
+		@Override
+		public int size() {
+			return isOpen() ? 1 : 0;
+		}
+
+		@Override
+		public void reset(String tableName) {
+			for (String dictionaryTable : DICTIONARY_TABLES) {
+				if (dictionaryTable.equalsIgnoreCase(tableName)) {
+					close();
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void reset(String tableName, int recordId) {
+			reset(tableName);
+		}
+	}
+}
@@ -57,19 +57,32 @@ public class GridFieldVO implements Serializable, Cloneable
 	{
 		//	IsActive is part of View
 		MRole role = MRole.getDefault(ctx, false);
+		boolean baseLanguage = Env.isBaseLanguage(ctx, "AD_Tab");
+		return getSQL(baseLanguage, baseLanguage ? null : Env.getAD_Language(ctx), role.isAccessAdvanced());
+	}   //  getSQL
+
+	/**
+	 *  Return the SQL statement used for the MFieldVO.create
+	 *  @param baseLanguage
+	 *  @param AD_Language language if not base language
+	 *  @param accessAdvanced role has access to advanced fields
+	 *  @return SQL with or w/o translation and 1 parameter
+	 */
+	static String getSQL (boolean baseLanguage, String AD_Language, boolean accessAdvanced)
+	{
 		String advancedFilter=" AND IsAdvancedField='N' ";
 		StringBuilder sql;
-		if (!Env.isBaseLanguage(ctx, "AD_Tab")){
+		if (!baseLanguage){
 			sql = new StringBuilder("SELECT * FROM AD_Field_vt WHERE AD_Tab_ID=?")
-				.append(" AND AD_Language='" + Env.getAD_Language(ctx) + "'");
-			if (!role.isAccessAdvanced()) {
+				.append(" AND AD_Language='" + AD_Language + "'");
+			if (!accessAdvanced) {
 				sql.append(advancedFilter);
 			}
 			sql.append(" ORDER BY IsDisplayed DESC, SeqNo");
 		}
 		else{
 			sql = new StringBuilder("SELECT * FROM AD_Field_v WHERE AD_Tab_ID=?");
-			if (!role.isAccessAdvanced()) {
+			if (!accessAdvanced) {
 				sql.append(advancedFilter);
 			}
 			sql.append(" ORDER BY IsDisplayed DESC, SeqNo");
@@ -281,13 +294,7 @@ public class GridFieldVO implements Serializable, Cloneable
 			vo.ValidationCode = rs.getString("ValidationCode");
 			vo.ValidationCodeLookup = rs.getString("ValidationCodeLookup");
 			vo.IsQuickForm = "Y".equals(rs.getString ("IsQuickForm"));
-			{
-				vo.ColumnSQL = rs.getString("ColumnSQL");
-				if (vo.ColumnSQL != null && !vo.ColumnSQL.startsWith("@SQL=") && !vo.ColumnSQL.startsWith("@SQLFIND=") && vo.ColumnSQL.contains("@")) {
-					// NOTE: cannot use window context because this is set globally on the query, not per record
-					vo.ColumnSQL = Env.parseContext(ctx, -1, vo.ColumnSQL, false, true);
-				}			
-			} 
+			vo.ColumnSQL = parseColumnSQL(ctx, rs.getString("ColumnSQL"));
 			//Feature Request FR [ 1757088 ]
 			vo.Included_Tab_ID = rs.getInt("Included_Tab_ID");
 			// Collapse Default State
@@ -319,6 +326,21 @@ public class GridFieldVO implements Serializable, Cloneable
 		return vo;
 	}
 
+	/**
+	 *  Parse context variables of column SQL (except for @SQL= and @SQLFIND=)
+	 *  @param ctx context
+	 *  @param columnSQL column SQL of AD_Field_v
+	 *  @return parsed column SQL
+	 */
+	static String parseColumnSQL(Properties ctx, String columnSQL)
+	{
+		if (columnSQL != null && !columnSQL.startsWith("@SQL=") && !columnSQL.startsWith("@SQLFIND=") && columnSQL.contains("@")) {
+			// NOTE: cannot use window context because this is set globally on the query, not per record
+			return Env.parseContext(ctx, -1, columnSQL, false, true);
+		}
+		return columnSQL;
+	}
+
 	/**
 	 *  Init Field for Process Parameter
 	 *  @param ctx context
@@ -340,6 +340,19 @@ public class GridTabVO implements Evaluatee, Serializable
 				mTabVO.Fields.add(clone.afterCreate());
 			}
 		}
+		else if ((cache = DictionarySnapshot.getGridFields(sql, mTabVO.AD_Tab_ID)) != null)
+		{
+			//	field value objects of the dictionary snapshot, column SQL is not parsed
+			for(GridFieldVO stored : cache)
+			{
+				GridFieldVO voF = stored.clone(mTabVO.ctx, mTabVO.WindowNo, mTabVO.TabNo, mTabVO.AD_Window_ID, mTabVO.AD_Tab_ID, mTabVO.IsReadOnly);
+				voF.ColumnSQL = GridFieldVO.parseColumnSQL(mTabVO.ctx, voF.ColumnSQL);
+				stored.ColumnSQL = voF.ColumnSQL;
+				mTabVO.Fields.add(voF.afterCreate());
+			}
+			if (!cache.isEmpty())
+				s_gridFieldCache.put(cacheKey, cache);
+		}
 		else
 		{			
 			PreparedStatement pstmt = null;
@@ -0,0 +1,170 @@
+/******************************************************************************
+ * Product: iDempiere ERP & CRM Smart Business Solution                       *
+ * Copyright (C) 1999-2012 ComPiere, Inc. All Rights Reserved.                *
+ * This program is free software, you can redistribute it and/or modify it    *
+ * under the terms version 2 of the GNU General Public License as published   *
+ * by the Free Software Foundation. This program is distributed in the hope   *
+ * that it will be useful, but WITHOUT ANY WARRANTY, without even the implied *
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.           *
+ * See the GNU General Public License for more details.                       *
+ * You should have received a copy of the GNU General Public License along    *
+ * with this program, if not, write to the Free Software Foundation, Inc.,    *
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA.                     *
+ * For the text or an alternative of this public license, you may reach us    *
+ * ComPiere, Inc., 2620 Augustine Dr. #245, Santa Clara, CA 95054, USA        *
+ * or via info@compiere.org or http://www.compiere.org/license.html           *
+ *****************************************************************************/
+package org.compiere.model;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import org.compiere.util.KeyNamePair;
+
+/** Generated Interface for AD_AttachmentData
+ *  @author iDempiere (generated) 
+ *  @version Release 10
+ */
+public interface I_AD_AttachmentData 
+{
+
+    /** TableName=AD_AttachmentData */
+    public static final String Table_Name = "AD_AttachmentData";
+
+    /** AD_Table_ID=200383 */
+    public static final int Table_ID = 200383;
+
+    KeyNamePair Model = new KeyNamePair(Table_ID, Table_Name);
+
+    /** AccessLevel = 6 - System - Client 
+     */
+    BigDecimal accessLevel = BigDecimal.valueOf(6);
+
+    /** Load Meta Data */
+
+    /** Column name AD_AttachmentData_ID */
+    public static final String COLUMNNAME_AD_AttachmentData_ID = "AD_AttachmentData_ID";
+
+	/** Set Attachment Data.
+	  * Content of an attachment entry
+	  */
+	public void setAD_AttachmentData_ID (int AD_AttachmentData_ID);
+
+	/** Get Attachment Data.
+	  * Content of an attachment entry
+	  */
+	public int getAD_AttachmentData_ID();
+
+    /** Column name AD_AttachmentData_UU */
+    public static final String COLUMNNAME_AD_AttachmentData_UU = "AD_AttachmentData_UU";
+
+	/** Set AD_AttachmentData_UU	  */
+	public void setAD_AttachmentData_UU (String AD_AttachmentData_UU);
+
+	/** Get AD_AttachmentData_UU	  */
+	public String getAD_AttachmentData_UU();
+
+    /** Column name AD_Client_ID */
+    public static final String COLUMNNAME_AD_Client_ID = "AD_Client_ID";
+
+	/** Get Tenant.
+	  * Tenant for this installation.
+	  */
+	public int getAD_Client_ID();
+
+    /** Column name AD_Org_ID */
+    public static final String COLUMNNAME_AD_Org_ID = "AD_Org_ID";
+
+	/** Set Organization.
+	  * Organizational entity within tenant
+	  */
+	public void setAD_Org_ID (int AD_Org_ID);
+
+	/** Get Organization.
+	  * Organizational entity within tenant
+	  */
+	public int getAD_Org_ID();
+
+    /** Column name BinaryData */
+    public static final String COLUMNNAME_BinaryData = "BinaryData";
+
+	/** Set Binary Data.
+	  * Binary Data
+	  */
+	public void setBinaryData (byte[] BinaryData);
+
+	/** Get Binary Data.
+	  * Binary Data
+	  */
+	public byte[] getBinaryData();
+
+    /** Column name ContentHash */
+    public static final String COLUMNNAME_ContentHash = "ContentHash";
+
+	/** Set Content Hash.
+	  * SHA-256 hash of the content
+	  */
+	public void setContentHash (String ContentHash);
+
+	/** Get Content Hash.
+	  * SHA-256 hash of the content
+	  */
+	public String getContentHash();
+
+    /** Column name Created */
+    public static final String COLUMNNAME_Created = "Created";
+
+	/** Get Created.
+	  * Date this record was created
+	  */
+	public Timestamp getCreated();
+
+    /** Column name CreatedBy */
+    public static final String COLUMNNAME_CreatedBy = "CreatedBy";
+
+	/** Get Created By.
+	  * User who created this records
+	  */
+	public int getCreatedBy();
+
+    /** Column name IsActive */
+    public static final String COLUMNNAME_IsActive = "IsActive";
+
+	/** Set Active.
+	  * The record is active in the system
+	  */
+	public void setIsActive (boolean IsActive);
+
+	/** Get Active.
+	  * The record is active in the system
+	  */
+	public boolean isActive();
+
+    /** Column name RefCount */
+    public static final String COLUMNNAME_RefCount = "RefCount";
+
+	/** Set Reference Count.
+	  * Number of references to the record
+	  */
+	public void setRefCount (int RefCount);
+
+	/** Get Reference Count.
+	  * Number of references to the record
+	  */
+	public int getRefCount();
+
+    /** Column name Updated */
+    public static final String COLUMNNAME_Updated = "Updated";
+
+	/** Get Updated.
+	  * Date this record was updated
+	  */
+	public Timestamp getUpdated();
+
+    /** Column name UpdatedBy */
+    public static final String COLUMNNAME_UpdatedBy = "UpdatedBy";
+
+	/** Get Updated By.
+	  * User who updated this records
+	  */
+	public int getUpdatedBy();
+}
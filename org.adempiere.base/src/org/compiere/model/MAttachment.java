@@ -154,6 +154,8 @@ public class MAttachment extends X_AD_Attachment
 	public static final String 	ZIP = "zip";
 	/** Indicator for xml data (store on file system) */
 	public static final String 	XML = "xml";
+	/** Indicator for manifest data (entries stored in AD_AttachmentData) */
+	public static final String 	MANIFEST = "manifest";
 
 	/**	List of Entry Data		*/
 	public ArrayList<MAttachmentEntry> m_items = null;
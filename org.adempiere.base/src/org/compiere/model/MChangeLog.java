@@ -44,23 +44,28 @@ public class MChangeLog extends X_AD_ChangeLog
 	 *	@param AD_Table_ID table
 	 *	@return true if changes are tracked
 	 */
-	public static synchronized boolean isLogged (int AD_Table_ID)
+	public static boolean isLogged (int AD_Table_ID)
 	{
-		if (s_changeLog == null || s_changeLog.length == 0)
-			fillChangeLog();
+		int[] changeLog = s_changeLog;
+		if (changeLog == null || changeLog.length == 0)
+			changeLog = fillChangeLog();
 		//
-		int index = Arrays.binarySearch(s_changeLog, AD_Table_ID);
+		int index = Arrays.binarySearch(changeLog, AD_Table_ID);
 		return index >= 0;
 	}	//	trackChanges
 
-	public static synchronized void resetLoggedList() {
+	/**
+	 * Reset list of logged tables, reloaded by the next {@link #isLogged(int)}
+	 */
+	public static void resetLoggedList() {
 		s_changeLog = null;
 	}
 	
 	/**
 	 *	Fill Log with tables to be logged 
+	 *	@return sorted AD_Table_IDs of logged tables
 	 */
-	private static void fillChangeLog()
+	private static int[] fillChangeLog()
 	{
 		ArrayList<Integer> list = new ArrayList<Integer>(40);
 		String sql = "SELECT t.AD_Table_ID FROM AD_Table t "
@@ -87,17 +92,20 @@ public class MChangeLog extends X_AD_ChangeLog
 			rs = null; pstmt = null;
 		}
 		//	Convert to Array
-		s_changeLog = new int [list.size()];
-		for (int i = 0; i < s_changeLog.length; i++)
+		int[] changeLog = new int [list.size()];
+		for (int i = 0; i < changeLog.length; i++)
 		{
 			Integer id = (Integer)list.get(i);
-			s_changeLog[i] = id.intValue();
+			changeLog[i] = id.intValue();
 		}
-		if (s_log.isLoggable(Level.INFO)) s_log.info("#" + s_changeLog.length);
+		//	publish the complete array, readers don't lock
+		s_changeLog = changeLog;
+		if (s_log.isLoggable(Level.INFO)) s_log.info("#" + changeLog.length);
+		return changeLog;
 	}	//	fillChangeLog
 
-	/**	Change Log				*/
-	private static int[]		s_changeLog = null;
+	/**	Change Log, sorted AD_Table_IDs	*/
+	private static volatile int[]	s_changeLog = null;
 	/**	Logger					*/
 	private static CLogger		s_log = CLogger.getCLogger(MChangeLog.class);
 	/** NULL Value				*/
@@ -20,14 +20,21 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.logging.Level;
 
+import org.adempiere.exceptions.DBException;
+import org.compiere.util.CCache;
 import org.compiere.util.CLogger;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
@@ -52,6 +59,9 @@ public class MConversionRate extends X_C_Conversion_Rate
 	/**	Logger						*/
 	private static CLogger		s_log = CLogger.getCLogger (MConversionRate.class);
 
+	/** Rates of client, currency from, currency to and conversion type, reset when conversion rates change */
+	private static final CCache<String, RateIndex> s_rateCache = new CCache<String, RateIndex>(Table_Name, "C_Conversion_Rate_Index", 100, 0, false, 1000);
+
 	/**
 	 *	Convert an amount to base Currency
 	 *	@param ctx context
@@ -241,42 +251,18 @@ public class MConversionRate extends X_C_Conversion_Rate
 			ConvDate = TimeUtil.getDay(null);
 
 		//	Get Rate
-		String sql = "SELECT MultiplyRate "
-			+ "FROM C_Conversion_Rate "
-			+ "WHERE C_Currency_ID=?"					//	#1
-			+ " AND C_Currency_ID_To=?"					//	#2
-			+ " AND	C_ConversionType_ID=?"				//	#3
-			+ " AND	? BETWEEN ValidFrom AND ValidTo"	//	#4	TRUNC (?) ORA-00932: inconsistent datatypes: expected NUMBER got TIMESTAMP
-			+ " AND AD_Client_ID IN (0,?)"				//	#5
-			+ " AND AD_Org_ID IN (0,?) "				//	#6
-			+ " AND IsActive = 'Y' "
-			+ "ORDER BY AD_Client_ID DESC, AD_Org_ID DESC, ValidFrom DESC";
 		BigDecimal retValue = null;
-		PreparedStatement pstmt = null;
-		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, null);
-			pstmt.setInt(1, CurFrom_ID);
-			pstmt.setInt(2, CurTo_ID);
-			pstmt.setInt(3, C_ConversionType_ID);
-			pstmt.setTimestamp(4, TimeUtil.getDay(ConvDate));
-			pstmt.setInt(5, AD_Client_ID);
-			pstmt.setInt(6, AD_Org_ID);
-			rs = pstmt.executeQuery();
-			if (rs.next())
-				retValue = rs.getBigDecimal(1);
+			String key = AD_Client_ID + "|" + CurFrom_ID + "|" + CurTo_ID + "|" + C_ConversionType_ID;
+			final int conversionTypeId = C_ConversionType_ID;
+			RateIndex index = s_rateCache.getOrLoad(key, k -> RateIndex.load(CurFrom_ID, CurTo_ID, conversionTypeId, AD_Client_ID));
+			retValue = index.getRate(TimeUtil.getDay(ConvDate), AD_Client_ID, AD_Org_ID);
 		}
 		catch (Exception e)
 		{
 			s_log.log(Level.SEVERE, "getRate", e);
 		}
-		finally
-		{
-			DB.close(rs, pstmt);
-			rs = null;
-			pstmt = null;
-		}		
 		if (retValue == null)
 			if (s_log.isLoggable(Level.INFO)) s_log.info ("getRate - not found - CurFrom=" + CurFrom_ID 
 			  + ", CurTo=" + CurTo_ID
@@ -287,6 +273,178 @@ public class MConversionRate extends X_C_Conversion_Rate
 		return retValue;
 	}	//	getRate
 
+	/**
+	 * Active rates of a currency pair and conversion type, grouped by client and organization.<br/>
+	 * The rates of a group are sorted by valid from date, together with the highest valid to date up to each rate.
+	 * The rate of a date is found with a binary search on valid from, going back only while an earlier rate can still be valid.
+	 */
+	private static final class RateIndex
+	{
+		/** (AD_Client_ID, AD_Org_ID) to rates */
+		private final Map<Long, RateGroup> groups = new HashMap<Long, RateGroup>();
+
+		/**
+		 * Load rates of client and system
+		 * @param CurFrom_ID
+		 * @param CurTo_ID
+		 * @param C_ConversionType_ID
+		 * @param AD_Client_ID
+		 * @return rate index
+		 */
+		private static RateIndex load(int CurFrom_ID, int CurTo_ID, int C_ConversionType_ID, int AD_Client_ID)
+		{
+			String sql = "SELECT AD_Client_ID, AD_Org_ID, ValidFrom, ValidTo, MultiplyRate "
+				+ "FROM C_Conversion_Rate "
+				+ "WHERE C_Currency_ID=?"					//	#1
+				+ " AND C_Currency_ID_To=?"					//	#2
+				+ " AND	C_ConversionType_ID=?"				//	#3
+				+ " AND ValidFrom IS NOT NULL AND ValidTo IS NOT NULL"
+				+ " AND AD_Client_ID IN (0,?)"				//	#4
+				+ " AND IsActive = 'Y' "
+				+ "ORDER BY AD_Client_ID, AD_Org_ID, ValidFrom";
+			RateIndex index = new RateIndex();
+			List<Timestamp[]> dates = new ArrayList<Timestamp[]>();
+			List<BigDecimal> rates = new ArrayList<BigDecimal>();
+			long groupKey = -1;
+			PreparedStatement pstmt = null;
+			ResultSet rs = null;
+			try
+			{
+				pstmt = DB.prepareStatement(sql, null);
+				pstmt.setInt(1, CurFrom_ID);
+				pstmt.setInt(2, CurTo_ID);
+				pstmt.setInt(3, C_ConversionType_ID);
+				pstmt.setInt(4, AD_Client_ID);
+				rs = pstmt.executeQuery();
+				while (rs.next())
+				{
+					long key = getGroupKey(rs.getInt(1), rs.getInt(2));
+					if (key != groupKey && !rates.isEmpty())
+					{
+						index.groups.put(groupKey, new RateGroup(dates, rates));
+						dates.clear();
+						rates.clear();
+					}
+					groupKey = key;
+					dates.add(new Timestamp[] {rs.getTimestamp(3), rs.getTimestamp(4)});
+					rates.add(rs.getBigDecimal(5));
+				}
+				if (!rates.isEmpty())
+					index.groups.put(groupKey, new RateGroup(dates, rates));
+			}
+			catch (SQLException e)
+			{
+				throw new DBException(e, sql);
+			}
+			finally
+			{
+				DB.close(rs, pstmt);
+				rs = null;
+				pstmt = null;
+			}
+			return index;
+		}	//	load
+
+		/**
+		 * @param AD_Client_ID
+		 * @param AD_Org_ID
+		 * @return key of group
+		 */
+		private static long getGroupKey(int AD_Client_ID, int AD_Org_ID)
+		{
+			return ((long) AD_Client_ID << 32) | (AD_Org_ID & 0xffffffffL);
+		}
+
+		/**
+		 * Get rate with the same precedence as ORDER BY AD_Client_ID DESC, AD_Org_ID DESC, ValidFrom DESC
+		 * @param date conversion date
+		 * @param AD_Client_ID
+		 * @param AD_Org_ID
+		 * @return rate or null
+		 */
+		private BigDecimal getRate(Timestamp date, int AD_Client_ID, int AD_Org_ID)
+		{
+			for (int client : getPrecedence(AD_Client_ID))
+			{
+				for (int org : getPrecedence(AD_Org_ID))
+				{
+					RateGroup group = groups.get(getGroupKey(client, org));
+					BigDecimal rate = group != null ? group.getRate(date) : null;
+					if (rate != null)
+						return rate;
+				}
+			}
+			return null;
+		}	//	getRate
+
+		/**
+		 * @param id
+		 * @return id and 0 in descending order
+		 */
+		private static int[] getPrecedence(int id)
+		{
+			if (id == 0)
+				return new int[] {0};
+			return id > 0 ? new int[] {id, 0} : new int[] {0, id};
+		}
+	}	//	RateIndex
+
+	/**
+	 * Rates of a client and organization, sorted by valid from date
+	 */
+	private static final class RateGroup
+	{
+		private final Timestamp[] validFrom;
+		private final Timestamp[] validTo;
+		/** highest valid to of rates up to index */
+		private final Timestamp[] maxValidTo;
+		private final BigDecimal[] rates;
+
+		/**
+		 * @param dates valid from and valid to, sorted by valid from
+		 * @param rates multiply rates
+		 */
+		private RateGroup(List<Timestamp[]> dates, List<BigDecimal> rates)
+		{
+			int size = rates.size();
+			validFrom = new Timestamp[size];
+			validTo = new Timestamp[size];
+			maxValidTo = new Timestamp[size];
+			for (int i = 0; i < size; i++)
+			{
+				validFrom[i] = dates.get(i)[0];
+				validTo[i] = dates.get(i)[1];
+				maxValidTo[i] = i > 0 && maxValidTo[i-1].after(validTo[i]) ? maxValidTo[i-1] : validTo[i];
+			}
+			this.rates = rates.toArray(new BigDecimal[size]);
+		}
+
+		/**
+		 * @param date
+		 * @return rate with highest valid from of the rates valid at date, null if none
+		 */
+		private BigDecimal getRate(Timestamp date)
+		{
+			//last rate with ValidFrom <= date
+			int index = Arrays.binarySearch(validFrom, date);
+			if (index >= 0)
+			{
+				while (index + 1 < validFrom.length && validFrom[index + 1].compareTo(date) == 0)
+					index++;
+			}
+			else
+			{
+				index = -index - 2;
+			}
+			for (; index >= 0 && maxValidTo[index].compareTo(date) >= 0; index--)
+			{
+				if (validTo[index].compareTo(date) >= 0)
+					return rates[index];
+			}
+			return null;
+		}	//	getRate
+	}	//	RateGroup
+
 	
 	/**************************************************************************
 	 * 	Standard Constructor
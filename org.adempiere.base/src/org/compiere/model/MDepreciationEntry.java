@@ -367,6 +367,7 @@ implements DocAction
 	{
 		final String sql = "DELETE FROM Fact_Acct WHERE AD_Table_ID=? AND Record_ID=? AND Line_ID=?";
 		Object[] params = new Object[]{Table_ID, depexp.getA_Depreciation_Entry_ID(), depexp.get_ID()};
+		MReportCube.updateSummary(depexp.getAD_Client_ID(), "f.AD_Table_ID=? AND f.Record_ID=? AND f.Line_ID=?", params, true, depexp.get_TrxName());
 		DB.executeUpdateEx(sql, params, depexp.get_TrxName());
 	}
 }
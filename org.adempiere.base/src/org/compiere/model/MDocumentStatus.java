@@ -36,6 +36,7 @@ import java.util.Properties;
 
 import org.compiere.util.DB;
 import org.compiere.util.Env;
+import org.compiere.util.SharedSQLValue;
 import org.idempiere.cache.ImmutableIntPOCache;
 import org.idempiere.cache.ImmutablePOSupport;
 
@@ -163,14 +164,33 @@ public class MDocumentStatus extends X_PA_DocumentStatus implements ImmutablePOS
 	}	//	getDocumentStatusIndicators
 
 	public static int evaluate(MDocumentStatus documentStatus) {
+		return DB.getSQLValue(null, getCountSQL(documentStatus));
+	}
+
+	/**
+	 * Evaluate count, sharing the result with other sessions executing the same count statement
+	 * (same table, where clause and role access)
+	 * @param documentStatus
+	 * @param maxAge maximum age of a shared count in milliseconds
+	 * @return count
+	 * @see SharedSQLValue
+	 */
+	public static int evaluate(MDocumentStatus documentStatus, long maxAge) {
+		return SharedSQLValue.getSQLValue(maxAge, getCountSQL(documentStatus));
+	}
+
+	/**
+	 * @param documentStatus
+	 * @return count statement with role access of the session
+	 */
+	private static String getCountSQL(MDocumentStatus documentStatus) {
 		StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ");
 		String tableName = MTable.getTableName(Env.getCtx(), documentStatus.getAD_Table_ID());
 		sql.append(tableName);
 		String where = getWhereClause(documentStatus);
 		if (where != null && where.trim().length() > 0)
 			sql.append(" WHERE " ).append(where);
-		String sqlS = MRole.getDefault().addAccessSQL(sql.toString(), tableName, false, true);
-		return DB.getSQLValue(null, sqlS);
+		return MRole.getDefault().addAccessSQL(sql.toString(), tableName, false, true);
 	}
 
 	public static String getWhereClause(MDocumentStatus documentStatus) {
@@ -73,6 +73,12 @@ public class MFactAcct extends X_Fact_Acct
 	public static int deleteEx(int AD_Table_ID, int Record_ID, String trxName)
 	throws DBException
 	{
+		//	remove from the summary of report cubes of the facts' client
+		int AD_Client_ID = DB.getSQLValueEx(trxName, "SELECT MAX(AD_Client_ID) FROM Fact_Acct WHERE AD_Table_ID=? AND Record_ID=?",
+			AD_Table_ID, Record_ID);
+		if (AD_Client_ID > 0)
+			MReportCube.updateSummary(AD_Client_ID, "f.AD_Table_ID=? AND f.Record_ID=?",
+				new Object[]{AD_Table_ID, Record_ID}, true, trxName);
 		final String sql = "DELETE FROM Fact_Acct WHERE AD_Table_ID=? AND Record_ID=?";
 		int no = DB.executeUpdateEx(sql, new Object[]{AD_Table_ID, Record_ID}, trxName);
 		if (s_log.isLoggable(Level.FINE)) s_log.fine("delete - AD_Table_ID=" + AD_Table_ID + ", Record_ID=" + Record_ID + " - #" + no);
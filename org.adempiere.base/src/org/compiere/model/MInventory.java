@@ -20,11 +20,13 @@ import java.io.File;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
 
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.NegativeInventoryDisallowedException;
 import org.adempiere.exceptions.PeriodClosedException;
 import org.compiere.process.DocAction;
@@ -483,6 +485,8 @@ public class MInventory extends X_M_Inventory implements DocAction
 		if (log.isLoggable(Level.INFO)) log.info(toString());
 
 		StringBuilder errors = new StringBuilder();
+		//	Material transactions are inserted in batch after all lines are processed
+		List<MTransaction> transactions = new ArrayList<MTransaction>();
 		MInventoryLine[] lines = getLines(false);
 		for (MInventoryLine line : lines)
 		{
@@ -617,11 +621,7 @@ public class MInventory extends X_M_Inventory implements DocAction
 									QtyMA.negate(), getMovementDate(), get_TrxName());
 							
 								mtrx.setM_InventoryLine_ID(line.getM_InventoryLine_ID());
-								if (!mtrx.save())
-								{
-									m_processMsg = "Transaction not inserted(2)";
-									return DocAction.STATUS_Invalid;
-								}
+								transactions.add(mtrx);
 								
 								qtyDiff = QtyNew;						
 	
@@ -661,11 +661,7 @@ public class MInventory extends X_M_Inventory implements DocAction
 								line.getM_Locator_ID(), line.getM_Product_ID(), line.getM_AttributeSetInstance_ID(),
 								qtyDiff, getMovementDate(), get_TrxName());
 						mtrx.setM_InventoryLine_ID(line.getM_InventoryLine_ID());
-						if (!mtrx.save())
-						{
-							m_processMsg = "Transaction not inserted(2)";
-							return DocAction.STATUS_Invalid;
-						}					
+						transactions.add(mtrx);
 					}	//	Fallback
 				}	//	stock movement
 			}
@@ -683,6 +679,16 @@ public class MInventory extends X_M_Inventory implements DocAction
 			m_processMsg = errors.toString();
 			return DocAction.STATUS_Invalid;
 		}
+
+		try
+		{
+			PO.saveAllEx(transactions, get_TrxName());
+		}
+		catch (AdempiereException e)
+		{
+			m_processMsg = "Transaction not inserted(2) - " + e.getMessage();
+			return DocAction.STATUS_Invalid;
+		}
 		
 		//	User Validation
 		String valid = ModelValidationEngine.get().fireDocValidate(this, ModelValidator.TIMING_AFTER_COMPLETE);
@@ -24,10 +24,12 @@ import java.sql.Timestamp;
 import java.util.logging.Level;
 
 import org.adempiere.base.AbstractProductPricing;
+import org.adempiere.exceptions.DBException;
 import org.compiere.util.CLogger;
 import org.compiere.util.DB;
 import org.compiere.util.Env;
 import org.compiere.util.Trace;
+import org.idempiere.cache.LoadingCCache;
 
 /**
  *  Product Price Calculations
@@ -79,12 +81,48 @@ public class MProductPricing extends AbstractProductPricing
 	}
 	
 	private void checkVendorBreak() {
-		int thereAreVendorBreakRecords = DB.getSQLValue(trxName, 
+		try {
+			//	records of the transaction are not visible to the cache
+			if (trxName != null)
+				m_useVendorBreak = loadVendorBreak(m_M_Product_ID, m_C_BPartner_ID, trxName);
+			else
+				m_useVendorBreak = s_vendorBreakCache.get(m_M_Product_ID + "_" + m_C_BPartner_ID);
+		} catch (DBException e) {
+			log.log(Level.SEVERE, e.getMessage(), e);
+			m_useVendorBreak = false;
+		}
+	}
+
+	/**
+	 * 	Has vendor break records
+	 *	@param key M_Product_ID_C_BPartner_ID
+	 *	@return true if there are active vendor break records for product and partner
+	 */
+	private static Boolean loadVendorBreak(String key) {
+		int pos = key.indexOf('_');
+		int M_Product_ID = Integer.parseInt(key.substring(0, pos));
+		int C_BPartner_ID = Integer.parseInt(key.substring(pos+1));
+		return loadVendorBreak(M_Product_ID, C_BPartner_ID, null);
+	}
+
+	/**
+	 * 	Has vendor break records
+	 *	@param M_Product_ID product
+	 *	@param C_BPartner_ID business partner
+	 *	@param trxName transaction
+	 *	@return true if there are active vendor break records for product and partner
+	 */
+	private static Boolean loadVendorBreak(int M_Product_ID, int C_BPartner_ID, String trxName) {
+		int thereAreVendorBreakRecords = DB.getSQLValueEx(trxName, 
 				"SELECT COUNT(M_Product_ID) FROM M_ProductPriceVendorBreak WHERE IsActive='Y' AND M_Product_ID=? AND (C_BPartner_ID=? OR C_BPartner_ID IS NULL)",
-				m_M_Product_ID, m_C_BPartner_ID);
-		m_useVendorBreak = thereAreVendorBreakRecords > 0;
+				M_Product_ID, C_BPartner_ID);
+		return Boolean.valueOf(thereAreVendorBreakRecords > 0);
 	}
 
+	/** Product and partner with vendor break records, concurrent misses share one query */
+	private static final LoadingCCache<String, Boolean> s_vendorBreakCache = new LoadingCCache<String, Boolean>(I_M_ProductPriceVendorBreak.Table_Name, 
+			"MProductPricing_VendorBreak", 100, 60, 0, MProductPricing::loadVendorBreak, LoadingCCache.DEFAULT_REFRESH_AHEAD_RATIO);
+
 	/** Precision -1 = no rounding		*/
 	private int		 	m_precision = -1;
 	
@@ -19,22 +19,104 @@ package org.compiere.model;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
+import org.compiere.util.CCache;
 import org.compiere.util.DB;
+import org.compiere.util.Env;
 import org.compiere.util.KeyNamePair;
+import org.compiere.util.Util;
+import org.idempiere.cache.ImmutablePOSupport;
 
-public class MReportCube extends X_PA_ReportCube {
+public class MReportCube extends X_PA_ReportCube implements ImmutablePOSupport {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = -4771117572936231607L;
 
+	/** Optional dimension columns of Fact_Acct_Summary */
+	private static final List<String> DIMENSION_COLUMNS = Arrays.asList(
+			"M_Product_ID", "C_BPartner_ID", "C_Project_ID", "AD_OrgTrx_ID", "C_SalesRegion_ID", "C_Activity_ID",
+			"C_Campaign_ID", "C_LocTo_ID", "C_LocFrom_ID", "User1_ID", "User2_ID", "UserElement1_ID", "UserElement2_ID",
+			"C_SubAcct_ID", "C_ProjectPhase_ID", "C_ProjectTask_ID");
+
+	/** Quoted string literal of a where clause */
+	private static final Pattern QUOTED_STRING_PATTERN = Pattern.compile("'[^']*'");
+	/** Identifier of a where clause */
+	private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+	/** Active cubes of client, key is AD_Client_ID as String for a full reset on cube changes */
+	private static final CCache<String, MReportCube[]> s_activeCubes = new CCache<String, MReportCube[]>(Table_Name, Table_Name + "_Active", 5);
+
+	/**
+	 * Get active cubes of client (immutable)
+	 * @param AD_Client_ID
+	 * @return active cubes
+	 */
+	public static MReportCube[] getActiveCubes(int AD_Client_ID)
+	{
+		return s_activeCubes.getOrLoad(String.valueOf(AD_Client_ID), key -> {
+			List<MReportCube> list = new Query(Env.getCtx(), Table_Name, "AD_Client_ID=?", null)
+					.setParameters(AD_Client_ID)
+					.setOnlyActiveRecords(true)
+					.setOrderBy(COLUMNNAME_PA_ReportCube_ID)
+					.list();
+			list.forEach(MReportCube::markImmutable);
+			return list.toArray(new MReportCube[list.size()]);
+		});
+	}
+
+	/**
+	 * Add accounting facts to (or subtract them from) the summary of the built cubes of the client.<br/>
+	 * Keeps Fact_Acct_Summary in sync with Fact_Acct between two {@link #update(boolean, boolean)} runs.
+	 * Cubes that have never been built are skipped, their next update is a full rebuild.
+	 * @param AD_Client_ID client of the facts
+	 * @param factWhere where clause on Fact_Acct with alias f
+	 * @param params parameters of factWhere
+	 * @param subtract true to subtract the facts, must be called before the facts are deleted
+	 * @param trxName transaction of the Fact_Acct changes
+	 * @return number of inserted summary rows
+	 */
+	public static int updateSummary(int AD_Client_ID, String factWhere, Object[] params, boolean subtract, String trxName)
+	{
+		int rows = 0;
+		for (MReportCube cube : getActiveCubes(AD_Client_ID))
+		{
+			String where = factWhere + " AND EXISTS (SELECT 1 FROM PA_ReportCube c WHERE c.PA_ReportCube_ID="
+					+ cube.getPA_ReportCube_ID() + " AND c.LastRecalculated IS NOT NULL)";
+			String sql = cube.getSummarySQL(where, subtract);
+			Object[] allParams = new Object[params.length + 3];
+			allParams[0] = cube.getPA_ReportCube_ID();
+			allParams[1] = cube.getC_Calendar_ID();
+			allParams[2] = cube.getAD_Client_ID();
+			System.arraycopy(params, 0, allParams, 3, params.length);
+			rows += DB.executeUpdateEx(sql, allParams, trxName);
+		}
+		return rows;
+	}
+
+	/**
+	 * Force a full rebuild of the cubes of the client on next update.<br/>
+	 * Used when facts are deleted in bulk, instead of {@link #updateSummary(int, String, Object[], boolean, String)}.
+	 * @param AD_Client_ID
+	 * @param trxName
+	 * @return number of invalidated cubes
+	 */
+	public static int invalidate(int AD_Client_ID, String trxName)
+	{
+		String sql = "UPDATE PA_ReportCube SET LastRecalculated=NULL WHERE AD_Client_ID=? AND LastRecalculated IS NOT NULL";
+		return DB.executeUpdateEx(sql, new Object[] {AD_Client_ID}, trxName);
+	}
+
 	public MReportCube(Properties ctx, int PA_ReportCube_ID, String trxName) {
 		super(ctx, PA_ReportCube_ID, trxName);
 	}
@@ -63,12 +145,19 @@ public class MReportCube extends X_PA_ReportCube {
 			 "INNER JOIN Fact_Acct fact ON (fact.dateacct between p.startdate and p.enddate " +
              "                      and fact.ad_client_id = c.ad_client_id) " +
 			 "WHERE c.PA_ReportCube_ID = ? " +
-			 "AND fact.updated > c.LastRecalculated";
+			 "AND fact.updated > c.LastRecalculated " +
+			 // periods where facts have been deleted
+			 "UNION " +
+			 "SELECT p.C_Period_ID, p.Name FROM C_Period p " +
+			 "INNER JOIN Fact_Acct_Summary fas ON (fas.C_Period_ID = p.C_Period_ID) " +
+			 "INNER JOIN PA_ReportCube c ON (c.PA_ReportCube_ID = fas.PA_ReportCube_ID) " +
+			 "WHERE c.PA_ReportCube_ID = ? " +
+			 "AND fas.Updated > c.LastRecalculated";
 
 			log.log (Level.FINE, sql);
 
 			start = System.currentTimeMillis();
-			KeyNamePair[] changedPeriods = DB.getKeyNamePairs(sql, false, getPA_ReportCube_ID());
+			KeyNamePair[] changedPeriods = DB.getKeyNamePairs(get_TrxName(), sql, false, getPA_ReportCube_ID(), getPA_ReportCube_ID());
 			elapsed = (System.currentTimeMillis() - start)/1000;
 			if (log.isLoggable(Level.FINE))log.log(Level.FINE, "Selecting changed periods took:" + elapsed + "s");
 
@@ -89,7 +178,6 @@ public class MReportCube extends X_PA_ReportCube {
 				return "Nothing to update in " + getName();
 
 			periods = periodList.toString();
-			where += (" AND C_Period_ID IN " + periods);
 		}
 
 
@@ -105,97 +193,54 @@ public class MReportCube extends X_PA_ReportCube {
 		}
 		try 
 		{
-			// delete
-			String delSQL = "DELETE FROM Fact_Acct_Summary fas " + where;
-			if (log.isLoggable(Level.FINE))log.log(Level.FINE, "Delete sql: " + delSQL);
-			start = System.currentTimeMillis();
-			int deleted = DB.executeUpdateEx(delSQL, get_TrxName());
-			elapsed = (System.currentTimeMillis() - start)/1000;
-			result += "Deleted " + deleted + " in " + elapsed + " s;";
-			
-			if (log.isLoggable(Level.FINE))log.log(Level.FINE, result);
-
-			// insert
-			StringBuilder insert = new StringBuilder("INSERT " +
-					"INTO FACT_ACCT_SUMMARY (PA_ReportCube_ID , AD_Client_ID, " +
-					"AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, IsActive, " +
-					"C_AcctSchema_ID, Account_ID, PostingType, " +
-			"GL_Budget_ID, C_Period_ID, DateAcct, AmtAcctDr, AmtAcctCr, Qty");
-
-			StringBuilder select = new StringBuilder(" ) SELECT " +
-					"?, f.AD_CLIENT_ID, f.AD_ORG_ID, " +
-					"max(f.Created), max(f.CreatedBy), max(f.Updated), max(f.UpdatedBy), 'Y', " +
-					"f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, f.POSTINGTYPE, GL_Budget_ID, " +
-					"p.c_period_id,	p.StartDate, COALESCE(SUM(AmtAcctDr),0), COALESCE(SUM(AmtAcctCr),0), " +
-			"COALESCE(SUM(Qty),0)");
-			String from = " FROM fact_acct f " +
-			" INNER JOIN C_Period p ON ( f.C_Period_ID = p.C_Period_ID ) " +
-			" INNER JOIN C_Year y ON ( p.C_Year_ID = y.C_Year_ID ) " +
-			" WHERE y.C_Calendar_ID = ? AND f.AD_Client_ID = ? ";
+			int rows;
 			if ( getLastRecalculated() != null && !reset )
-				from += "AND  p.C_Period_ID IN " + periods;
-
-			StringBuilder groups = new StringBuilder(" GROUP BY " +
-					"f.AD_CLIENT_ID, f.AD_ORG_ID, f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, " +
-			"f.POSTINGTYPE, GL_Budget_ID, p.c_period_id, p.StartDate ");
-
-			ArrayList<String> values = new ArrayList<String>();
-
-			if ( isProductDim() )	
-				values.add("M_Product_ID");
-			if ( isBPartnerDim() )
-				values.add("C_BPartner_ID");
-			if ( isProjectDim() )
-				values.add("C_Project_ID");
-			if ( isOrgTrxDim() )
-				values.add("AD_OrgTrx_ID");
-			if ( isSalesRegionDim() )
-				values.add("C_SalesRegion_ID");
-			if ( isActivityDim() )
-				values.add("C_Activity_ID");
-			if ( isCampaignDim() )
-				values.add("C_Campaign_ID");
-			if ( isLocToDim() )
-				values.add("C_LocTo_ID");
-			if ( isLocFromDim() )
-				values.add("C_LocFrom_ID");
-			if ( isUser1Dim() )
-				values.add("User1_ID");
-			if ( isUser2Dim() )
-				values.add("User2_ID");
-			if ( isUserElement1Dim() )
-				values.add("UserElement1_ID");
-			if ( isUserElement2Dim() )
-				values.add("UserElement2_ID");
-			if ( isSubAcctDim() )
-				values.add("C_SubAcct_ID");
-			if ( isProjectPhaseDim() )
-				values.add("C_ProjectPhase_ID");
-			if ( isProjectTaskDim() )
-				values.add("C_ProjectTask_ID");
-			
-			Iterator<String> iter = values.iterator();
-			while ( iter.hasNext() )
 			{
-				String dim = iter.next();
-				insert.append(", " + dim );
-				select.append(", f." + dim);
-				groups.append(", f." + dim);
+				// merge the rows added by postings: delete and reinsert the summary of changed periods
+				String delSQL = "DELETE FROM Fact_Acct_Summary WHERE PA_ReportCube_ID = ? AND C_Period_ID IN " + periods;
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, "Delete sql: " + delSQL);
+				start = System.currentTimeMillis();
+				int deleted = DB.executeUpdateEx(delSQL, new Object[] { getPA_ReportCube_ID() }, get_TrxName());
+
+				String sql = getSummarySQL("f.C_Period_ID IN " + periods, false);
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, sql);
+				rows = DB.executeUpdateEx(sql, new Object[] { getPA_ReportCube_ID(), getC_Calendar_ID(), getAD_Client_ID() }, get_TrxName());
+
+				// add the difference between facts and summary, in a single statement to have a consistent view:
+				// a posting committed between delete and insert has its facts inserted and its summary rows kept
+				sql = getReconcileSQL(periods);
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, sql);
+				Object[] params = new Object[] { getPA_ReportCube_ID(), getC_Calendar_ID(), getAD_Client_ID(), getPA_ReportCube_ID() };
+				int corrected = DB.executeUpdateEx(sql, params, get_TrxName());
+				elapsed = (System.currentTimeMillis() - start)/1000;
+				result += "Deleted " + deleted + ", Inserted " + rows + ", Corrected " + corrected + " in " + elapsed + " s.";
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, result);
 			}
+			else
+			{
+				// delete
+				String delSQL = "DELETE FROM Fact_Acct_Summary fas " + where;
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, "Delete sql: " + delSQL);
+				start = System.currentTimeMillis();
+				int deleted = DB.executeUpdateEx(delSQL, get_TrxName());
+				elapsed = (System.currentTimeMillis() - start)/1000;
+				result += "Deleted " + deleted + " in " + elapsed + " s;";
 
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, result);
 
-			String sql = insert.append(select.toString()).append(from).append(groups.toString()).toString();
-			if (log.isLoggable(Level.FINE))log.log(Level.FINE, sql);
-			Object[] params = new Object[] { getPA_ReportCube_ID(), getC_Calendar_ID(), getAD_Client_ID() };
+				// insert
+				String sql = getSummarySQL(null, false);
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, sql);
+				Object[] params = new Object[] { getPA_ReportCube_ID(), getC_Calendar_ID(), getAD_Client_ID() };
 
-			start = System.currentTimeMillis();
-			int rows = DB.executeUpdateEx(sql, params, get_TrxName());
-			long seconds = (System.currentTimeMillis() - start)/1000;
-			
-			String insertResult = "Inserted " + rows  + " in " + seconds + " s.";
-			if (log.isLoggable(Level.FINE))log.log(Level.FINE, insertResult);
-			result += insertResult;
-			
+				start = System.currentTimeMillis();
+				rows = DB.executeUpdateEx(sql, params, get_TrxName());
+				long seconds = (System.currentTimeMillis() - start)/1000;
+
+				String insertResult = "Inserted " + rows  + " in " + seconds + " s.";
+				if (log.isLoggable(Level.FINE))log.log(Level.FINE, insertResult);
+				result += insertResult;
+			}
 
 			// set timestamp
 			String tsSQL = "SELECT max(fas.Updated)" +
@@ -222,4 +267,181 @@ public class MReportCube extends X_PA_ReportCube {
 		}
 		return result;
 	}
+
+	/**
+	 * @return Fact_Acct dimension columns summarized by the cube
+	 */
+	public List<String> getDimensionColumns()
+	{
+		ArrayList<String> values = new ArrayList<String>();
+
+		if ( isProductDim() )	
+			values.add("M_Product_ID");
+		if ( isBPartnerDim() )
+			values.add("C_BPartner_ID");
+		if ( isProjectDim() )
+			values.add("C_Project_ID");
+		if ( isOrgTrxDim() )
+			values.add("AD_OrgTrx_ID");
+		if ( isSalesRegionDim() )
+			values.add("C_SalesRegion_ID");
+		if ( isActivityDim() )
+			values.add("C_Activity_ID");
+		if ( isCampaignDim() )
+			values.add("C_Campaign_ID");
+		if ( isLocToDim() )
+			values.add("C_LocTo_ID");
+		if ( isLocFromDim() )
+			values.add("C_LocFrom_ID");
+		if ( isUser1Dim() )
+			values.add("User1_ID");
+		if ( isUser2Dim() )
+			values.add("User2_ID");
+		if ( isUserElement1Dim() )
+			values.add("UserElement1_ID");
+		if ( isUserElement2Dim() )
+			values.add("UserElement2_ID");
+		if ( isSubAcctDim() )
+			values.add("C_SubAcct_ID");
+		if ( isProjectPhaseDim() )
+			values.add("C_ProjectPhase_ID");
+		if ( isProjectTaskDim() )
+			values.add("C_ProjectTask_ID");
+		return values;
+	}
+
+	/**
+	 * Can the where clause be evaluated on the summary of the cube instead of Fact_Acct.<br/>
+	 * All the Fact_Acct columns referenced by the where clause must be summarized by the cube.
+	 * @param whereClause where clause on Fact_Acct
+	 * @return true if the where clause is covered by the cube
+	 */
+	public boolean isCovered(String whereClause)
+	{
+		if (Util.isEmpty(whereClause, true))
+			return true;
+		POInfo factInfo = POInfo.getPOInfo(getCtx(), MFactAcct.Table_ID);
+		POInfo summaryInfo = POInfo.getPOInfo(getCtx(), X_Fact_Acct_Summary.Table_ID);
+		List<String> dimensions = getDimensionColumns();
+		Matcher matcher = IDENTIFIER_PATTERN.matcher(QUOTED_STRING_PATTERN.matcher(whereClause).replaceAll("''"));
+		while (matcher.find())
+		{
+			String column = matcher.group();
+			if (factInfo.getColumnIndex(column) < 0)
+				continue;
+			if (summaryInfo.getColumnIndex(column) < 0)
+				return false;
+			for (String dimension : DIMENSION_COLUMNS)
+			{
+				if (dimension.equalsIgnoreCase(column) && !dimensions.contains(dimension))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get statement inserting the summary of facts.<br/>
+	 * Parameters are PA_ReportCube_ID, C_Calendar_ID, AD_Client_ID followed by the parameters of factWhere.
+	 * @param factWhere optional where clause on Fact_Acct with alias f
+	 * @param subtract true to insert the negated summary, Updated is the current time to find the period on next update
+	 * @return insert statement
+	 */
+	private String getSummarySQL(String factWhere, boolean subtract)
+	{
+		String sign = subtract ? "-" : "";
+		String updated = subtract ? "getDate()" : "max(f.Updated)";
+		StringBuilder insert = new StringBuilder("INSERT " +
+				"INTO FACT_ACCT_SUMMARY (PA_ReportCube_ID , AD_Client_ID, " +
+				"AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, IsActive, " +
+				"C_AcctSchema_ID, Account_ID, PostingType, " +
+		"GL_Budget_ID, C_Period_ID, DateAcct, AmtAcctDr, AmtAcctCr, Qty");
+
+		StringBuilder select = new StringBuilder(" ) SELECT " +
+				"?, f.AD_CLIENT_ID, f.AD_ORG_ID, " +
+				"max(f.Created), max(f.CreatedBy), " + updated + ", max(f.UpdatedBy), 'Y', " +
+				"f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, f.POSTINGTYPE, GL_Budget_ID, " +
+				"p.c_period_id,	p.StartDate, " + sign + "COALESCE(SUM(AmtAcctDr),0), " + sign + "COALESCE(SUM(AmtAcctCr),0), " +
+		sign + "COALESCE(SUM(Qty),0)");
+		String from = " FROM fact_acct f " +
+		" INNER JOIN C_Period p ON ( f.C_Period_ID = p.C_Period_ID ) " +
+		" INNER JOIN C_Year y ON ( p.C_Year_ID = y.C_Year_ID ) " +
+		" WHERE y.C_Calendar_ID = ? AND f.AD_Client_ID = ? ";
+		if (!Util.isEmpty(factWhere, true))
+			from += "AND " + factWhere;
+
+		StringBuilder groups = new StringBuilder(" GROUP BY " +
+				"f.AD_CLIENT_ID, f.AD_ORG_ID, f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, " +
+		"f.POSTINGTYPE, GL_Budget_ID, p.c_period_id, p.StartDate ");
+
+		Iterator<String> iter = getDimensionColumns().iterator();
+		while ( iter.hasNext() )
+		{
+			String dim = iter.next();
+			insert.append(", " + dim );
+			select.append(", f." + dim);
+			groups.append(", f." + dim);
+		}
+
+		return insert.append(select.toString()).append(from).append(groups.toString()).toString();
+	}
+
+	/**
+	 * Get statement inserting the difference between the facts and the summary of periods.<br/>
+	 * Parameters are PA_ReportCube_ID, C_Calendar_ID, AD_Client_ID, PA_ReportCube_ID.
+	 * @param periods list of C_Period_ID
+	 * @return insert statement
+	 */
+	private String getReconcileSQL(String periods)
+	{
+		StringBuilder insert = new StringBuilder("INSERT " +
+				"INTO FACT_ACCT_SUMMARY (PA_ReportCube_ID , AD_Client_ID, " +
+				"AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, IsActive, " +
+				"C_AcctSchema_ID, Account_ID, PostingType, " +
+		"GL_Budget_ID, C_Period_ID, DateAcct, AmtAcctDr, AmtAcctCr, Qty");
+		StringBuilder select = new StringBuilder(" ) SELECT " +
+				"?, x.AD_Client_ID, x.AD_Org_ID, " +
+				"max(x.Created), max(x.CreatedBy), max(x.Updated), max(x.UpdatedBy), 'Y', " +
+				"x.C_AcctSchema_ID, x.Account_ID, x.PostingType, x.GL_Budget_ID, " +
+				"x.C_Period_ID, x.DateAcct, SUM(x.AmtAcctDr), SUM(x.AmtAcctCr), SUM(x.Qty)");
+		StringBuilder facts = new StringBuilder(" FROM (SELECT " +
+				"f.AD_Client_ID, f.AD_Org_ID, f.Created, f.CreatedBy, f.Updated, f.UpdatedBy, " +
+				"f.C_AcctSchema_ID, f.Account_ID, f.PostingType, f.GL_Budget_ID, p.C_Period_ID, p.StartDate AS DateAcct, " +
+				"f.AmtAcctDr, f.AmtAcctCr, COALESCE(f.Qty,0) AS Qty");
+		StringBuilder summary = new StringBuilder(" UNION ALL SELECT " +
+				"s.AD_Client_ID, s.AD_Org_ID, s.Created, s.CreatedBy, s.Updated, s.UpdatedBy, " +
+				"s.C_AcctSchema_ID, s.Account_ID, s.PostingType, s.GL_Budget_ID, s.C_Period_ID, s.DateAcct, " +
+				"-s.AmtAcctDr, -s.AmtAcctCr, -s.Qty");
+		StringBuilder groups = new StringBuilder(" GROUP BY " +
+				"x.AD_Client_ID, x.AD_Org_ID, x.C_AcctSchema_ID, x.Account_ID, " +
+				"x.PostingType, x.GL_Budget_ID, x.C_Period_ID, x.DateAcct");
+
+		for (String dim : getDimensionColumns())
+		{
+			insert.append(", " + dim);
+			select.append(", x." + dim);
+			facts.append(", f." + dim);
+			summary.append(", s." + dim);
+			groups.append(", x." + dim);
+		}
+
+		facts.append(" FROM fact_acct f " +
+				" INNER JOIN C_Period p ON ( f.C_Period_ID = p.C_Period_ID ) " +
+				" INNER JOIN C_Year y ON ( p.C_Year_ID = y.C_Year_ID ) " +
+				" WHERE y.C_Calendar_ID = ? AND f.AD_Client_ID = ? AND p.C_Period_ID IN " + periods);
+		summary.append(" FROM Fact_Acct_Summary s WHERE s.PA_ReportCube_ID = ? AND s.C_Period_ID IN " + periods + ") x");
+		groups.append(" HAVING SUM(x.AmtAcctDr) <> 0 OR SUM(x.AmtAcctCr) <> 0 OR SUM(x.Qty) <> 0");
+
+		return insert.append(select).append(facts).append(summary).append(groups).toString();
+	}
+
+	@Override
+	public MReportCube markImmutable()
+	{
+		if (is_Immutable())
+			return this;
+
+		makeImmutable();
+		return this;
+	}
 }
@@ -33,10 +33,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.TreeSet;
 import java.util.logging.Level;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.process.UUIDGenerator;
+import org.compiere.util.CCache;
 import org.compiere.util.CLogger;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
@@ -126,27 +128,48 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 	 * 	@param reload if true forces load
 	 *	@return role
 	 */
-	public synchronized static MRole get (Properties ctx, int AD_Role_ID, int AD_User_ID, boolean reload)
+	public static MRole get (Properties ctx, int AD_Role_ID, int AD_User_ID, boolean reload)
 	{
 		if (s_log.isLoggable(Level.CONFIG)) s_log.config("AD_Role_ID=" + AD_Role_ID + ", AD_User_ID=" + AD_User_ID + ", reload=" + reload);
 		String key = AD_Role_ID + "_" + AD_User_ID;
-		MRole role = (MRole)s_roles.get (key, e -> new MRole(ctx, e));
-		if (role == null || reload)
+		if (reload)
 		{
-			role = new MRole (ctx, AD_Role_ID, null);			
-			if (AD_Role_ID == SystemIDs.ROLE_SYSTEM)
-			{
-				String trxName = null;
-				role.load(trxName);			//	special Handling
-			}
-			role.setAD_User_ID(AD_User_ID);
-			role.loadAccess(reload);
+			MRole role = loadRole(ctx, AD_Role_ID, AD_User_ID, reload);
 			s_roles.put (key, role, e -> new MRole(Env.getCtx(), e));
-			if (s_log.isLoggable(Level.INFO)) s_log.info(role.toString());
+			return role;
+		}
+		MRole role = (MRole)s_roles.get (key, e -> new MRole(ctx, e));
+		if (role == null)
+		{
+			//concurrent misses of the same role and user share one load
+			MRole loaded = s_roles.getOrLoad(key, e -> loadRole(ctx, AD_Role_ID, AD_User_ID, false));
+			role = new MRole(ctx, loaded);
 		}
 		return role;
 	}	//	get
 
+	/**
+	 * 	Load Role and access for User
+	 * 	@param ctx context
+	 * 	@param AD_Role_ID role
+	 * 	@param AD_User_ID user
+	 * 	@param reload reload access
+	 *	@return role
+	 */
+	private static MRole loadRole (Properties ctx, int AD_Role_ID, int AD_User_ID, boolean reload)
+	{
+		MRole role = new MRole (ctx, AD_Role_ID, null);			
+		if (AD_Role_ID == SystemIDs.ROLE_SYSTEM)
+		{
+			String trxName = null;
+			role.load(trxName);			//	special Handling
+		}
+		role.setAD_User_ID(AD_User_ID);
+		role.loadAccess(reload);
+		if (s_log.isLoggable(Level.INFO)) s_log.info(role.toString());
+		return role;
+	}	//	loadRole
+
 	/**
 	 * 	Get Role (cached).
 	 * 	Did not set user - so no access loaded
@@ -242,6 +265,8 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 	private static POCopyCache<String,MRole> s_roles = new POCopyCache<String,MRole>(Table_Name, 5);
 	/** Log						*/ 
 	private static CLogger			s_log = CLogger.getCLogger(MRole.class);
+	/** Parsed SQL of addAccessSQL by SQL without ORDER BY, shared by all roles	*/
+	private static final CCache<String,ParsedSQL> s_parsedSQL = new CCache<String,ParsedSQL>("MRole_ParsedSQL", 100, 0, false, 1000);
 	
 	/**	Access SQL Read Write		*/
 	public static final boolean		SQL_RW = true;
@@ -1179,6 +1204,65 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 		}		
 		return "(AD_Org_ID IN (" + sb.toString() + "))";
 	}	//	getOrgWhere
+
+	/**
+	 * 	Get Client IDs of {@link #getClientWhere(boolean)}
+	 * 	@param rw read write
+	 * 	@return sorted AD_Client_IDs, {-1} if no access
+	 */
+	private Integer[] getClientIDs (boolean rw)
+	{
+		TreeSet<Integer> set = new TreeSet<Integer>();
+		if (isAccessAllOrgs())
+		{
+			set.add(getAD_Client_ID());
+			if (!rw)
+				set.add(0);
+		}
+		else
+		{
+			loadOrgAccess(false);
+			if (!rw)
+				set.add(0);
+			for (int i = 0; i < m_orgAccess.length; i++)
+				set.add(m_orgAccess[i].AD_Client_ID);
+		}
+		if (set.isEmpty())
+			set.add(-1);	//	No Access Record
+		return set.toArray(new Integer[set.size()]);
+	}	//	getClientIDs
+
+	/**
+	 * 	Get Org IDs of {@link #getOrgWhere(boolean)}
+	 * 	@param rw read write
+	 * 	@return sorted AD_Org_IDs, {-1} if no access
+	 */
+	private Integer[] getOrgIDs (boolean rw)
+	{
+		loadOrgAccess(false);
+		TreeSet<Integer> set = new TreeSet<Integer>();
+		if (!rw)
+			set.add(0);
+		for (int i = 0; i < m_orgAccess.length; i++)
+		{
+			if (!rw || !m_orgAccess[i].readOnly)
+				set.add(m_orgAccess[i].AD_Org_ID);
+		}
+		if (set.isEmpty())
+			set.add(-1);	//	No Access Record
+		return set.toArray(new Integer[set.size()]);
+	}	//	getOrgIDs
+
+	/**
+	 * 	Client and org access of {@link #addAccessSQL(String, String, boolean, boolean, List)}
+	 * 	as array parameters ({@link MSysConfig#ROLE_ACCESS_SQL_ARRAY_PARAMETERS}, PostgreSQL only)
+	 *	@return true if array parameters are used
+	 */
+	private boolean isUseArrayParameters()
+	{
+		return DB.isPostgreSQL()
+			&& MSysConfig.getBooleanValue(MSysConfig.ROLE_ACCESS_SQL_ARRAY_PARAMETERS, false, getAD_Client_ID());
+	}	//	isUseArrayParameters
 	
 	/**
 	 * 	Access to Org
@@ -1994,6 +2078,27 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 	 */
 	public String addAccessSQL (String SQL, String TableNameIn, 
 		boolean fullyQualified, boolean rw)
+	{
+		return addAccessSQL(SQL, TableNameIn, fullyQualified, rw, null);
+	}	//	addAccessSQL
+
+	/**
+	 *	Appends where clause to SQL statement for Table.<br/>
+	 *	With {@link MSysConfig#ROLE_ACCESS_SQL_ARRAY_PARAMETERS} on PostgreSQL, client and org access
+	 *	are appended as "AD_Client_ID = ANY(?)" and "AD_Org_ID = ANY(?)" and the Integer[] values are
+	 *	added to params, so the statement text is the same for all roles.
+	 *	The placeholders are appended after the WHERE clause of SQL, the caller must bind params
+	 *	after its own parameters of SQL (but before parameters of the ORDER BY clause).
+	 *
+	 *	@param SQL			existing SQL statement
+	 *	@param TableNameIn	Table Name or list of table names AAA, BBB or AAA a, BBB b
+	 *	@param fullyQualified	fullyQualified names
+	 *	@param rw			if false, includes System Data
+	 *	@param params		list to add the access parameters to, null to append literal values
+	 *	@return				updated SQL statement
+	 */
+	public String addAccessSQL (String SQL, String TableNameIn, 
+		boolean fullyQualified, boolean rw, List<Object> params)
 	{
 		StringBuilder retSQL = new StringBuilder();
 
@@ -2009,11 +2114,11 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 			retSQL.append(SQL);
 
 		//	Parse SQL
-		AccessSqlParser asp = new AccessSqlParser(retSQL.toString());
-		AccessSqlParser.TableInfo[] ti = asp.getTableInfo(asp.getMainSqlIndex()); 
+		ParsedSQL asp = getParsedSQL(retSQL.toString());
+		AccessSqlParser.TableInfo[] ti = asp.tableInfo; 
 
 		//  Do we have to add WHERE or AND
-		if (asp.getMainSql().indexOf(" WHERE ") == -1)
+		if (!asp.hasWhere)
 			retSQL.append(" WHERE ");
 		else
 			retSQL.append(" AND ");
@@ -2039,19 +2144,36 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 		}
 
 		if (! tableName.equals(X_AD_PInstance_Log.Table_Name)) { // globalqss, bug 1662433 
+			boolean arrayParameters = params != null && isUseArrayParameters();
 			//	Client Access
 			if (fullyQualified)
 				retSQL.append(tableName).append(".");
-			retSQL.append(getClientWhere(rw));
+			if (arrayParameters)
+			{
+				retSQL.append("AD_Client_ID = ANY(?)");
+				params.add(getClientIDs(rw));
+			}
+			else
+				retSQL.append(getClientWhere(rw));
 
 			//	Org Access
 			if (!isAccessAllOrgs())
 			{
 				retSQL.append(" AND ");
-				String orgWhere = getOrgWhere(rw);
-				if (fullyQualified)
-					orgWhere = orgWhere.replaceAll("AD_Org_ID", tableName + ".AD_Org_ID");
-				retSQL.append(orgWhere);
+				if (arrayParameters)
+				{
+					if (fullyQualified)
+						retSQL.append(tableName).append(".");
+					retSQL.append("AD_Org_ID = ANY(?)");
+					params.add(getOrgIDs(rw));
+				}
+				else
+				{
+					String orgWhere = getOrgWhere(rw);
+					if (fullyQualified)
+						orgWhere = orgWhere.replaceAll("AD_Org_ID", tableName + ".AD_Org_ID");
+					retSQL.append(orgWhere);
+				}
 			}
 		} else {
 			retSQL.append("1=1");
@@ -2103,7 +2225,7 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 		}	//	for all table info
 		
 		//	Dependent Records (only for main SQL)
-		String mainSql = asp.getMainSql();
+		String mainSql = asp.mainSql;
 		loadRecordAccess(false);
 		int AD_Table_ID = 0;
 		String whereColumnName = null;
@@ -2112,7 +2234,7 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 		for (int i = 0; i < m_recordDependentAccess.length; i++)
 		{
 			String columnName = m_recordDependentAccess[i].getKeyColumnName
-				(asp.getTableInfo(asp.getMainSqlIndex()) );
+				(asp.tableInfo);
 			if (columnName == null)
 				continue;	//	no key column
 			
@@ -2162,6 +2284,22 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 		return retSQL.toString();
 	}	//	addAccessSQL
 
+	/**
+	 * 	Get parsed SQL from cache
+	 *	@param sql SQL without ORDER BY
+	 *	@return parsed SQL
+	 */
+	private static ParsedSQL getParsedSQL (String sql)
+	{
+		ParsedSQL parsed = s_parsedSQL.get(sql);
+		if (parsed == null)
+		{
+			parsed = new ParsedSQL(new AccessSqlParser(sql));
+			s_parsedSQL.put(sql, parsed);
+		}
+		return parsed;
+	}	//	getParsedSQL
+
 	/**
 	 * 	Get Dependent Access 
 	 *	@param whereColumnName column
@@ -2505,6 +2643,35 @@ public final class MRole extends X_AD_Role implements ImmutablePOSupport
 		return !X_AD_Role.PREFERENCETYPE_None.equals(getPreferenceType());
 	}	//	isShowPreference
 	
+	/**
+	 * 	Result of {@link AccessSqlParser} used by addAccessSQL, immutable
+	 */
+	private static class ParsedSQL
+	{
+		/** Tables of main statement	*/
+		private final AccessSqlParser.TableInfo[] tableInfo;
+		/** Main statement				*/
+		private final String mainSql;
+		/** Main statement has WHERE	*/
+		private final boolean hasWhere;
+		/** Parser info for log			*/
+		private final String info;
+
+		private ParsedSQL (AccessSqlParser asp)
+		{
+			tableInfo = asp.getTableInfo(asp.getMainSqlIndex());
+			mainSql = asp.getMainSql();
+			hasWhere = mainSql.indexOf(" WHERE ") != -1;
+			info = asp.toString();
+		}
+
+		@Override
+		public String toString()
+		{
+			return info;
+		}
+	}	//	ParsedSQL
+
 	/**
 	 * 	Org Access Summary
 	 */
@@ -18,13 +18,26 @@
 package org.compiere.model;
 
 import java.sql.ResultSet;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
+import javax.script.ScriptException;
 
 import org.adempiere.base.Core;
+import org.compiere.util.CCache;
 import org.compiere.util.CLogger;
 import org.compiere.util.Env;
 import org.compiere.util.Msg;
@@ -139,9 +152,25 @@ public class MRule extends X_AD_Rule implements ImmutablePOSupport
 	private static ImmutableIntPOCache<Integer,MRule> s_cache = new ImmutableIntPOCache<Integer,MRule>(Table_Name, 20);
 	
 	/**	Static Logger	*/
-	@SuppressWarnings("unused")
 	private static CLogger	s_log	= CLogger.getCLogger (MRule.class);
 	
+	/** Compiled scripts of all threads, to drop the scripts of a changed or deleted rule */
+	private static final Map<Thread, Map<Integer, CompiledRule>> s_threadCompiledRules = Collections.synchronizedMap(new WeakHashMap<Thread, Map<Integer, CompiledRule>>());
+	
+	/** Compiled scripts of the current thread by AD_Rule_ID */
+	private static final ThreadLocal<Map<Integer, CompiledRule>> s_compiledRules = ThreadLocal.withInitial(() -> {
+		Map<Integer, CompiledRule> compiledRules = new ConcurrentHashMap<Integer, CompiledRule>();
+		s_threadCompiledRules.put(Thread.currentThread(), compiledRules);
+		return compiledRules;
+	});
+	
+	/** Drop compiled scripts on cache reset of AD_Rule */
+	@SuppressWarnings("unused")
+	private static final CompiledRuleCache s_compiledRuleCache = new CompiledRuleCache();
+	
+	/** Execution statistics by AD_Rule_ID */
+	private static final ConcurrentHashMap<Integer, ExecutionStatistics> s_statistics = new ConcurrentHashMap<Integer, ExecutionStatistics>();
+	
 	/* The Engine */
 	ScriptEngine engine = null;
 	
@@ -250,6 +279,253 @@ public class MRule extends X_AD_Rule implements ImmutablePOSupport
 			return null;
 		return getValue().substring(0, colonPosition);
 	}
+
+	/**
+	 * 	Script Engine of the current thread for this rule, to execute the rule with {@link #eval(ScriptEngine)}.<br/>
+	 *  The engine and the compiled script are reused by the next calls of the same thread until the rule is changed,
+	 *  engine scope bindings are cleared on each call. When the rule is executed again by the same thread before
+	 *  the previous execution is finished (a rule saving a record that fire the same rule), a new engine is returned
+	 *  to keep the bindings of the outer execution. See {@link #releaseThreadScriptEngine(ScriptEngine)}.
+	 *	@return ScriptEngine or null if engine not found
+	 */
+	public ScriptEngine getThreadScriptEngine() {
+		CompiledRule compiledRule = getCompiledRule();
+		if (compiledRule == null)
+			return null;
+		if (compiledRule.running)
+			return getScriptEngine();
+		Bindings bindings = compiledRule.engine.createBindings();
+		if (bindings != null)
+			compiledRule.engine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+		compiledRule.running = true;
+		return compiledRule.engine;
+	}
+
+	/**
+	 * 	Execute the script of this rule, using the compiled script if engine is from {@link #getThreadScriptEngine()}
+	 *	@param engine script engine
+	 *	@return script return value
+	 *	@throws ScriptException
+	 */
+	public Object eval(ScriptEngine engine) throws ScriptException {
+		CompiledRule compiledRule = s_compiledRules.get().get(getAD_Rule_ID());
+		ExecutionStatistics statistics = s_statistics.computeIfAbsent(getAD_Rule_ID(), k -> new ExecutionStatistics());
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			Object retValue;
+			if (compiledRule != null && compiledRule.engine == engine && compiledRule.compiledScript != null && compiledRule.isValid(this))
+				retValue = compiledRule.compiledScript.eval();
+			else
+				retValue = engine.eval(getScript());
+			success = true;
+			return retValue;
+		} finally {
+			statistics.add(System.nanoTime() - start, success);
+			releaseThreadScriptEngine(engine);
+		}
+	}
+
+	/**
+	 * 	Release the engine of {@link #getThreadScriptEngine()} for the next call of the thread.<br/>
+	 *  Done by {@link #eval(ScriptEngine)}, callers setting up the engine call it in a finally block too, as the
+	 *  engine stays marked running if eval is not reached. Other engines are ignored.
+	 *	@param engine script engine, can be null
+	 */
+	public void releaseThreadScriptEngine(ScriptEngine engine) {
+		if (engine == null)
+			return;
+		CompiledRule compiledRule = s_compiledRules.get().get(getAD_Rule_ID());
+		if (compiledRule != null && compiledRule.engine == engine && compiledRule.running) {
+			// don't keep the arguments (PO, context) of the last execution referenced by the thread
+			Bindings bindings = engine.createBindings();
+			if (bindings != null)
+				engine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+			compiledRule.running = false;
+		}
+	}
+
+	/**
+	 * 	Get or create the compiled script of the current thread
+	 *	@return compiled rule or null if engine not found
+	 */
+	private CompiledRule getCompiledRule() {
+		Map<Integer, CompiledRule> compiledRules = s_compiledRules.get();
+		CompiledRule compiledRule = compiledRules.get(getAD_Rule_ID());
+		if (compiledRule != null && compiledRule.isValid(this))
+			return compiledRule;
+
+		String engineName = getEngineName();
+		ScriptEngine engine = engineName != null ? Core.getScriptEngine(engineName) : null;
+		if (engine == null) {
+			compiledRules.remove(getAD_Rule_ID());
+			return null;
+		}
+		CompiledScript compiledScript = null;
+		if (engine instanceof Compilable && getScript() != null) {
+			try {
+				compiledScript = ((Compilable) engine).compile(getScript());
+			} catch (ScriptException e) {
+				// let eval report the error
+				if (s_log.isLoggable(Level.FINE)) s_log.log(Level.FINE, "Compile failed: " + this, e);
+			}
+		}
+		compiledRule = new CompiledRule(getValue(), getScript(), engine, compiledScript);
+		compiledRules.put(getAD_Rule_ID(), compiledRule);
+		return compiledRule;
+	}
+
+	/**
+	 * 	Get execution statistics of a rule
+	 *	@param AD_Rule_ID
+	 *	@return statistics or null if the rule has not been executed with {@link #eval(ScriptEngine)}
+	 */
+	public static ExecutionStatistics getExecutionStatistics(int AD_Rule_ID) {
+		return s_statistics.get(AD_Rule_ID);
+	}
+
+	/**
+	 * 	Get execution statistics of all executed rules
+	 *	@return statistics by AD_Rule_ID
+	 */
+	public static Map<Integer, ExecutionStatistics> getExecutionStatistics() {
+		return Collections.unmodifiableMap(s_statistics);
+	}
+
+	/**
+	 * 	Script engine and compiled script of a rule, valid while Value and Script are not changed
+	 */
+	private static class CompiledRule {
+		private final String value;
+		private final String script;
+		private final ScriptEngine engine;
+		private final CompiledScript compiledScript;
+		/** engine handed out by getThreadScriptEngine and not released by eval yet, only used by the owner thread */
+		private boolean running = false;
+
+		private CompiledRule(String value, String script, ScriptEngine engine, CompiledScript compiledScript) {
+			this.value = value;
+			this.script = script;
+			this.engine = engine;
+			this.compiledScript = compiledScript;
+		}
+
+		private boolean isValid(MRule rule) {
+			return Objects.equals(value, rule.getValue()) && Objects.equals(script, rule.getScript());
+		}
+	}
+
+	/**
+	 * 	Drop the compiled scripts of all threads for a rule
+	 *	@param AD_Rule_ID rule or 0 for all rules
+	 *	@return number of compiled scripts dropped
+	 */
+	private static int resetCompiledRules(int AD_Rule_ID) {
+		int count = 0;
+		synchronized (s_threadCompiledRules) {
+			for (Map<Integer, CompiledRule> compiledRules : s_threadCompiledRules.values()) {
+				if (AD_Rule_ID > 0) {
+					if (compiledRules.remove(AD_Rule_ID) != null)
+						count++;
+				} else {
+					count += compiledRules.size();
+					compiledRules.clear();
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 	Cache registered for AD_Rule, drop the compiled scripts when a rule is changed or deleted
+	 */
+	private static final class CompiledRuleCache extends CCache<Integer, Object> {
+		private static final long serialVersionUID = -6043592871534032184L;
+
+		private CompiledRuleCache() {
+			super(Table_Name, "MRule_CompiledScript", 0, 0, false, 0);
+		}
+
+		@Override
+		public int reset() {
+			return resetCompiledRules(0);
+		}
+
+		@Override
+		public int reset(int recordId) {
+			return resetCompiledRules(recordId);
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			synchronized (s_threadCompiledRules) {
+				for (Map<Integer, CompiledRule> compiledRules : s_threadCompiledRules.values())
+					size += compiledRules.size();
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * 	Execution counters of a rule
+	 */
+	public static class ExecutionStatistics {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong errorCount = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private void add(long nanos, boolean success) {
+			count.incrementAndGet();
+			if (!success)
+				errorCount.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		/**
+		 * @return number of executions
+		 */
+		public long getCount() {
+			return count.get();
+		}
+
+		/**
+		 * @return number of executions that throw exception
+		 */
+		public long getErrorCount() {
+			return errorCount.get();
+		}
+
+		/**
+		 * @return total execution time in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos.get();
+		}
+
+		/**
+		 * @return longest execution time in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+
+		/**
+		 * @return average execution time in nanoseconds
+		 */
+		public long getAverageNanos() {
+			long n = count.get();
+			return n > 0 ? totalNanos.get() / n : 0;
+		}
+
+		@Override
+		public String toString() {
+			return "ExecutionStatistics[Count=" + getCount() + ", Errors=" + getErrorCount()
+				+ ", TotalNanos=" + getTotalNanos() + ", MaxNanos=" + getMaxNanos() + "]";
+		}
+	}
 	
 	/**************************************************************************
 	 *	Set Context ctx to the engine based on windowNo
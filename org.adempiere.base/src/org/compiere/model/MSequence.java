@@ -28,9 +28,14 @@ import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
 import java.util.logging.Level;
 
 import org.adempiere.exceptions.AdempiereException;
@@ -152,7 +157,33 @@ public class MSequence extends X_AD_Sequence
 			return retValue;
 		}
 
+		// use block of IDs reserved for this JVM
+		if (!adempiereSys)
+		{
+			int blockSize = getIDBlockSize(TableName);
+			if (blockSize > 1)
+				return getNextBlockID(TableName, blockSize);
+		}
+
 		// use AD_Sequence to obtain the next ID
+		int[] range = reserveIDs(TableName, adempiereSys, 1);
+		if (range != null)
+			retValue = range[0];
+
+		return retValue;
+	}	//	getNextID
+
+	/**
+	 * 	Reserve a range of IDs from AD_Sequence.<br/>
+	 *  The update of AD_Sequence is committed in its own connection, independent of the caller's transaction.
+	 *	@param TableName table name
+	 *	@param adempiereSys true to use CurrentNextSys
+	 *	@param count number of IDs to reserve
+	 *	@return first ID and increment of the reserved range or null (not found or error)
+	 */
+	private static int[] reserveIDs (String TableName, boolean adempiereSys, int count)
+	{
+		int[] retValue = null;
 		String selectSQL = null;
 		if (DB.isOracle() == false)
 		{
@@ -187,7 +218,7 @@ public class MSequence extends X_AD_Sequence
 				conn = DB.getConnection(false);
 				//	Error
 				if (conn == null)
-					return -1;
+					return null;
 
 				pstmt = conn.prepareStatement(selectSQL,
 					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE);
@@ -216,15 +247,15 @@ public class MSequence extends X_AD_Sequence
 							if (!DB.isOracle() && !DB.isPostgreSQL())
 								updateCmd = DB.getDatabase().convertStatement(updateCmd);
 							updateSQL = conn.prepareStatement(updateCmd);
-							retValue = rs.getInt(2);
+							retValue = new int[] {rs.getInt(2), incrementNo};
 						} else {
 							String updateCmd = "UPDATE AD_Sequence SET CurrentNext=CurrentNext+? WHERE AD_Sequence_ID=?";
 							if (!DB.isOracle() && !DB.isPostgreSQL())
 								updateCmd = DB.getDatabase().convertStatement(updateCmd);
 							updateSQL = conn.prepareStatement(updateCmd);
-							retValue = rs.getInt(1);
+							retValue = new int[] {rs.getInt(1), incrementNo};
 						}
-						updateSQL.setInt(1, incrementNo);
+						updateSQL.setInt(1, incrementNo * count);
 						updateSQL.setInt(2, AD_Sequence_ID);
 						updateSQL.executeUpdate();
 					} finally {
@@ -244,6 +275,7 @@ public class MSequence extends X_AD_Sequence
 			catch (Exception e)
 			{
 				s_log.log(Level.SEVERE, TableName + " - " + e.getMessage(), e);
+				retValue = null;
 				try
 				{
 					if (conn != null)
@@ -267,7 +299,312 @@ public class MSequence extends X_AD_Sequence
 		}
 
 		return retValue;
-	}	//	getNextID
+	}	//	reserveIDs
+
+	/** Blocks of IDs reserved for this JVM by upper case table name */
+	private static final ConcurrentHashMap<String, BlockAllocator> s_idBlocks = new ConcurrentHashMap<String, BlockAllocator>();
+	/** Pools of reserved DocumentNo by sequence, client, calendar year/month and org */
+	private static final ConcurrentHashMap<String, BlockAllocator> s_documentNoPools = new ConcurrentHashMap<String, BlockAllocator>();
+	/** Drop the DocumentNo pools on cache reset of AD_Sequence or AD_Sequence_No */
+	@SuppressWarnings("unused")
+	private static final DocumentNoPoolCache s_documentNoPoolCache = new DocumentNoPoolCache();
+	/** Parsed block size configuration by configuration value */
+	private static final ConcurrentHashMap<String, BlockSizeConfig> s_blockSizeConfigs = new ConcurrentHashMap<String, BlockSizeConfig>();
+
+	/**
+	 * 	Get number of IDs to reserve per AD_Sequence update for a table.<br/>
+	 *  Configured in MSEQUENCE_ID_BLOCK_SIZE as a comma separated list of TableName=Size,
+	 *  the size of * apply to all other tables. For example: Fact_Acct=500,M_Transaction=100,*=10
+	 *	@param TableName table name
+	 *	@return block size, 1 or less to get the IDs one by one
+	 */
+	public static int getIDBlockSize (String TableName)
+	{
+		String value = MSysConfig.getValue(MSysConfig.MSEQUENCE_ID_BLOCK_SIZE, "");
+		return getBlockSizeConfig(value).getBlockSize(TableName);
+	}	//	getIDBlockSize
+
+	/**
+	 * 	Get parsed block size configuration
+	 *	@param value comma separated list of Name=Size
+	 *	@return block size configuration
+	 */
+	private static BlockSizeConfig getBlockSizeConfig (String value)
+	{
+		BlockSizeConfig config = s_blockSizeConfigs.get(value);
+		if (config == null)
+		{
+			config = new BlockSizeConfig(value);
+			s_blockSizeConfigs.put(value, config);
+		}
+		return config;
+	}	//	getBlockSizeConfig
+
+	/**
+	 * 	Get next ID from a block of IDs reserved for this JVM.<br/>
+	 *  A new block of blockSize IDs is reserved from AD_Sequence when the current block is used up,
+	 *  the IDs of a block are handed out without locking. Each cluster node reserve its own blocks,
+	 *  so IDs are unique but not in creation order across nodes, and the unused IDs of a block are lost on shutdown.
+	 *	@param TableName table name
+	 *	@param blockSize number of IDs to reserve per AD_Sequence update
+	 *	@return next ID or -1 (not found or error)
+	 */
+	public static int getNextBlockID (String TableName, int blockSize)
+	{
+		if (TableName == null || TableName.length() == 0)
+			throw new IllegalArgumentException("TableName missing");
+		BlockAllocator allocator = s_idBlocks.computeIfAbsent(TableName.toUpperCase(), k -> new BlockAllocator(TableName));
+		return allocator.next(Math.max(blockSize, 1), count -> reserveIDs(TableName, false, count));
+	}	//	getNextBlockID
+
+	/**
+	 * 	Get number of DocumentNo to reserve per update of a sequence.<br/>
+	 *  Only for sequences where gaps are allowed, configured at tenant level in MSEQUENCE_DOCUMENTNO_POOL_SIZE
+	 *  as a comma separated list of SequenceName=Size. For example: DocumentNo_C_Order=20,Shipment=10
+	 *	@param seq sequence
+	 *	@return pool size, 1 or less to lock the sequence in the caller's transaction
+	 */
+	public static int getDocumentNoPoolSize (MSequence seq)
+	{
+		String value = MSysConfig.getValue(MSysConfig.MSEQUENCE_DOCUMENTNO_POOL_SIZE, "", seq.getAD_Client_ID());
+		if (Util.isEmpty(value, true))
+			return 1;
+		return getBlockSizeConfig(value).getBlockSize(seq.getName());
+	}	//	getDocumentNoPoolSize
+
+	/**
+	 * 	Get next number from the DocumentNo pool of a sequence.<br/>
+	 *  The numbers are reserved in a short separate transaction, so a number is lost if the document is not saved
+	 *  and the numbers of a pool are not in creation order across cluster nodes.
+	 *	@param seq sequence
+	 *	@param calendarYearMonth calendar key for sequence that restart every year or month
+	 *	@param docOrg_ID organization for org level sequence
+	 *	@param poolSize number of DocumentNo to reserve per update
+	 *	@return next number or -1 (error) or -2 (no sequence record)
+	 */
+	private static int getNextPooledDocumentNo (MSequence seq, String calendarYearMonth, int docOrg_ID, int poolSize)
+	{
+		String key = seq.getAD_Sequence_ID() + "|" + seq.getAD_Client_ID() + "|" + calendarYearMonth + "|" + docOrg_ID;
+		BlockAllocator pool = s_documentNoPools.computeIfAbsent(key, k -> new BlockAllocator(seq.getName() + " [" + k + "]"));
+		int[] status = new int[] {-1};
+		int next = pool.next(poolSize, count -> {
+			int first = reserveDocumentNo(seq, calendarYearMonth, docOrg_ID, false, count, null);
+			status[0] = first;
+			return first < 0 ? null : new int[] {first, seq.getIncrementNo()};
+		});
+		return next < 0 ? status[0] : next;
+	}	//	getNextPooledDocumentNo
+
+	/**
+	 * 	Log the reserved DocumentNo that have not been used, called on shutdown
+	 */
+	public static void logUnusedDocumentNos ()
+	{
+		for (BlockAllocator pool : s_documentNoPools.values())
+		{
+			String unused = pool.getUnused();
+			if (unused != null)
+				s_log.warning("Unused DocumentNo " + pool.getName() + ": " + unused);
+		}
+	}	//	logUnusedDocumentNos
+
+	/**
+	 * 	Drop the reserved DocumentNo of a sequence, the next DocumentNo is reserved from the current AD_Sequence or AD_Sequence_No
+	 *	@param AD_Sequence_ID sequence or 0 for all sequences
+	 *	@return number of pools dropped
+	 */
+	public static int resetDocumentNoPools (int AD_Sequence_ID)
+	{
+		if (AD_Sequence_ID <= 0)
+		{
+			int count = s_documentNoPools.size();
+			s_documentNoPools.clear();
+			return count;
+		}
+		String prefix = AD_Sequence_ID + "|";
+		int count = 0;
+		for (String key : s_documentNoPools.keySet())
+		{
+			if (key.startsWith(prefix) && s_documentNoPools.remove(key) != null)
+				count++;
+		}
+		return count;
+	}	//	resetDocumentNoPools
+
+	/**
+	 *	Cache registered for AD_Sequence_No, also reset for AD_Sequence (dependent table prefix match).<br/>
+	 *	A record reset comes from AD_Sequence and drops the pools of that sequence,
+	 *	AD_Sequence_No has no single key and is reset as a whole.
+	 */
+	private static final class DocumentNoPoolCache extends CCache<String, Object>
+	{
+		private static final long serialVersionUID = 4807531360402386201L;
+
+		private DocumentNoPoolCache()
+		{
+			super(I_AD_Sequence_No.Table_Name, "MSequence_DocumentNoPool", 0, 0, false, 0);
+		}
+
+		@Override
+		public int reset()
+		{
+			return resetDocumentNoPools(0);
+		}
+
+		@Override
+		public int reset(int recordId)
+		{
+			return resetDocumentNoPools(recordId);
+		}
+
+		@Override
+		public int size()
+		{
+			return s_documentNoPools.size();
+		}
+	}	//	DocumentNoPoolCache
+
+	/**
+	 *	Range of numbers reserved from AD_Sequence or AD_Sequence_No
+	 */
+	private static class Block
+	{
+		private final int m_first;
+		private final int m_incrementNo;
+		private final int m_size;
+		private final AtomicInteger m_used = new AtomicInteger();
+
+		private Block (int first, int incrementNo, int size)
+		{
+			m_first = first;
+			m_incrementNo = incrementNo;
+			m_size = size;
+		}
+
+		/**
+		 * @return next number or -1 if block is used up
+		 */
+		private int next()
+		{
+			int index = m_used.getAndIncrement();
+			if (index < m_size)
+				return m_first + index * m_incrementNo;
+			//	stop counting to avoid overflow
+			m_used.set(m_size);
+			return -1;
+		}
+
+		/**
+		 * @return description of numbers not handed out or null
+		 */
+		private String getUnused()
+		{
+			int used = Math.min(m_used.get(), m_size);
+			if (used >= m_size)
+				return null;
+			return (m_size - used) + " from " + (m_first + used * m_incrementNo) + " by " + m_incrementNo;
+		}
+	}	//	Block
+
+	/**
+	 *	Hand out numbers of the current block, reserve the next block when used up
+	 */
+	private static class BlockAllocator
+	{
+		private final String m_name;
+		private volatile Block m_block = null;
+
+		private BlockAllocator (String name)
+		{
+			m_name = name;
+		}
+
+		/**
+		 * @param blockSize
+		 * @param reserve reserve blockSize numbers, return first number and increment or null
+		 * @return next number or -1 (error)
+		 */
+		private int next (int blockSize, IntFunction<int[]> reserve)
+		{
+			while (true)
+			{
+				Block block = m_block;
+				if (block != null)
+				{
+					int no = block.next();
+					if (no >= 0)
+						return no;
+				}
+				synchronized (this)
+				{
+					//	only one thread reserve the next block
+					if (block == m_block)
+					{
+						int[] range = reserve.apply(blockSize);
+						if (range == null)
+							return -1;
+						if (s_log.isLoggable(Level.FINE)) s_log.fine(m_name + " - reserved " + blockSize + " from " + range[0]);
+						m_block = new Block(range[0], range[1], blockSize);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return name
+		 */
+		private String getName()
+		{
+			return m_name;
+		}
+
+		/**
+		 * @return description of numbers not handed out or null
+		 */
+		private String getUnused()
+		{
+			Block block = m_block;
+			return block != null ? block.getUnused() : null;
+		}
+	}	//	BlockAllocator
+
+	/**
+	 *	Parsed block size configuration
+	 */
+	private static class BlockSizeConfig
+	{
+		private final Map<String, Integer> m_sizes = new HashMap<String, Integer>();
+		private int m_defaultSize = 1;
+
+		private BlockSizeConfig (String value)
+		{
+			for (String entry : value.split(","))
+			{
+				int index = entry.indexOf('=');
+				if (index <= 0)
+					continue;
+				String name = entry.substring(0, index).trim().toUpperCase();
+				try
+				{
+					int size = Integer.parseInt(entry.substring(index+1).trim());
+					if ("*".equals(name))
+						m_defaultSize = size;
+					else
+						m_sizes.put(name, size);
+				}
+				catch (NumberFormatException e)
+				{
+					s_log.warning("Invalid block size entry " + entry);
+				}
+			}
+		}
+
+		private int getBlockSize (String name)
+		{
+			Integer size = m_sizes.get(name.toUpperCase());
+			return size != null ? size.intValue() : m_defaultSize;
+		}
+	}	//	BlockSizeConfig
 
 	/**************************************************************************
 	 * 	Get Document No from table
@@ -328,12 +665,95 @@ public class MSequence extends X_AD_Sequence
 		String dateColumn = seq.getDateColumn();
 		boolean isUseOrgLevel = seq.isOrgLevelSequence();
 		String orgColumn = seq.getOrgColumn();
-		int startNo = seq.getStartNo();
 		int incrementNo = seq.getIncrementNo();
 		String prefix = seq.getPrefix();
 		String suffix = seq.getSuffix();
 		String decimalPattern = seq.getDecimalPattern();
 
+		String calendarYearMonth = NoYearNorMonth;
+		int docOrg_ID = 0;
+		if (isStartNewYear)
+		{
+			SimpleDateFormat sdf = null;
+			if (isStartNewMonth)
+				sdf = new SimpleDateFormat("yyyyMM");
+			else
+				sdf = new SimpleDateFormat("yyyy");
+			
+			if (po != null && dateColumn != null && dateColumn.length() > 0)
+			{
+				Date docDate = (Date)po.get_Value(dateColumn);
+				calendarYearMonth = sdf.format(docDate);
+			}
+			else
+			{
+				calendarYearMonth = sdf.format(new Date());
+			}
+		}
+		
+		if (isUseOrgLevel)
+		{
+			if (po != null && orgColumn != null && orgColumn.length() > 0)
+			{
+				docOrg_ID = po.get_ValueAsInt(orgColumn);
+			}
+		}
+
+		int next = -1;
+		int poolSize = adempiereSys ? 1 : getDocumentNoPoolSize(seq);
+		if (poolSize > 1)
+			next = getNextPooledDocumentNo(seq, calendarYearMonth, docOrg_ID, poolSize);
+		else
+			next = reserveDocumentNo(seq, calendarYearMonth, docOrg_ID, adempiereSys, 1, trxName);
+
+		//	Error
+		if (next < 0)
+			return null;
+
+		//	create DocumentNo
+		StringBuilder doc = new StringBuilder();
+		if (prefix != null && prefix.length() > 0) {
+			String prefixValue = Env.parseVariable(prefix, po, trxName, false);
+			if (!Util.isEmpty(prefixValue))
+				doc.append(prefixValue);
+		}
+
+		if (decimalPattern != null && decimalPattern.length() > 0)
+			doc.append(new DecimalFormat(decimalPattern).format(next));
+		else
+			doc.append(next);
+
+		if (suffix != null && suffix.length() > 0) {
+			String suffixValue = Env.parseVariable(suffix, po, trxName, false);
+			if (!Util.isEmpty(suffixValue))
+				doc.append(suffixValue);
+		}
+
+		String documentNo = doc.toString();
+		if (s_log.isLoggable(Level.FINER)) s_log.finer (documentNo + " (" + incrementNo + ")"
+				+ " - Sequence=" + AD_Sequence_ID + " [" + trxName + "]");
+		return documentNo;
+	}
+
+	/**
+	 * 	Reserve document numbers of a sequence.<br/>
+	 *  The AD_Sequence or AD_Sequence_No row stay locked until trxName is committed, without trxName the update is committed immediately.
+	 *	@param seq sequence
+	 *	@param calendarYearMonth calendar key for sequence that restart every year or month, {@link #NoYearNorMonth} otherwise
+	 *	@param docOrg_ID organization for org level sequence, 0 otherwise
+	 *	@param adempiereSys true to use CurrentNextSys
+	 *	@param count number of document numbers to reserve
+	 * 	@param trxName optional transaction name
+	 *	@return first reserved number or -1 (error) or -2 (no sequence record)
+	 */
+	private static int reserveDocumentNo(MSequence seq, String calendarYearMonth, int docOrg_ID, boolean adempiereSys, int count, String trxName)
+	{
+		int AD_Sequence_ID = seq.getAD_Sequence_ID();
+		boolean isStartNewYear = seq.isStartNewYear();
+		boolean isUseOrgLevel = seq.isOrgLevelSequence();
+		int startNo = seq.getStartNo();
+		int incrementNo = seq.getIncrementNo();
+
 		String selectSQL = null;
 		if (isStartNewYear || isUseOrgLevel) {
 			selectSQL = "SELECT y.CurrentNext, s.CurrentNextSys "
@@ -377,9 +797,6 @@ public class MSequence extends X_AD_Sequence
 		Connection conn = null;
 		Trx trx = trxName == null ? null : Trx.get(trxName, true);
 		//
-		
-		String calendarYearMonth = NoYearNorMonth;
-		int docOrg_ID = 0;
 		int next = -1;
 
 		PreparedStatement pstmt = null;
@@ -392,34 +809,7 @@ public class MSequence extends X_AD_Sequence
 				conn = DB.getConnection(false);
 			//	Error
 			if (conn == null)
-				return null;
-
-			if (isStartNewYear)
-			{
-				SimpleDateFormat sdf = null;
-				if (isStartNewMonth)
-					sdf = new SimpleDateFormat("yyyyMM");
-				else
-					sdf = new SimpleDateFormat("yyyy");
-				
-				if (po != null && dateColumn != null && dateColumn.length() > 0)
-				{
-					Date docDate = (Date)po.get_Value(dateColumn);
-					calendarYearMonth = sdf.format(docDate);
-				}
-				else
-				{
-					calendarYearMonth = sdf.format(new Date());
-				}
-			}
-			
-			if (isUseOrgLevel)
-			{
-				if (po != null && orgColumn != null && orgColumn.length() > 0)
-				{
-					docOrg_ID = po.get_ValueAsInt(orgColumn);
-				}
-			}
+				return -1;
 
 			pstmt = conn.prepareStatement(selectSQL,
 				ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE);
@@ -462,7 +852,7 @@ public class MSequence extends X_AD_Sequence
 						updateSQL = conn.prepareStatement(sql);
 						next = rs.getInt(1);
 					}
-					updateSQL.setInt(1, incrementNo);
+					updateSQL.setInt(1, incrementNo * count);
 					updateSQL.setInt(2, AD_Sequence_ID);
 					if (isStartNewYear || isUseOrgLevel) {
 						updateSQL.setString(3, calendarYearMonth);
@@ -486,7 +876,7 @@ public class MSequence extends X_AD_Sequence
 					seqno.setAD_Sequence_ID(AD_Sequence_ID);
 					seqno.setAD_Org_ID(docOrg_ID);
 					seqno.setCalendarYearMonth(calendarYearMonth);
-					seqno.setCurrentNext(startNo + incrementNo);
+					seqno.setCurrentNext(startNo + incrementNo * count);
 					seqno.saveEx();
 				}
 				else	// standard
@@ -526,34 +916,8 @@ public class MSequence extends X_AD_Sequence
 				s_log.log(Level.SEVERE, "(DocType) - finish", e);
 			}
 		}
-		//	Error
-		if (next < 0)
-			return null;
-
-		//	create DocumentNo
-		StringBuilder doc = new StringBuilder();
-		if (prefix != null && prefix.length() > 0) {
-			String prefixValue = Env.parseVariable(prefix, po, trxName, false);
-			if (!Util.isEmpty(prefixValue))
-				doc.append(prefixValue);
-		}
-
-		if (decimalPattern != null && decimalPattern.length() > 0)
-			doc.append(new DecimalFormat(decimalPattern).format(next));
-		else
-			doc.append(next);
-
-		if (suffix != null && suffix.length() > 0) {
-			String suffixValue = Env.parseVariable(suffix, po, trxName, false);
-			if (!Util.isEmpty(suffixValue))
-				doc.append(suffixValue);
-		}
-
-		String documentNo = doc.toString();
-		if (s_log.isLoggable(Level.FINER)) s_log.finer (documentNo + " (" + incrementNo + ")"
-				+ " - Sequence=" + AD_Sequence_ID + " [" + trx + "]");
-		return documentNo;
-	}
+		return next;
+	}	//	reserveDocumentNo
 
 	/**
 	 * 	Get Document No based on Document Type
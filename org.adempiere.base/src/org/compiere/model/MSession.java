@@ -25,6 +25,7 @@ import java.util.logging.Level;
 import org.compiere.Adempiere;
 import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
+import org.compiere.util.Trx;
 import org.compiere.util.WebUtil;
 import org.idempiere.cache.ImmutableIntPOCache;
 import org.idempiere.cache.ImmutablePOSupport;
@@ -328,7 +329,7 @@ public class MSession extends X_AD_Session implements ImmutablePOSupport
 	 *	@param AD_Org_ID org
 	 *	@param OldValue old
 	 *	@param NewValue new
-	 *	@return saved change log or null
+	 *	@return saved change log, change log to be inserted with the transaction commit or null
 	 */
 	public MChangeLog changeLog (
 		String TrxName, int AD_ChangeLog_ID,
@@ -364,6 +365,14 @@ public class MSession extends X_AD_Session implements ImmutablePOSupport
 				AD_ChangeLog_ID, TrxName, getAD_Session_ID(),
 				AD_Table_ID, AD_Column_ID, Record_ID, AD_Client_ID, AD_Org_ID,
 				OldValue, NewValue, event);
+			//	batch insert before commit
+			Trx trx = TrxName != null && MSysConfig.getBooleanValue(MSysConfig.CHANGELOG_BATCH_INSERT, true)
+				? Trx.get(TrxName, false) : null;
+			if (trx != null)
+			{
+				ChangeLogBatch.add(trx, cl);
+				return cl;
+			}
 			if (cl.save())
 				return cl;
 		}
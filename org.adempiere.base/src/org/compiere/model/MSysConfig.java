@@ -46,6 +46,7 @@ public class MSysConfig extends X_AD_SysConfig
 	 */
 	private static final long serialVersionUID = -2055659961699848343L;
 
+	public static final String ACCT_PROCESSOR_PARALLEL_THREADS = "ACCT_PROCESSOR_PARALLEL_THREADS";
 	public static final String ADDRESS_VALIDATION = "ADDRESS_VALIDATION";
     public static final String ALERT_SEND_ATTACHMENT_AS_XLS = "ALERT_SEND_ATTACHMENT_AS_XLS";
     public static final String ALLOCATION_DESCRIPTION = "ALLOCATION_DESCRIPTION";
@@ -80,6 +81,8 @@ public class MSysConfig extends X_AD_SysConfig
 	public static final String BPARTNER_QUICK_ENTRY_OPTIONAL_LOCATION_TABLES = "BPARTNER_QUICK_ENTRY_OPTIONAL_LOCATION_TABLES";
     public static final String CALENDAR_ALTERNATE_TIMEZONE = "CALENDAR_ALTERNATE_TIMEZONE";
     public static final String CASH_AS_PAYMENT = "CASH_AS_PAYMENT";
+    public static final String CHANGELOG_ASYNC_TABLES = "CHANGELOG_ASYNC_TABLES";
+    public static final String CHANGELOG_BATCH_INSERT = "CHANGELOG_BATCH_INSERT";
     public static final String CHANGE_PASSWORD_MUST_DIFFER = "CHANGE_PASSWORD_MUST_DIFFER";
     public static final String CHECK_CREDIT_ON_CASH_POS_ORDER = "CHECK_CREDIT_ON_CASH_POS_ORDER";
     public static final String CHECK_CREDIT_ON_PREPAY_ORDER = "CHECK_CREDIT_ON_PREPAY_ORDER";
@@ -148,7 +151,9 @@ public class MSysConfig extends X_AD_SysConfig
     public static final String MONITOR_MAX_WAIT_FOR_CLUSTER_IN_SECONDS = "MONITOR_MAX_WAIT_FOR_CLUSTER_IN_SECONDS";
     public static final String MFG_ValidateCostsDifferenceOnCreate = "MFG_ValidateCostsDifferenceOnCreate";
     public static final String MFG_ValidateCostsOnCreate = "MFG_ValidateCostsOnCreate";
+    public static final String MSEQUENCE_DOCUMENTNO_POOL_SIZE = "MSEQUENCE_DOCUMENTNO_POOL_SIZE";
     public static final String MSEQUENCE_GETNEXT_TIMEOUT = "MSEQUENCE_GETNEXT_TIMEOUT";
+    public static final String MSEQUENCE_ID_BLOCK_SIZE = "MSEQUENCE_ID_BLOCK_SIZE";
     public static final String PAYMENT_OVERWRITE_DOCUMENTNO_WITH_CHECK_ON_PAYMENT = "PAYMENT_OVERWRITE_DOCUMENTNO_WITH_CHECK_ON_PAYMENT";
     public static final String PAYMENT_OVERWRITE_DOCUMENTNO_WITH_CHECK_ON_RECEIPT = "PAYMENT_OVERWRITE_DOCUMENTNO_WITH_CHECK_ON_RECEIPT";
     public static final String PAYMENT_OVERWRITE_DOCUMENTNO_WITH_CREDIT_CARD = "PAYMENT_OVERWRITE_DOCUMENTNO_WITH_CREDIT_CARD";
@@ -166,6 +171,7 @@ public class MSysConfig extends X_AD_SysConfig
     public static final String RecentItems_MaxSaved = "RecentItems_MaxSaved";
     public static final String RecentItems_MaxShown = "RecentItems_MaxShown";
     public static final String REPORT_SWAP_MAX_ROWS = "REPORT_SWAP_MAX_ROWS";
+    public static final String ROLE_ACCESS_SQL_ARRAY_PARAMETERS = "ROLE_ACCESS_SQL_ARRAY_PARAMETERS";
     public static final String SHIPPING_DEFAULT_WEIGHT_PER_PACKAGE = "SHIPPING_DEFAULT_WEIGHT_PER_PACKAGE";
     public static final String STANDARD_REPORT_FOOTER_TRADEMARK_TEXT = "STANDARD_REPORT_FOOTER_TRADEMARK_TEXT";
     public static final String START_VALUE_BPLOCATION_NAME = "START_VALUE_BPLOCATION_NAME";
@@ -517,17 +523,27 @@ public class MSysConfig extends X_AD_SysConfig
 	 */
 	public static String getValue(String Name, String defaultValue, int AD_Client_ID, int AD_Org_ID)
 	{
-		String key = ""+AD_Client_ID+"_"+AD_Org_ID+"_"+Name;
 		String str = null;
 		if (! Name.endsWith("_NOCACHE")) {
-			str = s_cache.get(key);
-			if (str != null)
-				return str;
-			if (str == null && s_cache.containsKey(key)) // found null key
-				return defaultValue;
+			String key = ""+AD_Client_ID+"_"+AD_Org_ID+"_"+Name;
+			//concurrent misses share one query, not found key is cached as null
+			str = s_cache.getOrLoad(key, k -> loadValue(Name, AD_Client_ID, AD_Org_ID));
+		} else {
+			str = loadValue(Name, AD_Client_ID, AD_Org_ID);
 		}
-
-		//
+		return str != null ? str : defaultValue;
+	}
+	
+	/**
+	 * Load system configuration value from DB
+	 * @param Name
+	 * @param AD_Client_ID
+	 * @param AD_Org_ID
+	 * @return value or null if not found
+	 */
+	private static String loadValue(String Name, int AD_Client_ID, int AD_Org_ID)
+	{
+		String str = null;
 		String sql = "SELECT Value FROM AD_SysConfig"
 						+ " WHERE Name=? AND AD_Client_ID IN (0, ?) AND AD_Org_ID IN (0, ?) AND IsActive='Y'"
 						+ " ORDER BY AD_Client_ID DESC, AD_Org_ID DESC";
@@ -552,18 +568,7 @@ public class MSysConfig extends X_AD_SysConfig
 			DB.close(rs, pstmt);
 			rs = null; pstmt = null;
 		}
-		//
-
-		if (str != null) {
-			if (! Name.endsWith("_NOCACHE"))
-				s_cache.put(key, str);
-			return str;
-		} else {
-			// anyways, put the not found key as null
-			if (! Name.endsWith("_NOCACHE"))
-				s_cache.put(key, null);
-			return defaultValue;
-		}
+		return str;
 	}
 	
 	/**
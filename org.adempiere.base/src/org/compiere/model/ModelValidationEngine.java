@@ -235,8 +235,9 @@ public class ModelValidationEngine
 				if (   loginRule.getRuleType().equals(MRule.RULETYPE_JSR223ScriptingAPIs)
 					&& loginRule.getEventType().equals(MRule.EVENTTYPE_ModelValidatorLoginEvent)) {
 					String error;
+					ScriptEngine engine = null;
 					try {
-						ScriptEngine engine = loginRule.getScriptEngine();
+						engine = loginRule.getThreadScriptEngine();
 						if (engine == null) {
 							throw new AdempiereException("Engine not found: " + loginRule.getEngineName());
 						}
@@ -249,11 +250,13 @@ public class ModelValidationEngine
 						engine.put(MRule.ARGUMENTS_PREFIX + "AD_Role_ID", AD_Role_ID);
 						engine.put(MRule.ARGUMENTS_PREFIX + "AD_User_ID", AD_User_ID);
 
-						Object retval = engine.eval(loginRule.getScript());
+						Object retval = loginRule.eval(engine);
 						error = (retval == null ? "" : retval.toString());
 					} catch (Exception e) {
 						e.printStackTrace();
 						error = e.toString();
+					} finally {
+						loginRule.releaseThreadScriptEngine(engine);
 					}
 					if (error != null && error.length() > 0)
 						return error;
@@ -375,8 +378,9 @@ public class ModelValidationEngine
 					&& rule.getRuleType().equals(MRule.RULETYPE_JSR223ScriptingAPIs)
 					&& rule.getEventType().equals(MRule.EVENTTYPE_ModelValidatorTableEvent)) {
 					String error;
+					ScriptEngine engine = null;
 					try {
-						ScriptEngine engine = rule.getScriptEngine();
+						engine = rule.getThreadScriptEngine();
 						if (engine == null) {
 							throw new AdempiereException("Engine not found: " + rule.getEngineName());
 						}
@@ -388,11 +392,13 @@ public class ModelValidationEngine
 						engine.put(MRule.ARGUMENTS_PREFIX + "Type", changeType);
 						engine.put(MRule.ARGUMENTS_PREFIX + "Event", ModelValidator.tableEventValidators[changeType]);
 
-						Object retval = engine.eval(rule.getScript());
+						Object retval = rule.eval(engine);
 						error = (retval == null ? "" : retval.toString());
 					} catch (Exception e) {
 						e.printStackTrace();
 						error = e.toString();
+					} finally {
+						rule.releaseThreadScriptEngine(engine);
 					}
 					if (error != null && error.length() > 0)
 						return error;
@@ -542,8 +548,9 @@ public class ModelValidationEngine
 					&& rule.getRuleType().equals(MRule.RULETYPE_JSR223ScriptingAPIs)
 					&& rule.getEventType().equals(MRule.EVENTTYPE_ModelValidatorDocumentEvent)) {
 					String error;
+					ScriptEngine engine = null;
 					try {
-						ScriptEngine engine = rule.getScriptEngine();
+						engine = rule.getThreadScriptEngine();
 						if (engine == null) {
 							throw new AdempiereException("Engine not found: " + rule.getEngineName());
 						}
@@ -555,11 +562,13 @@ public class ModelValidationEngine
 						engine.put(MRule.ARGUMENTS_PREFIX + "Type", docTiming);
 						engine.put(MRule.ARGUMENTS_PREFIX + "Event", ModelValidator.documentEventValidators[docTiming]);
 
-						Object retval = engine.eval(rule.getScript());
+						Object retval = rule.eval(engine);
 						error = (retval == null ? "" : retval.toString());
 					} catch (Exception e) {
 						e.printStackTrace();
 						error = e.toString();
+					} finally {
+						rule.releaseThreadScriptEngine(engine);
 					}
 					if (error != null && error.length() > 0)
 						return error;
@@ -27,18 +27,24 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Savepoint;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -61,6 +67,7 @@ import org.compiere.util.AdempiereUserError;
 import org.compiere.util.CCache;
 import org.compiere.util.CLogMgt;
 import org.compiere.util.CLogger;
+import org.compiere.util.CacheInvalidationBus;
 import org.compiere.util.CacheMgt;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
@@ -1533,10 +1540,21 @@ public abstract class PO
 		int index = 0;
 		log.finest("(rs)");
 		loadedVirtualColumns.clear();
+		//	read by position, resolved once per result set
+		int[] positions = null;
+		try
+		{
+			positions = p_info.getResultSetPositions(rs);
+		}
+		catch (SQLException e)
+		{
+			if (log.isLoggable(Level.FINE)) log.fine("Read by column name - " + e);
+		}
+		boolean logAll = CLogMgt.isLevelAll();
 		//  load column values
 		for (index = 0; index < size; index++)
 		{
-			if(!loadColumn(rs, index) && success)
+			if(!loadColumn(rs, index, positions != null ? positions[index] : -1, logAll) && success)
 				success = false;
 		}
 		m_createNew = false;
@@ -1554,25 +1572,59 @@ public abstract class PO
 	 * @see POInfo#getColumnIndex(String)
 	 */
 	private boolean loadColumn(ResultSet rs, int index) {
+		return loadColumn(rs, index, -1, CLogMgt.isLevelAll());
+	}
+
+	/**
+	 * Load column value coming from a {@link ResultSet}.
+	 * @param rs {@link ResultSet} with its position set according to the model class instance.
+	 * @param index Column index. Might not coincide with the index of the column within the {@link ResultSet}.
+	 * @param position 1 based position of the column in the {@link ResultSet}, 0 if not included, -1 to find it by column name
+	 * @param logAll true to log the loaded value
+	 * @return
+	 * @see POInfo#getResultSetPositions(ResultSet)
+	 */
+	private boolean loadColumn(ResultSet rs, int index, int position, boolean logAll) {
 		boolean success = true;
 		String columnName = p_info.getColumnName(index);
-		Class<?> clazz = p_info.getColumnClass(index);
-		int dt = p_info.getColumnDisplayType(index);
 		try
 		{
-			if (clazz == Integer.class)
-				m_oldValues[index] = decrypt(index, Integer.valueOf(rs.getInt(columnName)));
-			else if (clazz == BigDecimal.class)
-				m_oldValues[index] = decrypt(index, rs.getBigDecimal(columnName));
-			else if (clazz == Boolean.class)
-				m_oldValues[index] = Boolean.valueOf("Y".equals(decrypt(index, rs.getString(columnName))));
-			else if (clazz == Timestamp.class)
-				m_oldValues[index] = decrypt(index, rs.getTimestamp(columnName));
-			else if (DisplayType.isLOB(dt))
-				m_oldValues[index] = get_LOB (rs.getObject(columnName));
-			else if (clazz == String.class)
+			if (position == 0)
+				throw new SQLException("Column not in result set: " + columnName);
+			if (position < 0)
+				position = rs.findColumn(columnName);
+			//	plain columns skip decrypt
+			boolean encrypted = p_info.isColumnReadEncrypted(index);
+			switch (p_info.getColumnReadType(index))
 			{
-				String value = (String)decrypt(index, rs.getString(columnName));
+			case POInfo.READ_INTEGER:
+				m_oldValues[index] = Integer.valueOf(rs.getInt(position));
+				if (encrypted)
+					m_oldValues[index] = decrypt(index, m_oldValues[index]);
+				break;
+			case POInfo.READ_BIGDECIMAL:
+				m_oldValues[index] = rs.getBigDecimal(position);
+				if (encrypted)
+					m_oldValues[index] = decrypt(index, m_oldValues[index]);
+				break;
+			case POInfo.READ_BOOLEAN:
+				Object yesNo = rs.getString(position);
+				if (encrypted)
+					yesNo = decrypt(index, yesNo);
+				m_oldValues[index] = Boolean.valueOf("Y".equals(yesNo));
+				break;
+			case POInfo.READ_TIMESTAMP:
+				m_oldValues[index] = rs.getTimestamp(position);
+				if (encrypted)
+					m_oldValues[index] = decrypt(index, m_oldValues[index]);
+				break;
+			case POInfo.READ_LOB:
+				m_oldValues[index] = get_LOB (rs.getObject(position));
+				break;
+			case POInfo.READ_STRING:
+				String value = rs.getString(position);
+				if (encrypted)
+					value = (String)decrypt(index, value);
 				if (value != null)
 				{
 					if (get_Table_ID() == I_AD_Column.Table_ID || get_Table_ID() == I_AD_Element.Table_ID
@@ -1585,9 +1637,10 @@ public abstract class PO
 					}
 				}
 				m_oldValues[index] = value;
-			}
-			else
+				break;
+			default:
 				m_oldValues[index] = loadSpecial(rs, index);
+			}
 			//	NULL
 			if (rs.wasNull() && m_oldValues[index] != null)
 				m_oldValues[index] = null;
@@ -1596,7 +1649,7 @@ public abstract class PO
 			if(p_info.isVirtualColumn(index))
 				loadedVirtualColumns.add(index);
 			//
-			if (CLogMgt.isLevelAll())
+			if (logAll)
 				log.finest(String.valueOf(index) + ": " + p_info.getColumnName(index)
 					+ "(" + p_info.getColumnClass(index) + ") = " + m_oldValues[index]);
 		}
@@ -2224,15 +2277,8 @@ public abstract class PO
 			return true;
 		}
 
-		if (m_setErrorsFilled) {
-			for (int i = 0; i < m_setErrors.length; i++) {
-				ValueNamePair setError = m_setErrors[i];
-				if (setError != null) {
-					log.saveError(setError.getValue(), Msg.getElement(getCtx(), p_info.getColumnName(i)) + " - " + setError.getName());
-					return false;
-				}
-			}
-		}
+		if (!checkSetErrors())
+			return false;
 
 		Trx localTrx = null;
 		Trx trx = null;
@@ -2331,32 +2377,9 @@ public abstract class PO
 				return false;
 			}
 
-		//	Organization Check
-		if (getAD_Org_ID() == 0
-			&& (get_AccessLevel() == ACCESSLEVEL_ORG
-				|| (get_AccessLevel() == ACCESSLEVEL_CLIENTORG
-					&& MClientShare.isOrgLevelOnly(getAD_Client_ID(), get_Table_ID()))))
-		{
-			log.saveError("FillMandatory", Msg.getElement(getCtx(), "AD_Org_ID"));
-			return false;
-		}
-		//	Should be Org 0
-		if (getAD_Org_ID() != 0)
-		{
-			boolean reset = get_AccessLevel() == ACCESSLEVEL_SYSTEM;
-			if (!reset && MClientShare.isClientLevelOnly(getAD_Client_ID(), get_Table_ID()))
-			{
-				reset = get_AccessLevel() == ACCESSLEVEL_CLIENT
-					|| get_AccessLevel() == ACCESSLEVEL_SYSTEMCLIENT
-					|| get_AccessLevel() == ACCESSLEVEL_ALL
-					|| get_AccessLevel() == ACCESSLEVEL_CLIENTORG;
-			}
-			if (reset)
-			{
-				log.warning("Set Org to 0");
-				setAD_Org_ID(0);
-			}
-		}
+			//	Organization Check
+			if (!checkOrg())
+				return false;
 
 			//	Save
 			if (newRecord)
@@ -2442,6 +2465,58 @@ public abstract class PO
 		}
 	}	//	save
 
+	/**
+	 * Check errors of set_Value calls
+	 * @return false if a value has not been set
+	 */
+	private boolean checkSetErrors()
+	{
+		if (m_setErrorsFilled) {
+			for (int i = 0; i < m_setErrors.length; i++) {
+				ValueNamePair setError = m_setErrors[i];
+				if (setError != null) {
+					log.saveError(setError.getValue(), Msg.getElement(getCtx(), p_info.getColumnName(i)) + " - " + setError.getName());
+					return false;
+				}
+			}
+		}
+		return true;
+	}	//	checkSetErrors
+
+	/**
+	 * Check organization against table access level, set organization to 0 if required
+	 * @return false if organization is mandatory and not set
+	 */
+	private boolean checkOrg()
+	{
+		if (getAD_Org_ID() == 0
+			&& (get_AccessLevel() == ACCESSLEVEL_ORG
+				|| (get_AccessLevel() == ACCESSLEVEL_CLIENTORG
+					&& MClientShare.isOrgLevelOnly(getAD_Client_ID(), get_Table_ID()))))
+		{
+			log.saveError("FillMandatory", Msg.getElement(getCtx(), "AD_Org_ID"));
+			return false;
+		}
+		//	Should be Org 0
+		if (getAD_Org_ID() != 0)
+		{
+			boolean reset = get_AccessLevel() == ACCESSLEVEL_SYSTEM;
+			if (!reset && MClientShare.isClientLevelOnly(getAD_Client_ID(), get_Table_ID()))
+			{
+				reset = get_AccessLevel() == ACCESSLEVEL_CLIENT
+					|| get_AccessLevel() == ACCESSLEVEL_SYSTEMCLIENT
+					|| get_AccessLevel() == ACCESSLEVEL_ALL
+					|| get_AccessLevel() == ACCESSLEVEL_CLIENTORG;
+			}
+			if (reset)
+			{
+				log.warning("Set Org to 0");
+				setAD_Org_ID(0);
+			}
+		}
+		return true;
+	}	//	checkOrg
+
 	/**
 	 * Update Value or create new record.
 	 * @throws AdempiereException
@@ -2449,17 +2524,24 @@ public abstract class PO
 	 */
 	public void saveEx() throws AdempiereException
 	{
-		if (!save()) {
-			String msg = null;
-			ValueNamePair err = CLogger.retrieveError();
-			String val = err != null ? Msg.translate(getCtx(), err.getValue()) : "";
-			if (err != null)
-				msg = (val != null ? val + ": " : "") + err.getName();
-			if (msg == null || msg.length() == 0)
-				msg = "SaveError";
-			Exception ex = CLogger.retrieveException();
-			throw new AdempiereException(msg, ex);
-		}
+		if (!save())
+			throw newSaveException();
+	}
+
+	/**
+	 * @return exception with the last saved error
+	 */
+	private AdempiereException newSaveException()
+	{
+		String msg = null;
+		ValueNamePair err = CLogger.retrieveError();
+		String val = err != null ? Msg.translate(getCtx(), err.getValue()) : "";
+		if (err != null)
+			msg = (val != null ? val + ": " : "") + err.getName();
+		if (msg == null || msg.length() == 0)
+			msg = "SaveError";
+		Exception ex = CLogger.retrieveException();
+		return new AdempiereException(msg, ex);
 	}
 
 	/**
@@ -2567,9 +2649,9 @@ public abstract class PO
 			MRecentItem.clearLabel(p_info.getAD_Table_ID(), get_ID());
 		if (CacheMgt.get().hasCache(p_info.getTableName())) {
 			if (!newRecord)
-				Adempiere.getThreadPoolExecutor().submit(() -> CacheMgt.get().reset(p_info.getTableName(), get_ID()));
+				CacheInvalidationBus.get().reset(get_TrxName(), p_info.getTableName(), get_ID());
 			else if (get_ID() > 0 && success)
-				Adempiere.getThreadPoolExecutor().submit(() -> CacheMgt.get().newRecord(p_info.getTableName(), get_ID()));
+				CacheInvalidationBus.get().newRecord(get_TrxName(), p_info.getTableName(), get_ID());
 		}
 		
 		return success;
@@ -2621,6 +2703,302 @@ public abstract class PO
 		saveEx();
 	}
 
+	/** Max number of pending rows before a batch is executed */
+	public static final int SAVE_BATCH_SIZE = 500;
+
+	/** Classes that override save(), by class */
+	private static final ConcurrentHashMap<Class<?>, Boolean> s_saveOverridden = new ConcurrentHashMap<Class<?>, Boolean>();
+
+	/**
+	 * Save records with JDBC batch insert.<br/>
+	 * New records of the same table and column set are inserted with one batch statement. beforeSave and
+	 * model validator TYPE_NEW are called for each record before the batch is executed, afterSave, model validator
+	 * TYPE_AFTER_NEW, translations, tree nodes and change log are processed for each record after it, so afterSave
+	 * of a record see the other records of the same batch.<br/>
+	 * Existing records, records logged in migration script and classes that override save() are saved one by one.
+	 * On error, all records are rolled back.
+	 * @param pos records to save
+	 * @param trxName transaction, a local transaction is used if null
+	 * @throws AdempiereException
+	 */
+	public static void saveAllEx(List<? extends PO> pos, String trxName) throws AdempiereException
+	{
+		if (pos == null || pos.isEmpty())
+			return;
+
+		Trx localTrx = null;
+		Trx trx = null;
+		Savepoint savepoint = null;
+		if (trxName == null)
+		{
+			localTrx = Trx.get(Trx.createTrxName(LOCAL_TRX_PREFIX + "Batch"), true);
+			localTrx.setDisplayName(PO.class.getName() + "_saveAllEx");
+			trxName = localTrx.getTrxName();
+		}
+		else
+		{
+			trx = Trx.get(trxName, true);
+		}
+		boolean success = false;
+		try
+		{
+			if (trx != null)
+				savepoint = trx.setSavepoint(null);
+			Map<String, SaveBatch> batches = new LinkedHashMap<String, SaveBatch>();
+			int pending = 0;
+			for (PO po : pos)
+			{
+				po.set_TrxName(trxName);
+				if (!po.isBatchInsert())
+				{
+					//	keep save order
+					executeSaveBatches(batches, trxName);
+					pending = 0;
+					po.saveEx();
+					continue;
+				}
+				List<Object> params = new ArrayList<Object>();
+				String sql = po.prepareBatchInsert(params);
+				SaveBatch batch = batches.get(sql);
+				if (batch == null)
+				{
+					batch = new SaveBatch(sql);
+					batches.put(sql, batch);
+				}
+				batch.add(po, params);
+				if (++pending >= SAVE_BATCH_SIZE)
+				{
+					executeSaveBatches(batches, trxName);
+					pending = 0;
+				}
+			}
+			executeSaveBatches(batches, trxName);
+			if (localTrx != null)
+				localTrx.commit(true);
+			success = true;
+		}
+		catch (SQLException e)
+		{
+			throw new DBException(e);
+		}
+		finally
+		{
+			if (localTrx != null)
+			{
+				if (!success)
+					localTrx.rollback();
+				localTrx.close();
+				for (PO po : pos)
+					po.set_TrxName(null);
+			}
+			else if (savepoint != null)
+			{
+				try
+				{
+					if (success)
+						trx.releaseSavepoint(savepoint);
+					else
+						trx.rollback(savepoint);
+				}
+				catch (SQLException e)
+				{
+					s_log.log(Level.SEVERE, "saveAllEx", e);
+				}
+			}
+		}
+	}	//	saveAllEx
+
+	/**
+	 * @return true if this record can be inserted with a batch statement
+	 */
+	private boolean isBatchInsert()
+	{
+		if (!is_new() || isLogSQLScript() || is_Immutable())
+			return false;
+		Boolean overridden = s_saveOverridden.get(getClass());
+		if (overridden == null)
+		{
+			try
+			{
+				overridden = getClass().getMethod("save").getDeclaringClass() != PO.class;
+			}
+			catch (NoSuchMethodException e)
+			{
+				overridden = Boolean.TRUE;
+			}
+			s_saveOverridden.put(getClass(), overridden);
+		}
+		return !overridden.booleanValue();
+	}	//	isBatchInsert
+
+	/**
+	 * Run the steps of {@link #save()} before insert
+	 * @param params parameters of insert statement
+	 * @return insert statement
+	 * @throws AdempiereException if record can't be saved
+	 */
+	private String prepareBatchInsert(List<Object> params) throws AdempiereException
+	{
+		checkValidContext();
+		checkCrossTenant(true);
+		checkRecordIDCrossTenant();
+		CLogger.resetLast();
+		if (!checkSetErrors())
+			throw newSaveException();
+		if (!beforeSave(true))
+		{
+			log.warning("beforeSave failed - " + toString());
+			throw newSaveException();
+		}
+		String errorMsg = ModelValidationEngine.get().fireModelChange(this, ModelValidator.TYPE_NEW);
+		if (errorMsg != null)
+		{
+			log.warning("Validation failed - " + errorMsg);
+			throw new AdempiereException(errorMsg);
+		}
+		if (!checkOrg())
+			throw newSaveException();
+		if (!saveNew_prepare())
+		{
+			saveFinish(true, false);
+			throw newSaveException();
+		}
+		lobReset();
+		MSession session = MSession.get (p_ctx);
+		return buildInsert(false, params, session, new int[] {0});
+	}	//	prepareBatchInsert
+
+	/**
+	 * Execute and clear pending batches
+	 * @param batches pending batches by insert statement
+	 * @param trxName transaction
+	 * @throws SQLException
+	 */
+	private static void executeSaveBatches(Map<String, SaveBatch> batches, String trxName) throws SQLException
+	{
+		for (SaveBatch batch : batches.values())
+			batch.execute(trxName);
+		batches.clear();
+	}	//	executeSaveBatches
+
+	/**
+	 * New records with the same insert statement
+	 */
+	private static class SaveBatch
+	{
+		private final String sql;
+		private final List<PO> pos = new ArrayList<PO>();
+		private final List<List<Object>> params = new ArrayList<List<Object>>();
+
+		private SaveBatch(String sql)
+		{
+			this.sql = sql;
+		}
+
+		private void add(PO po, List<Object> poParams)
+		{
+			pos.add(po);
+			params.add(poParams);
+		}
+
+		/**
+		 * Execute batch insert, reload inserted records and finish save of each record
+		 * @param trxName
+		 * @throws SQLException
+		 */
+		private void execute(String trxName) throws SQLException
+		{
+			PreparedStatement pstmt = null;
+			int[] counts = null;
+			try
+			{
+				pstmt = DB.prepareStatement(sql, trxName);
+				for (List<Object> p : params)
+				{
+					DB.setParameters(pstmt, p);
+					pstmt.addBatch();
+				}
+				counts = pstmt.executeBatch();
+			}
+			finally
+			{
+				DB.close(pstmt);
+				pstmt = null;
+			}
+			for (int i = 0; i < counts.length; i++)
+			{
+				if (counts[i] != 1 && counts[i] != Statement.SUCCESS_NO_INFO)
+					throw new AdempiereException("Not inserted - " + pos.get(i).get_TableName());
+			}
+
+			Set<PO> reloaded = reload(trxName);
+			for (PO po : pos)
+			{
+				boolean ok = po.lobSave();
+				if (ok && !reloaded.contains(po) && !po.load(trxName))
+				{
+					po.log.log(Level.SEVERE, "[" + trxName + "] - reloading");
+					ok = false;
+				}
+				if (!po.saveFinish(true, ok))
+					throw po.newSaveException();
+			}
+		}
+
+		/**
+		 * Reload records of single key table with one query per chunk of records
+		 * @param trxName
+		 * @return reloaded records
+		 * @throws SQLException
+		 */
+		private Set<PO> reload(String trxName) throws SQLException
+		{
+			Set<PO> reloaded = Collections.newSetFromMap(new IdentityHashMap<PO, Boolean>());
+			PO first = pos.get(0);
+			if (first.m_IDs.length != 1 || !first.p_info.hasKeyColumn() || !first.m_KeyColumns[0].endsWith("_ID"))
+				return reloaded;
+
+			String keyColumn = first.m_KeyColumns[0];
+			for (int start = 0; start < pos.size(); start += POIterator.DEFAULT_CHUNK_SIZE)
+			{
+				int end = Math.min(start + POIterator.DEFAULT_CHUNK_SIZE, pos.size());
+				Map<Integer, PO> byID = new HashMap<Integer, PO>();
+				StringBuilder sqlSelect = first.p_info.buildSelect(false, true);
+				sqlSelect.append(" WHERE ").append(keyColumn).append(" IN (");
+				for (int i = start; i < end; i++)
+				{
+					if (i > start)
+						sqlSelect.append(",");
+					sqlSelect.append(pos.get(i).get_ID());
+					byID.put(pos.get(i).get_ID(), pos.get(i));
+				}
+				sqlSelect.append(")");
+				PreparedStatement pstmt = null;
+				ResultSet rs = null;
+				try
+				{
+					pstmt = DB.prepareStatement(sqlSelect.toString(), trxName);
+					rs = pstmt.executeQuery();
+					while (rs.next())
+					{
+						PO po = byID.get(rs.getInt(keyColumn));
+						if (po != null && po.load(rs))
+						{
+							po.m_newValues = new Object[po.get_ColumnCount()];
+							reloaded.add(po);
+						}
+					}
+				}
+				finally
+				{
+					DB.close(rs, pstmt);
+					rs = null; pstmt = null;
+				}
+			}
+			return reloaded;
+		}
+	}	//	SaveBatch
+
 	/**
 	 * 	Is there a Change to be saved?
 	 *	@return true if record changed
@@ -3121,6 +3499,18 @@ public abstract class PO
 	 *  @return true if new record inserted
 	 */
 	private boolean saveNew()
+	{
+		if (!saveNew_prepare())
+			return saveFinish (true, false);
+		boolean ok = doInsert(isLogSQLScript());
+		return saveFinish (true, ok);
+	}   //  saveNew
+
+	/**
+	 *  Set ID, UUID, DocumentNo and Value of new record
+	 *  @return false if no ID can be obtained
+	 */
+	private boolean saveNew_prepare()
 	{
 		//  Set ID for single key - Multi-Key values need explicitly be set previously
 		if (m_IDs.length == 1 && p_info.hasKeyColumn()
@@ -3140,7 +3530,7 @@ public abstract class PO
 			if (no <= 0)
 			{
 				log.severe("No NextID (" + no + ")");
-				return saveFinish (true, false);
+				return false;
 			}
 			m_IDs[0] = Integer.valueOf(no);
 			set_ValueNoCheck(m_KeyColumns[0], m_IDs[0]);
@@ -3202,23 +3592,92 @@ public abstract class PO
 			}
 		}
 
-		boolean ok = doInsert(isLogSQLScript());
-		return saveFinish (true, ok);
-	}   //  saveNew
+		return true;
+	}	//	saveNew_prepare
 
 	private boolean doInsert(boolean withValues) {
-		int index;
 		lobReset();
 
 		//	Change Log
 		MSession session = MSession.get (p_ctx);
 		if (session == null)
 			log.fine("No Session found");
-		int AD_ChangeLog_ID = 0;
+		int[] changeLogID = new int[] {0};
 
 		//params for insert statement
 		List<Object> params = new ArrayList<Object>();
-		
+		String sql = buildInsert(withValues, params, session, changeLogID);
+		//
+		int no = withValues ? DB.executeUpdate(sql, m_trxName) 
+							: DB.executeUpdate(sql, params.toArray(), false, m_trxName);
+		boolean ok = no == 1;
+		if (ok)
+		{
+			if (withValues && m_IDs.length == 1 && p_info.hasKeyColumn()
+					&& m_KeyColumns[0].endsWith("_ID") && !Env.isUseCentralizedId(p_info.getTableName()))
+			{
+				int id = DB.getSQLValueEx(get_TrxName(), "SELECT " + m_KeyColumns[0] + " FROM "
+						+ p_info.getTableName() + " WHERE " + getUUIDColumnName() + "=?", get_ValueAsString(getUUIDColumnName()));
+				m_IDs[0] = Integer.valueOf(id);
+				set_ValueNoCheck(m_KeyColumns[0], m_IDs[0]);
+				
+				int ki = p_info.getColumnIndex(m_KeyColumns[0]);
+				//	Change Log	- Only
+				String insertLog = MSysConfig.getValue(MSysConfig.SYSTEM_INSERT_CHANGELOG, "Y", getAD_Client_ID());
+				if (   session != null
+					&& m_IDs.length == 1
+					&& p_info.isAllowLogging(ki)		//	logging allowed
+					&& !p_info.isEncrypted(ki)		//	not encrypted
+					&& !p_info.isVirtualColumn(ki)	//	no virtual column
+					&& !"Password".equals(p_info.getColumnName(ki))
+					&& (insertLog.equalsIgnoreCase("Y")
+							|| (insertLog.equalsIgnoreCase("K") && p_info.getColumn(ki).IsKey))
+					)
+				{
+					// change log on new
+					MChangeLog cLog = session.changeLog (
+							m_trxName, changeLogID[0],
+							p_info.getAD_Table_ID(), p_info.getColumn(ki).AD_Column_ID,
+							get_ID(), getAD_Client_ID(), getAD_Org_ID(), null, id, MChangeLog.EVENTCHANGELOG_Insert);
+					if (cLog != null)
+						changeLogID[0] = cLog.getAD_ChangeLog_ID();
+				}
+			}
+			ok = lobSave();
+			if (!load(m_trxName))		//	re-read Info
+			{
+				if (m_trxName == null)
+					log.log(Level.SEVERE, "reloading");
+				else
+					log.log(Level.SEVERE, "[" + m_trxName + "] - reloading");
+				ok = false;;
+			}
+		}
+		else
+		{
+			String msg = "Not inserted - ";
+			if (CLogMgt.isLevelFiner())
+				msg += sql;
+			else
+				msg += get_TableName();
+			if (m_trxName == null)
+				log.log(Level.WARNING, msg);
+			else
+				log.log(Level.WARNING, "[" + m_trxName + "]" + msg);
+		}
+		return ok;
+	}
+
+	/**
+	 * 	Build insert statement and write insert change log
+	 *	@param withValues true to include values in statement, false to use parameters
+	 *	@param params parameters of statement
+	 *	@param session session for change log, may be null
+	 *	@param changeLogID AD_ChangeLog_ID of the change log entries written
+	 *	@return insert statement
+	 */
+	private String buildInsert(boolean withValues, List<Object> params, MSession session, int[] changeLogID) {
+		int index;
 		//	SQL
 		StringBuilder sqlInsert = new StringBuilder("INSERT INTO ");
 		sqlInsert.append(p_info.getTableName()).append(" (");
@@ -3425,11 +3884,11 @@ public abstract class PO
 				{
 					// change log on new
 					MChangeLog cLog = session.changeLog (
-							m_trxName, AD_ChangeLog_ID,
+							m_trxName, changeLogID[0],
 							p_info.getAD_Table_ID(), p_info.getColumn(i).AD_Column_ID,
 							get_ID(), getAD_Client_ID(), getAD_Org_ID(), null, value, MChangeLog.EVENTCHANGELOG_Insert);
 					if (cLog != null)
-						AD_ChangeLog_ID = cLog.getAD_ChangeLog_ID();
+						changeLogID[0] = cLog.getAD_ChangeLog_ID();
 				}
 			}
 		}
@@ -3473,66 +3932,8 @@ public abstract class PO
 		}
 		sqlInsert.append(sqlValues)
 			.append(")");
-		//
-		int no = withValues ? DB.executeUpdate(sqlInsert.toString(), m_trxName) 
-							: DB.executeUpdate(sqlInsert.toString(), params.toArray(), false, m_trxName);
-		boolean ok = no == 1;
-		if (ok)
-		{
-			if (withValues && m_IDs.length == 1 && p_info.hasKeyColumn()
-					&& m_KeyColumns[0].endsWith("_ID") && !Env.isUseCentralizedId(p_info.getTableName()))
-			{
-				int id = DB.getSQLValueEx(get_TrxName(), "SELECT " + m_KeyColumns[0] + " FROM "
-						+ p_info.getTableName() + " WHERE " + getUUIDColumnName() + "=?", get_ValueAsString(getUUIDColumnName()));
-				m_IDs[0] = Integer.valueOf(id);
-				set_ValueNoCheck(m_KeyColumns[0], m_IDs[0]);
-				
-				int ki = p_info.getColumnIndex(m_KeyColumns[0]);
-				//	Change Log	- Only
-				String insertLog = MSysConfig.getValue(MSysConfig.SYSTEM_INSERT_CHANGELOG, "Y", getAD_Client_ID());
-				if (   session != null
-					&& m_IDs.length == 1
-					&& p_info.isAllowLogging(ki)		//	logging allowed
-					&& !p_info.isEncrypted(ki)		//	not encrypted
-					&& !p_info.isVirtualColumn(ki)	//	no virtual column
-					&& !"Password".equals(p_info.getColumnName(ki))
-					&& (insertLog.equalsIgnoreCase("Y")
-							|| (insertLog.equalsIgnoreCase("K") && p_info.getColumn(ki).IsKey))
-					)
-				{
-					// change log on new
-					MChangeLog cLog = session.changeLog (
-							m_trxName, AD_ChangeLog_ID,
-							p_info.getAD_Table_ID(), p_info.getColumn(ki).AD_Column_ID,
-							get_ID(), getAD_Client_ID(), getAD_Org_ID(), null, id, MChangeLog.EVENTCHANGELOG_Insert);
-					if (cLog != null)
-						AD_ChangeLog_ID = cLog.getAD_ChangeLog_ID();
-				}
-			}
-			ok = lobSave();
-			if (!load(m_trxName))		//	re-read Info
-			{
-				if (m_trxName == null)
-					log.log(Level.SEVERE, "reloading");
-				else
-					log.log(Level.SEVERE, "[" + m_trxName + "] - reloading");
-				ok = false;;
-			}
-		}
-		else
-		{
-			String msg = "Not inserted - ";
-			if (CLogMgt.isLevelFiner())
-				msg += sqlInsert.toString();
-			else
-				msg += get_TableName();
-			if (m_trxName == null)
-				log.log(Level.WARNING, msg);
-			else
-				log.log(Level.WARNING, "[" + m_trxName + "]" + msg);
-		}
-		return ok;
-	}
+		return sqlInsert.toString();
+	}	//	buildInsert
 
 	/**
 	 * 	Get ID for new record during save.
@@ -4002,7 +4403,8 @@ public abstract class PO
 				int size = p_info.getColumnCount();
 				m_oldValues = new Object[size];
 				m_newValues = new Object[size];
-				Adempiere.getThreadPoolExecutor().submit(() -> CacheMgt.get().reset(p_info.getTableName(), Record_ID));
+				//local transaction is already committed
+				CacheInvalidationBus.get().reset(localTrx != null ? null : m_trxName, p_info.getTableName(), Record_ID);
 			}
 		}
 		finally
@@ -5464,6 +5866,9 @@ public abstract class PO
 	public static void clearCrossTenantSafe() {
 		isSafeCrossTenant.set(Boolean.FALSE);
 	}
+	public static boolean isCrossTenantSafe() {
+		return isSafeCrossTenant.get();
+	}
 
 	private void checkCrossTenant(boolean writing) {
 		if (isSafeCrossTenant.get())
@@ -5491,12 +5896,7 @@ public abstract class PO
 	/**
 	 * Validate Foreign keys for cross tenant
 	 * to be called programmatically before saving in programs that can receive arbitrary values in IDs
-	 * This is an expensive operation in terms of database, use it wisely
-	 * 
-	 * TODO: there is huge room for performance improvement, for example:
-	 * - caching the valid values found on foreign tables
-	 * - caching the column ID of the foreign column
-	 * - caching the systemAccess
+	 * The AD_Client_ID of referenced records and the access level of referenced tables are cached
 	 *  
 	 * @return true if all the foreign keys are valid
 	 */
@@ -5512,25 +5912,13 @@ public abstract class PO
 			if (is_new() || is_ValueChanged(index)) {
 				int fkval = get_ValueAsInt(index);
 				if (fkval > 0) {
-					MTable ft = MTable.get(getCtx(), fktab);
-					boolean systemAccess = false;
-					String accessLevel = ft.getAccessLevel();
-					if (   MTable.ACCESSLEVEL_All.equals(accessLevel)
-						|| MTable.ACCESSLEVEL_SystemOnly.equals(accessLevel)
-						|| MTable.ACCESSLEVEL_SystemPlusClient.equals(accessLevel)) {
-						systemAccess = true;
-					}
-					StringBuilder sql = new StringBuilder("SELECT AD_Client_ID FROM ")
-							.append(fktab)
-							.append(" WHERE ")
-							.append(ft.getKeyColumns()[0])
-							.append("=?");
-					int pocid = DB.getSQLValue(get_TrxName(), sql.toString(), fkval);
+					RecordClientCache ft = RecordClientCache.get(MTable.get(getCtx(), fktab));
+					int pocid = ft.getAD_Client_ID(fkval, get_TrxName());
 					if (pocid < 0) {
 						log.saveError("Error", "Foreign ID " + fkval + " not found in " + fkcol);
 						return false;
 					}
-					if (pocid == 0 && !systemAccess) {
+					if (pocid == 0 && !ft.isSystemAccess()) {
 						log.saveError("Error", "System ID " + fkval + " cannot be used in " + fkcol);
 						return false;
 					}
@@ -5566,25 +5954,13 @@ public abstract class PO
 		int tableId = get_ValueAsInt(idxTableId);
 		if (tableId <= 0)
 			return;
-		MTable ft = MTable.get(getCtx(), tableId);
-		if (ft.getKeyColumns().length > 1)
+		RecordClientCache ft = RecordClientCache.get(MTable.get(getCtx(), tableId));
+		if (ft.isMultiKey())
 			return; // multi-key-table
-		boolean systemAccess = false;
-		String accessLevel = ft.getAccessLevel();
-		if (   MTable.ACCESSLEVEL_All.equals(accessLevel)
-			|| MTable.ACCESSLEVEL_SystemOnly.equals(accessLevel)
-			|| MTable.ACCESSLEVEL_SystemPlusClient.equals(accessLevel)) {
-			systemAccess = true;
-		}
-		StringBuilder sql = new StringBuilder("SELECT AD_Client_ID FROM ")
-				.append(ft.getTableName())
-				.append(" WHERE ")
-				.append(ft.getKeyColumns()[0])
-				.append("=?");
-		int pocid = DB.getSQLValue(get_TrxName(), sql.toString(), recordId);
+		int pocid = ft.getAD_Client_ID(recordId, get_TrxName());
 		if (pocid < 0)
 			throw new AdempiereException("Foreign ID " + recordId + " not found in " + ft.getTableName());
-		if (pocid == 0 && !systemAccess)
+		if (pocid == 0 && !ft.isSystemAccess())
 			throw new AdempiereException("System ID " + recordId + " cannot be used in " + ft.getTableName());
 		int curcid = getAD_Client_ID();
 		if (pocid > 0 && pocid != curcid)
@@ -19,9 +19,11 @@ package org.compiere.model;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -76,6 +78,12 @@ public class POInfo implements Serializable
 	{
 		Integer key = Integer.valueOf(AD_Table_ID);
 		POInfo retValue = (POInfo)s_cache.get(key);
+		if (retValue == null && trxName == null && Env.isBaseLanguage(ctx, "AD_Table"))
+		{
+			retValue = DictionarySnapshot.getPOInfo(AD_Table_ID);
+			if (retValue != null)
+				s_cache.put(key, retValue);
+		}
 		if (retValue == null)
 		{
 			retValue = new POInfo(ctx, AD_Table_ID, false, trxName);
@@ -90,6 +98,17 @@ public class POInfo implements Serializable
 
 	/** Cache of POInfo     */
 	private static CCache<Integer,POInfo>  s_cache = new CCache<Integer,POInfo>(I_AD_Table.Table_Name, "POInfo", 200, 0, false, 0);
+
+	/**
+	 *  Load POInfo in base language, not cached
+	 *  @param ctx context
+	 *  @param AD_Table_ID AD_Table_ID
+	 *  @return POInfo
+	 */
+	static POInfo loadBaseLanguage (Properties ctx, int AD_Table_ID)
+	{
+		return new POInfo(ctx, AD_Table_ID, true, null);
+	}
 	
 	/**************************************************************************
 	 *  Create Persistent Info
@@ -136,6 +155,28 @@ public class POInfo implements Serializable
 	/** ad_column_id to index map **/
 	private Map<Integer, Integer> m_columnIdMap;
 	private Boolean m_IsTranslated = null;
+	/** Read type by column index */
+	private int[] m_readTypes;
+	/** Encrypted flag by column index */
+	private boolean[] m_encrypted;
+
+	/** Read column with {@link ResultSet#getInt(int)} */
+	static final int READ_INTEGER = 1;
+	/** Read column with {@link ResultSet#getBigDecimal(int)} */
+	static final int READ_BIGDECIMAL = 2;
+	/** Read Y/N column with {@link ResultSet#getString(int)} */
+	static final int READ_BOOLEAN = 3;
+	/** Read column with {@link ResultSet#getTimestamp(int)} */
+	static final int READ_TIMESTAMP = 4;
+	/** Read LOB column with {@link ResultSet#getObject(int)} */
+	static final int READ_LOB = 5;
+	/** Read column with {@link ResultSet#getString(int)} */
+	static final int READ_STRING = 6;
+	/** Read column with {@link PO#loadSpecial(ResultSet, int)} */
+	static final int READ_SPECIAL = 0;
+
+	/** Result set positions last resolved by the thread */
+	private static final ThreadLocal<ResultSetPositions> s_lastPositions = new ThreadLocal<ResultSetPositions>();
 
 	/**
 	 *  Load Table/Column Info
@@ -237,8 +278,111 @@ public class POInfo implements Serializable
 		//  convert to array
 		m_columns = new POInfoColumn[list.size()];
 		list.toArray(m_columns);
+		initReadTypes();
 	}   //  loadInfo
 
+	/**
+	 * Set read type and encrypted flag of columns
+	 */
+	private void initReadTypes()
+	{
+		m_readTypes = new int[m_columns.length];
+		m_encrypted = new boolean[m_columns.length];
+		for (int i = 0; i < m_columns.length; i++)
+		{
+			m_readTypes[i] = getReadType(m_columns[i]);
+			m_encrypted[i] = m_columns[i].IsEncrypted;
+		}
+	}	//	initReadTypes
+
+	/**
+	 * @param column
+	 * @return how the value of the column is read from a result set
+	 */
+	private static int getReadType(POInfoColumn column)
+	{
+		Class<?> clazz = column.ColumnClass;
+		if (clazz == Integer.class)
+			return READ_INTEGER;
+		else if (clazz == BigDecimal.class)
+			return READ_BIGDECIMAL;
+		else if (clazz == Boolean.class)
+			return READ_BOOLEAN;
+		else if (clazz == Timestamp.class)
+			return READ_TIMESTAMP;
+		else if (DisplayType.isLOB(column.DisplayType))
+			return READ_LOB;
+		else if (clazz == String.class)
+			return READ_STRING;
+		return READ_SPECIAL;
+	}	//	getReadType
+
+	/**
+	 *  Get how the column value is read from a result set
+	 *  @param index index
+	 *  @return READ_* type
+	 */
+	int getColumnReadType (int index)
+	{
+		return m_readTypes[index];
+	}	//	getColumnReadType
+
+	/**
+	 *  Is the value read from a result set to be decrypted
+	 *  @param index index
+	 *  @return true if column is encrypted
+	 */
+	boolean isColumnReadEncrypted (int index)
+	{
+		return m_encrypted[index];
+	}	//	isColumnReadEncrypted
+
+	/**
+	 * 	Get the position of the columns in a result set.<br/>
+	 * 	The positions are resolved from the result set meta data for the first row and
+	 * 	kept for the following rows of the same result set loaded by the thread.
+	 *	@param rs result set
+	 *	@return 1 based position by column index, 0 if the column is not in the result set
+	 *	@throws SQLException
+	 */
+	int[] getResultSetPositions (ResultSet rs) throws SQLException
+	{
+		ResultSetPositions last = s_lastPositions.get();
+		if (last != null && last.info == this && last.resultSet.get() == rs)
+			return last.positions;
+
+		ResultSetMetaData md = rs.getMetaData();
+		Map<String, Integer> labels = new HashMap<String, Integer>();
+		//	first column wins, same as ResultSet.findColumn
+		for (int i = md.getColumnCount(); i > 0; i--)
+			labels.put(md.getColumnLabel(i).toUpperCase(), i);
+		int[] positions = new int[m_columns.length];
+		for (int i = 0; i < m_columns.length; i++)
+		{
+			Integer position = labels.get(m_columns[i].ColumnName.toUpperCase());
+			positions[i] = position != null ? position.intValue() : 0;
+		}
+		s_lastPositions.set(new ResultSetPositions(this, rs, positions));
+		return positions;
+	}	//	getResultSetPositions
+
+	/**
+	 * Column positions of a result set
+	 */
+	private static final class ResultSetPositions
+	{
+		private final POInfo info;
+		private final WeakReference<ResultSet> resultSet;
+		private final int[] positions;
+
+		private ResultSetPositions(POInfo info, ResultSet rs, int[] positions)
+		{
+			this.info = info;
+			this.resultSet = new WeakReference<ResultSet>(rs);
+			this.positions = positions;
+		}
+	}
+
 	/**
 	 *  String representation
 	 *  @return String Representation
@@ -881,5 +1025,7 @@ public class POInfo implements Serializable
 	    // default deserialization
 	    ois.defaultReadObject();
 	    m_ctx = Env.getCtx();
+	    if ((m_readTypes == null || m_encrypted == null) && m_columns != null)
+	    	initReadTypes();
 	}
 }   //  POInfo
@@ -1,112 +1,294 @@
-/******************************************************************************
- * Product: Adempiere ERP & CRM Smart Business Solution                       *
- * Copyright (C) 1999-2006 ComPiere, Inc. All Rights Reserved.                *
- * This program is free software; you can redistribute it and/or modify it    *
- * under the terms version 2 of the GNU General Public License as published   *
- * by the Free Software Foundation. This program is distributed in the hope   *
- * that it will be useful, but WITHOUT ANY WARRANTY; without even the implied *
- * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.           *
- * See the GNU General Public License for more details.                       *
- * You should have received a copy of the GNU General Public License along    *
- * with this program; if not, write to the Free Software Foundation, Inc.,    *
- * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA.                     *
- * For the text or an alternative of this public license, you may reach us    *
- * ComPiere, Inc., 2620 Augustine Dr. #245, Santa Clara, CA 95054, USA        *
- * or via info@compiere.org or http://www.compiere.org/license.html           *
- * Copyright (C) 2007 Low Heng Sin hengsin@avantz.com                         * 
- * Contributor(s):                                                            *
- * __________________________________________                                 *
- *****************************************************************************/
-package org.compiere.model;
-
-import java.util.Iterator;
-import java.util.List;
-
-/**
- * 
- * Iterator implementation to fetch PO one at a time using a prefetch ID list.
- * @author Low Heng Sin
- *
- */
-public class POIterator<T extends PO> implements Iterator<T> {
-
-	private MTable table;
-	private List<Object[]> idList;
-	
-	private int iteratorIndex = -1;
-	private String trxName;
-	
-	private String keyWhereClause = null;
-
-	/**
-	 * @param table
-	 * @param idList
-	 * @param trxName
-	 */
-	public POIterator(MTable table, List<Object[]> idList, String trxName) {
-		this.table = table;
-		this.idList = idList;
-		this.trxName = trxName;
-	}
-
-	/**
-	 * @see java.util.Iterator#hasNext()
-	 */
-	public boolean hasNext() {
-		return ( iteratorIndex < (idList.size() - 1));
-	}
-
-	/**
-	 * @see java.util.Iterator#next()
-	 */
-	public T next() {
-		if ( iteratorIndex < (idList.size() - 1)) {
-			iteratorIndex ++;
-			return get(iteratorIndex);
-		} else {
-			return null;
-		}
-	}
-
-	/**
-	 * not supported.
-	 */
-	public void remove() {
-		throw new UnsupportedOperationException("Remove operatiotn not supported.");
-	}
-	
-	/**
-	 * @return number of records
-	 */
-	public int size() {
-		return idList.size();
-	}
-	
-	/**
-	 * @param index
-	 * @return PO or null if index is invalid
-	 */
-	@SuppressWarnings("unchecked")
-	public T get(int index) {
-		if (index <= (idList.size() - 1)) {
-			Object[] ids = idList.get(index);
-			if (ids.length == 1 && (ids[0] instanceof Number)) {
-				return (T) table.getPO( ((Number)ids[0]).intValue(), trxName);
-			} else {
-				if (keyWhereClause == null) {
-					String[] keys = table.getKeyColumns();
-					StringBuilder sqlBuffer = new StringBuilder();
-					for (int i = 0; i < keys.length; i++) {
-						if (i > 0)
-							sqlBuffer.append(" AND ");
-						sqlBuffer.append(keys[i]).append(" = ? ");
-					}
-					keyWhereClause = sqlBuffer.toString();
-				}				
-				return (T) table.getPO(keyWhereClause, ids, trxName);
-			}
-		} else {
-			return null;
-		}
-	}
-}
+/******************************************************************************
+ * Product: Adempiere ERP & CRM Smart Business Solution                       *
+ * Copyright (C) 1999-2006 ComPiere, Inc. All Rights Reserved.                *
+ * This program is free software; you can redistribute it and/or modify it    *
+ * under the terms version 2 of the GNU General Public License as published   *
+ * by the Free Software Foundation. This program is distributed in the hope   *
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even the implied *
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.           *
+ * See the GNU General Public License for more details.                       *
+ * You should have received a copy of the GNU General Public License along    *
+ * with this program; if not, write to the Free Software Foundation, Inc.,    *
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA.                     *
+ * For the text or an alternative of this public license, you may reach us    *
+ * ComPiere, Inc., 2620 Augustine Dr. #245, Santa Clara, CA 95054, USA        *
+ * or via info@compiere.org or http://www.compiere.org/license.html           *
+ * Copyright (C) 2007 Low Heng Sin hengsin@avantz.com                         * 
+ * Contributor(s):                                                            *
+ * __________________________________________                                 *
+ *****************************************************************************/
+package org.compiere.model;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.ContextRunnable;
+import org.compiere.Adempiere;
+import org.compiere.util.CLogger;
+import org.compiere.util.DB;
+
+/**
+ * 
+ * Iterator implementation to fetch PO using a prefetch ID list.<br/>
+ * The POs are loaded in chunks, with one query per chunk. Without transaction, the next chunk is loaded
+ * in background while the current chunk is processed.
+ * @author Low Heng Sin
+ *
+ */
+public class POIterator<T extends PO> implements Iterator<T> {
+
+	/** Default number of PO loaded per query */
+	public static final int DEFAULT_CHUNK_SIZE = 100;
+
+	private static final CLogger log = CLogger.getCLogger(POIterator.class);
+
+	private MTable table;
+	private List<Object[]> idList;
+	
+	private int iteratorIndex = -1;
+	private String trxName;
+	
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	/** index of first PO of current chunk */
+	private int chunkStart = -1;
+	private PO[] chunk = null;
+	/** loader of next chunk */
+	private ChunkLoader prefetch = null;
+
+	/**
+	 * @param table
+	 * @param idList
+	 * @param trxName
+	 */
+	public POIterator(MTable table, List<Object[]> idList, String trxName) {
+		this.table = table;
+		this.idList = idList;
+		this.trxName = trxName;
+	}
+
+	/**
+	 * @param chunkSize number of PO loaded per query, 1 to load one PO at a time
+	 */
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = Math.max(chunkSize, 1);
+		chunk = null;
+		chunkStart = -1;
+		prefetch = null;
+	}
+
+	/**
+	 * @see java.util.Iterator#hasNext()
+	 */
+	public boolean hasNext() {
+		return ( iteratorIndex < (idList.size() - 1));
+	}
+
+	/**
+	 * @see java.util.Iterator#next()
+	 */
+	public T next() {
+		if ( iteratorIndex < (idList.size() - 1)) {
+			iteratorIndex ++;
+			return get(iteratorIndex);
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * not supported.
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException("Remove operatiotn not supported.");
+	}
+	
+	/**
+	 * @return number of records
+	 */
+	public int size() {
+		return idList.size();
+	}
+	
+	/**
+	 * @param index
+	 * @return PO or null if index is invalid or record has been deleted
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index < 0 || index > (idList.size() - 1))
+			return null;
+
+		if (chunk == null || index < chunkStart || index >= chunkStart + chunk.length) {
+			int start = index - (index % chunkSize);
+			if (prefetch != null && prefetch.start == start)
+				chunk = prefetch.get();
+			else
+				chunk = loadChunk(start);
+			chunkStart = start;
+			prefetch = null;
+			//	load next chunk in background, only without transaction as a connection can't be shared between threads
+			int next = start + chunkSize;
+			if (trxName == null && chunkSize > 1 && next < idList.size()) {
+				prefetch = new ChunkLoader(next);
+				prefetch.submit();
+			}
+		}
+		PO po = chunk[index - chunkStart];
+		//	hand out each PO once, like the previous one query per record implementation
+		chunk[index - chunkStart] = null;
+		if (po == null)
+			po = reload(index);
+		return (T) po;
+	}
+
+	/**
+	 * Load a PO with one query, for PO already handed out or not found in chunk
+	 * @param index
+	 * @return PO or null
+	 */
+	private PO reload(int index) {
+		Object[] ids = idList.get(index);
+		if (ids.length == 1 && (ids[0] instanceof Number))
+			return table.getPO( ((Number)ids[0]).intValue(), trxName);
+		StringBuilder whereClause = new StringBuilder();
+		String[] keys = table.getKeyColumns();
+		for (int i = 0; i < keys.length; i++) {
+			if (i > 0)
+				whereClause.append(" AND ");
+			whereClause.append(keys[i]).append(" = ? ");
+		}
+		return table.getPO(whereClause.toString(), ids, trxName);
+	}
+
+	/**
+	 * Load PO of a chunk with one query
+	 * @param start index of first PO
+	 * @return POs in idList order, null for record not found
+	 */
+	private PO[] loadChunk(int start) {
+		int end = Math.min(start + chunkSize, idList.size());
+		PO[] pos = new PO[end - start];
+		POInfo info = POInfo.getPOInfo(table.getCtx(), table.getAD_Table_ID(), trxName);
+		if (info == null)
+			return pos;
+
+		String[] keys = table.getKeyColumns();
+		StringBuilder sqlBuffer = info.buildSelect();
+		sqlBuffer.append(" WHERE ");
+		List<Object> params = new ArrayList<Object>();
+		if (keys.length == 1) {
+			sqlBuffer.append(keys[0]).append(" IN (");
+			for (int i = start; i < end; i++) {
+				if (i > start)
+					sqlBuffer.append(",");
+				sqlBuffer.append("?");
+				params.add(idList.get(i)[0]);
+			}
+			sqlBuffer.append(")");
+		} else {
+			for (int i = start; i < end; i++) {
+				if (i > start)
+					sqlBuffer.append(" OR ");
+				sqlBuffer.append("(");
+				for (int k = 0; k < keys.length; k++) {
+					if (k > 0)
+						sqlBuffer.append(" AND ");
+					sqlBuffer.append(keys[k]).append("=?");
+				}
+				sqlBuffer.append(")");
+				params.addAll(Arrays.asList(idList.get(i)));
+			}
+		}
+		String sql = sqlBuffer.toString();
+
+		Map<List<Object>, Integer> positions = new HashMap<List<Object>, Integer>();
+		for (int i = start; i < end; i++)
+			positions.put(toKey(idList.get(i)), i - start);
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try {
+			pstmt = DB.prepareStatement(sql, trxName);
+			DB.setParameters(pstmt, params);
+			rs = pstmt.executeQuery();
+			while (rs.next()) {
+				PO po = table.getPO(rs, trxName);
+				Object[] ids = new Object[keys.length];
+				for (int k = 0; k < keys.length; k++)
+					ids[k] = po.get_Value(keys[k]);
+				Integer position = positions.get(toKey(ids));
+				if (position != null)
+					pos[position] = po;
+			}
+		} catch (SQLException e) {
+			log.log(Level.SEVERE, sql, e);
+			throw new DBException(e, sql);
+		} finally {
+			DB.close(rs, pstmt);
+			rs = null; pstmt = null;
+		}
+		return pos;
+	}
+
+	/**
+	 * @param ids key values
+	 * @return lookup key, with numbers of different type normalized
+	 */
+	private static List<Object> toKey(Object[] ids) {
+		Object[] key = new Object[ids.length];
+		for (int i = 0; i < ids.length; i++)
+			key[i] = ids[i] instanceof Number ? Long.valueOf(((Number)ids[i]).longValue()) : ids[i];
+		return Arrays.asList(key);
+	}
+
+	/**
+	 * Load a chunk in background
+	 */
+	private class ChunkLoader extends ContextRunnable {
+		private final int start;
+		private Future<?> future;
+		private volatile PO[] result;
+
+		private ChunkLoader(int start) {
+			super();
+			this.start = start;
+		}
+
+		@Override
+		protected void doRun() {
+			result = loadChunk(start);
+		}
+
+		private void submit() {
+			future = Adempiere.getThreadPoolExecutor().submit(this);
+		}
+
+		/**
+		 * Wait for the background load, load in current thread if it has failed
+		 * @return POs of chunk
+		 */
+		private PO[] get() {
+			try {
+				future.get();
+				if (result != null)
+					return result;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				log.log(Level.WARNING, "Failed to prefetch " + table.getTableName(), e.getCause());
+			}
+			return loadChunk(start);
+		}
+	}
+}
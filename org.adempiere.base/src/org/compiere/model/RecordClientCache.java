@@ -0,0 +1,114 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.model;
+
+import org.compiere.util.CCache;
+import org.compiere.util.DB;
+
+/**
+ * AD_Client_ID of records of a table, for the cross tenant validation of foreign keys in {@link PO}.<br/>
+ * The cache of a table is registered with the table name, entries are reset by {@link org.compiere.util.CacheMgt}
+ * when the record is changed or deleted.
+ */
+final class RecordClientCache {
+
+	/** Maximum number of cached records per table */
+	private static final int MAX_RECORDS = 10000;
+
+	/** Cache by AD_Table_ID */
+	private static final CCache<Integer, RecordClientCache> s_cache = new CCache<Integer, RecordClientCache>(MTable.Table_Name, "RecordClientCache", 20, 0, false, 1000);
+
+	private final String tableName;
+	private final boolean systemAccess;
+	private final boolean multiKey;
+	private final String sql;
+	private final CCache<Integer, Integer> clients;
+
+	private RecordClientCache(MTable table) {
+		tableName = table.getTableName();
+		String accessLevel = table.getAccessLevel();
+		systemAccess = MTable.ACCESSLEVEL_All.equals(accessLevel)
+				|| MTable.ACCESSLEVEL_SystemOnly.equals(accessLevel)
+				|| MTable.ACCESSLEVEL_SystemPlusClient.equals(accessLevel);
+		String[] keyColumns = table.getKeyColumns();
+		multiKey = keyColumns.length != 1;
+		sql = keyColumns.length > 0 ? "SELECT AD_Client_ID FROM " + tableName + " WHERE " + keyColumns[0] + "=?" : null;
+		clients = new CCache<Integer, Integer>(tableName, tableName + "_AD_Client_ID", 100, 0, false, MAX_RECORDS);
+	}
+
+	/**
+	 * @param table
+	 * @return record client cache of table
+	 */
+	static RecordClientCache get(MTable table) {
+		RecordClientCache cache = s_cache.get(table.getAD_Table_ID());
+		if (cache == null) {
+			cache = new RecordClientCache(table);
+			s_cache.put(table.getAD_Table_ID(), cache);
+		}
+		return cache;
+	}
+
+	/**
+	 * @return table name
+	 */
+	String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * @return true if system records can be referenced (access level all, system or system+client)
+	 */
+	boolean isSystemAccess() {
+		return systemAccess;
+	}
+
+	/**
+	 * @return true if the table doesn't have a single key column
+	 */
+	boolean isMultiKey() {
+		return multiKey;
+	}
+
+	/**
+	 * @param recordId
+	 * @param trxName
+	 * @return AD_Client_ID of record or -1 if not found
+	 */
+	int getAD_Client_ID(int recordId, String trxName) {
+		if (sql == null)
+			return -1;
+		Integer AD_Client_ID = clients.get(recordId);
+		if (AD_Client_ID != null)
+			return AD_Client_ID.intValue();
+		//	cache committed records only, a record of the transaction can be rolled back
+		int value = DB.getSQLValue(null, sql, recordId);
+		if (value >= 0) {
+			clients.put(recordId, value);
+			return value;
+		}
+		//	not found is not cached, the record can be created later
+		if (trxName != null)
+			value = DB.getSQLValue(trxName, sql, recordId);
+		return value;
+	}
+}
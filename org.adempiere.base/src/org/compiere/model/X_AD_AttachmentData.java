@@ -0,0 +1,185 @@
+/******************************************************************************
+ * Product: iDempiere ERP & CRM Smart Business Solution                       *
+ * Copyright (C) 1999-2012 ComPiere, Inc. All Rights Reserved.                *
+ * This program is free software, you can redistribute it and/or modify it    *
+ * under the terms version 2 of the GNU General Public License as published   *
+ * by the Free Software Foundation. This program is distributed in the hope   *
+ * that it will be useful, but WITHOUT ANY WARRANTY, without even the implied *
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.           *
+ * See the GNU General Public License for more details.                       *
+ * You should have received a copy of the GNU General Public License along    *
+ * with this program, if not, write to the Free Software Foundation, Inc.,    *
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA.                     *
+ * For the text or an alternative of this public license, you may reach us    *
+ * ComPiere, Inc., 2620 Augustine Dr. #245, Santa Clara, CA 95054, USA        *
+ * or via info@compiere.org or http://www.compiere.org/license.html           *
+ *****************************************************************************/
+/** Generated Model - DO NOT CHANGE */
+package org.compiere.model;
+
+import java.sql.ResultSet;
+import java.util.Properties;
+import org.compiere.util.KeyNamePair;
+
+/** Generated Model for AD_AttachmentData
+ *  @author iDempiere (generated) 
+ *  @version Release 10 - $Id$ */
+@org.adempiere.base.Model(table="AD_AttachmentData")
+public class X_AD_AttachmentData extends PO implements I_AD_AttachmentData, I_Persistent 
+{
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 20261017L;
+
+    /** Standard Constructor */
+    public X_AD_AttachmentData (Properties ctx, int AD_AttachmentData_ID, String trxName)
+    {
+      super (ctx, AD_AttachmentData_ID, trxName);
+      /** if (AD_AttachmentData_ID == 0)
+        {
+			setAD_AttachmentData_ID (0);
+			setContentHash (null);
+			setRefCount (0);
+// 0
+        } */
+    }
+
+    /** Standard Constructor */
+    public X_AD_AttachmentData (Properties ctx, int AD_AttachmentData_ID, String trxName, String ... virtualColumns)
+    {
+      super (ctx, AD_AttachmentData_ID, trxName, virtualColumns);
+      /** if (AD_AttachmentData_ID == 0)
+        {
+			setAD_AttachmentData_ID (0);
+			setContentHash (null);
+			setRefCount (0);
+// 0
+        } */
+    }
+
+    /** Load Constructor */
+    public X_AD_AttachmentData (Properties ctx, ResultSet rs, String trxName)
+    {
+      super (ctx, rs, trxName);
+    }
+
+    /** AccessLevel
+      * @return 6 - System - Client 
+      */
+    protected int get_AccessLevel()
+    {
+      return accessLevel.intValue();
+    }
+
+    /** Load Meta Data */
+    protected POInfo initPO (Properties ctx)
+    {
+      POInfo poi = POInfo.getPOInfo (ctx, Table_ID, get_TrxName());
+      return poi;
+    }
+
+    public String toString()
+    {
+      StringBuilder sb = new StringBuilder ("X_AD_AttachmentData[")
+        .append(get_ID()).append("]");
+      return sb.toString();
+    }
+
+	/** Set Attachment Data.
+		@param AD_AttachmentData_ID Content of an attachment entry
+	*/
+	public void setAD_AttachmentData_ID (int AD_AttachmentData_ID)
+	{
+		if (AD_AttachmentData_ID < 1)
+			set_ValueNoCheck (COLUMNNAME_AD_AttachmentData_ID, null);
+		else
+			set_ValueNoCheck (COLUMNNAME_AD_AttachmentData_ID, Integer.valueOf(AD_AttachmentData_ID));
+	}
+
+	/** Get Attachment Data.
+		@return Content of an attachment entry
+	  */
+	public int getAD_AttachmentData_ID()
+	{
+		Integer ii = (Integer)get_Value(COLUMNNAME_AD_AttachmentData_ID);
+		if (ii == null)
+			 return 0;
+		return ii.intValue();
+	}
+
+	/** Set AD_AttachmentData_UU.
+		@param AD_AttachmentData_UU AD_AttachmentData_UU
+	*/
+	public void setAD_AttachmentData_UU (String AD_AttachmentData_UU)
+	{
+		set_ValueNoCheck (COLUMNNAME_AD_AttachmentData_UU, AD_AttachmentData_UU);
+	}
+
+	/** Get AD_AttachmentData_UU.
+		@return AD_AttachmentData_UU	  */
+	public String getAD_AttachmentData_UU()
+	{
+		return (String)get_Value(COLUMNNAME_AD_AttachmentData_UU);
+	}
+
+	/** Set Binary Data.
+		@param BinaryData Binary Data
+	*/
+	public void setBinaryData (byte[] BinaryData)
+	{
+		set_Value (COLUMNNAME_BinaryData, BinaryData);
+	}
+
+	/** Get Binary Data.
+		@return Binary Data
+	  */
+	public byte[] getBinaryData()
+	{
+		return (byte[])get_Value(COLUMNNAME_BinaryData);
+	}
+
+	/** Set Content Hash.
+		@param ContentHash SHA-256 hash of the content
+	*/
+	public void setContentHash (String ContentHash)
+	{
+		set_ValueNoCheck (COLUMNNAME_ContentHash, ContentHash);
+	}
+
+	/** Get Content Hash.
+		@return SHA-256 hash of the content
+	  */
+	public String getContentHash()
+	{
+		return (String)get_Value(COLUMNNAME_ContentHash);
+	}
+
+    /** Get Record ID/ColumnName
+        @return ID/ColumnName pair
+      */
+    public KeyNamePair getKeyNamePair() 
+    {
+        return new KeyNamePair(get_ID(), getContentHash());
+    }
+
+	/** Set Reference Count.
+		@param RefCount Number of references to the record
+	*/
+	public void setRefCount (int RefCount)
+	{
+		set_Value (COLUMNNAME_RefCount, Integer.valueOf(RefCount));
+	}
+
+	/** Get Reference Count.
+		@return Number of references to the record
+	  */
+	public int getRefCount()
+	{
+		Integer ii = (Integer)get_Value(COLUMNNAME_RefCount);
+		if (ii == null)
+			 return 0;
+		return ii.intValue();
+	}
+}
\ No newline at end of file
@@ -166,6 +166,8 @@ public class X_AD_StorageProvider extends PO implements I_AD_StorageProvider, I_
 	public static final int METHOD_AD_Reference_ID=200019;
 	/** Database = DB */
 	public static final String METHOD_Database = "DB";
+	/** Database Per Entry = DBEntry */
+	public static final String METHOD_DatabasePerEntry = "DBEntry";
 	/** File System = FileSystem */
 	public static final String METHOD_FileSystem = "FileSystem";
 	/** Set Method.
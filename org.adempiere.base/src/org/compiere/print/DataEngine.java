@@ -1167,6 +1167,7 @@ public class DataEngine
 		// Parse Script column values
 		if(scriptColumns.size() > 0) {
 			for(int i = 0; i < pd.getRowCount(); i++) {
+				boolean changed = false;
 				for(PrintDataColumn c : scriptColumns) {
 					pd.setRowIndex(i);
 					PrintDataElement e = (PrintDataElement) pd.getNodeByPrintFormatItemId(c.getAD_PrintFormatItem_ID());
@@ -1185,7 +1186,11 @@ public class DataEngine
 						e.setValue((Serializable) value);
 					else
 						e.setValue(Objects.toString(value, ""));
+					changed = true;
 				}
+				//	elements are changed in place, write the row back before it is paged out
+				if (changed)
+					pd.updateRowData();
 			}
 		}
 		//	--	we have all rows - finish
@@ -398,6 +398,7 @@ public class PrintData implements Serializable
 			addRow(false, 0, nodes);
 		}
 		nodes.add (parent);
+		m_matrix.setRowData(nodes);
 	}	//	addNode
 
 	/**
@@ -414,8 +415,20 @@ public class PrintData implements Serializable
 			addRow(false, 0, nodes);
 		}
 		nodes.add (node);
+		m_matrix.setRowData(nodes);
 	}	//	addNode
 
+	/**
+	 * 	Write the current row back after its nodes are changed in place,
+	 * 	else the change is lost when the row is paged out
+	 */
+	public void updateRowData ()
+	{
+		List<Serializable> nodes = m_matrix.getRowData();
+		if (nodes != null)
+			m_matrix.setRowData(nodes);
+	}	//	updateRowData
+
 	/**
 	 * 	Get Node with index in row
 	 * 	@param index index
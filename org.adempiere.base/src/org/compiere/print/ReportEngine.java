@@ -1090,6 +1090,7 @@ queued-job-count = 0  (class javax.print.attribute.standard.QueuedJobCount)
 												}
 												String foreignColumnName = tableName + "_ID";
 												pde.setForeignColumnName(foreignColumnName);
+												m_printData.updateRowData();
 												isZoom = true;
 											}
 										}
@@ -223,6 +223,7 @@ public class InstanceAttributeData {
 				columns.add(index, value);
 				index++;
 			}
+			elements.setRowData(columns);
 		}
 	}
 }
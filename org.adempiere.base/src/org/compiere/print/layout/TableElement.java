@@ -347,6 +347,8 @@ public class TableElement extends PrintElement
 				{
 					dimensions.add(null);
 				}
+				//	dimensions are changed in place below
+				dataSizes.setRowData(dimensions);
 
 				Font font = getFont(row, dataCol);
 
@@ -456,7 +458,9 @@ public class TableElement extends PrintElement
 							height = renderer.getHeight();
 						renderer.setAllocation((int)colWidth, (int)height);
 					//	log.finest( "calculateSize HTML - " + renderer.getAllocation());
-						m_data.getRowData().set(dataCol, renderer);
+						List<Serializable> rowData = m_data.getRowData();
+						rowData.set(dataCol, renderer);
+						m_data.setRowData(rowData);
 					}
 					else
 					{ 
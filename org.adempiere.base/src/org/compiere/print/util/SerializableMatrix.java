@@ -40,7 +40,16 @@ public interface SerializableMatrix<T extends Serializable> {
 	 */
 	public int getRowIndex(); //	getRowIndex
 
+	/**
+	 * 	Get data of current row.<br/>
+	 * 	A row changed in place must be set back with {@link #setRowData(List)}, else the change is lost when the row is paged out.
+	 * 	@return row data
+	 */
 	public List<T> getRowData();
 
+	/**
+	 * 	Set data of current row
+	 * 	@param data row data
+	 */
 	public void setRowData(List<T> data);
 }
\ No newline at end of file
@@ -13,11 +13,7 @@
  *****************************************************************************/
 package org.compiere.print.util;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +23,7 @@ import org.compiere.model.MSysConfig;
 import org.compiere.util.CLogger;
 
 /**
+ * Matrix of rows, paged out to a {@link SwapFile} with {@link SwapPageCodec} after {@link MSysConfig#REPORT_SWAP_MAX_ROWS} rows.
  * 
  * @author hengsin
  *
@@ -106,6 +103,7 @@ public class SerializableMatrixImpl<T extends Serializable> implements Serializa
 				m_rows.add(data);
 				currentPage.last++;
 				currentPage.size++;
+				currentPage.dirty = true;
 				m_currentRow = currentPage.last;
 			}
 		}
@@ -123,17 +121,12 @@ public class SerializableMatrixImpl<T extends Serializable> implements Serializa
 			m_currentRow = row;
 			return true;
 		} else {
-			Page tmp = currentPage;
-			for(Page page : pages) {
-				if (row >= page.first && row <= page.last) {					
-					currentPage = page;
-					pageout(tmp);
-					pagein(currentPage.pageNo);
-					m_currentRow = row;
-					return true;
-				}
-			}
-			return false;
+			//	all pages except the last have m_pageSize rows
+			Page page = pages.get(row / m_pageSize);
+			pageout(currentPage);
+			pagein(page.pageNo);
+			m_currentRow = row;
+			return true;
 		}
 	}
 	
@@ -170,7 +163,9 @@ public class SerializableMatrixImpl<T extends Serializable> implements Serializa
 	@Override
 	public List<T> getRowData()
 	{
-		return m_rows.isEmpty() ? null : m_rows.get(m_currentRow - currentPage.first);
+		if (m_rows.isEmpty())
+			return null;
+		return m_rows.get(m_currentRow - currentPage.first);
 	}
 	
 	@Override
@@ -179,20 +174,24 @@ public class SerializableMatrixImpl<T extends Serializable> implements Serializa
 			int index = m_currentRow - currentPage.first; 
 			if (index < m_rows.size()) {
 				m_rows.set(index, data);
+				currentPage.dirty = true;
 			}
 		}
 	}
 	
 	private void pageout(Page currentPage) {
-		ByteArrayOutputStream bas = new ByteArrayOutputStream();
+		//	unchanged since page in
+		if (!currentPage.dirty && currentPage.pageNo < segments.size() && segments.get(currentPage.pageNo) != null)
+			return;
 		try {
-			ObjectOutputStream ous = new ObjectOutputStream(bas);
-			ous.writeObject(m_rows);
+			byte[] data = SwapPageCodec.encode(m_rows);
 			if (swapFile == null) {
 				swapFile = new SwapFile(makePrefix(prefix), DEFAULT_BLOCK_SIZE, 2);
 			}
 			swapFile.open();
-			SwapFileSegment segment = swapFile.write(bas.toByteArray());
+			if (currentPage.pageNo < segments.size() && segments.get(currentPage.pageNo) != null)
+				swapFile.free(segments.get(currentPage.pageNo));
+			SwapFileSegment segment = swapFile.write(data);
 			if (currentPage.pageNo < segments.size())
 				segments.set(currentPage.pageNo, segment);
 			else
@@ -208,21 +207,16 @@ public class SerializableMatrixImpl<T extends Serializable> implements Serializa
 	private void pagein(int index) {
 		SwapFileSegment segment = segments.get(index);
 		try {
-			swapFile.open();
-			byte[] data = swapFile.read(segment);
-			swapFile.free(segment);
-			ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data));
-			@SuppressWarnings("unchecked")
-			ArrayList<List<T>> rows = (ArrayList<List<T>>) ois.readObject();
+			//	decode from mapped page, segment is kept until the page is changed
+			ArrayList<List<T>> rows = SwapPageCodec.decode(swapFile.readBuffer(segment));
 			this.m_rows = rows;
 			currentPage = pages.get(index);
+			currentPage.dirty = false;
 			m_currentRow = currentPage.first;
 		} catch (IOException e) {
 			log.log(Level.SEVERE, e.getLocalizedMessage(), e);
 		} catch (ClassNotFoundException e) {
 			log.log(Level.SEVERE, e.getLocalizedMessage(), e);
-		} finally {
-			swapFile.close();
 		}
 	}
 	
@@ -244,5 +238,7 @@ public class SerializableMatrixImpl<T extends Serializable> implements Serializa
 		protected int first;
 		protected int last;
 		protected int size;
+		/** changed since page in */
+		protected boolean dirty = true;
 	}	
 }
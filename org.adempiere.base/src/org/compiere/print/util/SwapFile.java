@@ -14,15 +14,21 @@
 package org.compiere.print.util;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.compiere.util.CLogger;
 
 /**
+ * Swap file, memory mapped in regions of blocks.<br/>
+ * The file must be open to write, mapped regions stay readable after close.
  * 
  * @author hengsin
  *
@@ -31,10 +37,14 @@ public class SwapFile
 {
 	private static final CLogger log = CLogger.getCLogger(SwapFile.class);
 	
+	/** Minimum number of blocks of a mapped region **/
+	private static final int REGION_BLOCKS = 1024;
+	
 	private final File swapFile;
-	private RandomAccessFile randomAccessFile;
+	private FileChannel channel;
 	private final int blockSize;
-	private final int minBlockToGrow;
+	private final int regionSize;
+	private final List<MappedByteBuffer> regions;
 	private final LinkedList<Long> freeBlocks;
 	
 	
@@ -59,13 +69,10 @@ public class SwapFile
 			swapFile.deleteOnExit();
 			
 			this.blockSize = blockSize;
-			this.minBlockToGrow = minBlockToGrow;
+			this.regionSize = blockSize * Math.max(REGION_BLOCKS, minBlockToGrow);
+			regions = new ArrayList<MappedByteBuffer>();
 			freeBlocks = new LinkedList<Long>();			
 		}
-		catch (FileNotFoundException e)
-		{
-			throw new RuntimeException(e);
-		}
 		catch (IOException e)
 		{
 			throw new RuntimeException(e);
@@ -76,22 +83,26 @@ public class SwapFile
 	 * open for read write
 	 */
 	public synchronized void open() {
+		if (channel != null)
+			return;
 		try {
-			randomAccessFile = new RandomAccessFile(swapFile, "rw");
-		} catch (FileNotFoundException e) {
+			channel = FileChannel.open(swapFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
 	
 	/**
-	 * close and release file handle
+	 * close and release file handle, mapped regions stay readable
 	 */
 	public synchronized void close() {
-		if (randomAccessFile != null) {
+		if (channel != null) {
 			try {
-				randomAccessFile.close();
+				channel.close();
 			} catch (IOException e) {
 				throw new RuntimeException(e);
+			} finally {
+				channel = null;
 			}
 		}
 	}
@@ -114,19 +125,12 @@ public class SwapFile
 		{
 			int dataSize = i < blockCount - 1 ? blockSize : lastBlockSize;
 			int dataOffset = i * blockSize;			
-			write(data, dataSize, dataOffset, offsets[i]);
+			getBlock(offsets[i]).put(data, dataOffset, dataSize);
 		}
 		
 		return segment;
 	}
 
-
-	private synchronized void write(byte[] data, int dataSize, int dataOffset, long fileOffset) throws IOException
-	{
-		randomAccessFile.seek(fileOffset);
-		randomAccessFile.write(data, dataOffset, dataSize);
-	}
-
 	
 	/**
 	 * Reads all the data from an allocated area.
@@ -137,29 +141,58 @@ public class SwapFile
 	 */
 	public byte[] read(SwapFileSegment segment) throws IOException
 	{
-		verifyOpen();
+		ByteBuffer buffer = readBuffer(segment);
+		byte[] data = new byte[buffer.remaining()];
+		buffer.get(data);
+		return data;
+	}
+
+	/**
+	 * Reads all the data from an allocated area, without copy when the blocks are contiguous.
+	 * 
+	 * @param segment the allocated segment
+	 * @return buffer with the whole data saved in an allocated area, valid until the segment is freed
+	 * @throws IOException
+	 */
+	public ByteBuffer readBuffer(SwapFileSegment segment) throws IOException
+	{
 		long[] offsets = segment.getOffsets();
 		int totalLength = (offsets.length - 1) * blockSize + segment.getLastBlockSize();
-		byte[] data = new byte[totalLength];
+		boolean contiguous = offsets[0] / regionSize == offsets[offsets.length - 1] / regionSize;
+		for (int i = 1; contiguous && i < offsets.length; ++i)
+		{
+			contiguous = offsets[i] == offsets[i - 1] + blockSize;
+		}
+		if (contiguous)
+		{
+			ByteBuffer buffer = getBlock(offsets[0]);
+			buffer.limit(buffer.position() + totalLength);
+			return buffer.slice();
+		}
 		
+		ByteBuffer data = ByteBuffer.allocate(totalLength);
 		for (int i = 0; i < offsets.length; ++i)
 		{
-			int dataOffset = i * blockSize;
 			int dataLength = i < offsets.length - 1 ? blockSize : segment.getLastBlockSize();
-			read(data, dataOffset, dataLength, offsets[i]);
+			ByteBuffer block = getBlock(offsets[i]);
+			block.limit(block.position() + dataLength);
+			data.put(block);
 		}
-		
+		data.flip();
 		return data;
 	}
 
-
-	private synchronized void read(byte[] data, int dataOffset, int dataLength, long fileOffset) throws IOException
-	{		
-		randomAccessFile.seek(fileOffset);
-		randomAccessFile.readFully(data, dataOffset, dataLength);
+	/**
+	 * @param fileOffset offset of block
+	 * @return buffer positioned at the block in its mapped region
+	 */
+	private synchronized ByteBuffer getBlock(long fileOffset)
+	{
+		ByteBuffer region = regions.get((int) (fileOffset / regionSize)).duplicate();
+		region.position((int) (fileOffset % regionSize));
+		return region;
 	}
 	
-	
 	/**
 	 * Frees an allocated area.
 	 * 
@@ -167,12 +200,11 @@ public class SwapFile
 	 */
 	public void free(SwapFileSegment segment)
 	{
-		verifyOpen();
 		freeBlocks(segment.getOffsets());
 	}
 
 	private synchronized void verifyOpen() {
-		if (randomAccessFile == null) {
+		if (channel == null) {
 			throw new RuntimeException("Swap file not open for read write access");
 		}
 	}
@@ -200,6 +232,8 @@ public class SwapFile
 				{
 					log.warning("Not able to close swap file " + swapFile.getPath());
 				}
+				regions.clear();
+				freeBlocks.clear();
 
 				if (!swapFile.delete())
 				{
@@ -218,25 +252,18 @@ public class SwapFile
 
 	private synchronized long[] allocateFreeBlocks(int blockCount) throws IOException
 	{
-		int growCount = blockCount - freeBlocks.size();
-		if (growCount > 0)
+		while (freeBlocks.size() < blockCount)
 		{
-			if (growCount < minBlockToGrow)
-			{
-				growCount = minBlockToGrow;
-			}
-			
-			long length = randomAccessFile.length();
-			long newLength = length + growCount * blockSize;
+			long length = (long) regions.size() * regionSize;
 			if (log.isLoggable(Level.INFO))
 			{
-				log.info("Growing swap file " + swapFile.getPath() + " with " + growCount + " blocks x " + blockSize + " bytes to size " + newLength);
+				log.info("Growing swap file " + swapFile.getPath() + " with " + (regionSize / blockSize) + " blocks x " + blockSize + " bytes to size " + (length + regionSize));
 			}
-			randomAccessFile.setLength(newLength);
+			regions.add(channel.map(FileChannel.MapMode.READ_WRITE, length, regionSize));
 
-			for (int i = 0; i < growCount; ++i)
+			for (int i = 0; i < regionSize / blockSize; ++i)
 			{
-				freeBlocks.addLast(length + i * blockSize);
+				freeBlocks.addLast(length + (long) i * blockSize);
 			}
 		}
 		
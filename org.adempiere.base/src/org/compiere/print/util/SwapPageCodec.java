@@ -0,0 +1,345 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.print.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.compiere.print.PrintDataElement;
+import org.compiere.print.layout.Dimension2DImpl;
+import org.compiere.util.KeyNamePair;
+import org.compiere.util.ValueNamePair;
+
+/**
+ * Binary encoding of a page of {@link SerializableMatrixImpl} rows.<br/>
+ * Strings are dictionary encoded per page, numbers and dates are packed as variable length integers.
+ * {@link PrintDataElement}, {@link ArrayList}, {@link Dimension2DImpl}, {@link KeyNamePair}, {@link ValueNamePair}
+ * and the common value types are encoded field by field, other objects with java serialization.
+ */
+public final class SwapPageCodec {
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte DECIMAL = 3;
+	private static final byte BIG_DECIMAL = 4;
+	private static final byte TIMESTAMP = 5;
+	private static final byte TRUE = 6;
+	private static final byte FALSE = 7;
+	private static final byte ELEMENT = 8;
+	private static final byte LIST = 9;
+	private static final byte DIMENSION = 10;
+	private static final byte KEY_NAME = 11;
+	private static final byte VALUE_NAME = 12;
+	private static final byte OBJECT = 13;
+
+	private SwapPageCodec() {
+	}
+
+	/**
+	 * Encode page
+	 * @param rows rows of page
+	 * @return encoded page
+	 * @throws IOException
+	 */
+	public static byte[] encode(List<? extends List<?>> rows) throws IOException {
+		Output body = new Output();
+		Map<String, Integer> dictionary = new HashMap<String, Integer>();
+		body.writeVarLong(rows.size());
+		for (List<?> row : rows)
+			writeValue(body, dictionary, row);
+
+		Output page = new Output();
+		String[] strings = new String[dictionary.size()];
+		for (Map.Entry<String, Integer> entry : dictionary.entrySet())
+			strings[entry.getValue()] = entry.getKey();
+		page.writeVarLong(strings.length);
+		for (String s : strings)
+			page.writeBytes(s.getBytes(StandardCharsets.UTF_8));
+		page.write(body.buffer, 0, body.length);
+		return page.toByteArray();
+	}
+
+	/**
+	 * Decode page
+	 * @param <T>
+	 * @param buffer encoded page, from position to limit
+	 * @return rows of page
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Serializable> ArrayList<List<T>> decode(ByteBuffer buffer) throws IOException, ClassNotFoundException {
+		String[] strings = new String[(int) readVarLong(buffer)];
+		for (int i = 0; i < strings.length; i++)
+			strings[i] = new String(readBytes(buffer), StandardCharsets.UTF_8);
+		int size = (int) readVarLong(buffer);
+		ArrayList<List<T>> rows = new ArrayList<List<T>>(size);
+		for (int i = 0; i < size; i++)
+			rows.add((List<T>) readValue(buffer, strings));
+		return rows;
+	}
+
+	private static void writeValue(Output out, Map<String, Integer> dictionary, Object value) throws IOException {
+		if (value == null) {
+			out.write(NULL);
+			return;
+		}
+		Class<?> clazz = value.getClass();
+		if (clazz == String.class) {
+			out.write(STRING);
+			writeString(out, dictionary, (String) value);
+		} else if (clazz == Integer.class) {
+			out.write(INTEGER);
+			out.writeZigZag((Integer) value);
+		} else if (clazz == BigDecimal.class) {
+			BigDecimal bd = (BigDecimal) value;
+			BigInteger unscaled = bd.unscaledValue();
+			if (unscaled.bitLength() < 64) {
+				out.write(DECIMAL);
+				out.writeZigZag(bd.scale());
+				out.writeZigZag(unscaled.longValue());
+			} else {
+				out.write(BIG_DECIMAL);
+				out.writeZigZag(bd.scale());
+				out.writeBytes(unscaled.toByteArray());
+			}
+		} else if (clazz == Timestamp.class) {
+			Timestamp ts = (Timestamp) value;
+			out.write(TIMESTAMP);
+			out.writeZigZag(ts.getTime());
+			out.writeVarLong(ts.getNanos() % 1000000);
+		} else if (clazz == Boolean.class) {
+			out.write((Boolean) value ? TRUE : FALSE);
+		} else if (clazz == PrintDataElement.class) {
+			PrintDataElement element = (PrintDataElement) value;
+			out.write(ELEMENT);
+			out.writeZigZag(element.getAD_PrintFormatItem_ID());
+			writeString(out, dictionary, element.getColumnName());
+			out.writeZigZag(element.getDisplayType());
+			out.write((element.isPKey() ? 1 : 0) | (element.isPageBreak() ? 2 : 0));
+			writeString(out, dictionary, element.getM_formatPattern());
+			writeString(out, dictionary, element.getForeignColumnName());
+			writeValue(out, dictionary, element.getValue());
+		} else if (clazz == ArrayList.class) {
+			List<?> list = (List<?>) value;
+			out.write(LIST);
+			out.writeVarLong(list.size());
+			for (Object item : list)
+				writeValue(out, dictionary, item);
+		} else if (clazz == Dimension2DImpl.class) {
+			Dimension2DImpl dimension = (Dimension2DImpl) value;
+			out.write(DIMENSION);
+			out.writeDouble(dimension.width);
+			out.writeDouble(dimension.height);
+		} else if (clazz == KeyNamePair.class) {
+			KeyNamePair pair = (KeyNamePair) value;
+			out.write(KEY_NAME);
+			out.writeZigZag(pair.getKey());
+			writeString(out, dictionary, pair.getName());
+		} else if (clazz == ValueNamePair.class) {
+			ValueNamePair pair = (ValueNamePair) value;
+			out.write(VALUE_NAME);
+			writeString(out, dictionary, pair.getValue());
+			writeString(out, dictionary, pair.getName());
+		} else {
+			out.write(OBJECT);
+			ByteArrayOutputStream bas = new ByteArrayOutputStream();
+			try (ObjectOutputStream oos = new ObjectOutputStream(bas)) {
+				oos.writeObject(value);
+			}
+			out.writeBytes(bas.toByteArray());
+		}
+	}
+
+	private static Object readValue(ByteBuffer in, String[] strings) throws IOException, ClassNotFoundException {
+		byte type = in.get();
+		switch (type) {
+		case NULL:
+			return null;
+		case STRING:
+			return readString(in, strings);
+		case INTEGER:
+			return Integer.valueOf((int) readZigZag(in));
+		case DECIMAL: {
+			int scale = (int) readZigZag(in);
+			return BigDecimal.valueOf(readZigZag(in), scale);
+		}
+		case BIG_DECIMAL: {
+			int scale = (int) readZigZag(in);
+			return new BigDecimal(new BigInteger(readBytes(in)), scale);
+		}
+		case TIMESTAMP: {
+			Timestamp ts = new Timestamp(readZigZag(in));
+			ts.setNanos(ts.getNanos() + (int) readVarLong(in));
+			return ts;
+		}
+		case TRUE:
+			return Boolean.TRUE;
+		case FALSE:
+			return Boolean.FALSE;
+		case ELEMENT: {
+			int AD_PrintFormatItem_ID = (int) readZigZag(in);
+			String columnName = readString(in, strings);
+			int displayType = (int) readZigZag(in);
+			byte flags = in.get();
+			String pattern = readString(in, strings);
+			String foreignColumnName = readString(in, strings);
+			Serializable value = (Serializable) readValue(in, strings);
+			return new PrintDataElement(AD_PrintFormatItem_ID, columnName, value, displayType,
+				(flags & 1) != 0, (flags & 2) != 0, pattern, foreignColumnName);
+		}
+		case LIST: {
+			int size = (int) readVarLong(in);
+			ArrayList<Object> list = new ArrayList<Object>(size);
+			for (int i = 0; i < size; i++)
+				list.add(readValue(in, strings));
+			return list;
+		}
+		case DIMENSION:
+			return new Dimension2DImpl(in.getDouble(), in.getDouble());
+		case KEY_NAME: {
+			int key = (int) readZigZag(in);
+			return new KeyNamePair(key, readString(in, strings));
+		}
+		case VALUE_NAME: {
+			String value = readString(in, strings);
+			return new ValueNamePair(value, readString(in, strings));
+		}
+		case OBJECT:
+			try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+				return ois.readObject();
+			}
+		default:
+			throw new IOException("Invalid swap page, unknown type " + type);
+		}
+	}
+
+	/** Write null or index of string in page dictionary */
+	private static void writeString(Output out, Map<String, Integer> dictionary, String s) {
+		if (s == null) {
+			out.writeVarLong(0);
+			return;
+		}
+		Integer index = dictionary.get(s);
+		if (index == null) {
+			index = dictionary.size();
+			dictionary.put(s, index);
+		}
+		out.writeVarLong(index.intValue() + 1);
+	}
+
+	private static String readString(ByteBuffer in, String[] strings) {
+		int index = (int) readVarLong(in);
+		return index == 0 ? null : strings[index - 1];
+	}
+
+	private static byte[] readBytes(ByteBuffer in) {
+		byte[] bytes = new byte[(int) readVarLong(in)];
+		in.get(bytes);
+		return bytes;
+	}
+
+	private static long readVarLong(ByteBuffer in) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = in.get();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private static long readZigZag(ByteBuffer in) {
+		long value = readVarLong(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Growable byte buffer
+	 */
+	private static final class Output {
+		private byte[] buffer = new byte[4096];
+		private int length = 0;
+
+		private void ensureCapacity(int count) {
+			if (length + count > buffer.length)
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + count));
+		}
+
+		void write(int b) {
+			ensureCapacity(1);
+			buffer[length++] = (byte) b;
+		}
+
+		void write(byte[] bytes, int offset, int count) {
+			ensureCapacity(count);
+			System.arraycopy(bytes, offset, buffer, length, count);
+			length += count;
+		}
+
+		void writeVarLong(long value) {
+			ensureCapacity(10);
+			while ((value & ~0x7FL) != 0) {
+				buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buffer[length++] = (byte) value;
+		}
+
+		void writeZigZag(long value) {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+
+		void writeDouble(double value) {
+			long bits = Double.doubleToRawLongBits(value);
+			ensureCapacity(8);
+			for (int shift = 56; shift >= 0; shift -= 8)
+				buffer[length++] = (byte) (bits >>> shift);
+		}
+
+		void writeBytes(byte[] bytes) {
+			writeVarLong(bytes.length);
+			write(bytes, 0, bytes.length);
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buffer, length);
+		}
+	}
+}
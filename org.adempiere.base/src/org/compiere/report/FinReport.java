@@ -19,11 +19,13 @@ package org.compiere.report;
 import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
+import org.adempiere.exceptions.DBException;
 import org.compiere.model.I_C_ValidCombination;
 import org.compiere.model.I_T_Report;
 import org.compiere.model.MAcctSchemaElement;
@@ -94,6 +96,8 @@ public class FinReport extends SvrProcess
 	private FinReportPeriod[]	m_periods = null;
 	/**	Index of m_C_Period_ID in m_periods		**/
 	private int					m_reportPeriod = -1;
+	/**	Maximum number of cells summed by one query of the report cube	*/
+	private static final int	MAX_CUBE_CELLS = 500;
 	/**	Parameter Where Clause			*/
 	private StringBuffer		m_parameterWhere = new StringBuffer();
 	/**	The Report Columns				*/
@@ -194,7 +198,7 @@ public class FinReport extends SvrProcess
 			m_parameterWhere.append(" AND UserElement2_ID=").append(p_UserElement2_ID);	
 
 		//	Load Report Definition
-		m_report = new MReport (getCtx(), getRecord_ID(), null);
+		m_report = new MReport (getCtx(), getRecord_ID(), get_TrxName());
 		sb.append(" - ").append(m_report);
 
 		setPeriods();
@@ -328,13 +332,18 @@ public class FinReport extends SvrProcess
 		if (m_lines.length == 0)
 			throw new AdempiereUserError("@No@ @PA_ReportLine_ID@");
 		
-		//	for all lines
-		for (int line = 0; line < m_lines.length; line++)
+		if (p_PA_ReportCube_ID > 0)
+			insertLinesFromCube();
+		else
 		{
-			//	Line Segment Value (i.e. not calculation)
-			if (m_lines[line].isLineTypeSegmentValue())
-				insertLine (line);
-		}	//	for all lines
+			//	for all lines
+			for (int line = 0; line < m_lines.length; line++)
+			{
+				//	Line Segment Value (i.e. not calculation)
+				if (m_lines[line].isLineTypeSegmentValue())
+					insertLine (line, false, m_parameterWhere.toString());
+			}	//	for all lines
+		}
 
 		insertLineDetail();
 		doCalculations();
@@ -363,8 +372,10 @@ public class FinReport extends SvrProcess
 	/**************************************************************************
 	 * 	For all columns (in a line) with relative period access
 	 * 	@param line line
+	 * 	@param cube true to sum Fact_Acct_Summary of the report cube, false for Fact_Acct
+	 * 	@param parameterWhere parameter where clause
 	 */
-	private void insertLine (int line)
+	private void insertLine (int line, boolean cube, String parameterWhere)
 	{
 		if (log.isLoggable(Level.INFO)) log.info("" + m_lines[line]);
 
@@ -386,117 +397,300 @@ public class FinReport extends SvrProcess
 			info.append("Line=").append(line).append(",Col=").append(col);
 
 			//	SELECT SUM()
-			StringBuilder select = new StringBuilder ("SELECT ");
-			if (m_lines[line].getPAAmountType() != null)				//	line amount type overwrites column
+			String amount = getAmountClause(line, col, true, info);
+			if (amount == null)
+				continue;
+			StringBuilder select = new StringBuilder ("SELECT ").append(amount);
+			if (cube) 
+				select.append(" FROM Fact_Acct_Summary fa WHERE ");
+			else
+				select.append(" FROM Fact_Acct fa WHERE ");
+			select.append(getCellWhere(line, col, cube, info));
+			
+			//	Parameter Where
+			select.append(parameterWhere);
+			if (log.isLoggable(Level.FINEST)) log.finest("Line=" + line + ",Col=" + line + ": " + select);
+
+			//	Update SET portion
+			if (update.length() > 0)
+				update.append(", ");
+			update.append("Col_").append(col)
+				.append(" = (").append(select).append(")");
+			//
+			if (log.isLoggable(Level.FINEST)) log.finest(info.toString());
+		}
+		//	Update Line Values
+		if (update.length() > 0)
+		{
+			update.insert (0, "UPDATE T_Report SET ");
+			update.append(" WHERE AD_PInstance_ID=").append(getAD_PInstance_ID())
+				.append(" AND PA_ReportLine_ID=").append(m_lines[line].getPA_ReportLine_ID())
+				.append(" AND ABS(LevelNo)<2");		//	0=Line 1=Acct
+			int no = DB.executeUpdateEx(update.toString(), get_TrxName());
+			if (no != 1)
+				log.log(Level.SEVERE, "#=" + no + " for " + update);
+			if (log.isLoggable(Level.FINEST)) log.finest(update.toString());
+		}
+	}	//	insertLine
+
+	/**
+	 * 	Insert all segment value lines from the report cube.<br/>
+	 * 	The cells are summed in a single scan of Fact_Acct_Summary (per chunk of {@link #MAX_CUBE_CELLS})
+	 * 	instead of a sub query per cell. Lines using columns not summarized by the cube are calculated from Fact_Acct.
+	 */
+	private void insertLinesFromCube()
+	{
+		MReportCube cube = new MReportCube(getCtx(), p_PA_ReportCube_ID, get_TrxName());
+		String parameterWhere = m_parameterWhere.toString().replace(" AND PA_ReportCube_ID=" + p_PA_ReportCube_ID, "");
+		if (!cube.isCovered(parameterWhere) || !cube.isCovered(m_report.getWhereClause()))
+		{
+			log.warning("Parameters not covered by " + cube.getName() + " - using Fact_Acct");
+			for (int line = 0; line < m_lines.length; line++)
 			{
-				String sql = m_lines[line].getSelectClause (true);
-				select.append (sql);
-				info.append(": LineAmtType=").append(m_lines[line].getPAAmountType());
+				if (m_lines[line].isLineTypeSegmentValue())
+					insertLine (line, false, parameterWhere);
 			}
-			else if (m_columns[col].getPAAmountType() != null)
+			return;
+		}
+
+		//	cells of covered lines
+		List<int[]> cells = new ArrayList<int[]>();
+		List<String> conditions = new ArrayList<String>();
+		List<String> amounts = new ArrayList<String>();
+		for (int line = 0; line < m_lines.length; line++)
+		{
+			if (!m_lines[line].isLineTypeSegmentValue())
+				continue;
+			if (m_lines[line].getSources().length == 0)
+			{
+				log.warning ("No Source lines: " + m_lines[line]);
+				continue;
+			}
+			List<int[]> lineCells = new ArrayList<int[]>();
+			List<String> lineConditions = new ArrayList<String>();
+			List<String> lineAmounts = new ArrayList<String>();
+			boolean covered = true;
+			for (int col = 0; covered && col < m_columns.length; col++)
 			{
-				String sql = m_columns[col].getSelectClause (true);
-				select.append (sql);
-				info.append(": ColumnAmtType=").append(m_columns[col].getPAAmountType());
+				if (m_columns[col].isColumnTypeCalculation())
+					continue;
+				StringBuilder info = new StringBuilder();
+				info.append("Line=").append(line).append(",Col=").append(col);
+				String amount = getAmountClause(line, col, false, info);
+				if (amount == null)
+					continue;
+				String condition = getCellWhere(line, col, true, info);
+				covered = cube.isCovered(condition);
+				lineCells.add(new int[] {line, col});
+				lineConditions.add(condition);
+				lineAmounts.add(amount);
+				if (log.isLoggable(Level.FINEST)) log.finest(info.toString());
 			}
-			else
+			if (covered)
 			{
-				log.warning("No Amount Type in line: " + m_lines[line] + " or column: " + m_columns[col]);
-				continue;
+				cells.addAll(lineCells);
+				conditions.addAll(lineConditions);
+				amounts.addAll(lineAmounts);
 			}
-			
-			if (p_PA_ReportCube_ID > 0) 
-				select.append(" FROM Fact_Acct_Summary fa WHERE ").append(p_AdjPeriodToExclude).append("DateAcct ");
-			else {
-				//	Get Period/Date info
-				select.append(" FROM Fact_Acct fa WHERE ").append(p_AdjPeriodToExclude).append("TRUNC(DateAcct) ");
+			else
+			{
+				if (log.isLoggable(Level.FINE)) log.fine("Not covered by " + cube.getName() + ": " + m_lines[line]);
+				insertLine (line, false, parameterWhere);
 			}
+		}
+		if (cells.isEmpty())
+			return;
 
-			BigDecimal relativeOffset = null;	//	current
-			BigDecimal relativeOffsetTo = null;
-			if (m_columns[col].isColumnTypeRelativePeriod())
+		//	sum cells
+		BigDecimal[] values = new BigDecimal[cells.size()];
+		for (int from = 0; from < cells.size(); from += MAX_CUBE_CELLS)
+		{
+			int to = Math.min(from + MAX_CUBE_CELLS, cells.size());
+			StringBuilder sql = new StringBuilder("SELECT ");
+			for (int i = from; i < to; i++)
 			{
-				relativeOffset = m_columns[col].getRelativePeriod();
-				relativeOffsetTo = m_columns[col].getRelativePeriodTo();
+				if (i > from)
+					sql.append(", ");
+				sql.append("SUM(CASE WHEN ").append(conditions.get(i))
+					.append(" THEN ").append(amounts.get(i)).append(" END)");
 			}
-			FinReportPeriod frp = getPeriod (relativeOffset);
-			FinReportPeriod frpTo = getPeriodTo(relativeOffsetTo);
-			if (m_lines[line].getPAPeriodType() != null)			//	line amount type overwrites column
+			sql.append(" FROM Fact_Acct_Summary fa WHERE PA_ReportCube_ID=?").append(parameterWhere);
+			if (log.isLoggable(Level.FINEST)) log.finest(sql.toString());
+			PreparedStatement pstmt = null;
+			ResultSet rs = null;
+			try
 			{
-				info.append(" - LineDateAcct=");
-				if (m_lines[line].isPeriod())
-				{
-					String sql = frp.getPeriodWhere();
-					info.append("Period");
-					select.append(sql);
-				}
-				else if (m_lines[line].isYear())
-				{
-					String sql = frp.getYearWhere();
-					info.append("Year");
-					select.append(sql);
-				}
-				else if (m_lines[line].isTotal())
-				{
-					String sql = frp.getTotalWhere();
-					info.append("Total");
-					select.append(sql);
-				}
-				else if (m_lines[line].isNatural())
+				pstmt = DB.prepareStatement(sql.toString(), get_TrxName());
+				pstmt.setInt(1, p_PA_ReportCube_ID);
+				rs = pstmt.executeQuery();
+				if (rs.next())
 				{
-						select.append( frp.getNaturalWhere("fa"));
+					for (int i = from; i < to; i++)
+						values[i] = rs.getBigDecimal(i - from + 1);
 				}
+			}
+			catch (SQLException e)
+			{
+				throw new DBException(e, sql.toString());
+			}
+			finally
+			{
+				DB.close(rs, pstmt);
+				rs = null; pstmt = null;
+			}
+		}
+
+		//	Update Line Values
+		StringBuilder update = new StringBuilder();
+		for (int i = 0; i < cells.size(); i++)
+		{
+			int line = cells.get(i)[0];
+			int col = cells.get(i)[1];
+			if (update.length() > 0)
+				update.append(", ");
+			update.append("Col_").append(col).append(" = ").append(values[i] != null ? values[i].toPlainString() : "NULL");
+			if (i + 1 == cells.size() || cells.get(i + 1)[0] != line)
+			{
+				update.insert (0, "UPDATE T_Report SET ");
+				update.append(" WHERE AD_PInstance_ID=").append(getAD_PInstance_ID())
+					.append(" AND PA_ReportLine_ID=").append(m_lines[line].getPA_ReportLine_ID())
+					.append(" AND ABS(LevelNo)<2");		//	0=Line 1=Acct
+				int no = DB.executeUpdateEx(update.toString(), get_TrxName());
+				if (no != 1)
+					log.log(Level.SEVERE, "#=" + no + " for " + update);
+				if (log.isLoggable(Level.FINEST)) log.finest(update.toString());
+				update = new StringBuilder();
+			}
+		}
+	}	//	insertLinesFromCube
+
+	/**
+	 * 	Get amount clause of cell, line amount type overwrites column
+	 * 	@param line line
+	 * 	@param col column
+	 * 	@param withSum with SUM()
+	 * 	@param info info
+	 * 	@return amount clause or null if there is no amount type
+	 */
+	private String getAmountClause (int line, int col, boolean withSum, StringBuilder info)
+	{
+		if (m_lines[line].getPAAmountType() != null)				//	line amount type overwrites column
+		{
+			info.append(": LineAmtType=").append(m_lines[line].getPAAmountType());
+			return m_lines[line].getSelectClause (withSum);
+		}
+		else if (m_columns[col].getPAAmountType() != null)
+		{
+			info.append(": ColumnAmtType=").append(m_columns[col].getPAAmountType());
+			return m_columns[col].getSelectClause (withSum);
+		}
+		log.warning("No Amount Type in line: " + m_lines[line] + " or column: " + m_columns[col]);
+		return null;
+	}	//	getAmountClause
+
+	/**
+	 * 	Get where clause of cell, without parameter where clause
+	 * 	@param line line
+	 * 	@param col column
+	 * 	@param cube true for Fact_Acct_Summary of the report cube, false for Fact_Acct
+	 * 	@param info info
+	 * 	@return where clause
+	 */
+	private String getCellWhere (int line, int col, boolean cube, StringBuilder info)
+	{
+		StringBuilder select = new StringBuilder();
+		if (cube) 
+			select.append(p_AdjPeriodToExclude).append("DateAcct ");
+		else {
+			//	Get Period/Date info
+			select.append(p_AdjPeriodToExclude).append("TRUNC(DateAcct) ");
+		}
+
+		BigDecimal relativeOffset = null;	//	current
+		BigDecimal relativeOffsetTo = null;
+		if (m_columns[col].isColumnTypeRelativePeriod())
+		{
+			relativeOffset = m_columns[col].getRelativePeriod();
+			relativeOffsetTo = m_columns[col].getRelativePeriodTo();
+		}
+		FinReportPeriod frp = getPeriod (relativeOffset);
+		FinReportPeriod frpTo = getPeriodTo(relativeOffsetTo);
+		if (m_lines[line].getPAPeriodType() != null)			//	line amount type overwrites column
+		{
+			info.append(" - LineDateAcct=");
+			if (m_lines[line].isPeriod())
+			{
+				String sql = frp.getPeriodWhere();
+				info.append("Period");
+				select.append(sql);
+			}
+			else if (m_lines[line].isYear())
+			{
+				String sql = frp.getYearWhere();
+				info.append("Year");
+				select.append(sql);
+			}
+			else if (m_lines[line].isTotal())
+			{
+				String sql = frp.getTotalWhere();
+				info.append("Total");
+				select.append(sql);
+			}
+			else if (m_lines[line].isNatural())
+			{
+				select.append(frp.getNaturalWhere("fa"));
+			}
+			else
+			{
+				log.log(Level.SEVERE, "No valid Line PAPeriodType");
+				select.append("=0");	// valid sql	
+			}
+		}
+		else if (m_columns[col].getPAPeriodType() != null)
+		{
+			info.append(" - ColumnDateAcct=");
+			if (m_columns[col].isPeriod())
+			{
+				if (frpTo == null)
+					select.append(frp.getPeriodWhere());
 				else
-				{
-					log.log(Level.SEVERE, "No valid Line PAPeriodType");
-					select.append("=0");	// valid sql	
-				}
+					select.append(" BETWEEN " + DB.TO_DATE(frp.getStartDate()) + " AND " + DB.TO_DATE(frpTo.getEndDate()));
+				info.append("Period");
 			}
-			else if (m_columns[col].getPAPeriodType() != null)
+			else if (m_columns[col].isYear())
 			{
-				info.append(" - ColumnDateAcct=");
-				if (m_columns[col].isPeriod())
-				{
-					if (frpTo == null)
-						select.append(frp.getPeriodWhere());
-					else
-						select.append(" BETWEEN " + DB.TO_DATE(frp.getStartDate()) + " AND " + DB.TO_DATE(frpTo.getEndDate()));
-					info.append("Period");
-				}
-				else if (m_columns[col].isYear())
-				{
-					if (frpTo == null)
-						select.append(frp.getYearWhere());
-					else
-						select.append(" BETWEEN " + DB.TO_DATE(frp.getYearStartDate()) + " AND " + DB.TO_DATE(frpTo.getEndDate()));
-					info.append("Year");
-				}
-				else if (m_columns[col].isTotal())
-				{
-					if (frpTo == null)
-						select.append(frp.getTotalWhere());
-					else
-						select.append(frpTo.getTotalWhere());
-					info.append("Total");
-				}
-				else if (m_columns[col].isNatural())
-				{
-					if (frpTo == null)
-						select.append(frp.getNaturalWhere("fa"));
-					else
-					{
-						String yearWhere = " BETWEEN " + DB.TO_DATE(frp.getYearStartDate()) + " AND " + DB.TO_DATE(frpTo.getEndDate());
-						String totalWhere = frpTo.getTotalWhere();
-						String bs = " EXISTS (SELECT C_ElementValue_ID FROM C_ElementValue WHERE C_ElementValue_ID = fa.Account_ID AND AccountType NOT IN ('R', 'E'))";
-						select.append(totalWhere + " AND ( " + bs + " OR TRUNC(fa.DateAcct) " + yearWhere + " ) ");
-					}
-				}
+				if (frpTo == null)
+					select.append(frp.getYearWhere());
+				else
+					select.append(" BETWEEN " + DB.TO_DATE(frp.getYearStartDate()) + " AND " + DB.TO_DATE(frpTo.getEndDate()));
+				info.append("Year");
+			}
+			else if (m_columns[col].isTotal())
+			{
+				if (frpTo == null)
+					select.append(frp.getTotalWhere());
+				else
+					select.append(frpTo.getTotalWhere());
+				info.append("Total");
+			}
+			else if (m_columns[col].isNatural())
+			{
+				if (frpTo == null)
+					select.append(frp.getNaturalWhere("fa"));
 				else
 				{
-					log.log(Level.SEVERE, "No valid Column PAPeriodType");
-					select.append("=0");	// valid sql	
+					String yearWhere = " BETWEEN " + DB.TO_DATE(frp.getYearStartDate()) + " AND " + DB.TO_DATE(frpTo.getEndDate());
+					String totalWhere = frpTo.getTotalWhere();
+					String bs = " EXISTS (SELECT C_ElementValue_ID FROM C_ElementValue WHERE C_ElementValue_ID = fa.Account_ID AND AccountType NOT IN ('R', 'E'))";
+					select.append(totalWhere + " AND ( " + bs + " OR TRUNC(fa.DateAcct) " + yearWhere + " ) ");
 				}
 			}
+			else
+			{
+				log.log(Level.SEVERE, "No valid Column PAPeriodType");
+				select.append("=0");	// valid sql	
+			}
+		}
 
 		//	Line Where
 		String s = m_lines[line].getWhereClause(p_PA_Hierarchy_ID);	//	(sources, posting type)
@@ -522,34 +716,10 @@ public class FinReport extends SvrProcess
 			// end globalqss
 		}
 
-			if (m_columns[col].isColumnTypeSegmentValue())
-				select.append(m_columns[col].getWhereClause(p_PA_Hierarchy_ID));
-			
-			//	Parameter Where
-			select.append(m_parameterWhere);
-			if (log.isLoggable(Level.FINEST)) log.finest("Line=" + line + ",Col=" + line + ": " + select);
-
-			//	Update SET portion
-			if (update.length() > 0)
-				update.append(", ");
-			update.append("Col_").append(col)
-				.append(" = (").append(select).append(")");
-			//
-			if (log.isLoggable(Level.FINEST)) log.finest(info.toString());
-		}
-		//	Update Line Values
-		if (update.length() > 0)
-		{
-			update.insert (0, "UPDATE T_Report SET ");
-			update.append(" WHERE AD_PInstance_ID=").append(getAD_PInstance_ID())
-				.append(" AND PA_ReportLine_ID=").append(m_lines[line].getPA_ReportLine_ID())
-				.append(" AND ABS(LevelNo)<2");		//	0=Line 1=Acct
-			int no = DB.executeUpdateEx(update.toString(), get_TrxName());
-			if (no != 1)
-				log.log(Level.SEVERE, "#=" + no + " for " + update);
-			if (log.isLoggable(Level.FINEST)) log.finest(update.toString());
-		}
-	}	//	insertLine
+		if (m_columns[col].isColumnTypeSegmentValue())
+			select.append(m_columns[col].getWhereClause(p_PA_Hierarchy_ID));
+		return select.toString();
+	}	//	getCellWhere
 
 
 	/**************************************************************************
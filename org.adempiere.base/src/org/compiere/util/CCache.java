@@ -25,9 +25,16 @@ import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.adempiere.base.Core;
+import org.idempiere.cache.ICacheStore;
+import org.idempiere.cache.NearCacheMap;
+import org.idempiere.cache.SegmentedCacheStore;
 import org.idempiere.distributed.ICacheService;
 
 /**
@@ -154,7 +161,6 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	{
 		m_name = name;
 		m_tableName = tableName;
-		setExpireMinutes(expireMinutes);
 		int propMaxSize = getCacheMaxSize(name);
 		if (propMaxSize >= 0)
 			m_maxSize = propMaxSize;
@@ -170,8 +176,15 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 		} 
 		
 		if (nullList == null) {
-			nullList = Collections.synchronizedSet(new HashSet<K>());
+			if (cache instanceof ICacheStore) {
+				//null value entries expire together with their key
+				m_nullStore = new SegmentedCacheStore<K, Boolean>(m_maxSize);
+				nullList = Collections.newSetFromMap(m_nullStore);
+			} else {
+				nullList = Collections.synchronizedSet(new HashSet<K>());
+			}
 		}
+		setExpireMinutes(expireMinutes);
 	}	//	CCache
 
 	/**	Name						*/
@@ -191,6 +204,13 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	private final AtomicLong m_hit = new AtomicLong();
 	private final AtomicLong m_miss = new AtomicLong();
 	
+	/** Store for keys with null value, only for local cache */
+	private ICacheStore<K, Boolean> m_nullStore = null;
+	/** Loads in progress, for single flight loading and to discard loads of a key that is removed or reset during load */
+	private transient ConcurrentHashMap<Object, Load<V>> m_loading = null;
+	/** True if a key that is not Integer has been put, record level reset is not possible for such cache */
+	private volatile boolean m_nonIntegerKey = false;
+	
 	/**
 	 * 	Get (table) Name
 	 *	@return name
@@ -206,7 +226,8 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	}
 	
 	/**
-	 * 	Set Expire Minutes and start it
+	 * 	Set Expire Minutes and start it.<br/>
+	 *  For local cache, expire minutes is the time to live of each entry, counting from the time it is put into the cache.
 	 *	@param expireMinutes minutes or 0
 	 */
 	public void setExpireMinutes (int expireMinutes)
@@ -222,8 +243,46 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 			m_expire = 0;
 			m_timeExp = 0;
 		}
+		if (cache instanceof ICacheStore)
+			((ICacheStore<K, V>) cache).setDefaultTimeToLive(60000L * m_expire);
+		else if (cache instanceof NearCacheMap)
+			((NearCacheMap<K, V>) cache).setLocalTimeToLive(60000L * m_expire);
+		if (m_nullStore != null)
+			m_nullStore.setDefaultTimeToLive(60000L * m_expire);
 	}	//	setExpireMinutes
 
+	/**
+	 * @return true if expiry is tracked per entry instead of for the whole cache
+	 */
+	public boolean isExpirePerEntry()
+	{
+		return cache instanceof ICacheStore;
+	}
+	
+	/**
+	 * @return true if this is a distributed cache with local near cache
+	 */
+	public boolean isNearCache()
+	{
+		return cache instanceof NearCacheMap;
+	}
+	
+	/**
+	 * Remove expired entries, only for cache with per entry expiry or near cache
+	 * @return number of entries removed
+	 */
+	public int evictExpired()
+	{
+		int no = 0;
+		if (cache instanceof ICacheStore)
+			no += ((ICacheStore<K, V>) cache).evictExpired();
+		else if (cache instanceof NearCacheMap)
+			no += ((NearCacheMap<K, V>) cache).evictExpired();
+		if (m_nullStore != null)
+			no += m_nullStore.evictExpired();
+		return no;
+	}
+
 	/**
 	 * 	Get Expire Minutes
 	 *	@return expire minutes
@@ -263,11 +322,11 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	}	//	reset
 
 	/**
-	 * 	Expire Cache if enabled
+	 * 	Expire Cache if enabled and expiry is not tracked per entry
 	 */	
 	private void expire()
 	{
-		if (m_expire != 0 && m_timeExp < System.currentTimeMillis())
+		if (m_expire != 0 && !isExpirePerEntry() && m_timeExp < System.currentTimeMillis())
 		{
 		//	System.out.println ("------------ Expired: " + getName() + " --------------------");
 			reset();
@@ -307,6 +366,7 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 			}
 		}
 		//	Clear
+		invalidateLoads();
 		cache.clear();
 		nullList.clear();
 		if (m_expire != 0)
@@ -351,6 +411,16 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	 */
 	@Override
 	public V get(Object key)
+	{
+		return lookup(key);
+	}	//	get
+	
+	/**
+	 * Get value from cache and update hit/miss count
+	 * @param key
+	 * @return value
+	 */
+	private V lookup(Object key)
 	{
 		expire();
 		V v = cache.get(key);
@@ -362,7 +432,180 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 		else
 			m_hit.getAndAdd(1);
 		return v;
+	}	//	lookup
+
+	/**
+	 * Get value, call loader on cache miss.<br/>
+	 * Concurrent misses for the same key share a single call of the loader (single flight),
+	 * other threads wait for the result of the loading thread. Null value returned by the loader is cached.
+	 * @param key key
+	 * @param loader function to load value for key
+	 * @return value
+	 */
+	public V getOrLoad(K key, Function<? super K, ? extends V> loader)
+	{
+		V v = lookup(key);
+		if (v != null || nullList.contains(key))
+			return v;
+		
+		Load<V> load = startLoad(key);
+		if (load == null)
+		{
+			Load<V> loading = getLoadingMap().get(key);
+			if (loading != null)
+			{
+				try 
+				{
+					return loading.join();
+				} 
+				catch (CompletionException e)
+				{
+					if (e.getCause() instanceof RuntimeException)
+						throw (RuntimeException) e.getCause();
+					throw e;
+				}
+			}
+			//load completed in between
+			return getOrLoad(key, loader);
+		}
+		
+		return load(key, loader, load);
 	}	//	get
+	
+	/**
+	 * Register a load in progress for key.<br/>
+	 * The value of the load is discarded if key is removed or the cache is reset before the load completes.
+	 * @param key
+	 * @return load handle, null if a load of key is already in progress
+	 */
+	protected Load<V> startLoad(K key)
+	{
+		Load<V> load = new Load<V>();
+		return getLoadingMap().putIfAbsent(key, load) == null ? load : null;
+	}
+	
+	/**
+	 * Call loader and put its value into cache, unless key has been removed or cache reset since {@link #startLoad(Object)}
+	 * @param key
+	 * @param loader
+	 * @param load handle from {@link #startLoad(Object)}
+	 * @return loaded value
+	 */
+	protected V load(K key, Function<? super K, ? extends V> loader, Load<V> load)
+	{
+		try
+		{
+			V v = loader.apply(key);
+			synchronized (load)
+			{
+				if (!load.stale)
+				{
+					if (v != null && cache instanceof NearCacheMap)
+						v = fill(key, v);
+					else
+						put(key, v);
+				}
+			}
+			load.complete(v);
+			return v;
+		}
+		catch (RuntimeException e)
+		{
+			load.completeExceptionally(e);
+			throw e;
+		}
+		finally
+		{
+			getLoadingMap().remove(key, load);
+		}
+	}
+	
+	/**
+	 * Mark load of key in progress as stale
+	 * @param key
+	 */
+	private void invalidateLoad(Object key)
+	{
+		if (m_loading == null || key == null)
+			return;
+		Load<V> load = m_loading.remove(key);
+		if (load != null)
+		{
+			synchronized (load)
+			{
+				load.stale = true;
+			}
+		}
+	}
+	
+	/**
+	 * Mark all loads in progress as stale
+	 */
+	private void invalidateLoads()
+	{
+		if (m_loading == null || m_loading.isEmpty())
+			return;
+		for (Object key : m_loading.keySet())
+			invalidateLoad(key);
+	}
+	
+	/**
+	 * @return true if a load is in progress
+	 */
+	public boolean isLoading()
+	{
+		return m_loading != null && !m_loading.isEmpty();
+	}
+	
+	/**
+	 * @return map of loads in progress
+	 */
+	private synchronized ConcurrentHashMap<Object, Load<V>> getLoadingMap()
+	{
+		if (m_loading == null)
+			m_loading = new ConcurrentHashMap<Object, Load<V>>();
+		return m_loading;
+	}
+	
+	/**
+	 * Load in progress, waiting threads join on it
+	 * @param <V>
+	 */
+	protected static final class Load<V> extends CompletableFuture<V>
+	{
+		/** true if key is removed or cache reset during load, guarded by this */
+		private boolean stale = false;
+	}
+	
+	/**
+	 * Get remaining time to live of an entry
+	 * @param key
+	 * @return remaining time to live in milliseconds, 0 if entry doesn't expire and -1 if key is not in cache or 
+	 * expiry is not tracked per entry 
+	 */
+	public long getTimeToLive(Object key)
+	{
+		if (cache instanceof ICacheStore)
+			return ((ICacheStore<K, V>) cache).getTimeToLive(key);
+		return -1;
+	}
+
+	/**
+	 * 	Add value loaded after a cache miss to the near cache, other nodes are not notified
+	 *	@param key key
+	 *	@param value value
+	 *	@return value in cache, the value of another node if it is added first
+	 */
+	private V fill (K key, V value)
+	{
+		expire();
+		m_justReset = false;
+		if (!m_nonIntegerKey && !(key instanceof Integer))
+			m_nonIntegerKey = true;
+		if (!nullList.isEmpty())
+			nullList.remove(key);
+		return ((NearCacheMap<K, V>) cache).fill(key, value);
+	}	//	fill
 
 	/**
 	 * 	Put value
@@ -374,6 +617,8 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	{
 		expire();
 		m_justReset = false;
+		if (!m_nonIntegerKey && !(key instanceof Integer))
+			m_nonIntegerKey = true;
 		if (value == null) {
 			cache.remove(key);
 			nullList.add(key);
@@ -392,6 +637,14 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	{
 		expire();
 		m_justReset = false;
+		if (!m_nonIntegerKey) {
+			for (K key : m.keySet()) {
+				if (!(key instanceof Integer)) {
+					m_nonIntegerKey = true;
+					break;
+				}
+			}
+		}
 		cache.putAll (m);
 	}	//	putAll
 	
@@ -469,6 +722,7 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 
 	@Override
 	public V remove(Object key) {
+		invalidateLoad(key);
 		if (!nullList.isEmpty()) {
 			if (nullList.remove(key)) return null;
 		}
@@ -480,17 +734,39 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 		if (recordId <= 0)
 			return reset();
 		
-		if (cache.isEmpty() && nullList.isEmpty())
+		if (cache.isEmpty() && nullList.isEmpty()) {
+			if (isLoading()) {
+				boolean integerKey = true;
+				for (Object key : m_loading.keySet()) {
+					if (!(key instanceof Integer)) {
+						integerKey = false;
+						break;
+					}
+				}
+				if (integerKey)
+					invalidateLoad(recordId);
+				else
+					invalidateLoads();
+			}
 			return 0;
+		}
 
-		K firstKey = null;
-		try {
-			if (!cache.isEmpty())
-				firstKey = cache.keySet().iterator().next();
-			else if (!nullList.isEmpty())
-				firstKey = nullList.iterator().next();
-		} catch (ConcurrentModificationException e) {}
-		if (firstKey != null && firstKey instanceof Integer) {
+		boolean integerKey;
+		if (isExpirePerEntry()) {
+			//local cache, key type is tracked by put
+			integerKey = !m_nonIntegerKey;
+		} else {
+			K firstKey = null;
+			try {
+				if (!cache.isEmpty())
+					firstKey = cache.keySet().iterator().next();
+				else if (!nullList.isEmpty())
+					firstKey = nullList.iterator().next();
+			} catch (ConcurrentModificationException e) {}
+			integerKey = firstKey != null && firstKey instanceof Integer;
+		}
+		if (integerKey) {
+			invalidateLoad(recordId);
 			if (!nullList.isEmpty()) {
 				if (nullList.remove(recordId)) return 1;
 			}
@@ -539,9 +815,29 @@ public class CCache<K,V> implements CacheInterface, Map<K, V>, Serializable
 	
 	/**
 	 * 
-	 * @return true if cache has expire
+	 * @return number of get served by local near cache (L1), same as {@link #getHit()} for cache without near cache
+	 */
+	public long getL1Hit() {
+		if (cache instanceof NearCacheMap)
+			return ((NearCacheMap<K, V>) cache).getL1Hit();
+		return getHit();
+	}
+	
+	/**
+	 * 
+	 * @return number of get served by cluster map (L2), 0 for cache without near cache
+	 */
+	public long getL2Hit() {
+		if (cache instanceof NearCacheMap)
+			return ((NearCacheMap<K, V>) cache).getL2Hit();
+		return 0;
+	}
+	
+	/**
+	 * 
+	 * @return true if cache has expire, always false if expiry is tracked per entry
 	 */
 	public boolean isExpire() {
-		return m_expire > 0 && m_timeExp > 0 && m_timeExp < System.currentTimeMillis();
+		return m_expire > 0 && !isExpirePerEntry() && m_timeExp > 0 && m_timeExp < System.currentTimeMillis();
 	}
 }	//	CCache
@@ -62,6 +62,9 @@ public class CacheInfo implements Serializable {
 	private String nodeId;
 	private long hit;
 	private long miss;
+	private boolean nearCache;
+	private long l1Hit;
+	private long l2Hit;
 
 	/**
 	 * 
@@ -75,6 +78,9 @@ public class CacheInfo implements Serializable {
 		distributed = cache.isDistributed();
 		hit = cache.getHit();
 		miss = cache.getMiss();
+		nearCache = cache.isNearCache();
+		l1Hit = cache.getL1Hit();
+		l2Hit = cache.getL2Hit();
 	}
 
 	/**
@@ -150,6 +156,48 @@ public class CacheInfo implements Serializable {
 		return miss;
 	}
 	
+	/**
+	 * 
+	 * @return true if distributed cache with local near cache
+	 */
+	public boolean isNearCache() {
+		return nearCache;
+	}
+	
+	/**
+	 * 
+	 * @return number of hit served by local near cache (L1)
+	 */
+	public long getL1Hit() {
+		return l1Hit;
+	}
+	
+	/**
+	 * 
+	 * @return number of hit served by cluster map (L2)
+	 */
+	public long getL2Hit() {
+		return l2Hit;
+	}
+	
+	/**
+	 * 
+	 * @return ratio of L1 hit over all get (0 to 1)
+	 */
+	public double getL1HitRatio() {
+		long total = hit + miss;
+		return total > 0 ? (double) l1Hit / total : 0;
+	}
+	
+	/**
+	 * 
+	 * @return ratio of L2 hit over all get (0 to 1)
+	 */
+	public double getL2HitRatio() {
+		long total = hit + miss;
+		return total > 0 ? (double) l2Hit / total : 0;
+	}
+	
 	/**
 	 * 
 	 * @param sortByName
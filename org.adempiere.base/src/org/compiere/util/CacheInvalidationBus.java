@@ -0,0 +1,423 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.compiere.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.adempiere.base.Core;
+import org.compiere.Adempiere;
+import org.idempiere.distributed.IMessageService;
+import org.idempiere.distributed.ITopic;
+import org.idempiere.distributed.ITopicSubscriber;
+
+/**
+ * Asynchronous cluster cache invalidation.<br/>
+ * Cache invalidations of a transaction are merged into one {@link CacheInvalidationMessage} that is published
+ * through {@link IMessageService} after commit. Each node applies received messages from a bounded queue,
+ * if the queue overflow, all local caches are reset.<br/>
+ * Configuration:
+ * <ul>
+ * <li>-DCache.Invalidation.Async=false to use the blocking cluster reset of {@link CacheMgt} for all tables</li>
+ * <li>-DCache.Invalidation.SyncDictionary=false to use async invalidation for dictionary (AD_) tables too</li>
+ * <li>-DCache.Invalidation.SyncTables=[comma separated table names] for other tables that must be reset immediately</li>
+ * <li>-DCache.Invalidation.QueueSize=[size] for the size of the receive queue (default 10000)</li>
+ * </ul>
+ */
+public class CacheInvalidationBus {
+
+	/** Topic for cache invalidation messages */
+	public static final String TOPIC_CACHE_INVALIDATION = "CACHE_INVALIDATION";
+
+	private static final CLogger log = CLogger.getCLogger(CacheInvalidationBus.class);
+
+	private static final CacheInvalidationBus s_instance = new CacheInvalidationBus();
+
+	/**
+	 * @return cache invalidation bus
+	 */
+	public static CacheInvalidationBus get() {
+		return s_instance;
+	}
+
+	private final String m_nodeId = UUID.randomUUID().toString();
+	private final boolean m_async;
+	private final boolean m_syncDictionary;
+	private final Set<String> m_syncTables = new HashSet<String>();
+	/** Pending invalidations by transaction name */
+	private final ConcurrentHashMap<String, TrxBatch> m_pending = new ConcurrentHashMap<String, TrxBatch>();
+	private final ArrayBlockingQueue<CacheInvalidationMessage> m_queue;
+	private final AtomicBoolean m_draining = new AtomicBoolean();
+	private volatile boolean m_overflow = false;
+	private ITopic<CacheInvalidationMessage> m_topic = null;
+
+	private final AtomicLong m_published = new AtomicLong();
+	private final AtomicLong m_applied = new AtomicLong();
+	private final AtomicLong m_overflowCount = new AtomicLong();
+	private final AtomicLong m_totalLag = new AtomicLong();
+	private volatile long m_lastLag = 0;
+	private volatile long m_maxLag = 0;
+
+	private CacheInvalidationBus() {
+		m_async = !"false".equalsIgnoreCase(System.getProperty("Cache.Invalidation.Async", "true").trim());
+		m_syncDictionary = !"false".equalsIgnoreCase(System.getProperty("Cache.Invalidation.SyncDictionary", "true").trim());
+		String syncTables = System.getProperty("Cache.Invalidation.SyncTables");
+		if (!Util.isEmpty(syncTables, true)) {
+			Arrays.stream(syncTables.split("[,]")).map(String::trim).filter(s -> s.length() > 0).forEach(m_syncTables::add);
+		}
+		int queueSize = 10000;
+		try {
+			String property = System.getProperty("Cache.Invalidation.QueueSize");
+			if (!Util.isEmpty(property, true))
+				queueSize = Math.max(100, Integer.parseInt(property.trim()));
+		} catch (Throwable t) {}
+		m_queue = new ArrayBlockingQueue<CacheInvalidationMessage>(queueSize);
+	}
+
+	/**
+	 * Reset cache entries of a record after commit of transaction
+	 * @param trxName transaction name, null to reset without waiting for a transaction
+	 * @param tableName
+	 * @param Record_ID record id or -1 for all records
+	 */
+	public void reset(String trxName, String tableName, int Record_ID) {
+		if (!isAsync(tableName)) {
+			Adempiere.getThreadPoolExecutor().submit(() -> CacheMgt.get().reset(tableName, Record_ID));
+			return;
+		}
+		TrxBatch batch = getBatch(trxName);
+		if (batch != null) {
+			batch.addReset(tableName, Record_ID);
+		} else {
+			CacheInvalidationMessage message = new CacheInvalidationMessage(m_nodeId);
+			message.addReset(tableName, Record_ID);
+			send(message);
+		}
+	}
+
+	/**
+	 * Notify caches of new record after commit of transaction
+	 * @param trxName transaction name, null to notify without waiting for a transaction
+	 * @param tableName
+	 * @param Record_ID
+	 */
+	public void newRecord(String trxName, String tableName, int Record_ID) {
+		if (!isAsync(tableName)) {
+			Adempiere.getThreadPoolExecutor().submit(() -> CacheMgt.get().newRecord(tableName, Record_ID));
+			return;
+		}
+		TrxBatch batch = getBatch(trxName);
+		if (batch != null) {
+			batch.addNewRecord(tableName, Record_ID);
+		} else {
+			CacheInvalidationMessage message = new CacheInvalidationMessage(m_nodeId);
+			message.addNewRecord(tableName, Record_ID);
+			send(message);
+		}
+	}
+
+	/**
+	 * @param tableName
+	 * @return true if invalidation of table goes through this bus
+	 */
+	public boolean isAsync(String tableName) {
+		if (!m_async || tableName == null)
+			return false;
+		if (m_syncDictionary && tableName.startsWith("AD_"))
+			return false;
+		return !m_syncTables.contains(tableName);
+	}
+
+	/**
+	 * @param trxName
+	 * @return batch of transaction, null if there's no open transaction
+	 */
+	private TrxBatch getBatch(String trxName) {
+		if (trxName == null)
+			return null;
+		TrxBatch batch = m_pending.get(trxName);
+		if (batch != null)
+			return batch;
+		Trx trx = Trx.get(trxName, false);
+		if (trx == null)
+			return null;
+		return m_pending.computeIfAbsent(trxName, k -> {
+			TrxBatch b = new TrxBatch(trx);
+			trx.addTrxEventListener(b);
+			return b;
+		});
+	}
+
+	/**
+	 * Publish message to cluster, or queue for local processing if there's no message service
+	 * @param message
+	 */
+	private void send(CacheInvalidationMessage message) {
+		if (message.isEmpty())
+			return;
+		message.setTimestamp(System.currentTimeMillis());
+		ITopic<CacheInvalidationMessage> topic = getTopic();
+		if (topic != null) {
+			try {
+				//subscriber of this node receive it too
+				topic.publish(message);
+				m_published.incrementAndGet();
+				return;
+			} catch (Exception e) {
+				log.log(Level.WARNING, "Failed to publish " + message, e);
+			}
+		}
+		enqueue(message);
+	}
+
+	/**
+	 * @return invalidation topic, subscribe on first call
+	 */
+	private synchronized ITopic<CacheInvalidationMessage> getTopic() {
+		if (m_topic == null) {
+			IMessageService service = Core.getMessageService();
+			if (service != null) {
+				ITopic<CacheInvalidationMessage> topic = service.getTopic(TOPIC_CACHE_INVALIDATION);
+				if (topic != null) {
+					topic.subscribe(new InvalidationSubscriber());
+					m_topic = topic;
+				}
+			}
+		}
+		return m_topic;
+	}
+
+	/**
+	 * Add message to receive queue and start processing
+	 * @param message
+	 */
+	private void enqueue(CacheInvalidationMessage message) {
+		if (!m_queue.offer(message)) {
+			m_overflow = true;
+			m_overflowCount.incrementAndGet();
+		}
+		scheduleDrain();
+	}
+
+	private void scheduleDrain() {
+		if (m_draining.compareAndSet(false, true)) {
+			try {
+				Adempiere.getThreadPoolExecutor().submit(this::drain);
+			} catch (RejectedExecutionException e) {
+				m_draining.set(false);
+				drain();
+			}
+		}
+	}
+
+	/**
+	 * Apply queued messages to local caches
+	 */
+	private void drain() {
+		try {
+			while (true) {
+				if (m_overflow) {
+					m_overflow = false;
+					m_queue.clear();
+					log.warning("Cache invalidation queue overflow, reset all local cache");
+					CacheMgt.get().resetLocalCache();
+				}
+				CacheInvalidationMessage message = m_queue.poll();
+				if (message == null)
+					break;
+				apply(message);
+			}
+		} catch (Exception e) {
+			log.log(Level.SEVERE, e.getMessage(), e);
+		} finally {
+			m_draining.set(false);
+		}
+		if (!m_queue.isEmpty() || m_overflow)
+			scheduleDrain();
+	}
+
+	/**
+	 * Apply message to local caches
+	 * @param message
+	 */
+	private void apply(CacheInvalidationMessage message) {
+		CacheMgt cacheMgt = CacheMgt.get();
+		for (Map.Entry<String, ? extends Set<Integer>> entry : message.getResets().entrySet()) {
+			for (Integer id : entry.getValue())
+				cacheMgt.resetLocalCache(entry.getKey(), id);
+		}
+		for (Map.Entry<String, ? extends Set<Integer>> entry : message.getNewRecords().entrySet()) {
+			for (Integer id : entry.getValue())
+				cacheMgt.localNewRecord(entry.getKey(), id);
+		}
+		m_applied.incrementAndGet();
+		if (message.getTimestamp() > 0) {
+			long lag = Math.max(0, System.currentTimeMillis() - message.getTimestamp());
+			m_lastLag = lag;
+			m_totalLag.addAndGet(lag);
+			if (lag > m_maxLag)
+				m_maxLag = lag;
+		}
+	}
+
+	/**
+	 * @return number of messages waiting to be applied
+	 */
+	public int getQueueSize() {
+		return m_queue.size();
+	}
+
+	/**
+	 * @return number of messages published to cluster by this node
+	 */
+	public long getPublishedCount() {
+		return m_published.get();
+	}
+
+	/**
+	 * @return number of messages applied to local caches
+	 */
+	public long getAppliedCount() {
+		return m_applied.get();
+	}
+
+	/**
+	 * @return number of time the receive queue overflow
+	 */
+	public long getOverflowCount() {
+		return m_overflowCount.get();
+	}
+
+	/**
+	 * @return lag in milliseconds between send and apply of last message
+	 */
+	public long getLastLag() {
+		return m_lastLag;
+	}
+
+	/**
+	 * @return max lag in milliseconds between send and apply
+	 */
+	public long getMaxLag() {
+		return m_maxLag;
+	}
+
+	/**
+	 * @return average lag in milliseconds between send and apply
+	 */
+	public long getAverageLag() {
+		long applied = m_applied.get();
+		return applied > 0 ? m_totalLag.get() / applied : 0;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheInvalidationBus[Queue=" + getQueueSize()
+			+ ", Published=" + getPublishedCount()
+			+ ", Applied=" + getAppliedCount()
+			+ ", Overflow=" + getOverflowCount()
+			+ ", LastLag=" + getLastLag()
+			+ ", AvgLag=" + getAverageLag()
+			+ ", MaxLag=" + getMaxLag() + "]";
+	}
+
+	/**
+	 * Collect invalidations of a transaction, send after commit
+	 */
+	private class TrxBatch implements TrxEventListener {
+		private final Trx m_trx;
+		private CacheInvalidationMessage m_message;
+
+		private TrxBatch(Trx trx) {
+			m_trx = trx;
+			m_message = new CacheInvalidationMessage(m_nodeId);
+		}
+
+		private synchronized void addReset(String tableName, int Record_ID) {
+			m_message.addReset(tableName, Record_ID);
+		}
+
+		private synchronized void addNewRecord(String tableName, int Record_ID) {
+			m_message.addNewRecord(tableName, Record_ID);
+		}
+
+		private synchronized CacheInvalidationMessage finish() {
+			m_pending.remove(m_trx.getTrxName(), this);
+			m_trx.removeTrxEventListener(this);
+			CacheInvalidationMessage message = m_message;
+			m_message = new CacheInvalidationMessage(m_nodeId);
+			return message;
+		}
+
+		@Override
+		public void afterCommit(Trx trx, boolean success) {
+			CacheInvalidationMessage message = finish();
+			if (success) {
+				send(message);
+			} else if (!message.isEmpty()) {
+				//nothing changed in DB, local cache might have been updated within the transaction
+				message.setTimestamp(System.currentTimeMillis());
+				enqueue(message);
+			}
+		}
+
+		@Override
+		public void afterRollback(Trx trx, boolean success) {
+			CacheInvalidationMessage message = finish();
+			if (!message.isEmpty()) {
+				//nothing changed in DB, local cache might have been updated within the transaction
+				message.setTimestamp(System.currentTimeMillis());
+				enqueue(message);
+			}
+		}
+
+		@Override
+		public void afterClose(Trx trx) {
+			CacheInvalidationMessage message = finish();
+			if (!message.isEmpty()) {
+				//closed without commit or rollback
+				message.setTimestamp(System.currentTimeMillis());
+				enqueue(message);
+			}
+		}
+	}
+
+	/**
+	 * Receive messages from cluster
+	 */
+	private class InvalidationSubscriber implements ITopicSubscriber<CacheInvalidationMessage> {
+		@Override
+		public void onMessage(CacheInvalidationMessage message) {
+			if (message != null)
+				enqueue(message);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.compiere.util;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache invalidations of a transaction, merged by table name.<br/>
+ * A record id of -1 reset all cache entries of the table.
+ */
+public class CacheInvalidationMessage implements Serializable {
+
+	/**
+	 * generated serial id
+	 */
+	private static final long serialVersionUID = 3471094536214957133L;
+
+	/** Above this number of records for a table, the whole table is reset */
+	public static final int MAX_RECORDS_PER_TABLE = 500;
+
+	private String source;
+	private long timestamp;
+	private LinkedHashMap<String, LinkedHashSet<Integer>> resets = new LinkedHashMap<>();
+	private LinkedHashMap<String, LinkedHashSet<Integer>> newRecords = new LinkedHashMap<>();
+
+	/**
+	 * @param source id of sending node
+	 */
+	public CacheInvalidationMessage(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Add cache reset
+	 * @param tableName
+	 * @param Record_ID record id or -1 for all records
+	 */
+	public void addReset(String tableName, int Record_ID) {
+		add(resets, tableName, Record_ID);
+	}
+
+	/**
+	 * Add new record notification
+	 * @param tableName
+	 * @param Record_ID
+	 */
+	public void addNewRecord(String tableName, int Record_ID) {
+		add(newRecords, tableName, Record_ID);
+	}
+
+	private void add(Map<String, LinkedHashSet<Integer>> map, String tableName, int Record_ID) {
+		LinkedHashSet<Integer> ids = map.get(tableName);
+		if (ids == null) {
+			ids = new LinkedHashSet<Integer>();
+			map.put(tableName, ids);
+		} else if (ids.contains(-1)) {
+			return;
+		}
+		if (Record_ID <= 0 || ids.size() >= MAX_RECORDS_PER_TABLE) {
+			ids.clear();
+			ids.add(-1);
+		} else {
+			ids.add(Record_ID);
+		}
+	}
+
+	/**
+	 * @return true if there's nothing to invalidate
+	 */
+	public boolean isEmpty() {
+		return resets.isEmpty() && newRecords.isEmpty();
+	}
+
+	/**
+	 * @return record ids to reset by table name
+	 */
+	public Map<String, ? extends Set<Integer>> getResets() {
+		return resets;
+	}
+
+	/**
+	 * @return new record ids by table name
+	 */
+	public Map<String, ? extends Set<Integer>> getNewRecords() {
+		return newRecords;
+	}
+
+	/**
+	 * @return id of sending node
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * @return time the message is sent
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @param timestamp time the message is sent
+	 */
+	public void setTimestamp(long timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheInvalidationMessage[Resets=" + resets + ", NewRecords=" + newRecords + "]";
+	}
+}
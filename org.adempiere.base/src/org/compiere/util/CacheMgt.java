@@ -16,22 +16,34 @@
  *****************************************************************************/
 package org.compiere.util;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import org.adempiere.base.BaseActivator;
 import org.adempiere.base.Core;
+import org.adempiere.base.ds.ServiceRankingComparator;
 import org.compiere.Adempiere;
+import org.idempiere.cache.DefaultCacheStoreFactory;
+import org.idempiere.cache.ICacheStore;
+import org.idempiere.cache.ICacheStoreFactory;
+import org.idempiere.cache.NearCacheMap;
 import org.idempiere.distributed.ICacheService;
 import org.idempiere.distributed.IClusterMember;
 import org.idempiere.distributed.IClusterService;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
 
 /**
  *  Adempiere Cache Management
@@ -66,15 +78,25 @@ public class CacheMgt
 	}	//	CacheMgt
 
 	/**	List of Instances				*/
-	private ArrayList<CacheInterface>	m_instances = new ArrayList<CacheInterface>();
-	/** List of Table Names				*/
-	private ArrayList<String>	m_tableNames = new ArrayList<String>();
+	private final WeakCacheList	m_instances = new WeakCacheList();
+	/** Cache instances by Table Name	*/
+	private final ConcurrentHashMap<String, WeakCacheList>	m_tableIndex = new ConcurrentHashMap<String, WeakCacheList>();
+	/** Table names of m_tableIndex that start with the key table name (reset of lines/dependent tables) */
+	private final ConcurrentHashMap<String, String[]>	m_prefixMatches = new ConcurrentHashMap<String, String[]>();
 	/** Logger							*/
 	private static CLogger		log = CLogger.getCLogger(CacheMgt.class);
 	/** Cache change listeners **/
 	private List<CacheChangeListener> m_listeners = new ArrayList<CacheChangeListener>();
 	/** Background monitor to clear expire cache */
 	private static final CacheMgt.CacheMonitor s_monitor = new CacheMgt.CacheMonitor();
+	/** Default local cache store factory */
+	private static final ICacheStoreFactory s_defaultStoreFactory = new DefaultCacheStoreFactory();
+	/** Tracker of {@link ICacheStoreFactory} services */
+	private static ServiceTracker<ICacheStoreFactory, ICacheStoreFactory> s_storeFactoryTracker = null;
+	/** {@link ICacheStoreFactory} services sorted by ranking, refreshed when the tracking count change */
+	private static List<ICacheStoreFactory> s_storeFactories = null;
+	/** Tracking count of s_storeFactoryTracker for s_storeFactories */
+	private static int s_storeFactoryTrackingCount = -1;
 	/** Default maximum cache size **/
 	public static int MAX_SIZE = 1000;
 	static 
@@ -109,7 +131,16 @@ public class CacheMgt
 		String name = instance.getName();
 		String tableName = instance.getTableName();
 		if (tableName != null)
-			m_tableNames.add(tableName);
+		{
+			WeakCacheList tableCaches = m_tableIndex.get(tableName);
+			if (tableCaches == null)
+			{
+				tableCaches = new WeakCacheList();
+				m_tableIndex.put(tableName, tableCaches);
+				m_prefixMatches.clear();
+			}
+			tableCaches.add(instance);
+		}
 		
 		m_instances.add (instance);
 		
@@ -126,13 +157,17 @@ public class CacheMgt
 			{
 				IClusterService clusterService = Core.getClusterService();
 				if (clusterService != null && !clusterService.isStandAlone())
+				{
 					map = provider.getMap(name);
+					if (map != null && isNearCache(name) && NearCacheMap.isAvailable())
+						map = new NearCacheMap<K, V>(name, map, instance.getMaxSize());
+				}
 			}
 		}
 		
 		if (map == null)
 		{
-			map = Collections.synchronizedMap(new MaxSizeHashMap<K, V>(instance.getMaxSize()));
+			map = newCacheStore(name, tableName, instance.getMaxSize());
 		}		
 		return map;
 	}	//	register
@@ -146,16 +181,14 @@ public class CacheMgt
 	{
 		if (instance == null)
 			return false;
-		boolean found = false;
 		//	Could be included multiple times
-		for (int i = m_instances.size()-1; i >= 0; i--)
+		boolean found = m_instances.remove(instance);
+		if (instance instanceof CCache<?, ?>)
 		{
-			CacheInterface stored = (CacheInterface)m_instances.get(i);
-			if (instance.equals(stored))
-			{
-				m_instances.remove(i);
-				found = true;
-			}
+			String tableName = ((CCache<?, ?>) instance).getTableName();
+			WeakCacheList tableCaches = tableName != null ? m_tableIndex.get(tableName) : null;
+			if (tableCaches != null)
+				tableCaches.remove(instance);
 		}
 		return found;
 	}	//	unregister
@@ -269,7 +302,7 @@ public class CacheMgt
 		CacheInterface[] instances = getInstancesAsArray();
 		for (CacheInterface stored : instances)
 		{
-			if (stored != null && stored.size() > 0)
+			if (stored != null && (stored.size() > 0 || (stored instanceof CCache && ((CCache<?, ?>)stored).isLoading())))
 			{
 				if (log.isLoggable(Level.FINE)) log.fine(stored.toString());
 				total += stored.reset();
@@ -283,8 +316,45 @@ public class CacheMgt
 	/**
 	 * @return cache instances
 	 */
-	public synchronized CacheInterface[] getInstancesAsArray() {
-		return m_instances.toArray(new CacheInterface[0]);
+	public CacheInterface[] getInstancesAsArray() {
+		return m_instances.toArray();
+	}
+	
+	/**
+	 * Get cache instances registered for tableName and for table names that start with tableName (lines/dependent)
+	 * @param tableName
+	 * @return cache instances
+	 */
+	private CacheInterface[] getTableCaches(String tableName)
+	{
+		String[] tableNames = m_prefixMatches.get(tableName);
+		if (tableNames == null)
+		{
+			synchronized (this)
+			{
+				tableNames = m_prefixMatches.get(tableName);
+				if (tableNames == null)
+				{
+					List<String> matches = new ArrayList<String>();
+					for (String key : m_tableIndex.keySet())
+					{
+						if (key.startsWith(tableName))
+							matches.add(key);
+					}
+					tableNames = matches.toArray(new String[0]);
+					m_prefixMatches.put(tableName, tableNames);
+				}
+			}
+		}
+		if (tableNames.length == 1)
+			return m_tableIndex.get(tableNames[0]).toArray();
+		List<CacheInterface> caches = new ArrayList<CacheInterface>();
+		for (String key : tableNames)
+		{
+			for (CacheInterface cache : m_tableIndex.get(key).toArray())
+				caches.add(cache);
+		}
+		return caches.toArray(new CacheInterface[0]);
 	}
 	
 	/**
@@ -297,26 +367,17 @@ public class CacheMgt
 	{
 		if (tableName == null)
 			return resetLocalCache();
-		if (!m_tableNames.contains(tableName))
+		if (!m_tableIndex.containsKey(tableName))
 			return 0;
 		//
 		int counter = 0;
 		int total = 0;
-		CacheInterface[] instances = getInstancesAsArray();
+		CacheInterface[] instances = getTableCaches(tableName);		//	reset lines/dependent too
 		for (CacheInterface stored : instances)
 		{
-			if (stored != null && stored instanceof CCache)
-			{
-				CCache<?, ?> cc = (CCache<?, ?>)stored;
-				if (cc.getTableName() != null && cc.getTableName().startsWith(tableName))		//	reset lines/dependent too
-				{
-					{
-						if (log.isLoggable(Level.FINE)) log.fine("(all) - " + stored);
-						total += stored.reset(Record_ID);
-						counter++;
-					}
-				}
-			}
+			if (log.isLoggable(Level.FINE)) log.fine("(all) - " + stored);
+			total += stored.reset(Record_ID);
+			counter++;
 		}
 		if (log.isLoggable(Level.FINE)) log.fine(tableName + ": #" + counter + " (" + total + ")");
 
@@ -342,22 +403,13 @@ public class CacheMgt
 		if (tableName == null)
 			return;
 		
-		if (!m_tableNames.contains(tableName))
+		if (!m_tableIndex.containsKey(tableName))
 			return;
 		//
-		CacheInterface[] instances = getInstancesAsArray();
+		CacheInterface[] instances = getTableCaches(tableName);		//	reset lines/dependent too
 		for (CacheInterface stored : instances)
 		{
-			if (stored != null && stored instanceof CCache)
-			{
-				CCache<?, ?> cc = (CCache<?, ?>)stored;
-				if (cc.getTableName() != null && cc.getTableName().startsWith(tableName))		//	reset lines/dependent too
-				{
-					{
-						stored.newRecord(Record_ID);
-					}
-				}
-			}
+			stored.newRecord(Record_ID);
 		}		
 	}
 	
@@ -431,21 +483,78 @@ public class CacheMgt
 		return infos;
 	}
 	
-	private static class MaxSizeHashMap<K, V> extends LinkedHashMap<K, V> {
-	    /**
-		 * generated serial id
-		 */
-		private static final long serialVersionUID = 5532596165440544235L;
-		private final int maxSize;
-
-	    public MaxSizeHashMap(int maxSize) {
-	        this.maxSize = maxSize;
-	    }
+	/**
+	 * Is near cache (local L1 in front of cluster map) enabled for a distributed cache.<br/>
+	 * Enable with -DCache.NearCache=true for all distributed caches or -DCache.NearCache.[cache name]=true for one cache. 
+	 * @param name cache name
+	 * @return true if near cache is enabled
+	 */
+	private static boolean isNearCache(String name)
+	{
+		try 
+		{
+			String property = System.getProperty("Cache.NearCache." + name);
+			if (property == null || property.trim().length() == 0)
+				property = System.getProperty("Cache.NearCache");
+			if (property != null && property.trim().length() > 0)
+				return "true".equalsIgnoreCase(property.trim()) || "Y".equalsIgnoreCase(property.trim());
+		} catch (Throwable t) {}
+		return false;
+	}
+	
+	/**
+	 * Create local cache store through {@link ICacheStoreFactory} services, fallback to {@link DefaultCacheStoreFactory}
+	 * @param name cache name
+	 * @param tableName cache table name
+	 * @param maxSize max size
+	 * @return new cache store
+	 */
+	private <K, V> ICacheStore<K, V> newCacheStore(String name, String tableName, int maxSize)
+	{
+		for (ICacheStoreFactory factory : getCacheStoreFactories())
+		{
+			ICacheStore<K, V> store = factory.newCacheStore(name, tableName, maxSize);
+			if (store != null)
+				return store;
+		}
+		return s_defaultStoreFactory.newCacheStore(name, tableName, maxSize);
+	}
 
-	    @Override
-	    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-	        return maxSize <= 0 ? false : size() > maxSize;
-	    }
+	/**
+	 * Get registered {@link ICacheStoreFactory} services, sorted by service ranking.<br/>
+	 * The list is only rebuild after a factory service is registered, modified or unregistered.
+	 * @return cache store factories
+	 */
+	private static synchronized List<ICacheStoreFactory> getCacheStoreFactories()
+	{
+		if (s_storeFactoryTracker == null)
+		{
+			BundleContext context = BaseActivator.getBundleContext();
+			if (context == null)
+				return Collections.emptyList();
+			s_storeFactoryTracker = new ServiceTracker<ICacheStoreFactory, ICacheStoreFactory>(context, ICacheStoreFactory.class, null);
+			s_storeFactoryTracker.open();
+		}
+		int trackingCount = s_storeFactoryTracker.getTrackingCount();
+		if (s_storeFactories == null || trackingCount != s_storeFactoryTrackingCount)
+		{
+			List<ICacheStoreFactory> factories = new ArrayList<ICacheStoreFactory>();
+			ServiceReference<ICacheStoreFactory>[] references = s_storeFactoryTracker.getServiceReferences();
+			if (references != null && references.length > 0)
+			{
+				if (references.length > 1)
+					Arrays.sort(references, ServiceRankingComparator.INSTANCE);
+				for (ServiceReference<ICacheStoreFactory> reference : references)
+				{
+					ICacheStoreFactory factory = s_storeFactoryTracker.getService(reference);
+					if (factory != null)
+						factories.add(factory);
+				}
+			}
+			s_storeFactories = Collections.unmodifiableList(factories);
+			s_storeFactoryTrackingCount = trackingCount;
+		}
+		return s_storeFactories;
 	}
 	
 	private static synchronized void startCacheMonitor()
@@ -455,28 +564,49 @@ public class CacheMgt
 
 	private static class CacheMonitor implements Runnable
 	{
+		/** Overflow count of cache invalidation bus at last run */
+		private long m_lastOverflowCount = 0;
 
 		public void run()
 		{
+			logInvalidationBus();
 			CacheMgt instance = CacheMgt.get();
 			if (!instance.m_instances.isEmpty())
 			{
-				CacheInterface[] caches = instance.m_instances.toArray(new CacheInterface[0]);
+				CacheInterface[] caches = instance.m_instances.toArray();
 				for(int i = 0; i < caches.length; i++)
 				{
 					if (!(caches[i] instanceof CCache<?, ?>))
 						continue;
 					CCache<?, ?> cache = (CCache<?, ?>) caches[i];
-					if (cache.isDistributed() || cache.getExpireMinutes() <= 0)
+					if (cache.getExpireMinutes() <= 0)
 						continue;
 
-					if (cache.isExpire())
+					if (cache.isExpirePerEntry() || cache.isNearCache())
+					{
+						cache.evictExpired();
+					}
+					else if (!cache.isDistributed() && cache.isExpire())
 					{
 						cache.reset();
 					}
 				}
 			}
 		}
+
+		/**
+		 * Log lag of cache invalidation messages, warn if the receive queue has overflow since last run
+		 */
+		private void logInvalidationBus()
+		{
+			CacheInvalidationBus bus = CacheInvalidationBus.get();
+			long overflowCount = bus.getOverflowCount();
+			if (overflowCount > m_lastOverflowCount)
+				log.warning(bus.toString());
+			else if (log.isLoggable(Level.FINE))
+				log.fine(bus.toString());
+			m_lastOverflowCount = overflowCount;
+		}
 	}
 
 	/**
@@ -485,7 +615,72 @@ public class CacheMgt
 	 * @return boolean
 	 */
 	public boolean hasCache(String tableName) {
-		return m_tableNames.contains(tableName);
+		return m_tableIndex.containsKey(tableName);
+	}
+	
+	/**
+	 * List of cache instances held by weak reference, so that a cache that is not referenced anymore 
+	 * (for e.g evicted sub cache) can be garbage collected without calling {@link CacheMgt#unregister(CacheInterface)}
+	 */
+	private static final class WeakCacheList
+	{
+		private final ArrayList<WeakReference<CacheInterface>> m_list = new ArrayList<WeakReference<CacheInterface>>();
+		/** size after last purge of cleared references */
+		private int m_purgeSize = 16;
+		
+		private synchronized void add(CacheInterface instance)
+		{
+			if (m_list.size() >= m_purgeSize)
+			{
+				m_list.removeIf(e -> e.get() == null);
+				m_purgeSize = Math.max(16, m_list.size() * 2);
+			}
+			m_list.add(new WeakReference<CacheInterface>(instance));
+		}
+		
+		private synchronized boolean remove(CacheInterface instance)
+		{
+			boolean found = false;
+			Iterator<WeakReference<CacheInterface>> it = m_list.iterator();
+			while (it.hasNext())
+			{
+				CacheInterface stored = it.next().get();
+				if (stored == null)
+				{
+					it.remove();
+				}
+				else if (instance.equals(stored))
+				{
+					it.remove();
+					found = true;
+				}
+			}
+			return found;
+		}
+		
+		private synchronized CacheInterface[] toArray()
+		{
+			List<CacheInterface> instances = new ArrayList<CacheInterface>(m_list.size());
+			for (WeakReference<CacheInterface> e : m_list)
+			{
+				CacheInterface stored = e.get();
+				if (stored != null)
+					instances.add(stored);
+			}
+			if (instances.size() < m_list.size())
+				m_list.removeIf(e -> e.get() == null);
+			return instances.toArray(new CacheInterface[0]);
+		}
+		
+		private synchronized int size()
+		{
+			return m_list.size();
+		}
+		
+		private synchronized boolean isEmpty()
+		{
+			return m_list.isEmpty();
+		}
 	}
 
 }	//	CCache
@@ -853,6 +853,8 @@ public final class DB
 			pstmt.setString(index, ((Boolean)param).booleanValue() ? "Y" : "N");
 		else if (param instanceof byte[])
 			pstmt.setBytes(index, (byte[]) param);
+		else if (param instanceof Integer[])
+			pstmt.setArray(index, pstmt.getConnection().createArrayOf("numeric", (Integer[]) param));
 		else
 			throw new DBException("Unknown parameter type "+index+" - "+param);
 	}
@@ -0,0 +1,120 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.compiere.util;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Integer query results shared by all sessions of the server, for values polled by many sessions like dashboard counts.<br/>
+ * A distinct statement (sql and parameters) is executed at most once per maximum age, sessions asking for the same statement
+ * while it runs wait for its result. The sql must contain all session specific restrictions (e.g. role access sql), it is
+ * the only key of the result.
+ */
+public final class SharedSQLValue {
+
+	/** Number of results kept before results older than the requested age are removed */
+	private static final int MAX_RESULTS = 1000;
+
+	private static final ConcurrentHashMap<Key, Result> s_results = new ConcurrentHashMap<Key, Result>();
+
+	private SharedSQLValue() {
+	}
+
+	/**
+	 * Get value of statement, executed without transaction
+	 * @param maxAge maximum age of a shared result in milliseconds, 0 to execute the statement
+	 * @param sql
+	 * @param params
+	 * @return first value or -1 if not found or error, see {@link DB#getSQLValue(String, String, Object...)}
+	 */
+	public static int getSQLValue(long maxAge, String sql, Object... params) {
+		Key key = new Key(sql, params);
+		while (true) {
+			long now = System.currentTimeMillis();
+			Result result = s_results.get(key);
+			if (result != null && (!result.isDone() || now - result.time < maxAge))
+				return result.join();
+
+			Result next = new Result(now);
+			boolean added = result == null ? s_results.putIfAbsent(key, next) == null : s_results.replace(key, result, next);
+			if (!added)
+				continue;	//	executed by another session
+			int value = -1;
+			try {
+				value = DB.getSQLValue(null, sql, params);
+			} finally {
+				next.complete(value);
+				//	errors are not shared
+				if (value < 0)
+					s_results.remove(key, next);
+			}
+			if (s_results.size() > MAX_RESULTS)
+				s_results.values().removeIf(r -> r.isDone() && now - r.time >= maxAge);
+			return value;
+		}
+	}
+
+	/**
+	 * Remove all results
+	 */
+	public static void reset() {
+		s_results.clear();
+	}
+
+	/** Result of a statement, completed when the statement is executed */
+	private static final class Result extends CompletableFuture<Integer> {
+		/** Start of execution */
+		private final long time;
+
+		private Result(long time) {
+			this.time = time;
+		}
+	}
+
+	/** Statement and parameters */
+	private static final class Key {
+		private final String sql;
+		private final Object[] params;
+		private final int hash;
+
+		private Key(String sql, Object[] params) {
+			this.sql = sql;
+			this.params = params != null ? params : new Object[0];
+			this.hash = 31 * sql.hashCode() + Arrays.hashCode(this.params);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return sql.equals(other.sql) && Arrays.equals(params, other.params);
+		}
+	}
+}
@@ -382,6 +382,10 @@ public class Trx
 				m_connection.rollback(savepoint);
 				if (log.isLoggable(Level.INFO)) log.info ("**** " + m_trxName);
 				m_changesMadeByEventListener = false;
+				TrxEventListener[] copies = listeners.toArray(new TrxEventListener[0]);
+				for(TrxEventListener l : copies) {
+					l.afterRollbackToSavepoint(this, savepoint);
+				}
 				return true;
 			}
 		}
@@ -405,6 +409,7 @@ public class Trx
 		{
 			if (m_connection != null)
 			{
+				fireBeforeCommitEvent();
 				m_connection.commit();
 				if (log.isLoggable(Level.INFO)) log.info ("**** " + m_trxName);
 				m_active = false;
@@ -432,6 +437,13 @@ public class Trx
 		return false;
 	}	//	commit
 	
+	private void fireBeforeCommitEvent() {
+		TrxEventListener[] copies = listeners.toArray(new TrxEventListener[0]);
+		for(TrxEventListener l : copies) {
+			l.beforeCommit(this);
+		}
+	}
+
 	private void fireAfterCommitEvent(boolean success) {
 		TrxEventListener[] copies = listeners.toArray(new TrxEventListener[0]);
 		for(TrxEventListener l : copies) {
@@ -561,10 +573,12 @@ public class Trx
 			getConnection();
 		
 		if(m_connection != null) {
-			if (name != null)
-				return m_connection.setSavepoint(name);
-			else
-				return m_connection.setSavepoint();
+			Savepoint savepoint = name != null ? m_connection.setSavepoint(name) : m_connection.setSavepoint();
+			TrxEventListener[] copies = listeners.toArray(new TrxEventListener[0]);
+			for(TrxEventListener l : copies) {
+				l.afterSetSavepoint(this, savepoint);
+			}
+			return savepoint;
 		} else {
 			return null;
 		}
@@ -595,6 +609,7 @@ public class Trx
 			// of the methods, then SQLException is thrown with the message
 			// "Unsupported feature".
 			// -- 4-4 Oracle Database JDBC Developer's Guide and Reference
+			fireAfterReleaseSavepointEvent(savepoint);
 			return;
 		}
 		if (m_connection == null) 
@@ -605,7 +620,14 @@ public class Trx
 		{
 			m_connection.releaseSavepoint(savepoint);
 		}
-		
+		fireAfterReleaseSavepointEvent(savepoint);
+	}
+
+	private void fireAfterReleaseSavepointEvent(Savepoint savepoint) {
+		TrxEventListener[] copies = listeners.toArray(new TrxEventListener[0]);
+		for(TrxEventListener l : copies) {
+			l.afterReleaseSavepoint(this, savepoint);
+		}
 	}
 	
 	/**
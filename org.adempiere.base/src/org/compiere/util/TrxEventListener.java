@@ -13,6 +13,8 @@
  *****************************************************************************/
 package org.compiere.util;
 
+import java.sql.Savepoint;
+
 /**
  * @author hengsin
  *
@@ -21,4 +23,32 @@ public interface TrxEventListener {
 	public void afterCommit(Trx trx, boolean success);
 	public void afterRollback(Trx trx, boolean success);
 	public void afterClose(Trx trx);
+
+	/**
+	 * Called before the connection is committed, changes made here are part of the commit
+	 * @param trx
+	 */
+	public default void beforeCommit(Trx trx) {
+	}
+
+	/**
+	 * @param trx
+	 * @param savepoint savepoint created
+	 */
+	public default void afterSetSavepoint(Trx trx, Savepoint savepoint) {
+	}
+
+	/**
+	 * @param trx
+	 * @param savepoint savepoint released
+	 */
+	public default void afterReleaseSavepoint(Trx trx, Savepoint savepoint) {
+	}
+
+	/**
+	 * @param trx
+	 * @param savepoint savepoint the transaction is rolled back to
+	 */
+	public default void afterRollbackToSavepoint(Trx trx, Savepoint savepoint) {
+	}
 }
@@ -0,0 +1,77 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.idempiere.cache;
+
+import java.util.Map;
+
+/**
+ * Local storage backing a {@link org.compiere.util.CCache} instance.<br/>
+ * Implementation must be thread safe and enforce its own max size and per entry time to live.
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public interface ICacheStore<K, V> extends Map<K, V> {
+
+	/**
+	 * Put value with explicit time to live
+	 * @param key
+	 * @param value
+	 * @param timeToLiveMillis time to live in milliseconds, 0 for no expiry
+	 * @return previous value
+	 */
+	public V put(K key, V value, long timeToLiveMillis);
+
+	/**
+	 * Set default time to live for entries added through {@link #put(Object, Object)}
+	 * @param timeToLiveMillis time to live in milliseconds, 0 for no expiry
+	 */
+	public void setDefaultTimeToLive(long timeToLiveMillis);
+
+	/**
+	 * @return default time to live in milliseconds, 0 for no expiry
+	 */
+	public long getDefaultTimeToLive();
+
+	/**
+	 * Get remaining time to live of an entry
+	 * @param key
+	 * @return remaining time to live in milliseconds, 0 if entry doesn't expire and -1 if key is not in store
+	 */
+	public long getTimeToLive(Object key);
+
+	/**
+	 * Remove expired entries
+	 * @return number of entries removed
+	 */
+	public int evictExpired();
+
+	/**
+	 * @return max size, 0 or negative for unbounded
+	 */
+	public int getMaxSize();
+
+	/**
+	 * @return number of entries removed to keep the store within max size
+	 */
+	public long getEvictionCount();
+}
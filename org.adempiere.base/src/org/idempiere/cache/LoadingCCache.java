@@ -0,0 +1,145 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.idempiere.cache;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import org.compiere.Adempiere;
+import org.compiere.util.CCache;
+import org.compiere.util.CLogger;
+import org.compiere.util.CacheMgt;
+
+/**
+ * Cache that load missing value through a loader function.<br/>
+ * Concurrent misses for the same key share one call of the loader. An entry that is read during the last
+ * part of its time to live (refresh ahead ratio, default 20%) is reloaded in the background through
+ * {@link Adempiere#getThreadPoolExecutor()} while the current value is still served. A load or refresh that
+ * complete after its key is removed or the cache is reset is not cached.<br/>
+ * The loader is called from a background thread for refresh, it must not depend on the context of the calling thread.
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class LoadingCCache<K, V> extends CCache<K, V> {
+
+	/**
+	 * generated serial id
+	 */
+	private static final long serialVersionUID = 8519536264930462532L;
+
+	private static final CLogger log = CLogger.getCLogger(LoadingCCache.class);
+
+	/** Default refresh ahead ratio */
+	public static final double DEFAULT_REFRESH_AHEAD_RATIO = 0.2d;
+
+	private final transient Function<? super K, ? extends V> m_loader;
+	private final double m_refreshAheadRatio;
+
+	/**
+	 * @param name cache name
+	 * @param initialCapacity
+	 * @param expireMinutes time to live of each entry in minutes
+	 * @param loader function to load value for key
+	 */
+	public LoadingCCache(String name, int initialCapacity, int expireMinutes, Function<? super K, ? extends V> loader) {
+		this(name, name, initialCapacity, expireMinutes, 0, loader, DEFAULT_REFRESH_AHEAD_RATIO);
+	}
+
+	/**
+	 * @param tableName cache table name
+	 * @param name cache name
+	 * @param initialCapacity
+	 * @param expireMinutes time to live of each entry in minutes
+	 * @param maxSize max size, 0 for default max size
+	 * @param loader function to load value for key
+	 * @param refreshAheadRatio fraction of time to live (0 to 1) before expiry where a read trigger background refresh, 0 to disable
+	 */
+	public LoadingCCache(String tableName, String name, int initialCapacity, int expireMinutes, int maxSize,
+			Function<? super K, ? extends V> loader, double refreshAheadRatio) {
+		super(tableName, name, initialCapacity, expireMinutes, false, maxSize > 0 ? maxSize : CacheMgt.MAX_SIZE);
+		m_loader = loader;
+		m_refreshAheadRatio = refreshAheadRatio < 0 ? 0 : (refreshAheadRatio > 1 ? 1 : refreshAheadRatio);
+	}
+
+	/**
+	 * Get value, load through loader on cache miss
+	 * @param key
+	 * @return value
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		V v = getOrLoad((K) key, m_loader);
+		if (v != null)
+			refreshAhead((K) key);
+		return v;
+	}
+
+	/**
+	 * Get value from cache without calling loader
+	 * @param key
+	 * @return cached value or null
+	 */
+	public V getIfPresent(Object key) {
+		return super.get(key);
+	}
+
+	/**
+	 * Submit background refresh if entry is close to expiry
+	 * @param key
+	 */
+	private void refreshAhead(K key) {
+		if (m_refreshAheadRatio <= 0 || getExpireMinutes() <= 0)
+			return;
+		long ttl = getTimeToLive(key);
+		if (ttl <= 0)
+			return;
+		long threshold = (long) (getExpireMinutes() * 60000L * m_refreshAheadRatio);
+		if (ttl > threshold)
+			return;
+		//value is discarded if key is removed or cache reset before the refresh completes
+		Load<V> load = startLoad(key);
+		if (load == null)
+			return;
+		try {
+			Adempiere.getThreadPoolExecutor().submit(() -> refresh(key, load));
+		} catch (RejectedExecutionException e) {
+			refresh(key, load);
+		}
+	}
+
+	/**
+	 * Reload value of key
+	 * @param key
+	 * @param load handle from {@link #startLoad(Object)}
+	 */
+	private void refresh(K key, Load<V> load) {
+		try {
+			load(key, m_loader, load);
+		} catch (Exception e) {
+			//keep serving current value, entry is loaded again on expiry
+			log.log(Level.WARNING, getName() + ": refresh failed for " + key, e);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.idempiere.cache;
+
+import java.io.Serializable;
+
+/**
+ * Cluster message to invalidate near cache entries of other nodes
+ */
+public class NearCacheInvalidation implements Serializable {
+
+	/**
+	 * generated serial id
+	 */
+	private static final long serialVersionUID = -2853532958606425364L;
+
+	private String cacheName;
+	private Object key;
+	private boolean clear;
+	private String source;
+
+	/**
+	 * @param cacheName cache name
+	 * @param key changed key, ignore if clear is true
+	 * @param clear true to invalidate all entries of the cache
+	 * @param source id of sending node
+	 */
+	public NearCacheInvalidation(String cacheName, Object key, boolean clear, String source) {
+		this.cacheName = cacheName;
+		this.key = key;
+		this.clear = clear;
+		this.source = source;
+	}
+
+	/**
+	 * @return cache name
+	 */
+	public String getCacheName() {
+		return cacheName;
+	}
+
+	/**
+	 * @return changed key
+	 */
+	public Object getKey() {
+		return key;
+	}
+
+	/**
+	 * @return true to invalidate all entries of the cache
+	 */
+	public boolean isClear() {
+		return clear;
+	}
+
+	/**
+	 * @return id of sending node
+	 */
+	public String getSource() {
+		return source;
+	}
+}
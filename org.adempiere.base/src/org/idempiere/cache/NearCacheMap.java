@@ -0,0 +1,358 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.idempiere.cache;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.adempiere.base.Core;
+import org.compiere.util.CLogger;
+import org.idempiere.distributed.IMessageService;
+import org.idempiere.distributed.ITopic;
+import org.idempiere.distributed.ITopicSubscriber;
+
+/**
+ * Two level map for distributed cache.<br/>
+ * A bounded local store (L1) is kept in front of the cluster map (L2). Reads are served from L1 when possible,
+ * writes go to L2 and are published through {@link IMessageService} so that other nodes drop the changed entries
+ * from their L1. A put of a key missing in L2 is published too, other nodes can still have the key in L1 after it is
+ * evicted or expired in L2. Only {@link #fill(Object, Object)}, the add of a value loaded after a cache miss, is not
+ * published.<br/>
+ * L1 entries also expire after the time to live of the cache, to limit the impact of a lost cluster message.
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class NearCacheMap<K, V> implements Map<K, V>, Serializable {
+
+	/**
+	 * generated serial id
+	 */
+	private static final long serialVersionUID = 6104870624788287066L;
+
+	/** Topic for near cache invalidation messages */
+	public static final String TOPIC_NEAR_CACHE_INVALIDATION = "NEAR_CACHE_INVALIDATION";
+
+	private static final CLogger log = CLogger.getCLogger(NearCacheMap.class);
+
+	/** Id of this node, to ignore own messages */
+	private static final String NODE_ID = UUID.randomUUID().toString();
+
+	/** Near caches of this node by cache name */
+	private static final ConcurrentHashMap<String, List<WeakReference<NearCacheMap<?, ?>>>> s_nearCaches = new ConcurrentHashMap<>();
+
+	private static ITopic<NearCacheInvalidation> s_topic = null;
+
+	private final String m_name;
+	/** Id of node that owns this map */
+	private final String m_nodeId;
+	/** Invalidation topic, null to use the topic of {@link Core#getMessageService()} */
+	private final transient ITopic<NearCacheInvalidation> m_topic;
+	private final transient Map<K, V> m_remote;
+	private final SegmentedCacheStore<K, V> m_local;
+	/** Incremented on each invalidation, to avoid adding stale value read from L2 to L1 */
+	private final AtomicLong m_version = new AtomicLong();
+	private final AtomicLong m_l1Hit = new AtomicLong();
+	private final AtomicLong m_l2Hit = new AtomicLong();
+	private final AtomicLong m_l2Miss = new AtomicLong();
+
+	/**
+	 * @param name cache name
+	 * @param remote cluster map
+	 * @param maxSize max size of local L1 store
+	 */
+	public NearCacheMap(String name, Map<K, V> remote, int maxSize) {
+		m_name = name;
+		m_nodeId = NODE_ID;
+		m_topic = null;
+		m_remote = remote;
+		m_local = new SegmentedCacheStore<K, V>(maxSize);
+		List<WeakReference<NearCacheMap<?, ?>>> list = s_nearCaches.computeIfAbsent(name, k -> new CopyOnWriteArrayList<>());
+		list.removeIf(e -> e.get() == null);
+		list.add(new WeakReference<NearCacheMap<?, ?>>(this));
+	}
+
+	/**
+	 * Near cache map with its own invalidation topic
+	 * @param name cache name
+	 * @param remote cluster map
+	 * @param maxSize max size of local L1 store
+	 * @param topic invalidation topic
+	 * @param nodeId id of node, messages published with the same id are ignored
+	 */
+	public NearCacheMap(String name, Map<K, V> remote, int maxSize, ITopic<NearCacheInvalidation> topic, String nodeId) {
+		m_name = name;
+		m_nodeId = nodeId;
+		m_topic = topic;
+		m_remote = remote;
+		m_local = new SegmentedCacheStore<K, V>(maxSize);
+		topic.subscribe(message -> {
+			if (message != null && m_name.equals(message.getCacheName()))
+				onInvalidation(message);
+		});
+	}
+
+	/**
+	 * @return true if invalidation messages can be published to the cluster
+	 */
+	public static boolean isAvailable() {
+		return getTopic() != null;
+	}
+
+	/**
+	 * @return invalidation topic, subscribe on first call
+	 */
+	private static synchronized ITopic<NearCacheInvalidation> getTopic() {
+		if (s_topic == null) {
+			IMessageService service = Core.getMessageService();
+			if (service != null) {
+				ITopic<NearCacheInvalidation> topic = service.getTopic(TOPIC_NEAR_CACHE_INVALIDATION);
+				if (topic != null) {
+					topic.subscribe(new InvalidationSubscriber());
+					s_topic = topic;
+				}
+			}
+		}
+		return s_topic;
+	}
+
+	/**
+	 * Publish invalidation to other nodes
+	 * @param key
+	 * @param clear
+	 */
+	private void publish(Object key, boolean clear) {
+		ITopic<NearCacheInvalidation> topic = m_topic != null ? m_topic : getTopic();
+		if (topic != null) {
+			try {
+				topic.publish(new NearCacheInvalidation(m_name, key, clear, m_nodeId));
+			} catch (Exception e) {
+				log.log(Level.WARNING, m_name + ": failed to publish invalidation", e);
+			}
+		}
+	}
+
+	/**
+	 * Apply invalidation message, messages of this node are ignored
+	 * @param message
+	 */
+	private void onInvalidation(NearCacheInvalidation message) {
+		if (!m_nodeId.equals(message.getSource()))
+			invalidateLocal(message.getKey(), message.isClear());
+	}
+
+	/**
+	 * Remove entry or all entries from L1
+	 * @param key
+	 * @param clear
+	 */
+	private void invalidateLocal(Object key, boolean clear) {
+		m_version.incrementAndGet();
+		if (clear)
+			m_local.clear();
+		else
+			m_local.remove(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		V v = m_local.get(key);
+		if (v != null) {
+			m_l1Hit.incrementAndGet();
+			return v;
+		}
+		long version = m_version.get();
+		v = m_remote.get(key);
+		if (v != null) {
+			m_l2Hit.incrementAndGet();
+			if (version == m_version.get())
+				m_local.put((K) key, v);
+		} else {
+			m_l2Miss.incrementAndGet();
+		}
+		return v;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		V previous = m_remote.put(key, value);
+		m_version.incrementAndGet();
+		m_local.put(key, value);
+		publish(key, false);
+		return previous;
+	}
+
+	/**
+	 * Add value loaded after a cache miss, see {@link org.compiere.util.CCache#getOrLoad(Object, java.util.function.Function)}.<br/>
+	 * Value already added to L2 by another node is kept, other nodes are not notified.
+	 * @param key
+	 * @param value
+	 * @return value in cache for key
+	 */
+	public V fill(K key, V value) {
+		long version = m_version.get();
+		V current = m_remote.putIfAbsent(key, value);
+		if (current == null)
+			current = value;
+		if (version == m_version.get())
+			m_local.put(key, current);
+		return current;
+	}
+
+	@Override
+	public V remove(Object key) {
+		V previous = m_remote.remove(key);
+		invalidateLocal(key, false);
+		publish(key, false);
+		return previous;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		m_remote.putAll(m);
+		for (K key : m.keySet()) {
+			invalidateLocal(key, false);
+			publish(key, false);
+		}
+	}
+
+	@Override
+	public void clear() {
+		m_remote.clear();
+		invalidateLocal(null, true);
+		publish(null, true);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return m_local.containsKey(key) || m_remote.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return m_remote.containsValue(value);
+	}
+
+	@Override
+	public int size() {
+		return m_remote.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return m_remote.isEmpty();
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return m_remote.keySet();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return m_remote.values();
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return m_remote.entrySet();
+	}
+
+	/**
+	 * Set time to live of L1 entries
+	 * @param timeToLiveMillis time to live in milliseconds, 0 for no expiry
+	 */
+	public void setLocalTimeToLive(long timeToLiveMillis) {
+		m_local.setDefaultTimeToLive(timeToLiveMillis);
+	}
+
+	/**
+	 * Remove expired L1 entries
+	 * @return number of entries removed
+	 */
+	public int evictExpired() {
+		return m_local.evictExpired();
+	}
+
+	/**
+	 * @return number of L1 entries
+	 */
+	public int getLocalSize() {
+		return m_local.size();
+	}
+
+	/**
+	 * @return number of get served by L1
+	 */
+	public long getL1Hit() {
+		return m_l1Hit.get();
+	}
+
+	/**
+	 * @return number of get served by L2 (cluster map)
+	 */
+	public long getL2Hit() {
+		return m_l2Hit.get();
+	}
+
+	/**
+	 * @return number of get not found in both L1 and L2
+	 */
+	public long getL2Miss() {
+		return m_l2Miss.get();
+	}
+
+	/**
+	 * Apply invalidation from other nodes
+	 */
+	private static class InvalidationSubscriber implements ITopicSubscriber<NearCacheInvalidation> {
+		@Override
+		public void onMessage(NearCacheInvalidation message) {
+			if (message == null)
+				return;
+			List<WeakReference<NearCacheMap<?, ?>>> list = s_nearCaches.get(message.getCacheName());
+			if (list == null)
+				return;
+			List<WeakReference<NearCacheMap<?, ?>>> cleared = new ArrayList<>();
+			for (WeakReference<NearCacheMap<?, ?>> ref : list) {
+				NearCacheMap<?, ?> nearCache = ref.get();
+				if (nearCache == null)
+					cleared.add(ref);
+				else
+					nearCache.onInvalidation(message);
+			}
+			if (!cleared.isEmpty())
+				list.removeAll(cleared);
+		}
+	}
+}
@@ -0,0 +1,471 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.idempiere.cache;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread safe, lock striped cache store.<br/>
+ * Keys are spread over a power of two number of segments, each segment is an access ordered
+ * {@link LinkedHashMap} guarded by its own lock. Max size is split between segments and the least
+ * recently used entry of a segment is evicted when the segment is full.<br/>
+ * Segment count can be changed with -DCache.Segments (default 16). Small caches use fewer
+ * segments so that LRU order stays meaningful.
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class SegmentedCacheStore<K, V> extends AbstractMap<K, V> implements ICacheStore<K, V>, Serializable {
+
+	/**
+	 * generated serial id
+	 */
+	private static final long serialVersionUID = -3163427651981187725L;
+
+	/** Default number of segments **/
+	public static final int DEFAULT_SEGMENTS = getDefaultSegments();
+
+	/** Minimum number of entries per segment for a bounded store **/
+	private static final int MIN_SEGMENT_SIZE = 32;
+
+	private final Segment<K, V>[] segments;
+	private final int segmentMask;
+	private final int maxSize;
+	private volatile long defaultTimeToLive = 0;
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private static int getDefaultSegments()
+	{
+		try
+		{
+			String property = System.getProperty("Cache.Segments");
+			if (property != null && property.trim().length() > 0)
+			{
+				int segments = 0;
+				try
+				{
+					segments = Integer.parseInt(property.trim());
+				} catch (Throwable t) {}
+				if (segments > 0)
+					return segments;
+			}
+		} catch (Throwable t) {}
+		return 16;
+	}
+
+	/**
+	 * @param maxSize max size, 0 or negative for unbounded
+	 */
+	public SegmentedCacheStore(int maxSize) {
+		this(maxSize, DEFAULT_SEGMENTS);
+	}
+
+	/**
+	 * @param maxSize max size, 0 or negative for unbounded
+	 * @param concurrencyLevel expected number of concurrent writers, round up to power of two
+	 */
+	@SuppressWarnings("unchecked")
+	public SegmentedCacheStore(int maxSize, int concurrencyLevel) {
+		this.maxSize = maxSize > 0 ? maxSize : 0;
+		int count = 1;
+		while (count < concurrencyLevel && count < (1 << 16))
+			count <<= 1;
+		if (this.maxSize > 0) {
+			while (count > 1 && this.maxSize / count < MIN_SEGMENT_SIZE)
+				count >>= 1;
+		}
+		segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+		for (int i = 0; i < count; i++) {
+			int segmentMax = 0;
+			if (this.maxSize > 0)
+				segmentMax = this.maxSize / count + (i < this.maxSize % count ? 1 : 0);
+			segments[i] = new Segment<K, V>(segmentMax);
+		}
+		segmentMask = count - 1;
+	}
+
+	private Segment<K, V> segmentFor(Object key) {
+		int h = key == null ? 0 : key.hashCode();
+		h ^= (h >>> 16);
+		return segments[h & segmentMask];
+	}
+
+	@Override
+	public V get(Object key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			Node<V> node = segment.map.get(key);
+			if (node == null)
+				return null;
+			if (node.isExpired(System.currentTimeMillis())) {
+				segment.map.remove(key);
+				return null;
+			}
+			return node.value;
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			Node<V> node = segment.map.get(key);
+			if (node == null)
+				return false;
+			if (node.isExpired(System.currentTimeMillis())) {
+				segment.map.remove(key);
+				return false;
+			}
+			return true;
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		long now = System.currentTimeMillis();
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				for (Node<V> node : segment.map.values()) {
+					if (!node.isExpired(now) && Objects.equals(node.value, value))
+						return true;
+				}
+			} finally {
+				segment.unlock();
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return put(key, value, defaultTimeToLive);
+	}
+
+	@Override
+	public V put(K key, V value, long timeToLiveMillis) {
+		long now = System.currentTimeMillis();
+		Node<V> node = new Node<V>(value, timeToLiveMillis > 0 ? now + timeToLiveMillis : 0);
+		Segment<K, V> segment = segmentFor(key);
+		Node<V> previous;
+		int evicted;
+		segment.lock();
+		try {
+			previous = segment.map.put(key, node);
+			evicted = segment.evict();
+		} finally {
+			segment.unlock();
+		}
+		if (evicted > 0)
+			evictionCount.addAndGet(evicted);
+		return previous == null || previous.isExpired(now) ? null : previous.value;
+	}
+
+	@Override
+	public V remove(Object key) {
+		Segment<K, V> segment = segmentFor(key);
+		Node<V> previous;
+		segment.lock();
+		try {
+			previous = segment.map.remove(key);
+		} finally {
+			segment.unlock();
+		}
+		return previous == null || previous.isExpired(System.currentTimeMillis()) ? null : previous.value;
+	}
+
+	@Override
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				segment.map.clear();
+			} finally {
+				segment.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Number of entries, include expired entries not evicted yet
+	 */
+	@Override
+	public int size() {
+		long size = 0;
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				size += segment.map.size();
+			} finally {
+				segment.unlock();
+			}
+		}
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				if (!segment.map.isEmpty())
+					return false;
+			} finally {
+				segment.unlock();
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public long getTimeToLive(Object key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			Node<V> node = segment.map.get(key);
+			if (node == null)
+				return -1;
+			if (node.expireAt == 0)
+				return 0;
+			long remaining = node.expireAt - System.currentTimeMillis();
+			return remaining > 0 ? remaining : -1;
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	@Override
+	public int evictExpired() {
+		long now = System.currentTimeMillis();
+		int count = 0;
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				Iterator<Node<V>> it = segment.map.values().iterator();
+				while (it.hasNext()) {
+					if (it.next().isExpired(now)) {
+						it.remove();
+						count++;
+					}
+				}
+			} finally {
+				segment.unlock();
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void setDefaultTimeToLive(long timeToLiveMillis) {
+		defaultTimeToLive = timeToLiveMillis > 0 ? timeToLiveMillis : 0;
+	}
+
+	@Override
+	public long getDefaultTimeToLive() {
+		return defaultTimeToLive;
+	}
+
+	@Override
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * @return number of segments
+	 */
+	public int getSegmentCount() {
+		return segments.length;
+	}
+
+	/**
+	 * The return entry set is a weakly consistent view, iteration works on a snapshot
+	 * taken one segment at a time and never block writers for the whole iteration.
+	 */
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySetView();
+	}
+
+	/**
+	 * @return snapshot of live entries
+	 */
+	private List<Map.Entry<K, V>> snapshot() {
+		long now = System.currentTimeMillis();
+		List<Map.Entry<K, V>> list = new ArrayList<>();
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				for (Map.Entry<K, Node<V>> e : segment.map.entrySet()) {
+					if (!e.getValue().isExpired(now))
+						list.add(new SnapshotEntry(e.getKey(), e.getValue().value));
+				}
+			} finally {
+				segment.unlock();
+			}
+		}
+		return list;
+	}
+
+	private final class EntrySetView extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			final Iterator<Map.Entry<K, V>> it = snapshot().iterator();
+			return new Iterator<Map.Entry<K, V>>() {
+				private Map.Entry<K, V> last = null;
+
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override
+				public Map.Entry<K, V> next() {
+					last = it.next();
+					return last;
+				}
+
+				@Override
+				public void remove() {
+					if (last == null)
+						throw new IllegalStateException();
+					SegmentedCacheStore.this.remove(last.getKey());
+					last = null;
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return SegmentedCacheStore.this.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry))
+				return false;
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			V v = SegmentedCacheStore.this.get(e.getKey());
+			return v != null ? v.equals(e.getValue()) : e.getValue() == null && SegmentedCacheStore.this.containsKey(e.getKey());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!(o instanceof Map.Entry))
+				return false;
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return SegmentedCacheStore.this.remove(e.getKey(), e.getValue());
+		}
+
+		@Override
+		public void clear() {
+			SegmentedCacheStore.this.clear();
+		}
+	}
+
+	private final class SnapshotEntry extends AbstractMap.SimpleEntry<K, V> {
+		private static final long serialVersionUID = 2306236506426880383L;
+
+		private SnapshotEntry(K key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			SegmentedCacheStore.this.put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+
+	/**
+	 * Cache entry with optional expiry time
+	 */
+	private static final class Node<V> implements Serializable {
+		private static final long serialVersionUID = 6400437040547914577L;
+
+		private final V value;
+		/** expire timestamp in milliseconds, 0 for no expiry */
+		private final long expireAt;
+
+		private Node(V value, long expireAt) {
+			this.value = value;
+			this.expireAt = expireAt;
+		}
+
+		private boolean isExpired(long now) {
+			return expireAt > 0 && expireAt <= now;
+		}
+	}
+
+	/**
+	 * Access ordered map guarded by its own lock
+	 */
+	private static final class Segment<K, V> extends ReentrantLock {
+		private static final long serialVersionUID = -1920880406853580367L;
+
+		private final LinkedHashMap<K, Node<V>> map;
+		private final int maxSize;
+
+		private Segment(int maxSize) {
+			this.maxSize = maxSize;
+			this.map = new LinkedHashMap<K, Node<V>>(16, 0.75f, true);
+		}
+
+		/**
+		 * Remove least recently used entries over max size, must be called with lock held
+		 * @return number of entries removed
+		 */
+		private int evict() {
+			if (maxSize <= 0 || map.size() <= maxSize)
+				return 0;
+			int count = 0;
+			Iterator<Node<V>> it = map.values().iterator();
+			while (map.size() > maxSize && it.hasNext()) {
+				it.next();
+				it.remove();
+				count++;
+			}
+			return count;
+		}
+	}
+}
@@ -0,0 +1,301 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.expression.logic;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.compiere.util.Evaluatee;
+
+/**
+ * Immutable evaluation tree of a logic expression.<br/>
+ * The expression is parsed once, context variables are resolved from the {@link Evaluatee} on each evaluation.
+ * The result is the same as evaluating the parse tree with {@link EvaluationVisitor}.
+ */
+public final class CompiledLogic {
+
+	private final String logic;
+	private final Node root;
+
+	private CompiledLogic(String logic, Node root) {
+		this.logic = logic;
+		this.root = root;
+	}
+
+	/**
+	 * Parse logic expression
+	 * @param logic
+	 * @return compiled logic
+	 * @throws ParseCancellationException if logic is not valid
+	 */
+	public static CompiledLogic compile(String logic) {
+		SimpleBooleanLexer lexer = new SimpleBooleanLexer(CharStreams.fromString(logic));
+		SimpleBooleanParser parser = new SimpleBooleanParser(new CommonTokenStream(lexer));
+		parser.removeErrorListeners();
+		parser.addErrorListener(ThrowingErrorListener.INSTANCE);
+		Node root = new CompilingVisitor().visit(parser.parse());
+		return new CompiledLogic(logic, root);
+	}
+
+	/**
+	 * @param evaluatee source of context variables
+	 * @return evaluation result, a Boolean for valid logic expression
+	 */
+	public Object evaluate(Evaluatee evaluatee) {
+		return root != null ? root.evaluate(evaluatee) : null;
+	}
+
+	/**
+	 * @return logic expression
+	 */
+	public String getLogic() {
+		return logic;
+	}
+
+	@Override
+	public String toString() {
+		return "CompiledLogic[" + logic + "]";
+	}
+
+	/**
+	 * Node of evaluation tree
+	 */
+	private static abstract class Node {
+		/** token type of the first token of the expression */
+		final int startType;
+
+		Node(int startType) {
+			this.startType = startType;
+		}
+
+		abstract Object evaluate(Evaluatee evaluatee);
+	}
+
+	/**
+	 * Constant value (number, text or boolean)
+	 */
+	private static final class LiteralNode extends Node {
+		private final Object value;
+
+		LiteralNode(int startType, Object value) {
+			super(startType);
+			this.value = value;
+		}
+
+		@Override
+		Object evaluate(Evaluatee evaluatee) {
+			return value;
+		}
+	}
+
+	/**
+	 * Context variable, with optional default value
+	 */
+	private static final class VariableNode extends Node {
+		private final String context;
+		private final String defaultValue;
+
+		VariableNode(int startType, String context, String defaultValue) {
+			super(startType);
+			this.context = context;
+			this.defaultValue = defaultValue;
+		}
+
+		@Override
+		Object evaluate(Evaluatee evaluatee) {
+			return EvaluationVisitor.getContextValue(evaluatee, context, defaultValue);
+		}
+	}
+
+	/**
+	 * Negate (!) or parenthesis
+	 */
+	private static final class UnaryNode extends Node {
+		private final Node expression;
+		private final boolean negate;
+
+		UnaryNode(int startType, Node expression, boolean negate) {
+			super(startType);
+			this.expression = expression;
+			this.negate = negate;
+		}
+
+		@Override
+		Object evaluate(Evaluatee evaluatee) {
+			Object value = expression.evaluate(evaluatee);
+			return negate ? !((Boolean) value) : value;
+		}
+	}
+
+	/**
+	 * And (&amp;) or or (|), right expression is evaluated only when needed
+	 */
+	private static final class BinaryNode extends Node {
+		private final Node left;
+		private final Node right;
+		private final boolean and;
+
+		BinaryNode(int startType, Node left, Node right, boolean and) {
+			super(startType);
+			this.left = left;
+			this.right = right;
+			this.and = and;
+		}
+
+		@Override
+		Object evaluate(Evaluatee evaluatee) {
+			if (and)
+				return (boolean) left.evaluate(evaluatee) && (boolean) right.evaluate(evaluatee);
+			else
+				return (boolean) left.evaluate(evaluatee) || (boolean) right.evaluate(evaluatee);
+		}
+	}
+
+	/**
+	 * Comparison, regular expression of a constant is compiled once
+	 */
+	private static final class ComparatorNode extends Node {
+		private final int operator;
+		private final String operatorText;
+		private final Node left;
+		private final Node right;
+		private final Pattern pattern;
+
+		ComparatorNode(int startType, int operator, String operatorText, Node left, Node right) {
+			super(startType);
+			this.operator = operator;
+			this.operatorText = operatorText;
+			this.left = left;
+			this.right = right;
+			Pattern pattern = null;
+			if (operator == SimpleBooleanLexer.RE && right instanceof LiteralNode) {
+				try {
+					pattern = Pattern.compile(right.evaluate(null).toString());
+				} catch (PatternSyntaxException e) {
+					//report error on evaluation, same as without compilation
+				}
+			}
+			this.pattern = pattern;
+		}
+
+		@Override
+		Object evaluate(Evaluatee evaluatee) {
+			Object leftValue = left.evaluate(evaluatee);
+			if (pattern != null)
+				return pattern.matcher(leftValue.toString()).matches();
+			Object rightValue = right.evaluate(evaluatee);
+			return EvaluationVisitor.compare(operator, operatorText, leftValue, rightValue, right.startType);
+		}
+	}
+
+	/**
+	 * Build evaluation tree from parse tree
+	 */
+	private static final class CompilingVisitor extends SimpleBooleanBaseVisitor<Node> {
+
+		@Override
+		public Node visitParse(SimpleBooleanParser.ParseContext ctx) {
+			return visit(ctx.expression());
+		}
+
+		@Override
+		public Node visitDecimalExpression(SimpleBooleanParser.DecimalExpressionContext ctx) {
+			return new LiteralNode(ctx.start.getType(), new BigDecimal(ctx.DECIMAL().getText()));
+		}
+
+		@Override
+		public Node visitQuotedCSVText(SimpleBooleanParser.QuotedCSVTextContext ctx) {
+			return new LiteralNode(ctx.start.getType(), ctx.QCSVTEXT().getText());
+		}
+
+		@Override
+		public Node visitQuotedText(SimpleBooleanParser.QuotedTextContext ctx) {
+			return new LiteralNode(ctx.start.getType(), ctx.QTEXT().getText().replaceAll("[']", ""));
+		}
+
+		@Override
+		public Node visitDoubleQuotedCSVText(SimpleBooleanParser.DoubleQuotedCSVTextContext ctx) {
+			return new LiteralNode(ctx.start.getType(), ctx.DQCSVTEXT().getText());
+		}
+
+		@Override
+		public Node visitDoubleQuotedText(SimpleBooleanParser.DoubleQuotedTextContext ctx) {
+			return new LiteralNode(ctx.start.getType(), ctx.DQTEXT().getText().replaceAll("[\"]", ""));
+		}
+
+		@Override
+		public Node visitText(SimpleBooleanParser.TextContext ctx) {
+			return new LiteralNode(ctx.start.getType(), ctx.TEXT().getText());
+		}
+
+		@Override
+		public Node visitBoolExpression(SimpleBooleanParser.BoolExpressionContext ctx) {
+			return new LiteralNode(ctx.start.getType(), Boolean.valueOf(ctx.getText()));
+		}
+
+		@Override
+		public Node visitNotExpression(SimpleBooleanParser.NotExpressionContext ctx) {
+			return new UnaryNode(ctx.start.getType(), visit(ctx.expression()), true);
+		}
+
+		@Override
+		public Node visitParenExpression(SimpleBooleanParser.ParenExpressionContext ctx) {
+			return new UnaryNode(ctx.start.getType(), visit(ctx.expression()), false);
+		}
+
+		@Override
+		public Node visitBinaryExpression(SimpleBooleanParser.BinaryExpressionContext ctx) {
+			boolean and;
+			if (ctx.op.AND() != null)
+				and = true;
+			else if (ctx.op.OR() != null)
+				and = false;
+			else
+				throw new RuntimeException("not implemented: binary operator " + ctx.op.getText());
+			return new BinaryNode(ctx.start.getType(), visit(ctx.left), visit(ctx.right), and);
+		}
+
+		@Override
+		public Node visitComparatorExpression(SimpleBooleanParser.ComparatorExpressionContext ctx) {
+			return new ComparatorNode(ctx.start.getType(), ctx.op.start.getType(), ctx.op.getText(), visit(ctx.left), visit(ctx.right));
+		}
+
+		@Override
+		public Node visitContextVariables(SimpleBooleanParser.ContextVariablesContext ctx) {
+			String context = ctx.getText().substring(1, ctx.getText().length()-1);
+
+			// IDEMPIERE-194 Handling null context variable
+			String defaultValue = "";
+			int idx = context.indexOf(":");	//	or clause
+			if (idx  >=  0)
+			{
+				defaultValue = context.substring(idx+1, context.length());
+				context = context.substring(0, idx);
+			}
+			return new VariableNode(ctx.start.getType(), context, defaultValue);
+		}
+	}
+}
@@ -36,7 +36,6 @@ import org.compiere.util.Util;
 import org.idempiere.expression.logic.SimpleBooleanParser.BinaryContext;
 import org.idempiere.expression.logic.SimpleBooleanParser.BoolContext;
 import org.idempiere.expression.logic.SimpleBooleanParser.ComparatorContext;
-import org.idempiere.expression.logic.SimpleBooleanParser.ComparatorExpressionContext;
 import org.idempiere.expression.logic.SimpleBooleanParser.ContextVariablesContext;
 import org.idempiere.expression.logic.SimpleBooleanParser.DoubleQuotedCSVTextContext;
 import org.idempiere.expression.logic.SimpleBooleanParser.DoubleQuotedTextContext;
@@ -102,63 +101,58 @@ public class EvaluationVisitor extends SimpleBooleanBaseVisitor<Object> {
 		return super.visit(ctx.expression());
 	}
 
-	@SuppressWarnings({"unchecked", "rawtypes"})
 	@Override
 	public Object visitComparatorExpression(SimpleBooleanParser.ComparatorExpressionContext ctx) {
-		if (ctx.op.EQ() != null) {
-			return isEqual(ctx);
-		} else if (ctx.op.LE() != null) {
-			Comparable leftValue = asComparable(ctx.left); 
-			Comparable rightValue = asComparable(ctx.right);
-			if (leftValue == null || rightValue == null)
-				return Boolean.FALSE;
-			return leftValue.compareTo(rightValue) <= 0;
-		} else if (ctx.op.GE() != null) {
-			Comparable leftValue = asComparable(ctx.left); 
-			Comparable rightValue = asComparable(ctx.right);
-			if (leftValue == null || rightValue == null)
-				return Boolean.FALSE;
-			return leftValue.compareTo(rightValue) >= 0;
-		} else if (ctx.op.LT() != null) {
-			Comparable leftValue = asComparable(ctx.left); 
-			Comparable rightValue = asComparable(ctx.right);
-			if (leftValue == null || rightValue == null)
-				return Boolean.FALSE;
-			return leftValue.compareTo(rightValue) < 0;
-		} else if (ctx.op.GT() != null) {
-			Comparable leftValue = asComparable(ctx.left); 
-			Comparable rightValue = asComparable(ctx.right);
-			if (leftValue == null || rightValue == null)
-				return Boolean.FALSE;
-			return leftValue.compareTo(rightValue) > 0;
-		} else if (ctx.op.NE() != null) {
-			return !(isEqual(ctx));
-		} else if (ctx.op.RE() != null) {
-			return regularExpressionMatch(ctx);
-		}
-		throw new RuntimeException("not implemented: comparator operator " + ctx.op.getText());
+		return compare(ctx.op.start.getType(), ctx.op.getText(), visit(ctx.left), visit(ctx.right), ctx.right.start.getType());
 	}
 
-	//input ~ regex
-	private Boolean regularExpressionMatch(ComparatorExpressionContext ctx) {
-		String left = this.visit(ctx.left).toString();
-		String right = this.visit(ctx.right).toString();
-		return Pattern.matches(right, left);
+	/**
+	 * Compare left and right value
+	 * @param operator token type of comparator
+	 * @param operatorText comparator text, for error message
+	 * @param leftValue
+	 * @param rightValue
+	 * @param rightType token type of the start of right expression
+	 * @return comparison result
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	static Boolean compare(int operator, String operatorText, Object leftValue, Object rightValue, int rightType) {
+		if (operator == SimpleBooleanLexer.RE) {
+			//input ~ regex
+			return Pattern.matches(rightValue.toString(), leftValue.toString());
+		}
+		Comparable left = asComparable(leftValue);
+		Comparable right = asComparable(rightValue);
+		if (operator == SimpleBooleanLexer.EQ) {
+			return isEqual(left, right, rightType);
+		} else if (operator == SimpleBooleanLexer.NE) {
+			return !(isEqual(left, right, rightType));
+		}
+		if (left == null || right == null)
+			return Boolean.FALSE;
+		if (operator == SimpleBooleanLexer.LE) {
+			return left.compareTo(right) <= 0;
+		} else if (operator == SimpleBooleanLexer.GE) {
+			return left.compareTo(right) >= 0;
+		} else if (operator == SimpleBooleanLexer.LT) {
+			return left.compareTo(right) < 0;
+		} else if (operator == SimpleBooleanLexer.GT) {
+			return left.compareTo(right) > 0;
+		}
+		throw new RuntimeException("not implemented: comparator operator " + operatorText);
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private Boolean isEqual(SimpleBooleanParser.ComparatorExpressionContext ctx) {
-		Comparable left = asComparable(ctx.left);
-		Comparable right = asComparable(ctx.right);
+	private static Boolean isEqual(Comparable left, Comparable right, int rightType) {
 		if (left == null && right == null)
 			return Boolean.TRUE;
 		if (left == null || right == null)
 			return Boolean.FALSE;
 		if (left instanceof String && right instanceof String) {
 			String rightText = (String) right;
-			if (ctx.right.start.getType() == SimpleBooleanLexer.QCSVTEXT || ctx.right.start.getType() == SimpleBooleanLexer.DQCSVTEXT) {
+			if (rightType == SimpleBooleanLexer.QCSVTEXT || rightType == SimpleBooleanLexer.DQCSVTEXT) {
 				return isIn((String)left, rightText);
-			} else if (ctx.right.start.getType() == SimpleBooleanLexer.TEXT && rightText.indexOf(",") > 0) {
+			} else if (rightType == SimpleBooleanLexer.TEXT && rightText.indexOf(",") > 0) {
 				return isIn((String)left, rightText);
 			}
 		}
@@ -186,7 +180,7 @@ public class EvaluationVisitor extends SimpleBooleanBaseVisitor<Object> {
 		}
 	}
 
-	private Boolean isIn(String left, String rightText) {
+	private static Boolean isIn(String left, String rightText) {
 		List<String> values = new ArrayList<>();
 		char[] chars = rightText.toCharArray();
 		Character quote = null;
@@ -269,6 +263,17 @@ public class EvaluationVisitor extends SimpleBooleanBaseVisitor<Object> {
 			defaultValue = context.substring(idx+1, context.length());
 			context = context.substring(0, idx);
 		}
+		return getContextValue(evaluatee, context, defaultValue);
+	}
+
+	/**
+	 * Get value of context variable
+	 * @param evaluatee
+	 * @param context variable name
+	 * @param defaultValue value if variable is empty
+	 * @return variable value, "0" for empty _ID variable
+	 */
+	static String getContextValue(Evaluatee evaluatee, String context, String defaultValue) {
 		String value = evaluatee.get_ValueAsString(context);
 		if (Util.isEmpty(value) && !Util.isEmpty(defaultValue)) {
 			value = defaultValue;
@@ -289,22 +294,27 @@ public class EvaluationVisitor extends SimpleBooleanBaseVisitor<Object> {
 	private static final Pattern jdbcTimestampPattern = Pattern.compile(".*[-].*[-].*[:].*[:].*");
 	
 	@SuppressWarnings("rawtypes")
-	private Comparable asComparable(SimpleBooleanParser.ExpressionContext ctx) {
-		Object value = visit(ctx);
+	private static Comparable asComparable(Object value) {
 		if (value instanceof String) {
 			String s = (String) value;
 			if (Util.isEmpty(s, true))
 				return null;
 			 
-		    Matcher matcher = jdbcTimestampPattern.matcher(s);
-			if (matcher.matches()) {
+			// skip the pattern and the parse exception for value that can't be a timestamp or a number
+			if (s.indexOf('-') >= 0 && s.indexOf(':') >= 0) {
+				Matcher matcher = jdbcTimestampPattern.matcher(s);
+				if (matcher.matches()) {
+					try {
+						return Timestamp.valueOf(s);
+					} catch (Exception e) {}
+				}
+			}
+			char first = s.charAt(0);
+			if (Character.isDigit(first) || first == '-' || first == '+' || first == '.') {
 				try {
-					return Timestamp.valueOf(s);
+					return new BigDecimal(s);
 				} catch (Exception e) {}
 			}
-			try {
-				return new BigDecimal(s);
-			} catch (Exception e) {}
 		} else if (value instanceof BigDecimal) {
 			return (BigDecimal)value;
 		} else if (value instanceof Timestamp) {
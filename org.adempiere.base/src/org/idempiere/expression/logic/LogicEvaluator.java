@@ -29,6 +29,7 @@ import java.util.logging.Level;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.compiere.util.CCache;
 import org.compiere.util.CLogger;
 import org.compiere.util.Evaluatee;
 
@@ -41,6 +42,9 @@ public final class LogicEvaluator {
 
 	private final static CLogger s_log = CLogger.getCLogger(LogicEvaluator.class);
 	
+	/** Compiled logic by logic string */
+	private final static CCache<String, CompiledLogic> s_compiledCache = new CCache<String, CompiledLogic>(null, "LogicEvaluator_CompiledLogic", 100, 0, false, 1000);
+	
 	private LogicEvaluator() {
 	}
 
@@ -66,12 +70,8 @@ public final class LogicEvaluator {
 	 *  @return logic result
 	 */
 	public static boolean evaluateLogic (Evaluatee source, String logic) {
-		SimpleBooleanLexer lexer = new SimpleBooleanLexer(CharStreams.fromString(logic));
-	    SimpleBooleanParser parser = new SimpleBooleanParser(new CommonTokenStream(lexer));
-	    parser.removeErrorListeners();
-	    parser.addErrorListener(ThrowingErrorListener.INSTANCE);
 	    try {
-		    Object result = new EvaluationVisitor(source).visit(parser.parse());
+		    Object result = getCompiledLogic(logic).evaluate(source);
 		    if (result != null && result instanceof Boolean) {
 		    	return (boolean) result;
 		    } else {
@@ -85,6 +85,21 @@ public final class LogicEvaluator {
 	    }
 	}
 	
+	/**
+	 * Get parsed logic from cache, parse and add to cache if not there
+	 * @param logic
+	 * @return compiled logic
+	 * @throws ParseCancellationException if logic is not valid
+	 */
+	public static CompiledLogic getCompiledLogic(String logic) {
+		CompiledLogic compiled = s_compiledCache.get(logic);
+		if (compiled == null) {
+			compiled = CompiledLogic.compile(logic);
+			s_compiledCache.put(logic, compiled);
+		}
+		return compiled;
+	}
+	
 	/**
 	 * Throw exception if logic is not valid
 	 * @param logic
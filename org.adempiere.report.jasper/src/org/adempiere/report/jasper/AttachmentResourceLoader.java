@@ -26,6 +26,8 @@ package org.adempiere.report.jasper;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.compiere.model.MAttachment;
@@ -52,6 +54,9 @@ public class AttachmentResourceLoader {
 
 	private static final String ATTACHMENT_PATH_PREFIX = "attachment:";
 
+	/** MD5 hash of local files, by file path */
+	private static final Map<String, LocalFile> s_localFiles = new ConcurrentHashMap<String, LocalFile>();
+
 	/**
 	 * 
 	 * @param destinationFolder
@@ -97,9 +102,9 @@ public class AttachmentResourceLoader {
 		String localFile = destinationFolder + entry.getName();
 		String downloadedLocalFile = destinationFolder + "TMP_" + entry.getName();
 		File reportFile = new File(localFile);
+		String entryMD5hash = DigestOfFile.getMD5Hash(entry.getData());
 		if (reportFile.exists()) {
-			String localMD5hash = DigestOfFile.getMD5Hash(reportFile);
-			String entryMD5hash = DigestOfFile.getMD5Hash(entry.getData());
+			String localMD5hash = getMD5Hash(reportFile);
 			if (localMD5hash.equals(entryMD5hash)) {
 				log.info(" no need to download: local report is up-to-date");
 			} else {
@@ -113,13 +118,30 @@ public class AttachmentResourceLoader {
 					throw new AdempiereException("Cannot rename temporary file " + downloadedFile.toString() + " to "
 							+ reportFile.toString());
 				}
+				s_localFiles.put(reportFile.getPath(), new LocalFile(reportFile, entryMD5hash));
 			}
 		} else {
 			entry.getFile(reportFile);
+			s_localFiles.put(reportFile.getPath(), new LocalFile(reportFile, entryMD5hash));
 		}
 		return reportFile;
 	}
 
+	/**
+	 * Get MD5 hash of local file, the file is only read again if it is changed since the last call
+	 * 
+	 * @param file
+	 * @return MD5 hash
+	 */
+	private static String getMD5Hash(File file) {
+		LocalFile localFile = s_localFiles.get(file.getPath());
+		if (localFile != null && localFile.isUnchanged(file))
+			return localFile.md5Hash;
+		String md5Hash = DigestOfFile.getMD5Hash(file);
+		s_localFiles.put(file.getPath(), new LocalFile(file, md5Hash));
+		return md5Hash;
+	}
+
 	private File getAttachmentEntryFile(String resname) {
 		File fileattach = null;
 		MAttachmentEntry[] entries = attachment.getEntries();
@@ -188,4 +210,23 @@ public class AttachmentResourceLoader {
 	public static boolean isAttachmentResourcePath(String path) {
 		return path != null && path.startsWith(AttachmentResourceLoader.ATTACHMENT_PATH_PREFIX);
 	}
+
+	/**
+	 * MD5 hash of a local file at its last modified time and length
+	 */
+	private static class LocalFile {
+		private final long lastModified;
+		private final long length;
+		private final String md5Hash;
+
+		private LocalFile(File file, String md5Hash) {
+			this.lastModified = file.lastModified();
+			this.length = file.length();
+			this.md5Hash = md5Hash;
+		}
+
+		private boolean isUnchanged(File file) {
+			return lastModified == file.lastModified() && length == file.length();
+		}
+	}
 }
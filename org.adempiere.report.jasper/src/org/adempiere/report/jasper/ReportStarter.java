@@ -14,6 +14,7 @@
 package org.adempiere.report.jasper;
 
 import java.awt.print.PrinterJob;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -24,6 +25,8 @@ import java.math.BigDecimal;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -36,6 +39,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.PropertyResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
@@ -51,6 +56,7 @@ import org.adempiere.base.Service;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.util.IProcessUI;
+import org.compiere.Adempiere;
 import org.compiere.model.MProcess;
 import org.compiere.model.MQuery;
 import org.compiere.model.MSysConfig;
@@ -65,6 +71,7 @@ import org.compiere.process.ProcessCall;
 import org.compiere.process.ProcessInfo;
 import org.compiere.process.ProcessInfoParameter;
 import org.compiere.tools.FileUtil;
+import org.compiere.util.CCache;
 import org.compiere.util.CLogger;
 import org.compiere.util.DB;
 import org.compiere.util.Env;
@@ -141,6 +148,8 @@ public class ReportStarter implements ProcessCall, ClientProcess
 	private static final CLogger log = CLogger.getCLogger(ReportStarter.class);
 	private static File REPORT_HOME = null;
     private static final JasperReportsContext jasperReportContext;
+    /** Compiled reports shared across runs, keyed by SHA-256 of the .jasper content */
+    private static final CCache<String, JasperReport> s_jasperReportCache = new CCache<String, JasperReport>("ReportStarter_JasperReport", 20, 0, false, 100);
 	
     static {
         String reportPath = System.getProperty("org.compiere.report.path");
@@ -328,17 +337,20 @@ public class ReportStarter implements ProcessCall, ClientProcess
 
 			//legacy approach - ${JasperName} expression to access subreport
 			//doesn't work for web, class resource and bundle resource
+            List<File> subreportFiles = new ArrayList<File>();
             for( int i=0; i<subreports.length; i++) {
             	// @Trifon - begin
             	if (subreports[i].getName().toLowerCase().endsWith(".jasper")
             		|| subreports[i].getName().toLowerCase().endsWith(".jrxml"))
             	{
-                    JasperInfo subInfo = getJasperInfo( subreports[i] );
-                    if (subInfo.getJasperReport()!=null) {
-                        params.put( subInfo.getJasperName(), subInfo.getJasperFile().getAbsolutePath());
-                    }
+            		subreportFiles.add(subreports[i]);
             	} // @Trifon - end
             }
+            for (JasperInfo subInfo : getJasperInfos(subreportFiles)) {
+                if (subInfo.getJasperReport()!=null) {
+                    params.put( subInfo.getJasperName(), subInfo.getJasperFile().getAbsolutePath());
+                }
+            }
 
             if (Record_ID > 0)
             	params.put("RECORD_ID", Integer.valueOf( Record_ID));
@@ -961,8 +973,8 @@ public class ReportStarter implements ProcessCall, ClientProcess
 	            if (reportFile.lastModified() == jasperFile.lastModified()) {
 	            	if (log.isLoggable(Level.INFO)) log.info(" no need to compile use "+jasperFile.getAbsolutePath());
 	                try {
-	                    jasperReport = (JasperReport)JRLoader.loadObjectFromFile(jasperFile.getAbsolutePath());
-	                } catch (JRException e) {
+	                    jasperReport = loadJasperReport(Files.readAllBytes(jasperFile.toPath()));
+	                } catch (JRException | IOException e) {
 	                    jasperReport = null;
 	                    log.log(Level.SEVERE, "Can not load report - "+ e.getMessage(), e);
 	                }
@@ -975,8 +987,8 @@ public class ReportStarter implements ProcessCall, ClientProcess
         } else {
         	jasperFile = reportFile;
         	try {
-				jasperReport = (JasperReport)JRLoader.loadObjectFromFile(jasperFile.getAbsolutePath());
-			} catch (JRException e) {
+				jasperReport = loadJasperReport(Files.readAllBytes(jasperFile.toPath()));
+			} catch (JRException | IOException e) {
 				jasperReport = null;
                 log.log(Level.SEVERE, "Can not load report - "+ e.getMessage(), e);
 			}
@@ -986,14 +998,79 @@ public class ReportStarter implements ProcessCall, ClientProcess
     }
 
     protected JasperInfo getJasperInfo(URL reportURL) {
-    	try {
-			JasperReport jasperReport = (JasperReport)JRLoader.loadObject(reportURL);
+    	try (InputStream is = reportURL.openStream()) {
+			JasperReport jasperReport = loadJasperReport(is.readAllBytes());
 			return new JasperInfo( jasperReport, null, jasperReport.getName(), null);
-		} catch (JRException e) {
+		} catch (JRException | IOException e) {
 			log.log(Level.SEVERE, e.getMessage(), e);
 		}
     	return null;
     }
+
+    /**
+     * Get JasperInfo for each report file.<br/>
+     * Reports that need compilation are compiled in parallel, the result keeps the order of reportFiles.
+     * @param reportFiles .jasper or .jrxml files
+     * @return list of JasperInfo
+     */
+    protected List<JasperInfo> getJasperInfos(List<File> reportFiles) {
+    	List<JasperInfo> infos = new ArrayList<JasperInfo>();
+    	if (reportFiles.size() <= 1) {
+    		for (File reportFile : reportFiles)
+    			infos.add(getJasperInfo(reportFile));
+    		return infos;
+    	}
+
+    	List<CompletableFuture<JasperInfo>> futures = new ArrayList<CompletableFuture<JasperInfo>>();
+    	for (File reportFile : reportFiles) {
+    		futures.add(CompletableFuture.supplyAsync(() -> {
+    			// jasper compiler needs the bundle class loader
+    			Thread currentThread = Thread.currentThread();
+    			ClassLoader cl = currentThread.getContextClassLoader();
+    			currentThread.setContextClassLoader(JasperReport.class.getClassLoader());
+    			try {
+    				return getJasperInfo(reportFile);
+    			} finally {
+    				currentThread.setContextClassLoader(cl);
+    			}
+    		}, Adempiere.getThreadPoolExecutor()));
+    	}
+    	try {
+    		for (CompletableFuture<JasperInfo> future : futures)
+    			infos.add(future.join());
+    	} catch (CompletionException e) {
+    		if (e.getCause() instanceof RuntimeException)
+    			throw (RuntimeException) e.getCause();
+    		throw new AdempiereException(e.getCause());
+    	}
+    	return infos;
+    }
+
+    /**
+     * Load compiled report, shared across runs by content hash.<br/>
+     * A compiled JasperReport is not modified by filling, so the same instance can be filled concurrently.
+     * @param jasperContent content of .jasper file
+     * @return JasperReport
+     * @throws JRException
+     */
+    private static JasperReport loadJasperReport(byte[] jasperContent) throws JRException {
+    	String key;
+    	try {
+    		MessageDigest md = MessageDigest.getInstance("SHA-256");
+    		StringBuilder hex = new StringBuilder();
+    		for (byte b : md.digest(jasperContent))
+    			hex.append(String.format("%02x", b));
+    		key = hex.toString();
+    	} catch (NoSuchAlgorithmException e) {
+    		throw new AdempiereException(e);
+    	}
+    	JasperReport jasperReport = s_jasperReportCache.get(key);
+    	if (jasperReport == null) {
+    		jasperReport = (JasperReport) JRLoader.loadObject(new ByteArrayInputStream(jasperContent));
+    		s_jasperReportCache.put(key, jasperReport);
+    	}
+    	return jasperReport;
+    }
     
     /**
      * Load Process Parameters into given params map
@@ -1126,8 +1203,8 @@ public class ReportStarter implements ProcessCall, ClientProcess
         	JasperCompileManager manager = JasperCompileManager.getInstance(jasperReportContext);
         	manager.compileToFile(reportFile.getAbsolutePath(), jasperFile.getAbsolutePath() );
             jasperFile.setLastModified( reportFile.lastModified()); //Synchronize Dates
-            compiledJasperReport =  (JasperReport)JRLoader.loadObject(jasperFile);
-        } catch (JRException e) {
+            compiledJasperReport = loadJasperReport(Files.readAllBytes(jasperFile.toPath()));
+        } catch (JRException | IOException e) {
             throw new AdempiereException(e);
         }
         return compiledJasperReport;                
@@ -34,6 +34,7 @@ import org.compiere.model.MClient;
 import org.compiere.model.MCost;
 import org.compiere.model.MOrgInfo;
 import org.compiere.model.MRole;
+import org.compiere.model.MSysConfig;
 import org.compiere.model.MTable;
 import org.compiere.model.MUser;
 import org.compiere.model.SystemIDs;
@@ -69,6 +70,8 @@ public class AcctProcessor extends AdempiereServer
 	protected MClient 			m_client = null;
 	/**	Accounting Schemata			*/
 	protected MAcctSchema[] 		m_ass = null;
+	/** Last parallel posting		*/
+	protected ParallelAcctPosting	m_parallelPosting = null;
 
 	/**
 	 * 	Work
@@ -132,6 +135,7 @@ public class AcctProcessor extends AdempiereServer
 	 */
 	private void postSession()
 	{
+		m_parallelPosting = null;
 		List<BigDecimal> listProcessedOn = new ArrayList<BigDecimal>();
 		listProcessedOn.add(Env.ZERO); // to include potential null values
 
@@ -144,6 +148,13 @@ public class AcctProcessor extends AdempiereServer
 		long mili = ts.getTime();
 		BigDecimal value = new BigDecimal(Long.toString(mili));
 
+		int threads = MSysConfig.getIntValue(MSysConfig.ACCT_PROCESSOR_PARALLEL_THREADS, 0, m_model.getAD_Client_ID());
+		if (threads > 1)
+		{
+			postParallel(value, threads);
+			return;
+		}
+
 		//first pass, collect all ts (FR 2962094 - required for weighted average costing)
 		int[] documentsTableID = DocManager.getDocumentsTableID();
 		String[] documentsTableName = DocManager.getDocumentsTableName();
@@ -267,7 +278,40 @@ public class AcctProcessor extends AdempiereServer
 
 	  } // for processedOn
 
-		for (int i = 0; i < documentsTableID.length; i++)
+		appendSummary(count, countError);
+	}	//	postSession
+
+	/**
+	 * 	Post Session on a pool of worker threads
+	 *	@param processedBefore post documents processed before
+	 *	@param threads number of worker threads
+	 */
+	private void postParallel(BigDecimal processedBefore, int threads)
+	{
+		Thread serverThread = Thread.currentThread();
+		m_parallelPosting = new ParallelAcctPosting(m_ass, m_model.getAD_Client_ID(), m_model.getAD_Table_ID(),
+			threads, serverThread::isInterrupted);
+		m_parallelPosting.post(processedBefore);
+
+		int[] count = new int[DocManager.getDocumentsTableID().length];
+		int[] countError = new int[count.length];
+		for (int i = 0; i < count.length; i++) {
+			count[i] = m_parallelPosting.getCount(i);
+			countError[i] = m_parallelPosting.getCountError(i);
+		}
+		appendSummary(count, countError);
+		if (log.isLoggable(Level.INFO)) log.info(getName() + ": " + m_parallelPosting.toString());
+	}	//	postParallel
+
+	/**
+	 * 	Add posted documents by table to summary
+	 *	@param count posted documents by table
+	 *	@param countError documents not posted by table
+	 */
+	private void appendSummary(int[] count, int[] countError)
+	{
+		String[] documentsTableName = DocManager.getDocumentsTableName();
+		for (int i = 0; i < documentsTableName.length; i++)
 		{
 			String TableName = documentsTableName[i];
 			if (count[i] > 0)
@@ -281,8 +325,7 @@ public class AcctProcessor extends AdempiereServer
 			else
 				if (log.isLoggable(Level.FINER)) log.finer(getName() + ": " + TableName + " - no work");
 		}
-
-	}	//	postSession
+	}	//	appendSummary
 
 	/**
 	 * 	Get Server Info
@@ -290,7 +333,10 @@ public class AcctProcessor extends AdempiereServer
 	 */
 	public String getServerInfo()
 	{
-		return "#" + p_runCount + " - Last=" + m_summary.toString();
+		StringBuilder info = new StringBuilder("#").append(p_runCount).append(" - Last=").append(m_summary.toString());
+		if (m_parallelPosting != null)
+			info.append(" - Parallel: ").append(m_parallelPosting.toString());
+		return info.toString();
 	}	//	getServerInfo
 
 	
@@ -0,0 +1,634 @@
+/**********************************************************************
+* This file is part of iDempiere ERP Open Source                      *
+* http://www.idempiere.org                                            *
+*                                                                     *
+* Copyright (C) Contributors                                          *
+*                                                                     *
+* This program is free software; you can redistribute it and/or       *
+* modify it under the terms of the GNU General Public License         *
+* as published by the Free Software Foundation; either version 2      *
+* of the License, or (at your option) any later version.              *
+*                                                                     *
+* This program is distributed in the hope that it will be useful,     *
+* but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+* GNU General Public License for more details.                        *
+*                                                                     *
+* You should have received a copy of the GNU General Public License   *
+* along with this program; if not, write to the Free Software         *
+* Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+* MA 02110-1301, USA.                                                 *
+**********************************************************************/
+package org.compiere.server;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+import org.adempiere.util.ContextRunnable;
+import org.compiere.acct.DocManager;
+import org.compiere.model.MAcctSchema;
+import org.compiere.model.MAllocationHdr;
+import org.compiere.model.MBankStatement;
+import org.compiere.model.MCash;
+import org.compiere.model.MInOut;
+import org.compiere.model.MInOutLine;
+import org.compiere.model.MInventory;
+import org.compiere.model.MInventoryLine;
+import org.compiere.model.MInvoice;
+import org.compiere.model.MInvoiceLine;
+import org.compiere.model.MJournal;
+import org.compiere.model.MMatchInv;
+import org.compiere.model.MMatchPO;
+import org.compiere.model.MMovement;
+import org.compiere.model.MMovementLine;
+import org.compiere.model.MOrder;
+import org.compiere.model.MPayment;
+import org.compiere.model.MProduction;
+import org.compiere.model.MProductionLine;
+import org.compiere.model.MProjectIssue;
+import org.compiere.model.MRequisition;
+import org.compiere.model.MTable;
+import org.compiere.util.CLogger;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.Trx;
+
+/**
+ * Post unposted documents of a tenant on a bounded pool of worker threads.<br/>
+ * The backlog is split in groups that can be posted independently, each group is posted in order in its own transaction:
+ * <ul>
+ * <li>Documents that create cost details (shipment, match invoice, production, ...) are grouped when they share a product,
+ * so that costing still sees them in ProcessedOn order.</li>
+ * <li>Documents without costing impact (order, payment, journal, ...) are posted in groups of {@link #GROUP_SIZE}.</li>
+ * <li>Allocations need the invoices and payments to be posted first, they are posted after the groups above.</li>
+ * <li>Documents of other tables (from plugins for example) are posted last, in a single group, in ProcessedOn order.</li>
+ * </ul>
+ */
+public class ParallelAcctPosting
+{
+	/** Max number of documents of a group without costing impact */
+	public static final int GROUP_SIZE = 100;
+	/** Number of documents posted before the group transaction is committed */
+	public static final int COMMIT_SIZE = 50;
+
+	/** Document table and its line table with M_Product_ID (same table if the document has the product) */
+	private static final Map<String, String> COSTING_TABLES = new HashMap<String, String>();
+	static
+	{
+		COSTING_TABLES.put(MInOut.Table_Name, MInOutLine.Table_Name);
+		COSTING_TABLES.put(MInventory.Table_Name, MInventoryLine.Table_Name);
+		COSTING_TABLES.put(MMovement.Table_Name, MMovementLine.Table_Name);
+		COSTING_TABLES.put(MProduction.Table_Name, MProductionLine.Table_Name);
+		COSTING_TABLES.put(MInvoice.Table_Name, MInvoiceLine.Table_Name);
+		COSTING_TABLES.put(MMatchInv.Table_Name, MMatchInv.Table_Name);
+		COSTING_TABLES.put(MMatchPO.Table_Name, MMatchPO.Table_Name);
+		COSTING_TABLES.put(MProjectIssue.Table_Name, MProjectIssue.Table_Name);
+	}
+
+	/** Document tables without costing impact and without dependency on other documents */
+	private static final List<String> INDEPENDENT_TABLES = List.of(MOrder.Table_Name, MRequisition.Table_Name,
+		MPayment.Table_Name, MBankStatement.Table_Name, MCash.Table_Name, MJournal.Table_Name);
+
+	private static final String WHERE_UNPOSTED = " WHERE AD_Client_ID=? AND (ProcessedOn IS NULL OR ProcessedOn<?)"
+		+ " AND Processed='Y' AND Posted IN ('N','d') AND IsActive='Y'";
+
+	private static final CLogger log = CLogger.getCLogger(ParallelAcctPosting.class);
+
+	private final MAcctSchema[] m_ass;
+	private final int m_AD_Client_ID;
+	private final int m_AD_Table_ID;
+	private final int m_threads;
+	private final BooleanSupplier m_interrupted;
+	private final int[] m_documentsTableID;
+	private final String[] m_documentsTableName;
+
+	/** Posted documents by table index */
+	private AtomicIntegerArray m_count;
+	/** Failed documents by table index */
+	private AtomicIntegerArray m_countError;
+	private final AtomicInteger m_deferred = new AtomicInteger();
+	private int m_documents = 0;
+	private int m_groups = 0;
+	private int m_largestGroup = 0;
+	private long m_elapsed = 0;
+
+	/**
+	 * @param ass accounting schemas
+	 * @param AD_Client_ID tenant
+	 * @param AD_Table_ID post only this table, 0 for all document tables
+	 * @param threads number of worker threads
+	 * @param interrupted return true to stop posting
+	 */
+	public ParallelAcctPosting(MAcctSchema[] ass, int AD_Client_ID, int AD_Table_ID, int threads, BooleanSupplier interrupted)
+	{
+		m_ass = ass;
+		m_AD_Client_ID = AD_Client_ID;
+		m_AD_Table_ID = AD_Table_ID;
+		m_threads = threads;
+		m_interrupted = interrupted;
+		m_documentsTableID = DocManager.getDocumentsTableID();
+		m_documentsTableName = DocManager.getDocumentsTableName();
+		m_count = new AtomicIntegerArray(m_documentsTableID.length);
+		m_countError = new AtomicIntegerArray(m_documentsTableID.length);
+	}
+
+	/**
+	 * Post all unposted documents processed before processedBefore
+	 * @param processedBefore ProcessedOn limit
+	 */
+	public void post(BigDecimal processedBefore)
+	{
+		long start = System.currentTimeMillis();
+		List<DocumentRef> documents = getDocuments(processedBefore);
+		m_documents = documents.size();
+		List<List<Group>> stages = partition(documents, processedBefore);
+
+		ExecutorService executor = Executors.newFixedThreadPool(m_threads, new WorkerThreadFactory());
+		try
+		{
+			for (List<Group> stage : stages)
+			{
+				if (m_interrupted.getAsBoolean())
+					break;
+				//	largest groups first, to keep all workers busy until the end of the stage
+				stage.sort(Comparator.comparingInt((Group g) -> g.documents.size()).reversed());
+				List<Future<?>> futures = new ArrayList<Future<?>>();
+				for (Group group : stage)
+					futures.add(executor.submit(new GroupPoster(group)));
+				for (Future<?> future : futures)
+				{
+					try
+					{
+						future.get();
+					}
+					catch (ExecutionException e)
+					{
+						log.log(Level.SEVERE, "Posting group failed", e.getCause());
+					}
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		m_elapsed = System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * @param processedBefore ProcessedOn limit
+	 * @return unposted documents in posting order
+	 */
+	private List<DocumentRef> getDocuments(BigDecimal processedBefore)
+	{
+		List<DocumentRef> documents = new ArrayList<DocumentRef>();
+		for (int i = 0; i < m_documentsTableID.length; i++)
+		{
+			int AD_Table_ID = m_documentsTableID[i];
+			//	Post only special documents
+			if (m_AD_Table_ID != 0 && m_AD_Table_ID != AD_Table_ID)
+				continue;
+			String keyColumn = MTable.get(Env.getCtx(), AD_Table_ID).getKeyColumns()[0];
+			StringBuilder sql = new StringBuilder("SELECT ").append(keyColumn).append(", ProcessedOn, Created FROM ")
+				.append(m_documentsTableName[i]).append(WHERE_UNPOSTED);
+			PreparedStatement pstmt = null;
+			ResultSet rs = null;
+			try
+			{
+				pstmt = DB.prepareStatement(sql.toString(), null);
+				pstmt.setInt(1, m_AD_Client_ID);
+				pstmt.setBigDecimal(2, processedBefore);
+				rs = pstmt.executeQuery();
+				while (rs.next())
+				{
+					BigDecimal processedOn = rs.getBigDecimal(2);
+					documents.add(new DocumentRef(i, AD_Table_ID, rs.getInt(1), processedOn != null ? processedOn : Env.ZERO, rs.getTimestamp(3)));
+				}
+			}
+			catch (SQLException e)
+			{
+				log.log(Level.SEVERE, sql.toString(), e);
+			}
+			finally
+			{
+				DB.close(rs, pstmt);
+			}
+		}
+		//	same order as the sequential posting: ProcessedOn, document table, Created
+		documents.sort(Comparator.comparing((DocumentRef d) -> d.processedOn)
+			.thenComparingInt(d -> d.tableIndex)
+			.thenComparing(d -> d.created, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparingInt(d -> d.Record_ID));
+		return documents;
+	}
+
+	/**
+	 * Split documents in groups
+	 * @param documents documents in posting order
+	 * @param processedBefore ProcessedOn limit
+	 * @return groups by stage, stages must be posted one after the other
+	 */
+	private List<List<Group>> partition(List<DocumentRef> documents, BigDecimal processedBefore)
+	{
+		Map<Long, Integer> index = new HashMap<Long, Integer>();
+		int[] parent = new int[documents.size()];
+		for (int i = 0; i < parent.length; i++)
+		{
+			parent[i] = i;
+			DocumentRef document = documents.get(i);
+			index.put(document.getKey(), i);
+		}
+
+		//	link costing documents sharing a product
+		Map<Integer, Integer> productDocument = new HashMap<Integer, Integer>();
+		for (int i = 0; i < m_documentsTableID.length; i++)
+		{
+			String tableName = m_documentsTableName[i];
+			String lineTableName = COSTING_TABLES.get(tableName);
+			if (lineTableName == null || (m_AD_Table_ID != 0 && m_AD_Table_ID != m_documentsTableID[i]))
+				continue;
+			String keyColumn = tableName + "_ID";
+			StringBuilder sql = new StringBuilder("SELECT ").append(keyColumn).append(", M_Product_ID FROM ").append(lineTableName)
+				.append(" WHERE M_Product_ID IS NOT NULL AND ").append(keyColumn).append(" IN (SELECT ").append(keyColumn)
+				.append(" FROM ").append(tableName).append(WHERE_UNPOSTED).append(")");
+			PreparedStatement pstmt = null;
+			ResultSet rs = null;
+			try
+			{
+				pstmt = DB.prepareStatement(sql.toString(), null);
+				pstmt.setInt(1, m_AD_Client_ID);
+				pstmt.setBigDecimal(2, processedBefore);
+				rs = pstmt.executeQuery();
+				while (rs.next())
+				{
+					Integer document = index.get(DocumentRef.getKey(i, rs.getInt(1)));
+					if (document == null)
+						continue;
+					Integer other = productDocument.putIfAbsent(rs.getInt(2), document);
+					if (other != null)
+						union(parent, document, other);
+				}
+			}
+			catch (SQLException e)
+			{
+				log.log(Level.SEVERE, sql.toString(), e);
+			}
+			finally
+			{
+				DB.close(rs, pstmt);
+			}
+		}
+
+		Map<Integer, Group> costingGroups = new LinkedHashMap<Integer, Group>();
+		Map<Integer, Group> independentGroups = new HashMap<Integer, Group>();
+		Map<Integer, Group> allocationGroups = new HashMap<Integer, Group>();
+		List<Group> independent = new ArrayList<Group>();
+		List<Group> allocations = new ArrayList<Group>();
+		Group others = new Group();
+		for (int i = 0; i < documents.size(); i++)
+		{
+			DocumentRef document = documents.get(i);
+			String tableName = m_documentsTableName[document.tableIndex];
+			if (COSTING_TABLES.containsKey(tableName))
+				costingGroups.computeIfAbsent(find(parent, i), k -> new Group()).documents.add(document);
+			else if (INDEPENDENT_TABLES.contains(tableName))
+				addToChunk(independentGroups, independent, document);
+			else if (MAllocationHdr.Table_Name.equals(tableName))
+				addToChunk(allocationGroups, allocations, document);
+			else
+				others.documents.add(document);
+		}
+
+		List<Group> first = new ArrayList<Group>(costingGroups.values());
+		first.addAll(independent);
+		List<List<Group>> stages = new ArrayList<List<Group>>();
+		stages.add(first);
+		stages.add(allocations);
+		List<Group> last = new ArrayList<Group>();
+		if (!others.documents.isEmpty())
+			last.add(others);
+		stages.add(last);
+		for (List<Group> stage : stages)
+		{
+			m_groups += stage.size();
+			for (Group group : stage)
+				m_largestGroup = Math.max(m_largestGroup, group.documents.size());
+		}
+		return stages;
+	}
+
+	/**
+	 * Add document to the current group of its table, start a new group when full
+	 * @param current current group by table index
+	 * @param groups all groups
+	 * @param document
+	 */
+	private void addToChunk(Map<Integer, Group> current, Collection<Group> groups, DocumentRef document)
+	{
+		Group group = current.get(document.tableIndex);
+		if (group == null || group.documents.size() >= GROUP_SIZE)
+		{
+			group = new Group();
+			current.put(document.tableIndex, group);
+			groups.add(group);
+		}
+		group.documents.add(document);
+	}
+
+	private static int find(int[] parent, int i)
+	{
+		while (parent[i] != i)
+		{
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	private static void union(int[] parent, int a, int b)
+	{
+		int rootA = find(parent, a);
+		int rootB = find(parent, b);
+		if (rootA != rootB)
+			parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+	}
+
+	/**
+	 * @param tableIndex index in {@link DocManager#getDocumentsTableID()}
+	 * @return number of posted documents of the table
+	 */
+	public int getCount(int tableIndex)
+	{
+		return m_count.get(tableIndex);
+	}
+
+	/**
+	 * @param tableIndex index in {@link DocManager#getDocumentsTableID()}
+	 * @return number of documents of the table not posted because of an error
+	 */
+	public int getCountError(int tableIndex)
+	{
+		return m_countError.get(tableIndex);
+	}
+
+	/**
+	 * @return number of documents to post
+	 */
+	public int getDocuments()
+	{
+		return m_documents;
+	}
+
+	/**
+	 * @return number of posted documents
+	 */
+	public int getPosted()
+	{
+		int posted = 0;
+		for (int i = 0; i < m_count.length(); i++)
+			posted += m_count.get(i);
+		return posted;
+	}
+
+	/**
+	 * @return number of documents not posted because of an error
+	 */
+	public int getErrors()
+	{
+		int errors = 0;
+		for (int i = 0; i < m_countError.length(); i++)
+			errors += m_countError.get(i);
+		return errors;
+	}
+
+	/**
+	 * @return elapsed time in milliseconds
+	 */
+	public long getElapsed()
+	{
+		return m_elapsed;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("Threads=").append(m_threads)
+			.append(", Documents=").append(m_documents)
+			.append(", Groups=").append(m_groups)
+			.append(", LargestGroup=").append(m_largestGroup)
+			.append(", Posted=").append(getPosted())
+			.append(", Deferred=").append(m_deferred.get())
+			.append(", Errors=").append(getErrors())
+			.append(", Elapsed=").append(m_elapsed).append("ms");
+		if (m_elapsed > 0)
+			sb.append(", Documents/s=").append(getPosted() * 1000L / m_elapsed);
+		return sb.toString();
+	}
+
+	/**
+	 * Reference to an unposted document
+	 */
+	private static class DocumentRef
+	{
+		final int tableIndex;
+		final int AD_Table_ID;
+		final int Record_ID;
+		final BigDecimal processedOn;
+		final Timestamp created;
+
+		DocumentRef(int tableIndex, int AD_Table_ID, int Record_ID, BigDecimal processedOn, Timestamp created)
+		{
+			this.tableIndex = tableIndex;
+			this.AD_Table_ID = AD_Table_ID;
+			this.Record_ID = Record_ID;
+			this.processedOn = processedOn;
+			this.created = created;
+		}
+
+		long getKey()
+		{
+			return getKey(tableIndex, Record_ID);
+		}
+
+		static long getKey(int tableIndex, int Record_ID)
+		{
+			return ((long) tableIndex << 32) | (Record_ID & 0xffffffffL);
+		}
+	}
+
+	/**
+	 * Documents to post in order by the same worker
+	 */
+	private static class Group
+	{
+		final List<DocumentRef> documents = new ArrayList<DocumentRef>();
+	}
+
+	/**
+	 * Post the documents of a group in its own transaction, with a savepoint per document
+	 */
+	private class GroupPoster extends ContextRunnable
+	{
+		private final Group m_group;
+
+		GroupPoster(Group group)
+		{
+			m_group = group;
+		}
+
+		@Override
+		protected void doRun()
+		{
+			Trx trx = Trx.get(Trx.createTrxName("AcctPost"), true);
+			trx.setDisplayName(ParallelAcctPosting.class.getName() + "_post");
+			List<DocumentRef> pending = new ArrayList<DocumentRef>();
+			try
+			{
+				for (DocumentRef document : m_group.documents)
+				{
+					if (m_interrupted.getAsBoolean() || Thread.currentThread().isInterrupted())
+						break;
+					String error;
+					Savepoint savepoint = null;
+					try
+					{
+						//	a failed document must not take the documents posted before it in the group transaction down
+						savepoint = trx.setSavepoint(null);
+						error = DocManager.postDocument(m_ass, document.AD_Table_ID, document.Record_ID, false, false, trx.getTrxName());
+					}
+					catch (Exception e)
+					{
+						log.log(Level.SEVERE, m_documentsTableName[document.tableIndex] + "_ID=" + document.Record_ID, e);
+						error = e.toString();
+					}
+					if (!releaseSavepoint(trx, savepoint, error == null))
+					{
+						//	transaction is not usable anymore, the documents since last commit are lost
+						trx.rollback();
+						for (DocumentRef lost : pending)
+							m_countError.incrementAndGet(lost.tableIndex);
+						pending.clear();
+					}
+					if (error != null)
+					{
+						m_countError.incrementAndGet(document.tableIndex);
+						continue;
+					}
+					pending.add(document);
+					if (pending.size() >= COMMIT_SIZE)
+						commit(trx, pending);
+				}
+				commit(trx, pending);
+			}
+			finally
+			{
+				trx.close();
+			}
+		}
+
+		/**
+		 * Release the savepoint of a posted document or rollback to it
+		 * @param trx
+		 * @param savepoint savepoint set before posting the document
+		 * @param posted true if the document was posted
+		 * @return false if the rollback to savepoint failed
+		 */
+		private boolean releaseSavepoint(Trx trx, Savepoint savepoint, boolean posted)
+		{
+			if (savepoint == null)
+				return posted;
+			try
+			{
+				if (posted)
+					trx.releaseSavepoint(savepoint);
+				else
+					trx.rollback(savepoint);
+				return true;
+			}
+			catch (SQLException e)
+			{
+				log.log(Level.SEVERE, "Savepoint failed", e);
+				return posted;
+			}
+		}
+
+		/**
+		 * Commit and count posted documents
+		 * @param trx
+		 * @param pending documents posted since last commit
+		 */
+		private void commit(Trx trx, List<DocumentRef> pending)
+		{
+			if (pending.isEmpty())
+				return;
+			List<Boolean> posted = new ArrayList<Boolean>();
+			for (DocumentRef document : pending)
+			{
+				// only count the posted record, not the deferred one
+				String tableName = m_documentsTableName[document.tableIndex];
+				StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(tableName)
+					.append(" WHERE Posted='Y' AND ").append(tableName).append("_ID=?");
+				posted.add(DB.getSQLValue(trx.getTrxName(), sql.toString(), document.Record_ID) > 0);
+			}
+			try
+			{
+				trx.commit(true);
+				for (int i = 0; i < pending.size(); i++)
+				{
+					if (posted.get(i))
+						m_count.incrementAndGet(pending.get(i).tableIndex);
+					else
+						m_deferred.incrementAndGet();
+				}
+			}
+			catch (SQLException e)
+			{
+				log.log(Level.SEVERE, "Commit failed", e);
+				trx.rollback();
+				for (DocumentRef document : pending)
+					m_countError.incrementAndGet(document.tableIndex);
+			}
+			pending.clear();
+		}
+	}
+
+	/**
+	 * Name worker threads after the processor
+	 */
+	private static class WorkerThreadFactory implements ThreadFactory
+	{
+		private static final AtomicInteger s_threadNo = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, "AcctProcessor-Worker-" + s_threadNo.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
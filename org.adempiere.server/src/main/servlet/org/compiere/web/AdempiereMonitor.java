@@ -1168,6 +1168,19 @@ public class AdempiereMonitor extends HttpServlet
 		line.addElement(new td().addElement(cachePara));
 		table.addElement(line);
 		
+		//	Cache Invalidation
+		CacheInvalidationBus invalidationBus = CacheInvalidationBus.get();
+		line = new tr();
+		line.addElement(new th().addElement("Cache Invalidation"));
+		line.addElement(new td().addElement("Queue=" + invalidationBus.getQueueSize()
+			+ ", Published=" + invalidationBus.getPublishedCount()
+			+ ", Applied=" + invalidationBus.getAppliedCount()
+			+ ", Overflow=" + invalidationBus.getOverflowCount()
+			+ ", Lag (ms) Last=" + invalidationBus.getLastLag()
+			+ ", Average=" + invalidationBus.getAverageLag()
+			+ ", Max=" + invalidationBus.getMaxLag()));
+		table.addElement(line);
+		
 		//	Trace Level
 		line = new tr();
 		line.addElement(new th().addElement(new label("TraceLevel").addElement("Trace Log Level")));
@@ -1557,6 +1570,8 @@ public class AdempiereMonitor extends HttpServlet
 		line.addElement(new th().addElement("Hit"));
 		line.addElement(new th().addElement("Miss"));
 		line.addElement(new th().addElement("Distributed"));
+		line.addElement(new th().addElement("L1 Hit"));
+		line.addElement(new th().addElement("L2 Hit"));
 		table.addElement(line);
 		
 		List<CacheInfo> instances = CacheInfo.getCacheInfos(true);
@@ -1579,6 +1594,8 @@ public class AdempiereMonitor extends HttpServlet
 				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getHit())));
 				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getMiss())));
 				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.isDistributed())));
+				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.isNearCache() ? ccache.getL1Hit() : ccache.getHit())));
+				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getL2Hit())));
 				if (ccache.getNodeId() != null)
 				{
 					line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getNodeId())));
@@ -1601,6 +1618,8 @@ public class AdempiereMonitor extends HttpServlet
 				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getHit())));
 				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getMiss())));
 				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.isDistributed())));
+				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.isNearCache() ? ccache.getL1Hit() : ccache.getHit())));
+				line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getL2Hit())));
 				if (ccache.getNodeId() != null)
 				{
 					line.addElement(new td().addElement(WebEnv.getCellContent(ccache.getNodeId())));
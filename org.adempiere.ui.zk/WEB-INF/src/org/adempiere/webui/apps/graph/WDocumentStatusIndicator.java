@@ -38,6 +38,7 @@ import org.adempiere.webui.panel.ADForm;
 import org.adempiere.webui.session.SessionManager;
 import org.compiere.model.MDocumentStatus;
 import org.compiere.model.MQuery;
+import org.compiere.model.MSysConfig;
 import org.compiere.print.MPrintColor;
 import org.compiere.print.MPrintFont;
 import org.compiere.util.Env;
@@ -84,6 +85,8 @@ public class WDocumentStatusIndicator extends Panel implements EventListener<Eve
 
 	private MDocumentStatus		m_documentStatus = null;
 	private int statusCount;
+	/** true if {@link #statusCount} is loaded */
+	private boolean loaded = false;
 	private Label statusLabel;
 
 	/**
@@ -172,14 +175,27 @@ public class WDocumentStatusIndicator extends Panel implements EventListener<Eve
 	}
 
 	/**
-	 * Load {@link #m_documentStatus}
+	 * Load {@link #m_documentStatus}, the count can be shared with other sessions for the dashboard refresh interval
 	 */
 	public void refresh() {
+		refresh(MSysConfig.getIntValue(MSysConfig.ZK_DASHBOARD_REFRESH_INTERVAL, 60000));
+	}
+
+	/**
+	 * Load {@link #m_documentStatus}
+	 * @param maxAge maximum age in milliseconds of a count shared with other sessions, 0 to count now
+	 * @return true if the count has changed
+	 */
+	public boolean refresh(long maxAge) {
 		MDocumentStatus refresh_documentStatus = MDocumentStatus.get(Env.getCtx(), m_documentStatus.getPA_DocumentStatus_ID());
 		if(refresh_documentStatus != null) {
 			m_documentStatus = 	refresh_documentStatus;
 		}
-		statusCount = MDocumentStatus.evaluate(m_documentStatus);		
+		int count = MDocumentStatus.evaluate(m_documentStatus, maxAge);
+		boolean changed = !loaded || count != statusCount;
+		statusCount = count;
+		loaded = true;
+		return changed;
 	}
 
 	/**
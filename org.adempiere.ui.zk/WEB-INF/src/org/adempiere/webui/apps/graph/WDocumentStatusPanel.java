@@ -39,6 +39,7 @@ import org.adempiere.webui.component.Row;
 import org.adempiere.webui.component.Rows;
 import org.adempiere.webui.desktop.IDesktop;
 import org.compiere.model.MDocumentStatus;
+import org.compiere.model.MSysConfig;
 import org.compiere.util.CLogger;
 import org.compiere.util.Env;
 import org.zkoss.zk.ui.event.Event;
@@ -119,13 +120,24 @@ public class WDocumentStatusPanel extends Panel {
 	 * Call {@link WDocumentStatusIndicator#refresh()} of {@link #indicatorList}.
 	 */
 	public void refresh() {
+		refresh(MSysConfig.getIntValue(MSysConfig.ZK_DASHBOARD_REFRESH_INTERVAL, 60000));
+	}
+
+	/**
+	 * Call {@link WDocumentStatusIndicator#refresh(long)} of {@link #indicatorList}.
+	 * @param maxAge maximum age in milliseconds of counts shared with other sessions, 0 to count now
+	 * @return true if a count has changed
+	 */
+	public boolean refresh(long maxAge) {
+		boolean changed = false;
 		lastRefreshCount = 0;
 		for (WDocumentStatusIndicator indicator : indicatorList) {
-			indicator.refresh();
+			if (indicator.refresh(maxAge))
+				changed = true;
 			if (indicator.getDocumentStatus().getAD_Client_ID() == 0)
 				lastRefreshCount += indicator.getStatusCount();
 		}
-		
+		return changed;
 	}
 
 	/**
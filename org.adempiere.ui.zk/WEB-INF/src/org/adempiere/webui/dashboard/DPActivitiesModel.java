@@ -14,9 +14,10 @@
 package org.adempiere.webui.dashboard;
 
 import org.compiere.model.MRole;
+import org.compiere.model.MSysConfig;
 import org.compiere.model.Query;
-import org.compiere.util.DB;
 import org.compiere.util.Env;
+import org.compiere.util.SharedSQLValue;
 import org.compiere.wf.MWFActivity;
 
 /**
@@ -34,6 +35,13 @@ import org.compiere.wf.MWFActivity;
 @Deprecated // replaced with DPDocumentStatus
 public class DPActivitiesModel {
 
+	/**
+	 * @return maximum age in milliseconds of counts shared with other sessions
+	 */
+	private static long getMaxAge() {
+		return MSysConfig.getIntValue(MSysConfig.ZK_DASHBOARD_REFRESH_INTERVAL, 60000);
+	}
+
 	public static boolean isShowUnprocessed() {
 		return 	(Env.getAD_Client_ID(Env.getCtx()) > 0);
 	}
@@ -48,7 +56,7 @@ public class DPActivitiesModel {
 			+ "WHERE AD_Client_ID=? AND AD_User_ID IN (0,?)"
 			+ " AND Processed='N' AND AD_BroadcastMessage_ID IS NULL";
 
-		int retValue = DB.getSQLValue(null, sql, Env.getAD_Client_ID(Env.getCtx()), Env.getAD_User_ID(Env.getCtx()));
+		int retValue = SharedSQLValue.getSQLValue(getMaxAge(), sql, Env.getAD_Client_ID(Env.getCtx()), Env.getAD_User_ID(Env.getCtx()));
 		return retValue;
 	}
 
@@ -63,7 +71,7 @@ public class DPActivitiesModel {
 				+ " AND (DateNextAction IS NULL OR TRUNC(DateNextAction) <= TRUNC(getDate()))"
 				+ " AND (R_Status_ID IS NULL OR R_Status_ID IN (SELECT R_Status_ID FROM R_Status WHERE IsClosed='N'))",
 					"R_Request", false, true);	//	not qualified - RW
-		int retValue = DB.getSQLValue(null, sql, Env.getAD_User_ID(Env.getCtx()), Env.getAD_Role_ID(Env.getCtx()));
+		int retValue = SharedSQLValue.getSQLValue(getMaxAge(), sql, Env.getAD_User_ID(Env.getCtx()), Env.getAD_Role_ID(Env.getCtx()));
 		return retValue;
 	}
 
@@ -94,7 +102,7 @@ public class DPActivitiesModel {
 		String sql = "SELECT COUNT(1) FROM RV_Unprocessed "
 			+ "WHERE AD_Client_ID=? AND CreatedBy=?";
 
-		int retValue = DB.getSQLValue(null, sql, Env.getAD_Client_ID(Env.getCtx()), Env.getAD_User_ID(Env.getCtx()));
+		int retValue = SharedSQLValue.getSQLValue(getMaxAge(), sql, Env.getAD_Client_ID(Env.getCtx()), Env.getAD_User_ID(Env.getCtx()));
 		return retValue;
 	}
 }
@@ -36,6 +36,7 @@ import org.adempiere.webui.theme.ThemeManager;
 import org.adempiere.webui.util.ServerPushTemplate;
 import org.adempiere.webui.util.ZkContextRunnable;
 import org.compiere.Adempiere;
+import org.compiere.model.MSysConfig;
 import org.compiere.util.Env;
 import org.compiere.util.Msg;
 import org.compiere.util.Util;
@@ -57,8 +58,17 @@ public class DPDocumentStatus extends DashboardPanel implements EventListener<Ev
 
 	@Override
 	public void refresh(ServerPushTemplate template) {
-		statusPanel.refresh();
-		template.executeAsync(this);
+		refresh(template, MSysConfig.getIntValue(MSysConfig.ZK_DASHBOARD_REFRESH_INTERVAL, 60000));
+	}
+
+	/**
+	 * Refresh counts, the desktop is only updated if a count has changed
+	 * @param template
+	 * @param maxAge maximum age in milliseconds of counts shared with other sessions, 0 to count now
+	 */
+	private void refresh(ServerPushTemplate template, long maxAge) {
+		if (statusPanel.refresh(maxAge))
+			template.executeAsync(this);
 	}
 
 	@Override
@@ -112,7 +122,7 @@ public class DPDocumentStatus extends DashboardPanel implements EventListener<Ev
     		ZkContextRunnable cr = new ZkContextRunnable() {
     			@Override
 				protected void doRun() {
-    				refresh(template);
+    				refresh(template, 0);
     				template.executeAsync(() -> {
     					busyDialog.detach();
     				});
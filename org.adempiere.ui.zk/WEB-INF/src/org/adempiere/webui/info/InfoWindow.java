@@ -195,6 +195,8 @@ public class InfoWindow extends InfoPanel implements ValueChangeListener, EventL
 	private TreeMap<Integer, List<Object[]>> parameterTree;
 	private TreeMap<Integer, List<Object[]>> parameterTree2;
 	private Checkbox checkAND;
+	/** Array parameters of role access SQL, bound after the query parameters */
+	private List<Object> accessSQLParameters = new ArrayList<Object>();
 		
 	// F3P: Keep original values: when a row is unselected, restore original values
 		
@@ -1392,6 +1394,7 @@ public class InfoWindow extends InfoPanel implements ValueChangeListener, EventL
 			for (int parameterIndex = 0; parameterIndex < prevParameterValues.size(); parameterIndex++){
 				setParameter (pstmt, parameterIndex + 1, prevParameterValues.get(parameterIndex), prevQueryOperators.get(parameterIndex));
 			}
+			setAccessSQLParameters(pstmt, prevParameterValues.size());
 			return;
 		}
 		
@@ -1414,7 +1417,18 @@ public class InfoWindow extends InfoPanel implements ValueChangeListener, EventL
 			parameterIndex = setParameter(editors2.get(idx), infoColumnVO, pstmt, parameterIndex);
 			idx++;
 		}
+		setAccessSQLParameters(pstmt, parameterIndex);
+	}
 
+	/**
+	 * Set array parameters of role access SQL
+	 * @param pstmt
+	 * @param parameterIndex index of last query parameter
+	 * @throws SQLException
+	 */
+	private void setAccessSQLParameters(PreparedStatement pstmt, int parameterIndex) throws SQLException {
+		for (Object param : accessSQLParameters)
+			DB.setParameter(pstmt, ++parameterIndex, param);
 	}
 	
 	/**
@@ -2118,8 +2132,9 @@ public class InfoWindow extends InfoPanel implements ValueChangeListener, EventL
         }
         
         dataSql = Msg.parseTranslation(Env.getCtx(), sql.toString());    //  Variables
+        accessSQLParameters.clear();
         dataSql = MRole.getDefault().addAccessSQL(dataSql, getTableName(),
-            MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO);
+            MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO, accessSQLParameters);
         
         String otherClause = getOtherClauseParsed();
         if (otherClause.length() > 0) {
@@ -2423,8 +2438,9 @@ public class InfoWindow extends InfoPanel implements ValueChangeListener, EventL
 			countSql = countSql.trim();
 			countSql = countSql.substring(0, countSql.length() - 5);
 		}
+		accessSQLParameters.clear();
 		countSql = MRole.getDefault().addAccessSQL	(countSql, getTableName(),
-													MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO);
+													MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO, accessSQLParameters);
 		// IDEMPIERE-3521
 		String otherClause = getOtherClauseParsed();
         if (otherClause.length() > 0) {
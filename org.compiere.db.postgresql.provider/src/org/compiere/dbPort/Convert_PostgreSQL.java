@@ -57,6 +57,18 @@ public class Convert_PostgreSQL extends Convert_SQL92 {
 	private final static Pattern likePattern = Pattern.compile("\\bLIKE\\b", REGEX_FLAGS);
 	
 	private final static Pattern sysDatePattern = Pattern.compile("\\bSYSDATE\\b", REGEX_FLAGS);
+
+	private final static Pattern quotedStringMarkerPattern = Pattern.compile("QS\\d+QS\\d{18}");
+
+	private final static String PATTERN_String = "\'([^']|(''))*\'";
+	private final static String PATTERN_DataType = "([\\w]+)(\\(\\d+\\))?";
+	private final static Pattern castPattern = Pattern.compile(
+						"\\bCAST\\b[\\s]*\\([\\s]*"					// CAST<sp>(<sp>		
+						+"(("+PATTERN_String+")|([^\\s]+))"		//	arg1				1(2,3)
+						+"[\\s]*AS[\\s]*"						//	<sp>AS<sp>
+						+"("+PATTERN_DataType+")"				//	arg2 (datatype)		4
+						+"\\s*\\)"								//	<sp>)
+						, Pattern.CASE_INSENSITIVE);
 	
 	/**
 	 * Is Oracle DB
@@ -272,19 +284,9 @@ public class Convert_PostgreSQL extends Convert_SQL92 {
 	 * </pre>
 	 */
 	private String convertCast(String sqlStatement) {
-		final String PATTERN_String = "\'([^']|(''))*\'";
-		final String PATTERN_DataType = "([\\w]+)(\\(\\d+\\))?";
-		final String pattern =
-							"\\bCAST\\b[\\s]*\\([\\s]*"					// CAST<sp>(<sp>		
-							+"(("+PATTERN_String+")|([^\\s]+))"		//	arg1				1(2,3)
-							+"[\\s]*AS[\\s]*"						//	<sp>AS<sp>
-							+"("+PATTERN_DataType+")"				//	arg2 (datatype)		4
-							+"\\s*\\)"								//	<sp>)
-		;
 		final int gidx_arg1 = 1;
 		final int gidx_arg2 = 7;	// datatype w/o length
-		final Pattern p = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-		Matcher m = p.matcher(sqlStatement);
+		Matcher m = castPattern.matcher(sqlStatement);
 		
 		TreeMap<String, String> convertMap = (TreeMap<String, String>)getConvertMap(); 
 		StringBuffer retValue = new StringBuffer(sqlStatement.length());
@@ -950,7 +952,7 @@ public class Convert_PostgreSQL extends Convert_SQL92 {
 		if (token.startsWith("'") && token.endsWith("'"))
 			return false;
 		// quoted string substitution marker
-		else if ( token.matches("QS\\d+QS\\d{18}") )
+		else if ( quotedStringMarkerPattern.matcher(token).matches() )
 			return false;
 		else 
 		{
@@ -22,11 +22,29 @@
  **********************************************************************/
 package org.idempiere.test.base;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.compiere.model.AccessSqlParser;
+import org.compiere.model.MRole;
+import org.compiere.model.MSysConfig;
+import org.compiere.model.PO;
+import org.compiere.model.Query;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
 import org.idempiere.test.AbstractTestCase;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 public final class AcessSQLParserTest extends AbstractTestCase {	
 	
@@ -220,4 +238,98 @@ public final class AcessSQLParserTest extends AbstractTestCase {
 		AccessSqlParser fixture = new AccessSqlParser(sql);
 		assertEquals(expected, fixture.toString());
 	}
+
+	/**
+	 * Run addAccessSQL with cached parse result
+	 */
+	@Test
+	public void testAddAccessSQL()
+	{
+		final String sql = "SELECT p.M_Product_ID, p.Name FROM M_Product p WHERE p.IsActive='Y' ORDER BY p.Name";
+		MRole role = MRole.getDefault();
+		String first = role.addAccessSQL(sql, "p", MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO);
+		assertTrue(first.startsWith("SELECT p.M_Product_ID, p.Name FROM M_Product p WHERE p.IsActive='Y' AND p.AD_Client_ID"), first);
+		assertTrue(first.endsWith(" ORDER BY p.Name"), first);
+		assertEquals(first, role.addAccessSQL(sql, "p", MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO));
+
+		//	array parameters are opt-in, literal values by default
+		List<Object> params = new ArrayList<Object>();
+		assertEquals(first, role.addAccessSQL(sql, "p", MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO, params));
+		assertTrue(params.isEmpty());
+	}
+
+	/**
+	 * Run addAccessSQL with array parameters, same rows as the literal values
+	 */
+	@Test
+	@ResourceLock(value = MSysConfig.ROLE_ACCESS_SQL_ARRAY_PARAMETERS)
+	public void testAddAccessSQLArrayParameters() throws SQLException
+	{
+		if (DB.isOracle()) return;
+		final String sql = "SELECT p.M_Product_ID FROM M_Product p WHERE p.IsActive=? ORDER BY p.M_Product_ID";
+		MRole role = MRole.getDefault();
+		List<Object> literalParams = new ArrayList<Object>();
+		literalParams.add("Y");
+		String literal = role.addAccessSQL(sql, "p", MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO, literalParams);
+		assertEquals(1, literalParams.size());
+		List<Integer> expected = getIDs(literal, literalParams);
+		assertFalse(expected.isEmpty());
+
+		Query query = new Query(Env.getCtx(), MSysConfig.Table_Name, "Name=? AND AD_Client_ID IN (0, ?)", null);
+		MSysConfig sysConfig = query.setOrderBy("AD_Client_ID Desc").setParameters(MSysConfig.ROLE_ACCESS_SQL_ARRAY_PARAMETERS, getAD_Client_ID()).first();
+		String oldValue = sysConfig.getValue();
+		setValue(sysConfig, "Y");
+		try {
+			List<Object> params = new ArrayList<Object>();
+			params.add("Y");
+			String array = role.addAccessSQL(sql, "p", MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO, params);
+			assertTrue(array.contains("p.AD_Client_ID = ANY(?)"), array);
+			assertTrue(array.endsWith(" ORDER BY p.M_Product_ID"), array);
+			assertEquals(role.isAccessAllOrgs() ? 2 : 3, params.size());
+			assertEquals(role.isAccessAllOrgs(), !array.contains("p.AD_Org_ID = ANY(?)"), array);
+			for (int i = 1; i < params.size(); i++) {
+				assertTrue(params.get(i) instanceof Integer[], String.valueOf(params.get(i)));
+				Integer[] ids = (Integer[]) params.get(i);
+				Integer[] sorted = ids.clone();
+				Arrays.sort(sorted);
+				assertArrayEquals(sorted, ids, "Access ids must be sorted");
+			}
+			Integer[] clientIDs = (Integer[]) params.get(1);
+			assertTrue(Arrays.asList(clientIDs).contains(0), "Read only access includes system data");
+			assertTrue(Arrays.asList(clientIDs).contains(getAD_Client_ID()));
+
+			//	same statement text for the same table, only the parameters depend on the role
+			assertEquals(array, role.addAccessSQL(sql, "p", MRole.SQL_FULLYQUALIFIED, MRole.SQL_RO, new ArrayList<Object>()));
+			assertEquals(expected, getIDs(array, params));
+		} finally {
+			setValue(sysConfig, oldValue);
+		}
+	}
+
+	private void setValue(MSysConfig sysConfig, String value) {
+		sysConfig.setValue(value);
+		try {
+			PO.setCrossTenantSafe();
+			sysConfig.saveEx();
+		} finally {
+			PO.clearCrossTenantSafe();
+		}
+		CacheMgt.get().reset(MSysConfig.Table_Name);
+	}
+
+	private List<Integer> getIDs(String sql, List<Object> params) throws SQLException {
+		List<Integer> ids = new ArrayList<Integer>();
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try {
+			pstmt = DB.prepareStatement(sql, getTrxName());
+			DB.setParameters(pstmt, params);
+			rs = pstmt.executeQuery();
+			while (rs.next())
+				ids.add(rs.getInt(1));
+		} finally {
+			DB.close(rs, pstmt);
+		}
+		return ids;
+	}
 }
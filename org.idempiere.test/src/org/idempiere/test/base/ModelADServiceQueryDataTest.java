@@ -0,0 +1,192 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.xml.ws.WebServiceContext;
+import javax.xml.ws.handler.MessageContext;
+
+import org.adempiere.util.ServerContext;
+import org.idempiere.adInterface.x10.ADLoginRequest;
+import org.idempiere.adInterface.x10.DataField;
+import org.idempiere.adInterface.x10.DataRow;
+import org.idempiere.adInterface.x10.ModelCRUD;
+import org.idempiere.adInterface.x10.ModelCRUDRequest;
+import org.idempiere.adInterface.x10.ModelCRUDRequestDocument;
+import org.idempiere.adInterface.x10.WindowTabData;
+import org.idempiere.adinterface.ModelADServiceImpl;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pages of queryData of the GardenWorld QueryBPartner service type
+ */
+public class ModelADServiceQueryDataTest extends AbstractTestCase {
+
+	private Properties testCtx;
+
+	public ModelADServiceQueryDataTest() {
+	}
+
+	@BeforeEach
+	public void saveContext() {
+		//	the service replaces the context of the thread
+		testCtx = ServerContext.getCurrentInstance();
+	}
+
+	@AfterEach
+	public void restoreContext() {
+		ServerContext.setCurrentInstance(testCtx);
+	}
+
+	@Test
+	public void testPaging() {
+		WindowTabData all = queryData(0, 0);
+		assertTrue(all.getSuccess(), all.getError());
+		int total = all.getTotalRows();
+		assertTrue(total > 2, "QueryBPartner must return more than one page");
+		assertEquals(total, all.getNumRows());
+		List<String> allRows = getRows(all);
+
+		int limit = 2;
+		List<String> pagedRows = new ArrayList<String>();
+		for (int offset = 0; offset < total; offset += limit) {
+			WindowTabData page = queryData(offset, limit);
+			assertTrue(page.getSuccess(), page.getError());
+			assertEquals(offset, page.getStartRow());
+			assertEquals(Math.min(limit, total - offset), page.getNumRows());
+			assertEquals(total, page.getTotalRows(), "Total rows must not depend on the page");
+			pagedRows.addAll(getRows(page));
+		}
+		assertEquals(total, pagedRows.size());
+		assertEquals(total, new HashSet<String>(pagedRows).size(), "Pages must not overlap");
+		assertEquals(new HashSet<String>(allRows), new HashSet<String>(pagedRows));
+
+		//	page after the last row
+		WindowTabData after = queryData(total, limit);
+		assertTrue(after.getSuccess(), after.getError());
+		assertEquals(0, after.getNumRows());
+		assertEquals(total, after.getTotalRows());
+	}
+
+	/**
+	 * @param offset
+	 * @param limit
+	 * @return response of queryData
+	 */
+	private WindowTabData queryData(int offset, int limit) {
+		ModelCRUDRequestDocument doc = ModelCRUDRequestDocument.Factory.newInstance();
+		ModelCRUDRequest request = doc.addNewModelCRUDRequest();
+		ADLoginRequest login = request.addNewADLoginRequest();
+		login.setUser("WebService");
+		login.setPass("WebService");
+		login.setLang("en_US");
+		login.setClientID(GARDEN_WORLD_CLIENT);
+		login.setRoleID(50004);
+		login.setOrgID(GARDEN_WORLD_HQ_ORG);
+		login.setWarehouseID(GARDEN_WORLD_HQ_WAREHOUSE);
+		login.setStage(9);
+		ModelCRUD crud = request.addNewModelCRUD();
+		crud.setServiceType("QueryBPartner");
+		crud.setOffset(offset);
+		crud.setLimit(limit);
+
+		ModelADServiceImpl service = new ModelADServiceImpl(newWebServiceContext(), null);
+		return service.queryData(doc).getWindowTabData();
+	}
+
+	/**
+	 * @param data
+	 * @return output fields of each row
+	 */
+	private List<String> getRows(WindowTabData data) {
+		List<String> rows = new ArrayList<String>();
+		if (data.getDataSet() == null)
+			return rows;
+		for (DataRow row : data.getDataSet().getDataRowArray()) {
+			StringBuilder fields = new StringBuilder();
+			for (DataField field : row.getFieldArray())
+				fields.append(field.getColumn()).append("=").append(field.getVal()).append(";");
+			rows.add(fields.toString());
+		}
+		return rows;
+	}
+
+	/**
+	 * @return soap context of a request with attributes only
+	 */
+	private WebServiceContext newWebServiceContext() {
+		Map<String, Object> attributes = new HashMap<String, Object>();
+		HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getAttribute":
+				return attributes.get(args[0]);
+			case "setAttribute":
+				attributes.put((String) args[0], args[1]);
+				return null;
+			case "removeAttribute":
+				attributes.remove(args[0]);
+				return null;
+			case "getRemoteAddr":
+				return "127.0.0.1";
+			default:
+				return defaultValue(method.getReturnType());
+			}
+		});
+		MessageContext messageContext = (MessageContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {MessageContext.class}, (proxy, method, args) -> {
+			if ("get".equals(method.getName()) && MessageContext.SERVLET_REQUEST.equals(args[0]))
+				return request;
+			return defaultValue(method.getReturnType());
+		});
+		return (WebServiceContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {WebServiceContext.class}, (proxy, method, args) -> {
+			if ("getMessageContext".equals(method.getName()))
+				return messageContext;
+			return defaultValue(method.getReturnType());
+		});
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class)
+			return Boolean.FALSE;
+		if (type == int.class)
+			return Integer.valueOf(0);
+		if (type == long.class)
+			return Long.valueOf(0);
+		return null;
+	}
+}
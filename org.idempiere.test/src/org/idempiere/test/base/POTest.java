@@ -35,6 +35,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.File;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import org.adempiere.exceptions.DBException;
@@ -48,6 +52,7 @@ import org.compiere.model.MProduct;
 import org.compiere.model.MProductCategory;
 import org.compiere.model.MProductCategoryAcct;
 import org.compiere.model.MTest;
+import org.compiere.model.PO;
 import org.compiere.model.POInfo;
 import org.compiere.util.DB;
 import org.compiere.util.Env;
@@ -541,4 +546,73 @@ public class POTest extends AbstractTestCase
 		assertTrue(file.exists(), "Not found: " + folderOr + fileName);
 		file.delete();
 	}
+
+	@Test
+	public void testSaveAllEx() {
+		MTest existing = new MTest(Env.getCtx(), getClass().getName(), 1);
+		existing.set_TrxName(getTrxName());
+		existing.saveEx();
+		existing.setDescription("testSaveAllEx");
+
+		List<MTest> tests = new ArrayList<MTest>();
+		tests.add(existing);
+		for (int i = 2; i <= 5; i++) {
+			MTest testPO = new MTest(Env.getCtx(), getClass().getName(), i);
+			testPO.set_TrxName(getTrxName());
+			tests.add(testPO);
+		}
+		PO.saveAllEx(tests, getTrxName());
+
+		for (MTest testPO : tests) {
+			assertTrue(testPO.get_ID() > 0, "Record not saved");
+			assertFalse(testPO.is_new(), "Record still new after save");
+			assertFalse(testPO.is_Changed(), "Record still changed after save");
+			MTest loaded = new MTest(Env.getCtx(), testPO.get_ID(), getTrxName());
+			assertEquals(testPO.getName(), loaded.getName());
+			assertEquals(testPO.getT_Integer(), loaded.getT_Integer());
+			assertEquals(testPO.getDescription(), loaded.getDescription());
+		}
+		assertEquals("testSaveAllEx", new MTest(Env.getCtx(), existing.get_ID(), getTrxName()).getDescription());
+	}
+
+	@Test
+	public void testLoadResultSetColumnOrder() throws Exception {
+		List<MTest> tests = new ArrayList<MTest>();
+		for (int i = 1; i <= 2; i++) {
+			MTest testPO = new MTest(Env.getCtx(), getClass().getName(), i);
+			testPO.set_TrxName(getTrxName());
+			testPO.setIsActive(i == 1);
+			testPO.saveEx();
+			tests.add(testPO);
+		}
+
+		//	columns in reverse order of POInfo, virtual column not selected
+		POInfo info = POInfo.getPOInfo(Env.getCtx(), MTest.Table_ID);
+		List<String> columns = new ArrayList<String>();
+		for (int i = info.getColumnCount() - 1; i >= 0; i--) {
+			if (!info.isVirtualColumn(i))
+				columns.add(info.getColumnName(i));
+		}
+		String sql = "SELECT " + String.join(",", columns) + " FROM Test WHERE Test_ID IN (?,?) ORDER BY Test_ID";
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try {
+			pstmt = DB.prepareStatement(sql, getTrxName());
+			pstmt.setInt(1, tests.get(0).get_ID());
+			pstmt.setInt(2, tests.get(1).get_ID());
+			rs = pstmt.executeQuery();
+			for (MTest expected : tests) {
+				assertTrue(rs.next());
+				MTest loaded = new MTest(Env.getCtx(), rs, getTrxName());
+				assertEquals(expected.get_ID(), loaded.get_ID());
+				assertEquals(expected.getName(), loaded.getName());
+				assertEquals(expected.getT_Integer(), loaded.getT_Integer());
+				assertEquals(0, expected.getT_Amount().compareTo(loaded.getT_Amount()));
+				assertEquals(expected.isActive(), loaded.isActive());
+				assertEquals(expected.getCreated(), loaded.getCreated());
+			}
+		} finally {
+			DB.close(rs, pstmt);
+		}
+	}
 }
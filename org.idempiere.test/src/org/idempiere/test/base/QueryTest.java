@@ -49,6 +49,7 @@ import org.compiere.model.MProcess;
 import org.compiere.model.MTable;
 import org.compiere.model.MTest;
 import org.compiere.model.PO;
+import org.compiere.model.POIterator;
 import org.compiere.model.POResultSet;
 import org.compiere.model.Query;
 import org.compiere.model.X_AD_Element;
@@ -167,6 +168,46 @@ public class QueryTest extends AbstractTestCase {
 		
 	}
 
+	@Test
+	public void testIterateChunks() throws Exception
+	{
+		//more records than one chunk, without transaction to load next chunk in background
+		List<MTable> list = new Query(Env.getCtx(), "AD_Table", "TableName LIKE ?", null)
+							.setParameters("C%")
+							.setOrderBy("TableName")
+							.list();
+		assertTrue(list.size() > POIterator.DEFAULT_CHUNK_SIZE, "Not enough records to test chunks");
+		Iterator<MTable> it = new Query(Env.getCtx(), "AD_Table", "TableName LIKE ?", null)
+							.setParameters("C%")
+							.setOrderBy("TableName")
+							.iterate();
+		int i = 0;
+		while(it.hasNext())
+		{
+			MTable t = it.next();
+			assertEquals(list.get(i).getTableName(), t.getTableName(), "Invalid object "+i);
+			i++;
+		}
+		assertEquals(list.size(), i);
+
+		//multi key table
+		List<PO> accessList = new Query(Env.getCtx(), "AD_Role_OrgAccess", null, getTrxName())
+							.setOrderBy("AD_Role_ID, AD_Org_ID")
+							.list();
+		Iterator<PO> accessIt = new Query(Env.getCtx(), "AD_Role_OrgAccess", null, getTrxName())
+							.setOrderBy("AD_Role_ID, AD_Org_ID")
+							.iterate();
+		i = 0;
+		while(accessIt.hasNext())
+		{
+			PO po = accessIt.next();
+			assertEquals(accessList.get(i).get_ValueAsInt("AD_Role_ID"), po.get_ValueAsInt("AD_Role_ID"), "Invalid object "+i);
+			assertEquals(accessList.get(i).get_ValueAsInt("AD_Org_ID"), po.get_ValueAsInt("AD_Org_ID"), "Invalid object "+i);
+			i++;
+		}
+		assertEquals(accessList.size(), i);
+	}
+
 	@Test
 	public void testCount() throws Exception
 	{
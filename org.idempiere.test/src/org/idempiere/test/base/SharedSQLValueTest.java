@@ -0,0 +1,120 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.compiere.util.DB;
+import org.compiere.util.SharedSQLValue;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shared results of {@link SharedSQLValue}, each execution of the statements takes the next value of a sequence
+ */
+public class SharedSQLValueTest extends AbstractTestCase {
+
+	private static final String SEQUENCE = "SharedSQLValueTest_Seq";
+
+	private static final String NEXT_SQL = "SELECT nextval('" + SEQUENCE + "')";
+
+	public SharedSQLValueTest() {
+	}
+
+	@BeforeEach
+	public void createSequence() {
+		if (DB.isOracle()) return;
+		SharedSQLValue.reset();
+		DB.executeUpdateEx("DROP SEQUENCE IF EXISTS " + SEQUENCE, null);
+		DB.executeUpdateEx("CREATE SEQUENCE " + SEQUENCE + " START 1", null);
+	}
+
+	@AfterEach
+	public void dropSequence() {
+		if (DB.isOracle()) return;
+		SharedSQLValue.reset();
+		DB.executeUpdateEx("DROP SEQUENCE IF EXISTS " + SEQUENCE, null);
+	}
+
+	@Test
+	public void testConcurrentCallers() throws Exception {
+		if (DB.isOracle()) return;
+		//	the statement runs long enough for all callers to ask for it while it executes
+		String sql = "SELECT nextval('" + SEQUENCE + "') FROM pg_sleep(1)";
+		int callers = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return SharedSQLValue.getSQLValue(60000, sql);
+				}));
+			}
+			start.countDown();
+			for (Future<Integer> result : results)
+				assertEquals(1, result.get().intValue(), "All callers must get the result of the first execution");
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2, DB.getSQLValueEx(null, NEXT_SQL), "Statement must be executed once");
+	}
+
+	@Test
+	public void testSharedResult() {
+		if (DB.isOracle()) return;
+		assertEquals(1, SharedSQLValue.getSQLValue(60000, NEXT_SQL));
+		assertEquals(1, SharedSQLValue.getSQLValue(60000, NEXT_SQL));
+		//	parameters are part of the key
+		String sql = NEXT_SQL + " + ?";
+		assertEquals(12, SharedSQLValue.getSQLValue(60000, sql, 10));
+		assertEquals(23, SharedSQLValue.getSQLValue(60000, sql, 20));
+		assertEquals(12, SharedSQLValue.getSQLValue(60000, sql, 10));
+	}
+
+	@Test
+	public void testErrorNotShared() {
+		if (DB.isOracle()) return;
+		String sql = "SELECT -nextval('" + SEQUENCE + "')";
+		assertEquals(-1, SharedSQLValue.getSQLValue(60000, sql));
+		assertEquals(-2, SharedSQLValue.getSQLValue(60000, sql), "Negative results must not be shared");
+		assertEquals(3, DB.getSQLValueEx(null, NEXT_SQL));
+	}
+
+	@Test
+	public void testNoMaxAge() {
+		if (DB.isOracle()) return;
+		assertEquals(1, SharedSQLValue.getSQLValue(0, NEXT_SQL));
+		assertEquals(2, SharedSQLValue.getSQLValue(0, NEXT_SQL), "Maximum age 0 must execute the statement");
+		assertEquals(2, SharedSQLValue.getSQLValue(60000, NEXT_SQL));
+	}
+}
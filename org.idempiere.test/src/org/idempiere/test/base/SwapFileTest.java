@@ -0,0 +1,168 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.base;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.compiere.print.PrintDataElement;
+import org.compiere.print.layout.Dimension2DImpl;
+import org.compiere.print.util.SerializableMatrix;
+import org.compiere.print.util.SerializableMatrixImpl;
+import org.compiere.print.util.SwapFile;
+import org.compiere.print.util.SwapFileSegment;
+import org.compiere.print.util.SwapPageCodec;
+import org.compiere.util.DisplayType;
+import org.compiere.util.KeyNamePair;
+import org.compiere.util.ValueNamePair;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link SwapPageCodec}, {@link SwapFile} and {@link SerializableMatrixImpl}
+ */
+public class SwapFileTest extends AbstractTestCase {
+
+	public SwapFileTest() {
+	}
+
+	@Test
+	public void testCodecRoundTrip() throws Exception {
+		Timestamp ts = new Timestamp(System.currentTimeMillis());
+		ts.setNanos(123456789);
+		PrintDataElement element = new PrintDataElement(100, "GrandTotal", new BigDecimal("-12.50"), DisplayType.Amount, true, true, "#,##0.00", "C_Order_ID");
+		ArrayList<Serializable> nested = new ArrayList<Serializable>(Arrays.asList("a", null, Integer.valueOf(-1)));
+		List<List<Serializable>> rows = new ArrayList<List<Serializable>>();
+		rows.add(new ArrayList<Serializable>(Arrays.asList("text", "text", "", Integer.valueOf(Integer.MIN_VALUE), Integer.valueOf(Integer.MAX_VALUE))));
+		rows.add(new ArrayList<Serializable>(Arrays.asList(new BigDecimal("0.000"), new BigDecimal("-123456789.123456"),
+			new BigDecimal("123456789012345678901234567890.12"), new BigDecimal("1E+5"))));
+		rows.add(new ArrayList<Serializable>(Arrays.asList(ts, Boolean.TRUE, Boolean.FALSE, null, element, nested)));
+		rows.add(new ArrayList<Serializable>(Arrays.asList(new Dimension2DImpl(1.5, 2.25), new KeyNamePair(101, "Key"),
+			new ValueNamePair("V", "Value"), Long.valueOf(42), Locale.GERMANY)));
+		rows.add(new ArrayList<Serializable>());
+
+		byte[] data = SwapPageCodec.encode(rows);
+		List<List<Serializable>> decoded = SwapPageCodec.decode(ByteBuffer.wrap(data));
+		assertEquals(rows, decoded);
+
+		//scale and nanos are kept
+		assertEquals(3, ((BigDecimal)decoded.get(1).get(0)).scale());
+		assertEquals(ts.getNanos(), ((Timestamp)decoded.get(2).get(0)).getNanos());
+		PrintDataElement decodedElement = (PrintDataElement)decoded.get(2).get(4);
+		assertEquals(element.getAD_PrintFormatItem_ID(), decodedElement.getAD_PrintFormatItem_ID());
+		assertEquals(element.getDisplayType(), decodedElement.getDisplayType());
+		assertEquals(element.isPKey(), decodedElement.isPKey());
+		assertEquals(element.isPageBreak(), decodedElement.isPageBreak());
+		assertEquals(element.getM_formatPattern(), decodedElement.getM_formatPattern());
+		assertEquals(element.getForeignColumnName(), decodedElement.getForeignColumnName());
+
+		//decode from the position of a larger buffer
+		ByteBuffer buffer = ByteBuffer.allocate(data.length + 10);
+		buffer.position(5);
+		buffer.put(data);
+		buffer.position(5);
+		assertEquals(rows, SwapPageCodec.decode(buffer));
+	}
+
+	@Test
+	public void testSwapFileRegionBoundary() throws Exception {
+		//regions of 1024 blocks of 16 bytes
+		int blockSize = 16;
+		SwapFile swapFile = new SwapFile("SwapFileTest", blockSize, 2);
+		try {
+			swapFile.open();
+			List<SwapFileSegment> segments = new ArrayList<SwapFileSegment>();
+			List<byte[]> contents = new ArrayList<byte[]>();
+			//segments of 10 blocks, one of them spans the end of the first region
+			for (int i = 0; i < 150; i++) {
+				byte[] data = createData(i, 10 * blockSize - (i % blockSize));
+				segments.add(swapFile.write(data));
+				contents.add(data);
+			}
+			boolean spanning = false;
+			for (SwapFileSegment segment : segments) {
+				long[] offsets = segment.getOffsets();
+				if (offsets[0] / (1024 * blockSize) != offsets[offsets.length - 1] / (1024 * blockSize))
+					spanning = true;
+			}
+			assertTrue(spanning, "No segment across region boundary");
+			for (int i = 0; i < segments.size(); i++)
+				assertArrayEquals(contents.get(i), swapFile.read(segments.get(i)), "Segment " + i);
+
+			//reuse freed blocks, not contiguous
+			for (int i = 0; i < segments.size(); i += 2)
+				swapFile.free(segments.get(i));
+			for (int i = 0; i < segments.size(); i += 2) {
+				byte[] data = createData(i + 1000, 15 * blockSize + 1);
+				segments.set(i, swapFile.write(data));
+				contents.set(i, data);
+			}
+			swapFile.close();
+
+			//mapped regions stay readable after close
+			for (int i = 0; i < segments.size(); i++)
+				assertArrayEquals(contents.get(i), swapFile.read(segments.get(i)), "Segment " + i + " after close");
+		} finally {
+			swapFile.dispose();
+		}
+	}
+
+	@Test
+	public void testMatrixPaging() {
+		SerializableMatrix<Serializable> matrix = new SerializableMatrixImpl<Serializable>("SwapFileTest");
+		int rows = 5000;
+		for (int i = 0; i < rows; i++)
+			matrix.addRow(new ArrayList<Serializable>(Arrays.asList(Integer.valueOf(i), "Row " + i)));
+		assertEquals(rows, matrix.getRowCount());
+
+		//change first row and page it out
+		assertTrue(matrix.setRowIndex(0));
+		List<Serializable> row = matrix.getRowData();
+		row.set(1, "Changed");
+		matrix.setRowData(row);
+		assertTrue(matrix.setRowIndex(rows - 1));
+
+		for (int i = rows - 1; i >= 0; i--) {
+			assertTrue(matrix.setRowIndex(i));
+			row = matrix.getRowData();
+			assertEquals(Integer.valueOf(i), row.get(0));
+			assertEquals(i == 0 ? "Changed" : "Row " + i, row.get(1));
+		}
+	}
+
+	private byte[] createData(int seed, int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++)
+			data[i] = (byte) (seed * 31 + i);
+		return data;
+	}
+}
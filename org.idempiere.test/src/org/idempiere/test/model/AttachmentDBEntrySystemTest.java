@@ -0,0 +1,261 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.compiere.model.AttachmentDBEntryLazyDataSource;
+import org.compiere.model.MAttachment;
+import org.compiere.model.MAttachmentEntry;
+import org.compiere.model.MBPartner;
+import org.compiere.model.MClientInfo;
+import org.compiere.model.MPInstance;
+import org.compiere.model.MPInstancePara;
+import org.compiere.model.MStorageProvider;
+import org.compiere.process.ProcessInfo;
+import org.compiere.process.ServerProcessCtl;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.Trx;
+import org.idempiere.test.AbstractTestCase;
+import org.idempiere.test.DictionaryIDs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Attachment entries stored as one AD_AttachmentData record per content
+ */
+public class AttachmentDBEntrySystemTest extends AbstractTestCase {
+
+	/** AD_Process_ID of Migrate Storage Provider */
+	private static final int PROCESS_MIGRATE_STORAGE_PROVIDER = 200117;
+
+	private MStorageProvider provider;
+
+	public AttachmentDBEntrySystemTest() {
+	}
+
+	@BeforeEach
+	public void createProvider() {
+		//	MStorageProvider.get reads outside of the transaction
+		provider = new MStorageProvider(Env.getCtx(), 0, null);
+		provider.setName("AttachmentDBEntrySystemTest");
+		provider.setMethod(MStorageProvider.METHOD_DatabasePerEntry);
+		provider.saveEx();
+	}
+
+	@AfterEach
+	public void deleteProvider() {
+		rollback();
+		provider.deleteEx(true);
+		CacheMgt.get().reset(MStorageProvider.Table_Name);
+	}
+
+	@Test
+	public void testSharedContent() {
+		byte[] data = newContent();
+		MAttachment first = createAttachment(DictionaryIDs.C_BPartner.C_AND_W.id, getTrxName());
+		first.addEntry("first.txt", data);
+		first.saveEx();
+		MAttachment second = createAttachment(DictionaryIDs.C_BPartner.SEED_FARM.id, getTrxName());
+		second.addEntry("second.txt", data);
+		second.addEntry("copy.txt", data);
+		second.saveEx();
+
+		int AD_AttachmentData_ID = getDataID(first.getEntry(0));
+		assertEquals(AD_AttachmentData_ID, getDataID(second.getEntry(0)), "Same content must share the data record");
+		assertEquals(AD_AttachmentData_ID, getDataID(second.getEntry(1)), "Same content must share the data record");
+		assertEquals(3, getRefCount(AD_AttachmentData_ID));
+
+		second.deleteEntry(1);
+		second.saveEx();
+		assertEquals(2, getRefCount(AD_AttachmentData_ID));
+
+		second.deleteEx(true);
+		assertEquals(1, getRefCount(AD_AttachmentData_ID));
+
+		first.deleteEx(true);
+		assertEquals(0, getDataCount(AD_AttachmentData_ID), "Data record without references must be deleted");
+	}
+
+	@Test
+	public void testManifest() {
+		byte[] data1 = newContent();
+		byte[] data2 = newContent();
+		MAttachment attachment = createAttachment(DictionaryIDs.C_BPartner.C_AND_W.id, getTrxName());
+		attachment.addEntry("one.txt", data1);
+		attachment.addEntry("two.txt", data2);
+		attachment.saveEx();
+		assertEquals(MAttachment.MANIFEST, attachment.getTitle());
+
+		MAttachment loaded = new MAttachment(Env.getCtx(), attachment.getAD_Attachment_ID(), getTrxName());
+		assertEquals(2, loaded.getEntryCount());
+		assertEquals("one.txt", loaded.getEntry(0).getName());
+		assertEquals("two.txt", loaded.getEntry(1).getName());
+		assertArrayEquals(data1, loaded.getEntryData(0));
+		assertArrayEquals(data2, loaded.getEntryData(1));
+
+		//	the manifest references the data records only
+		assertTrue(loaded.getBinaryData().length < data1.length + data2.length, "Manifest must not contain the data");
+	}
+
+	@Test
+	public void testLazyData() {
+		byte[] data1 = newContent();
+		byte[] data2 = newContent();
+		MAttachment attachment = createAttachment(DictionaryIDs.C_BPartner.C_AND_W.id, getTrxName());
+		attachment.addEntry("one.txt", data1);
+		attachment.saveEx();
+		int AD_AttachmentData_ID = getDataID(attachment.getEntry(0));
+
+		MAttachment loaded = new MAttachment(Env.getCtx(), attachment.getAD_Attachment_ID(), getTrxName());
+		MAttachmentEntry entry = loaded.getEntry(0);
+		assertTrue(entry.getLazyDataSource() instanceof AttachmentDBEntryLazyDataSource, "Entry data must be loaded on access");
+		assertEquals(AD_AttachmentData_ID, getDataID(entry));
+		assertArrayEquals(data1, entry.getData());
+
+		//	unchanged entries keep their data record
+		loaded.addEntry("two.txt", data2);
+		loaded.saveEx();
+		assertEquals(AD_AttachmentData_ID, getDataID(loaded.getEntry(0)));
+		assertNotEquals(AD_AttachmentData_ID, getDataID(loaded.getEntry(1)));
+		assertEquals(1, getRefCount(AD_AttachmentData_ID));
+
+		//	updated entries release the previous data record
+		loaded.updateEntry(0, data2);
+		loaded.saveEx();
+		assertEquals(getDataID(loaded.getEntry(1)), getDataID(loaded.getEntry(0)));
+		assertEquals(2, getRefCount(getDataID(loaded.getEntry(0))));
+		assertEquals(0, getDataCount(AD_AttachmentData_ID));
+	}
+
+	@Test
+	public void testMigrateLegacyAttachment() {
+		byte[] data1 = newContent();
+		byte[] data2 = newContent();
+		int AD_Client_ID = getAD_Client_ID();
+		int AD_StorageProvider_ID = MClientInfo.get(Env.getCtx(), AD_Client_ID).getAD_StorageProvider_ID();
+
+		//	zip data of the database provider, the process runs in its own transaction
+		MAttachment legacy = new MAttachment(Env.getCtx(), MBPartner.Table_ID, DictionaryIDs.C_BPartner.PATIO.id, null);
+		legacy.setStorageProvider(MStorageProvider.get(Env.getCtx(), 0));
+		legacy.addEntry("one.txt", data1);
+		legacy.addEntry("two.txt", data2);
+		legacy.saveEx();
+		int AD_Attachment_ID = legacy.getAD_Attachment_ID();
+		assertNotEquals(MAttachment.MANIFEST, legacy.getTitle());
+
+		Trx trx = Trx.get(Trx.createTrxName("MigrateStorageProvider"), true);
+		try {
+			MPInstance instance = new MPInstance(Env.getCtx(), PROCESS_MIGRATE_STORAGE_PROVIDER, 0);
+			instance.saveEx();
+			MPInstancePara para = new MPInstancePara(instance, 10);
+			para.setParameter("AD_AllClients_V_ID", AD_Client_ID);
+			para.saveEx();
+			para = new MPInstancePara(instance, 20);
+			para.setParameter("AD_StorageProvider_ID", provider.getAD_StorageProvider_ID());
+			para.saveEx();
+			para = new MPInstancePara(instance, 30);
+			para.setParameter("IsMigrateAttachment", true);
+			para.saveEx();
+			para = new MPInstancePara(instance, 40);
+			para.setParameter("IsMigrateData", true);
+			para.saveEx();
+			para = new MPInstancePara(instance, 50);
+			para.setParameter("Record_ID", AD_Attachment_ID);
+			para.setP_Number_To(new BigDecimal(AD_Attachment_ID));
+			para.saveEx();
+
+			ProcessInfo pi = new ProcessInfo("MigrateStorageProvider", PROCESS_MIGRATE_STORAGE_PROVIDER);
+			pi.setAD_PInstance_ID(instance.getAD_PInstance_ID());
+			pi.setAD_Client_ID(AD_Client_ID);
+			pi.setAD_User_ID(getAD_User_ID());
+			ServerProcessCtl.process(pi, trx, false);
+			assertFalse(pi.isError(), pi.getSummary());
+
+			MAttachment migrated = new MAttachment(Env.getCtx(), AD_Attachment_ID, null);
+			assertEquals(provider.getAD_StorageProvider_ID(), migrated.getAD_StorageProvider_ID());
+			assertEquals(MAttachment.MANIFEST, migrated.getTitle());
+			assertEquals(2, migrated.getEntryCount());
+			assertEquals("one.txt", migrated.getEntry(0).getName());
+			assertEquals("two.txt", migrated.getEntry(1).getName());
+			assertTrue(migrated.getEntry(0).getLazyDataSource() instanceof AttachmentDBEntryLazyDataSource);
+			assertArrayEquals(data1, migrated.getEntryData(0));
+			assertArrayEquals(data2, migrated.getEntryData(1));
+			int AD_AttachmentData_ID = getDataID(migrated.getEntry(0));
+			assertEquals(1, getRefCount(AD_AttachmentData_ID));
+
+			migrated.deleteEx(true);
+			assertEquals(0, getDataCount(AD_AttachmentData_ID));
+		} finally {
+			trx.close();
+			MClientInfo clientInfo = MClientInfo.getCopy(Env.getCtx(), AD_Client_ID, null);
+			if (clientInfo.getAD_StorageProvider_ID() != AD_StorageProvider_ID) {
+				clientInfo.setAD_StorageProvider_ID(AD_StorageProvider_ID);
+				clientInfo.saveEx();
+				CacheMgt.get().reset(MClientInfo.Table_Name);
+			}
+			DB.executeUpdateEx("DELETE FROM AD_Attachment WHERE AD_Attachment_ID=?", new Object[] {AD_Attachment_ID}, null);
+		}
+	}
+
+	/**
+	 * @param Record_ID C_BPartner_ID
+	 * @param trxName
+	 * @return new attachment of the test provider
+	 */
+	private MAttachment createAttachment(int Record_ID, String trxName) {
+		MAttachment attachment = new MAttachment(Env.getCtx(), MBPartner.Table_ID, Record_ID, trxName);
+		attachment.setStorageProvider(provider);
+		return attachment;
+	}
+
+	/**
+	 * @return content not stored by previous runs
+	 */
+	private byte[] newContent() {
+		return ("AttachmentDBEntrySystemTest " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private int getDataID(MAttachmentEntry entry) {
+		assertTrue(entry.getLazyDataSource() instanceof AttachmentDBEntryLazyDataSource);
+		return ((AttachmentDBEntryLazyDataSource) entry.getLazyDataSource()).getAD_AttachmentData_ID();
+	}
+
+	private int getRefCount(int AD_AttachmentData_ID) {
+		return DB.getSQLValueEx(getTrxName(), "SELECT RefCount FROM AD_AttachmentData WHERE AD_AttachmentData_ID=?", AD_AttachmentData_ID);
+	}
+
+	private int getDataCount(int AD_AttachmentData_ID) {
+		return DB.getSQLValueEx(getTrxName(), "SELECT COUNT(*) FROM AD_AttachmentData WHERE AD_AttachmentData_ID=?", AD_AttachmentData_ID);
+	}
+}
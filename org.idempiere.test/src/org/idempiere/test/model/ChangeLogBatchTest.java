@@ -0,0 +1,200 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.compiere.model.MChangeLog;
+import org.compiere.model.MColumn;
+import org.compiere.model.MMessage;
+import org.compiere.model.MSession;
+import org.compiere.model.Query;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.Trx;
+import org.compiere.util.TrxEventListener;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Change log entries of a transaction inserted before the commit
+ */
+public class ChangeLogBatchTest extends AbstractTestCase {
+
+	private static final String PREFIX = "ChangeLogBatchTest_";
+
+	private Trx trx;
+	private MSession session;
+
+	public ChangeLogBatchTest() {
+	}
+
+	@BeforeEach
+	public void createTrx() {
+		trx = Trx.get(Trx.createTrxName("ChangeLogBatchTest"), true);
+		trx.start();
+		session = MSession.get(Env.getCtx());
+		if (session == null)
+			session = MSession.create(Env.getCtx());
+	}
+
+	@AfterEach
+	public void closeTrx() {
+		trx.rollback();
+		trx.close();
+		DB.executeUpdateEx("DELETE FROM AD_ChangeLog WHERE NewValue LIKE ?", new Object[] {PREFIX + "%"}, null);
+	}
+
+	@Test
+	public void testTrxEventCallbacks() throws Exception {
+		List<String> events = new ArrayList<String>();
+		List<Savepoint> savepoints = new ArrayList<Savepoint>();
+		TrxEventListener listener = new TrxEventListener() {
+			@Override
+			public void afterCommit(Trx trx, boolean success) {
+				events.add("afterCommit " + success);
+			}
+			@Override
+			public void afterRollback(Trx trx, boolean success) {
+				events.add("afterRollback " + success);
+			}
+			@Override
+			public void afterClose(Trx trx) {
+				events.add("afterClose");
+			}
+			@Override
+			public void beforeCommit(Trx trx) {
+				events.add("beforeCommit");
+			}
+			@Override
+			public void afterSetSavepoint(Trx trx, Savepoint savepoint) {
+				events.add("afterSetSavepoint");
+				savepoints.add(savepoint);
+			}
+			@Override
+			public void afterReleaseSavepoint(Trx trx, Savepoint savepoint) {
+				events.add("afterReleaseSavepoint");
+				savepoints.add(savepoint);
+			}
+			@Override
+			public void afterRollbackToSavepoint(Trx trx, Savepoint savepoint) {
+				events.add("afterRollbackToSavepoint");
+				savepoints.add(savepoint);
+			}
+		};
+		trx.addTrxEventListener(listener);
+		try {
+			Savepoint sp1 = trx.setSavepoint(null);
+			trx.releaseSavepoint(sp1);
+			Savepoint sp2 = trx.setSavepoint(null);
+			trx.rollback(sp2);
+			trx.commit(true);
+			trx.rollback();
+
+			assertEquals(List.of("afterSetSavepoint", "afterReleaseSavepoint", "afterSetSavepoint", "afterRollbackToSavepoint",
+				"beforeCommit", "afterCommit true", "afterRollback true"), events);
+			assertEquals(List.of(sp1, sp1, sp2, sp2), savepoints);
+		} finally {
+			trx.removeTrxEventListener(listener);
+		}
+	}
+
+	@Test
+	public void testFlushOnCommit() {
+		String value = changeLog();
+		assertEquals(0, getCount(value, trx.getTrxName()), "Change log inserted before commit");
+
+		assertTrue(trx.commit());
+		assertEquals(1, getCount(value, null), "Change log not inserted by commit");
+
+		MChangeLog cl = new Query(Env.getCtx(), MChangeLog.Table_Name, "NewValue=?", null)
+			.setParameters(value)
+			.first();
+		assertNotNull(cl);
+		assertEquals(session.getAD_Session_ID(), cl.getAD_Session_ID());
+		assertEquals(MMessage.Table_ID, cl.getAD_Table_ID());
+		assertEquals(MColumn.getColumn_ID(MMessage.Table_Name, MMessage.COLUMNNAME_MsgText), cl.getAD_Column_ID());
+		assertEquals(getAD_Client_ID(), cl.getAD_Client_ID());
+		assertEquals("Old", cl.getOldValue());
+		assertEquals(MChangeLog.EVENTCHANGELOG_Update, cl.getEventChangeLog());
+		assertEquals(trx.getTrxName(), cl.getTrxName());
+	}
+
+	@Test
+	public void testDiscardOnRollback() {
+		String rolledBack = changeLog();
+		trx.rollback();
+		String committed = changeLog();
+		trx.commit();
+
+		assertEquals(0, getCount(rolledBack, null), "Change log of rolled back transaction inserted");
+		assertEquals(1, getCount(committed, null), "Change log after rollback not inserted");
+	}
+
+	@Test
+	public void testSavepointRollback() throws Exception {
+		//savepoint before the first entry of the transaction
+		Savepoint sp0 = trx.setSavepoint(null);
+		String beforeFirst = changeLog();
+		trx.rollback(sp0);
+
+		String kept = changeLog();
+		Savepoint sp1 = trx.setSavepoint(null);
+		String rolledBack = changeLog();
+		trx.rollback(sp1);
+		Savepoint sp2 = trx.setSavepoint(null);
+		String released = changeLog();
+		trx.releaseSavepoint(sp2);
+		trx.commit();
+
+		assertEquals(0, getCount(beforeFirst, null), "Change log rolled back to savepoint before the first entry");
+		assertEquals(1, getCount(kept, null), "Change log before savepoint");
+		assertEquals(0, getCount(rolledBack, null), "Change log rolled back to savepoint");
+		assertEquals(1, getCount(released, null), "Change log of released savepoint");
+	}
+
+	/**
+	 * Log change of AD_Message.MsgText in the transaction
+	 * @return new value
+	 */
+	private String changeLog() {
+		String value = PREFIX + UUID.randomUUID();
+		MChangeLog cl = session.changeLog(trx.getTrxName(), 0, MMessage.Table_ID,
+			MColumn.getColumn_ID(MMessage.Table_Name, MMessage.COLUMNNAME_MsgText), 100,
+			getAD_Client_ID(), 0, "Old", value, MChangeLog.EVENTCHANGELOG_Update);
+		assertNotNull(cl, "AD_Message not logged");
+		return value;
+	}
+
+	private int getCount(String value, String trxName) {
+		return DB.getSQLValueEx(trxName, "SELECT COUNT(*) FROM AD_ChangeLog WHERE NewValue=?", value);
+	}
+}
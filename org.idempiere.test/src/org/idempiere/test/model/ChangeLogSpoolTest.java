@@ -0,0 +1,95 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.compiere.model.ChangeLogSpool;
+import org.compiere.model.MChangeLog;
+import org.compiere.model.MColumn;
+import org.compiere.model.MMessage;
+import org.compiere.model.MSession;
+import org.compiere.model.Query;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Change log entries spooled after the commit by {@link ChangeLogSpool}
+ */
+public class ChangeLogSpoolTest extends AbstractTestCase {
+
+	private static final String PREFIX = "ChangeLogSpoolTest_";
+
+	public ChangeLogSpoolTest() {
+	}
+
+	@Test
+	public void testDrainAndDedupe() {
+		MSession session = MSession.get(Env.getCtx());
+		if (session == null)
+			session = MSession.create(Env.getCtx());
+		int AD_Column_ID = MColumn.getColumn_ID(MMessage.Table_Name, MMessage.COLUMNNAME_MsgText);
+		List<MChangeLog> entries = new ArrayList<MChangeLog>();
+		for (int i = 0; i < 2; i++) {
+			entries.add(new MChangeLog(Env.getCtx(), 0, null, session.getAD_Session_ID(),
+				MMessage.Table_ID, AD_Column_ID, 100 + i, getAD_Client_ID(), 0,
+				"Old", PREFIX + UUID.randomUUID(), MChangeLog.EVENTCHANGELOG_Update));
+		}
+		try {
+			ChangeLogSpool.write(entries);
+			ChangeLogSpool.drain();
+			for (MChangeLog entry : entries) {
+				MChangeLog cl = new Query(Env.getCtx(), MChangeLog.Table_Name, "NewValue=?", null)
+					.setParameters(entry.getNewValue())
+					.first();
+				assertNotNull(cl, "Spooled change log not inserted");
+				assertEquals(entry.getAD_ChangeLog_UU(), cl.getAD_ChangeLog_UU());
+				assertEquals(entry.getAD_ChangeLog_ID(), cl.getAD_ChangeLog_ID());
+				assertEquals(session.getAD_Session_ID(), cl.getAD_Session_ID());
+				assertEquals(MMessage.Table_ID, cl.getAD_Table_ID());
+				assertEquals(AD_Column_ID, cl.getAD_Column_ID());
+				assertEquals(entry.getRecord_ID(), cl.getRecord_ID());
+				assertEquals(getAD_Client_ID(), cl.getAD_Client_ID());
+				assertEquals(getAD_User_ID(), cl.getCreatedBy());
+				assertEquals("Old", cl.getOldValue());
+				assertEquals(MChangeLog.EVENTCHANGELOG_Update, cl.getEventChangeLog());
+			}
+
+			//file inserted but not deleted by a stopped server, inserted again after restart
+			ChangeLogSpool.write(entries);
+			ChangeLogSpool.drain();
+			for (MChangeLog entry : entries) {
+				int count = DB.getSQLValueEx(null, "SELECT COUNT(*) FROM AD_ChangeLog WHERE NewValue=?", entry.getNewValue());
+				assertEquals(1, count, "Spooled change log inserted twice");
+			}
+		} finally {
+			DB.executeUpdateEx("DELETE FROM AD_ChangeLog WHERE NewValue LIKE ?", new Object[] {PREFIX + "%"}, null);
+		}
+	}
+}
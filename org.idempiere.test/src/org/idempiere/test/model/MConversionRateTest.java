@@ -0,0 +1,97 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import org.compiere.model.MConversionRate;
+import org.compiere.util.Env;
+import org.compiere.util.TimeUtil;
+import org.idempiere.test.AbstractTestCase;
+import org.idempiere.test.ConversionRateHelper;
+import org.idempiere.test.DictionaryIDs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+/**
+ * Test {@link MConversionRate#getRate(int, int, Timestamp, int, int, int)} with cached rates
+ */
+public class MConversionRateTest extends AbstractTestCase {
+
+	public MConversionRateTest() {
+	}
+
+	@Test
+	@ResourceLock(value = MConversionRate.Table_Name)
+	public void testGetRate() {
+		int from = DictionaryIDs.C_Currency.GBP.id;
+		int to = DictionaryIDs.C_Currency.AUD.id;
+		int type = DictionaryIDs.C_ConversionType.COMPANY.id;
+		int client = Env.getAD_Client_ID(Env.getCtx());
+		int org = DictionaryIDs.AD_Org.HQ.id;
+		Timestamp date = TimeUtil.getDay(1971, 3, 5);
+		Timestamp nextDay = TimeUtil.addDays(date, 1);
+
+		assertNull(MConversionRate.getRate(from, to, date, type, client, org));
+
+		MConversionRate clientRate = createConversionRate(from, to, type, date, TimeUtil.addDays(date, 10), new BigDecimal("2"), 0);
+		MConversionRate orgRate = null;
+		try {
+			//cache is reset when a rate is saved
+			assertEquals(0, new BigDecimal("2").compareTo(MConversionRate.getRate(from, to, date, type, client, org)));
+			assertEquals(0, new BigDecimal("0.5").compareTo(MConversionRate.getRate(to, from, date, type, client, org)));
+			assertNull(MConversionRate.getRate(from, to, TimeUtil.addDays(date, -1), type, client, org));
+			assertNull(MConversionRate.getRate(from, to, TimeUtil.addDays(date, 11), type, client, org));
+
+			//organization rate before client rate
+			orgRate = createConversionRate(from, to, type, nextDay, nextDay, new BigDecimal("3"), org);
+			assertEquals(0, new BigDecimal("3").compareTo(MConversionRate.getRate(from, to, nextDay, type, client, org)));
+			assertEquals(0, new BigDecimal("2").compareTo(MConversionRate.getRate(from, to, nextDay, type, client, 0)));
+			assertEquals(0, new BigDecimal("2").compareTo(MConversionRate.getRate(from, to, date, type, client, org)));
+			assertEquals(0, new BigDecimal("2").compareTo(MConversionRate.getRate(from, to, TimeUtil.addDays(date, 2), type, client, org)));
+		} finally {
+			if (orgRate != null)
+				ConversionRateHelper.deleteConversionRate(orgRate);
+			ConversionRateHelper.deleteConversionRate(clientRate);
+		}
+
+		//cache is reset when a rate is deleted
+		assertNull(MConversionRate.getRate(from, to, date, type, client, org));
+	}
+
+	private MConversionRate createConversionRate(int from, int to, int type, Timestamp validFrom, Timestamp validTo, BigDecimal rate, int AD_Org_ID) {
+		MConversionRate cr = new MConversionRate(Env.getCtx(), 0, null);
+		cr.setAD_Org_ID(AD_Org_ID);
+		cr.setC_Currency_ID(from);
+		cr.setC_Currency_ID_To(to);
+		cr.setC_ConversionType_ID(type);
+		cr.setValidFrom(validFrom);
+		cr.setValidTo(validTo);
+		cr.setMultiplyRate(rate);
+		cr.saveEx();
+		return cr;
+	}
+}
@@ -0,0 +1,289 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.compiere.acct.DocManager;
+import org.compiere.model.MAcctSchema;
+import org.compiere.model.MFactAcct;
+import org.compiere.model.MPInstance;
+import org.compiere.model.MPInstancePara;
+import org.compiere.model.MPayment;
+import org.compiere.model.MPeriod;
+import org.compiere.model.MReportCube;
+import org.compiere.model.SystemIDs;
+import org.compiere.process.DocAction;
+import org.compiere.process.DocumentEngine;
+import org.compiere.process.ProcessInfo;
+import org.compiere.process.ServerProcessCtl;
+import org.compiere.report.MReport;
+import org.compiere.report.MReportColumn;
+import org.compiere.report.MReportColumnSet;
+import org.compiere.report.MReportLine;
+import org.compiere.report.MReportLineSet;
+import org.compiere.report.MReportSource;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.TimeUtil;
+import org.idempiere.test.AbstractTestCase;
+import org.idempiere.test.DictionaryIDs;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link MReportCube}
+ */
+public class MReportCubeTest extends AbstractTestCase {
+
+	public MReportCubeTest() {
+	}
+
+	@Test
+	public void testIsCovered() {
+		MReportCube cube = new MReportCube(Env.getCtx(), 0, null);
+		cube.setIsProductDim(true);
+		cube.setIsBPartnerDim(false);
+
+		assertTrue(cube.isCovered(null));
+		assertTrue(cube.isCovered("Account_ID IN (1,2) AND PostingType='A'"));
+		assertTrue(cube.isCovered("M_Product_ID=100"));
+		assertTrue(cube.isCovered("PostingType='Record_ID'"));
+		assertTrue(cube.isCovered("EXISTS (SELECT C_ElementValue_ID FROM C_ElementValue WHERE C_ElementValue_ID = fa.Account_ID AND AccountType NOT IN ('R', 'E'))"));
+		//dimension not in cube
+		assertFalse(cube.isCovered("C_BPartner_ID=100"));
+		//column not in Fact_Acct_Summary
+		assertFalse(cube.isCovered("Record_ID=100"));
+		assertFalse(cube.isCovered("Account_ID=1 AND Description='x'"));
+	}
+
+	@Test
+	public void testSummaryInSync() {
+		//the cube must be committed, the active cubes of the postings are loaded outside of the transaction
+		MReportCube cube = new MReportCube(Env.getCtx(), 0, null);
+		cube.setName("MReportCubeTest_" + System.currentTimeMillis());
+		cube.setC_Calendar_ID(DictionaryIDs.C_Calendar.GARDENWORLD_CALENDAR.id);
+		cube.saveEx();
+		CacheMgt.get().reset(MReportCube.Table_Name);
+		try {
+			cube = new MReportCube(Env.getCtx(), cube.getPA_ReportCube_ID(), getTrxName());
+			cube.update(true, true);
+			assertEquals(0, getOutOfSyncCount(cube), "Summary after build");
+
+			MAcctSchema[] ass = MAcctSchema.getClientAcctSchema(Env.getCtx(), getAD_Client_ID());
+			MPayment payment = createPayment();
+			assertNull(DocManager.postDocument(ass, MPayment.Table_ID, payment.get_ID(), false, false, getTrxName()));
+			assertEquals(0, getOutOfSyncCount(cube), "Summary after post");
+
+			assertNull(DocManager.postDocument(ass, MPayment.Table_ID, payment.get_ID(), true, true, getTrxName()));
+			assertEquals(0, getOutOfSyncCount(cube), "Summary after repost");
+
+			MFactAcct.deleteEx(MPayment.Table_ID, payment.get_ID(), getTrxName());
+			assertEquals(0, getOutOfSyncCount(cube), "Summary after delete");
+			assertTrue(getSummaryCount(cube) > getGroupCount(cube), "No delta rows added by the postings");
+
+			//incremental update merges the delta rows of the changed periods
+			cube.load(getTrxName());
+			cube.update(false, true);
+			assertEquals(0, getOutOfSyncCount(cube), "Summary after incremental update");
+			assertEquals(getGroupCount(cube), getSummaryCount(cube), "Delta rows not merged by incremental update");
+		} finally {
+			rollback();
+			cube = new MReportCube(Env.getCtx(), cube.getPA_ReportCube_ID(), null);
+			cube.deleteEx(true);
+			CacheMgt.get().reset(MReportCube.Table_Name);
+		}
+	}
+
+	@Test
+	public void testFinReportCube() {
+		MAcctSchema[] ass = MAcctSchema.getClientAcctSchema(Env.getCtx(), getAD_Client_ID());
+		MPayment payment = createPayment();
+		assertNull(DocManager.postDocument(ass, MPayment.Table_ID, payment.get_ID(), false, false, getTrxName()));
+		int C_Period_ID = MPeriod.get(Env.getCtx(), payment.getDateAcct(), payment.getAD_Org_ID(), getTrxName()).getC_Period_ID();
+
+		MReportCube cube = new MReportCube(Env.getCtx(), 0, getTrxName());
+		cube.setName("MReportCubeTest_" + System.currentTimeMillis());
+		cube.setC_Calendar_ID(DictionaryIDs.C_Calendar.GARDENWORLD_CALENDAR.id);
+		cube.saveEx();
+
+		MReportColumnSet columnSet = new MReportColumnSet(Env.getCtx(), 0, getTrxName());
+		columnSet.setName("MReportCubeTest");
+		columnSet.saveEx();
+		createColumn(columnSet, 10, MReportColumn.PAPERIODTYPE_Period);
+		createColumn(columnSet, 20, MReportColumn.PAPERIODTYPE_Total);
+
+		MReportLineSet lineSet = new MReportLineSet(Env.getCtx(), 0, getTrxName());
+		lineSet.setName("MReportCubeTest");
+		lineSet.saveEx();
+		MReportLine line = new MReportLine(Env.getCtx(), 0, getTrxName());
+		line.setPA_ReportLineSet_ID(lineSet.getPA_ReportLineSet_ID());
+		line.setName("Checking In-Transfer");
+		line.setSeqNo(10);
+		line.setLineType(MReportLine.LINETYPE_SegmentValue);
+		line.setIsPrinted(true);
+		line.saveEx();
+		MReportSource source = new MReportSource(Env.getCtx(), 0, getTrxName());
+		source.setPA_ReportLine_ID(line.getPA_ReportLine_ID());
+		source.setElementType(MReportSource.ELEMENTTYPE_Account);
+		source.setC_ElementValue_ID(DictionaryIDs.C_ElementValue.CHECKING_IN_TRANSFER.id);
+		source.saveEx();
+
+		MReport report = new MReport(Env.getCtx(), 0, getTrxName());
+		report.setName("MReportCubeTest");
+		report.setC_AcctSchema_ID(DictionaryIDs.C_AcctSchema.DOLLAR.id);
+		report.setC_Calendar_ID(DictionaryIDs.C_Calendar.GARDENWORLD_CALENDAR.id);
+		report.setPA_ReportColumnSet_ID(columnSet.getPA_ReportColumnSet_ID());
+		report.setPA_ReportLineSet_ID(lineSet.getPA_ReportLineSet_ID());
+		report.setExcludeAdjustmentPeriods(MReport.EXCLUDEADJUSTMENTPERIODS_No);
+		report.saveEx();
+
+		List<List<Object>> factLines = runFinReport(report, C_Period_ID, 0);
+		List<List<Object>> cubeLines = runFinReport(report, C_Period_ID, cube.getPA_ReportCube_ID());
+		assertEquals(1, factLines.size(), "Report lines");
+		assertTrue(((BigDecimal)factLines.get(0).get(1)).signum() != 0, "Payment not in report period");
+		assertEquals(factLines, cubeLines, "Report lines of the cube");
+	}
+
+	private void createColumn(MReportColumnSet columnSet, int seqNo, String periodType) {
+		MReportColumn column = new MReportColumn(Env.getCtx(), 0, getTrxName());
+		column.setPA_ReportColumnSet_ID(columnSet.getPA_ReportColumnSet_ID());
+		column.setName(periodType);
+		column.setSeqNo(seqNo);
+		column.setIsPrinted(true);
+		column.setColumnType(MReportColumn.COLUMNTYPE_RelativePeriod);
+		column.setPAAmountType(MReportColumn.PAAMOUNTTYPE_BalanceAccountedSign);
+		column.setPAPeriodType(periodType);
+		column.setRelativePeriod(BigDecimal.ZERO);
+		column.setPostingType(MReportColumn.POSTINGTYPE_Actual);
+		column.saveEx();
+	}
+
+	/**
+	 * Run the financial report
+	 * @param report
+	 * @param C_Period_ID
+	 * @param PA_ReportCube_ID report cube, 0 to report from Fact_Acct
+	 * @return line, Col_0 and Col_1 of the report lines
+	 */
+	private List<List<Object>> runFinReport(MReport report, int C_Period_ID, int PA_ReportCube_ID) {
+		MPInstance instance = new MPInstance(Env.getCtx(), SystemIDs.PROCESS_RPT_FINREPORT, report.getPA_Report_ID());
+		instance.saveEx();
+		MPInstancePara para = new MPInstancePara(instance, 10);
+		para.setParameter("C_Period_ID", C_Period_ID);
+		para.saveEx();
+		if (PA_ReportCube_ID > 0) {
+			para = new MPInstancePara(instance, 20);
+			para.setParameter("PA_ReportCube_ID", PA_ReportCube_ID);
+			para.saveEx();
+		}
+
+		ProcessInfo pi = new ProcessInfo("FinReport", SystemIDs.PROCESS_RPT_FINREPORT);
+		pi.setAD_PInstance_ID(instance.getAD_PInstance_ID());
+		pi.setRecord_ID(report.getPA_Report_ID());
+		pi.setAD_Client_ID(getAD_Client_ID());
+		pi.setAD_User_ID(getAD_User_ID());
+		pi.setTransactionName(getTrxName());
+		//only the report lines are compared, skip the print format
+		pi.setTransientObject(report);
+		pi.setSerializableObject(report);
+		ServerProcessCtl.process(pi, getTrx(), false);
+		assertFalse(pi.isError(), pi.getSummary());
+
+		List<List<Object>> lines = DB.getSQLArrayObjectsEx(getTrxName(),
+			"SELECT PA_ReportLine_ID, Col_0, Col_1 FROM T_Report WHERE AD_PInstance_ID=? ORDER BY PA_ReportLine_ID",
+			instance.getAD_PInstance_ID());
+		for (List<Object> line : lines) {
+			for (int i = 0; i < line.size(); i++) {
+				if (line.get(i) instanceof BigDecimal)
+					line.set(i, ((BigDecimal)line.get(i)).stripTrailingZeros());
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * @param cube
+	 * @return number of groups where the summary of the cube differs from Fact_Acct
+	 */
+	private int getOutOfSyncCount(MReportCube cube) {
+		String sql = "SELECT COUNT(*) FROM (SELECT x.AD_Org_ID FROM ("
+			+ "SELECT f.AD_Org_ID, f.C_AcctSchema_ID, f.Account_ID, f.PostingType, f.C_Period_ID, f.AmtAcctDr, f.AmtAcctCr "
+			+ "FROM Fact_Acct f INNER JOIN C_Period p ON (f.C_Period_ID=p.C_Period_ID) INNER JOIN C_Year y ON (p.C_Year_ID=y.C_Year_ID) "
+			+ "WHERE y.C_Calendar_ID=? AND f.AD_Client_ID=? "
+			+ "UNION ALL SELECT s.AD_Org_ID, s.C_AcctSchema_ID, s.Account_ID, s.PostingType, s.C_Period_ID, -s.AmtAcctDr, -s.AmtAcctCr "
+			+ "FROM Fact_Acct_Summary s WHERE s.PA_ReportCube_ID=?) x "
+			+ "GROUP BY x.AD_Org_ID, x.C_AcctSchema_ID, x.Account_ID, x.PostingType, x.C_Period_ID "
+			+ "HAVING SUM(x.AmtAcctDr)<>0 OR SUM(x.AmtAcctCr)<>0) d";
+		return DB.getSQLValueEx(getTrxName(), sql, cube.getC_Calendar_ID(), cube.getAD_Client_ID(), cube.getPA_ReportCube_ID());
+	}
+
+	/**
+	 * @param cube
+	 * @return number of summary rows of the cube
+	 */
+	private int getSummaryCount(MReportCube cube) {
+		return DB.getSQLValueEx(getTrxName(), "SELECT COUNT(*) FROM Fact_Acct_Summary WHERE PA_ReportCube_ID=?", cube.getPA_ReportCube_ID());
+	}
+
+	/**
+	 * @param cube
+	 * @return number of distinct groups in the summary of the cube
+	 */
+	private int getGroupCount(MReportCube cube) {
+		StringBuilder columns = new StringBuilder("AD_Org_ID, C_AcctSchema_ID, Account_ID, PostingType, GL_Budget_ID, C_Period_ID");
+		for (String dimension : cube.getDimensionColumns())
+			columns.append(", ").append(dimension);
+		String sql = "SELECT COUNT(*) FROM (SELECT DISTINCT " + columns + " FROM Fact_Acct_Summary WHERE PA_ReportCube_ID=?) d";
+		return DB.getSQLValueEx(getTrxName(), sql, cube.getPA_ReportCube_ID());
+	}
+
+	private MPayment createPayment() {
+		Timestamp today = TimeUtil.getDay(System.currentTimeMillis());
+		MPayment payment = new MPayment(Env.getCtx(), 0, getTrxName());
+		payment.setC_BPartner_ID(DictionaryIDs.C_BPartner.C_AND_W.id);
+		payment.setC_DocType_ID(true);
+		payment.setDocStatus(DocAction.STATUS_Drafted);
+		payment.setDocAction(DocAction.ACTION_Complete);
+		payment.setPayAmt(Env.ONE);
+		payment.setTenderType(MPayment.TENDERTYPE_Check);
+		payment.setC_BankAccount_ID(DictionaryIDs.C_BankAccount.ACCOUNT_1234.id);
+		payment.setC_Currency_ID(DictionaryIDs.C_Currency.USD.id);
+		payment.setDateTrx(today);
+		payment.setDateAcct(today);
+		payment.saveEx();
+
+		//posted by the test
+		payment.set_Attribute(DocumentEngine.DOCUMENT_POST_IMMEDIATE_AFTER_COMPLETE, Boolean.FALSE);
+		assertTrue(payment.processIt(DocAction.ACTION_Complete), payment.getProcessMsg());
+		payment.saveEx();
+		assertEquals(DocAction.STATUS_Completed, payment.getDocStatus());
+		return payment;
+	}
+}
@@ -0,0 +1,137 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import javax.script.ScriptEngine;
+
+import org.compiere.model.MRule;
+import org.compiere.model.PO;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.Env;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Execution of JSR 223 rules with the engine of the current thread ({@link MRule#getThreadScriptEngine()})
+ */
+public class MRuleTest extends AbstractTestCase {
+
+	public MRuleTest() {
+	}
+
+	@Test
+	public void testReentrantExecution() throws Exception {
+		MRule rule = createRule("A_Callback.run(); return A_Value");
+		String[] innerResult = new String[1];
+
+		ScriptEngine outer = rule.getThreadScriptEngine();
+		assertNotNull(outer, "Engine not found: " + rule.getEngineName());
+		outer.put("A_Value", "outer");
+		outer.put("A_Callback", (Runnable) () -> {
+			//same rule executed again by the same thread, before the outer execution is finished
+			ScriptEngine inner = rule.getThreadScriptEngine();
+			assertNotSame(outer, inner);
+			inner.put("A_Value", "inner");
+			inner.put("A_Callback", (Runnable) () -> {});
+			try {
+				innerResult[0] = String.valueOf(rule.eval(inner));
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		assertEquals("outer", rule.eval(outer), "Bindings of the outer execution lost");
+		assertEquals("inner", innerResult[0]);
+
+		//thread engine is reused after the outer execution
+		ScriptEngine next = rule.getThreadScriptEngine();
+		assertSame(outer, next);
+		next.put("A_Value", "next");
+		next.put("A_Callback", (Runnable) () -> {});
+		assertEquals("next", rule.eval(next));
+	}
+
+	@Test
+	public void testReleaseWithoutEval() throws Exception {
+		MRule rule = createRule("return A_Value");
+
+		ScriptEngine first = rule.getThreadScriptEngine();
+		assertNotNull(first, "Engine not found: " + rule.getEngineName());
+		first.put("A_Value", "first");
+		//setup failed before eval
+		rule.releaseThreadScriptEngine(first);
+		assertNull(first.get("A_Value"));
+
+		ScriptEngine second = rule.getThreadScriptEngine();
+		assertSame(first, second, "Thread engine still marked running");
+		second.put("A_Value", "second");
+		assertEquals("second", rule.eval(second));
+		//release after eval is ignored
+		rule.releaseThreadScriptEngine(second);
+	}
+
+	@Test
+	public void testCompiledScriptDroppedOnReset() throws Exception {
+		MRule rule = createRule("return A_Value");
+
+		ScriptEngine first = rule.getThreadScriptEngine();
+		assertNotNull(first, "Engine not found: " + rule.getEngineName());
+		first.put("A_Value", "first");
+		assertEquals("first", rule.eval(first));
+
+		ScriptEngine second = rule.getThreadScriptEngine();
+		assertSame(first, second);
+		second.put("A_Value", "second");
+		assertEquals("second", rule.eval(second));
+
+		//changed or deleted rule
+		CacheMgt.get().reset(MRule.Table_Name, rule.getAD_Rule_ID());
+		ScriptEngine third = rule.getThreadScriptEngine();
+		assertNotSame(first, third);
+		third.put("A_Value", "third");
+		assertEquals("third", rule.eval(third));
+	}
+
+	private MRule createRule(String script) {
+		MRule rule = new MRule(Env.getCtx(), 0, getTrxName());
+		//system level table
+		rule.set_ValueNoCheck(MRule.COLUMNNAME_AD_Client_ID, 0);
+		rule.setAD_Org_ID(0);
+		rule.setValue("groovy:MRuleTest_" + System.currentTimeMillis());
+		rule.setName(rule.getValue());
+		rule.setRuleType(MRule.RULETYPE_JSR223ScriptingAPIs);
+		rule.setEventType(MRule.EVENTTYPE_ModelValidatorTableEvent);
+		rule.setScript(script);
+		try {
+			PO.setCrossTenantSafe();
+			rule.saveEx();
+		} finally {
+			PO.clearCrossTenantSafe();
+		}
+		return rule;
+	}
+}
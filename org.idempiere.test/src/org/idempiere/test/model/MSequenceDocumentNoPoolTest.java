@@ -0,0 +1,88 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.compiere.model.MSequence;
+import org.compiere.model.MSysConfig;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.Env;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+/**
+ * Reserved DocumentNo pools of {@link MSequence} (MSEQUENCE_DOCUMENTNO_POOL_SIZE)
+ */
+public class MSequenceDocumentNoPoolTest extends AbstractTestCase {
+
+	public MSequenceDocumentNoPoolTest() {
+	}
+
+	@Test
+	@ResourceLock(value = MSysConfig.MSEQUENCE_DOCUMENTNO_POOL_SIZE)
+	public void testChangeCurrentNext() {
+		//the pool reserve numbers in a separate transaction, the sequence and configuration must be committed
+		MSequence seq = new MSequence(Env.getCtx(), getAD_Client_ID(), "Test_DocumentNoPool_" + System.currentTimeMillis(), 1000, null);
+		seq.saveEx();
+		MSequence other = new MSequence(Env.getCtx(), getAD_Client_ID(), "Test_DocumentNoPool_Other_" + System.currentTimeMillis(), 1000, null);
+		other.saveEx();
+		MSysConfig sysConfig = new MSysConfig(Env.getCtx(), 0, null);
+		sysConfig.setName(MSysConfig.MSEQUENCE_DOCUMENTNO_POOL_SIZE);
+		sysConfig.setValue(seq.getName() + "=10," + other.getName() + "=10");
+		sysConfig.setConfigurationLevel(MSysConfig.CONFIGURATIONLEVEL_Client);
+		try {
+			sysConfig.saveEx();
+			CacheMgt.get().reset(MSysConfig.Table_Name);
+			assertEquals(10, MSequence.getDocumentNoPoolSize(seq));
+
+			assertEquals("1000", MSequence.getDocumentNoFromSeq(seq, null, null));
+			assertEquals("1001", MSequence.getDocumentNoFromSeq(seq, null, null));
+			assertEquals("1000", MSequence.getDocumentNoFromSeq(other, null, null));
+
+			//the pool of 10 is reserved from AD_Sequence
+			seq.load((String)null);
+			assertEquals(1010, seq.getCurrentNext());
+
+			seq.setCurrentNext(5000);
+			seq.saveEx();
+			CacheMgt.get().reset(MSequence.Table_Name, seq.getAD_Sequence_ID());
+			assertEquals("5000", MSequence.getDocumentNoFromSeq(seq, null, null));
+
+			//pool of other sequence is kept
+			assertEquals("1001", MSequence.getDocumentNoFromSeq(other, null, null));
+
+			other.load((String)null);
+			other.setCurrentNext(7000);
+			other.saveEx();
+			CacheMgt.get().reset(MSequence.Table_Name);
+			assertEquals("7000", MSequence.getDocumentNoFromSeq(other, null, null));
+		} finally {
+			if (sysConfig.get_ID() > 0)
+				sysConfig.deleteEx(true);
+			CacheMgt.get().reset(MSysConfig.Table_Name);
+			seq.deleteEx(true);
+			other.deleteEx(true);
+		}
+	}
+}
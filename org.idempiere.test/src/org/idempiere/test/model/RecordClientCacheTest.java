@@ -0,0 +1,81 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.model;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.compiere.model.MBPartner;
+import org.compiere.model.MNote;
+import org.compiere.util.Env;
+import org.idempiere.test.AbstractTestCase;
+import org.idempiere.test.DictionaryIDs;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cross tenant validation of AD_Table_ID+Record_ID in {@link org.compiere.model.PO}, with the cached client of the records
+ */
+public class RecordClientCacheTest extends AbstractTestCase {
+
+	public RecordClientCacheTest() {
+	}
+
+	@Test
+	public void testCrossTenantRecordID() {
+		int C_BPartner_ID = DictionaryIDs.C_BPartner.C_AND_W.id;
+		createNote(Env.getCtx(), C_BPartner_ID).saveEx();
+
+		//same record from system
+		Properties systemCtx = new Properties();
+		systemCtx.putAll(Env.getCtx());
+		Env.setContext(systemCtx, Env.AD_CLIENT_ID, 0);
+		MNote note = createNote(systemCtx, C_BPartner_ID);
+		AdempiereException e = assertThrows(AdempiereException.class, () -> note.saveEx());
+		assertTrue(e.getMessage().contains("Cross tenant ID"), e.getMessage());
+	}
+
+	@Test
+	public void testRolledBackRecordID() {
+		MBPartner bpartner = new MBPartner(Env.getCtx(), 0, getTrxName());
+		bpartner.setName("BP_" + System.currentTimeMillis());
+		bpartner.setC_BP_Group_ID(103);
+		bpartner.saveEx();
+		int C_BPartner_ID = bpartner.getC_BPartner_ID();
+		//record of the transaction
+		createNote(Env.getCtx(), C_BPartner_ID).saveEx();
+		rollback();
+
+		//client of the rolled back record must not be cached
+		MNote note = createNote(Env.getCtx(), C_BPartner_ID);
+		AdempiereException e = assertThrows(AdempiereException.class, () -> note.saveEx());
+		assertTrue(e.getMessage().contains("not found"), e.getMessage());
+	}
+
+	private MNote createNote(Properties ctx, int C_BPartner_ID) {
+		MNote note = new MNote(ctx, "PostingError-E", DictionaryIDs.AD_User.GARDEN_ADMIN.id, getTrxName());
+		note.setRecord(MBPartner.Table_ID, C_BPartner_ID);
+		return note;
+	}
+}
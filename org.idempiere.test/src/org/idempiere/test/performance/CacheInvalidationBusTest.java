@@ -0,0 +1,117 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.BooleanSupplier;
+
+import org.compiere.util.CCache;
+import org.compiere.util.CacheInvalidationBus;
+import org.compiere.util.Trx;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CacheInvalidationBus}
+ */
+public class CacheInvalidationBusTest extends AbstractTestCase {
+
+	private static final String TABLE_NAME = "CacheInvalidationBusTest";
+
+	public CacheInvalidationBusTest() {
+	}
+
+	@Test
+	public void testPublishAfterCommit() throws Exception {
+		CacheInvalidationBus bus = CacheInvalidationBus.get();
+		assertTrue(bus.isAsync(TABLE_NAME));
+		CCache<Integer, String> cache = new CCache<>(TABLE_NAME, TABLE_NAME, 10, 60, false);
+		cache.put(1, "1");
+		cache.put(2, "2");
+		long applied = bus.getAppliedCount();
+
+		Trx trx = Trx.get(Trx.createTrxName("CIB"), true);
+		try {
+			trx.getConnection();
+			bus.reset(trx.getTrxName(), TABLE_NAME, 1);
+			//invalidation wait for commit
+			Thread.sleep(200);
+			assertEquals("1", cache.get(1));
+
+			assertTrue(trx.commit());
+			assertTrue(waitFor(() -> cache.get(1) == null), "Cache entry should be reset after commit");
+			assertEquals("2", cache.get(2));
+			assertTrue(waitFor(() -> bus.getAppliedCount() > applied));
+			assertTrue(bus.getMaxLag() >= bus.getLastLag());
+			assertTrue(bus.getAverageLag() >= 0);
+		} finally {
+			trx.close();
+		}
+	}
+
+	@Test
+	public void testNotPublishedOnRollback() throws Exception {
+		CacheInvalidationBus bus = CacheInvalidationBus.get();
+		CCache<Integer, String> cache = new CCache<>(TABLE_NAME, TABLE_NAME + "_Rollback", 10, 60, false);
+		cache.put(3, "3");
+		long published = bus.getPublishedCount();
+
+		Trx trx = Trx.get(Trx.createTrxName("CIB"), true);
+		try {
+			trx.getConnection();
+			bus.reset(trx.getTrxName(), TABLE_NAME, 3);
+			bus.newRecord(trx.getTrxName(), TABLE_NAME, 4);
+			Thread.sleep(200);
+			assertEquals("3", cache.get(3));
+
+			assertTrue(trx.rollback());
+			//local cache is still reset, it might have been updated within the transaction
+			assertTrue(waitFor(() -> cache.get(3) == null), "Local cache entry should be reset after rollback");
+			assertEquals(published, bus.getPublishedCount(), "Rollback should not publish to cluster");
+		} finally {
+			trx.close();
+		}
+	}
+
+	@Test
+	public void testResetWithoutTrx() throws Exception {
+		CacheInvalidationBus bus = CacheInvalidationBus.get();
+		CCache<Integer, String> cache = new CCache<>(TABLE_NAME, TABLE_NAME + "_NoTrx", 10, 60, false);
+		cache.put(5, "5");
+		bus.reset(null, TABLE_NAME, 5);
+		assertTrue(waitFor(() -> cache.get(5) == null));
+		assertNull(cache.get(5));
+	}
+
+	private boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > timeout)
+				return false;
+			Thread.sleep(20);
+		}
+		return true;
+	}
+}
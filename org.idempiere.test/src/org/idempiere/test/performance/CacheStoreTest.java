@@ -0,0 +1,308 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.compiere.util.CCache;
+import org.compiere.util.CacheMgt;
+import org.idempiere.cache.LoadingCCache;
+import org.idempiere.cache.SegmentedCacheStore;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SegmentedCacheStore}
+ */
+public class CacheStoreTest extends AbstractTestCase {
+
+	public CacheStoreTest() {
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		SegmentedCacheStore<Integer, String> store = new SegmentedCacheStore<>(3);
+		assertEquals(1, store.getSegmentCount(), "Small store should use a single segment");
+		store.put(1, "1");
+		store.put(2, "2");
+		store.put(3, "3");
+		//touch 1 so that 2 is the least recently used entry
+		assertEquals("1", store.get(1));
+		store.put(4, "4");
+		assertEquals(3, store.size());
+		assertTrue(store.containsKey(1));
+		assertFalse(store.containsKey(2));
+		assertTrue(store.containsKey(3));
+		assertTrue(store.containsKey(4));
+		assertEquals(1, store.getEvictionCount());
+	}
+
+	@Test
+	public void testMaxSizeAcrossSegments() {
+		SegmentedCacheStore<Integer, Integer> store = new SegmentedCacheStore<>(1000, 16);
+		assertTrue(store.getSegmentCount() > 1);
+		for (int i = 0; i < 5000; i++)
+			store.put(i, i);
+		assertTrue(store.size() <= 1000, "Store size over max size: " + store.size());
+	}
+
+	@Test
+	public void testTimeToLive() throws InterruptedException {
+		SegmentedCacheStore<Integer, String> store = new SegmentedCacheStore<>(100);
+		store.put(1, "1", 50);
+		store.put(2, "2");
+		assertEquals("1", store.get(1));
+		Thread.sleep(100);
+		assertNull(store.get(1));
+		assertEquals("2", store.get(2));
+
+		store.setDefaultTimeToLive(50);
+		store.put(3, "3");
+		Thread.sleep(100);
+		assertEquals(1, store.evictExpired());
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		SegmentedCacheStore<Integer, Integer> store = new SegmentedCacheStore<>(0);
+		for (int i = 0; i < 100; i++)
+			store.put(i, i);
+		store.values().removeIf(v -> v % 2 == 0);
+		assertEquals(50, store.size());
+		store.keySet().forEach(k -> assertTrue(k % 2 == 1));
+	}
+
+	@Test
+	public void testCCacheWithStore() {
+		CCache<Integer, String> cache = new CCache<>("CacheStoreTest", 10, 0, false, 2);
+		cache.put(1, "1");
+		cache.put(2, "2");
+		cache.get(1);
+		cache.put(3, "3");
+		assertEquals(2, cache.size());
+		assertNull(cache.get(2));
+		assertEquals("1", cache.get(1));
+		assertEquals(2, cache.getHit());
+		assertEquals(1, cache.getMiss());
+	}
+
+	@Test
+	public void testSingleFlightLoad() throws Exception {
+		CCache<Integer, String> cache = new CCache<>("CacheStoreTest_SingleFlight", 10, 60);
+		AtomicInteger loads = new AtomicInteger();
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			for (int t = 0; t < threads; t++) {
+				futures[t] = executor.submit(() -> cache.getOrLoad(1, k -> {
+					loads.incrementAndGet();
+					try {
+						Thread.sleep(200);
+					} catch (InterruptedException e) {
+					}
+					return "1";
+				}));
+			}
+			for (Future<?> f : futures)
+				assertEquals("1", f.get());
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, loads.get(), "Concurrent misses should share one load");
+		assertEquals("1", cache.getOrLoad(1, k -> "2"));
+
+		//null value is cached
+		assertNull(cache.getOrLoad(2, k -> null));
+		assertNull(cache.getOrLoad(2, k -> "2"));
+	}
+
+	@Test
+	public void testStaleLoadDiscarded() throws Exception {
+		CCache<Integer, String> cache = new CCache<>("CacheStoreTest_StaleLoad", 10, 60);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			//key removed during load, loaded value is returned but not cached
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			Future<String> f = executor.submit(() -> cache.getOrLoad(1, k -> await(started, release, "1")));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			cache.remove(1);
+			release.countDown();
+			assertEquals("1", f.get());
+			assertFalse(cache.containsKey(1), "Value loaded before remove should not be cached");
+
+			//remove of another key doesn't discard the load
+			CountDownLatch started2 = new CountDownLatch(1);
+			CountDownLatch release2 = new CountDownLatch(1);
+			f = executor.submit(() -> cache.getOrLoad(1, k -> await(started2, release2, "1")));
+			assertTrue(started2.await(5, TimeUnit.SECONDS));
+			cache.remove(2);
+			release2.countDown();
+			assertEquals("1", f.get());
+			assertEquals("1", cache.get(1));
+
+			//reset during load
+			CountDownLatch started3 = new CountDownLatch(1);
+			CountDownLatch release3 = new CountDownLatch(1);
+			f = executor.submit(() -> cache.getOrLoad(3, k -> await(started3, release3, "3")));
+			assertTrue(started3.await(5, TimeUnit.SECONDS));
+			assertTrue(cache.isLoading());
+			cache.reset();
+			release3.countDown();
+			assertEquals("3", f.get());
+			assertFalse(cache.containsKey(3), "Value loaded before reset should not be cached");
+			assertFalse(cache.isLoading());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRefreshAhead() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		//refresh ahead ratio 1, every read of a cached entry trigger a background refresh
+		LoadingCCache<Integer, String> cache = new LoadingCCache<>("CacheStoreTest_RefreshAhead", "CacheStoreTest_RefreshAhead", 10, 60, 0,
+				k -> String.valueOf(loads.incrementAndGet()), 1);
+		assertEquals("1", cache.get(1));
+		assertEquals(1, loads.get());
+		//current value is served while refresh run in background
+		assertEquals("1", cache.get(1));
+		long timeout = System.currentTimeMillis() + 5000;
+		while (!"2".equals(cache.getIfPresent(1)) && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertEquals("2", cache.getIfPresent(1));
+		assertEquals(2, loads.get());
+
+		//refresh that complete after a remove is discarded
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		LoadingCCache<Integer, String> blocking = new LoadingCCache<>("CacheStoreTest_RefreshAhead2", "CacheStoreTest_RefreshAhead2", 10, 60, 0,
+				k -> await(started, release, "new"), 1);
+		blocking.put(1, "old");
+		assertEquals("old", blocking.get(1));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		blocking.remove(1);
+		release.countDown();
+		timeout = System.currentTimeMillis() + 5000;
+		while (blocking.isLoading() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertFalse(blocking.isLoading());
+		assertNull(blocking.getIfPresent(1), "Refresh that started before remove should not be cached");
+	}
+
+	private static String await(CountDownLatch started, CountDownLatch release, String value) {
+		started.countDown();
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+		}
+		return value;
+	}
+
+	@Test
+	public void testPerEntryExpiry() {
+		CCache<Integer, String> cache = new CCache<>("CacheStoreTest_Expiry", 10, 60);
+		assertTrue(cache.isExpirePerEntry());
+		cache.put(1, "1");
+		long ttl = cache.getTimeToLive(1);
+		assertTrue(ttl > 0 && ttl <= TimeUnit.MINUTES.toMillis(60));
+		assertEquals(-1, cache.getTimeToLive(2));
+		assertFalse(cache.isExpire());
+	}
+
+	@Test
+	public void testTableIndexedReset() {
+		CCache<Integer, String> header = new CCache<>("CacheStoreTest_Doc", "CacheStoreTest_Doc", 10, 60, false);
+		CCache<Integer, String> lines = new CCache<>("CacheStoreTest_DocLine", "CacheStoreTest_DocLine", 10, 60, false);
+		CCache<String, String> byValue = new CCache<>("CacheStoreTest_Doc", "CacheStoreTest_Doc_Value", 10, 60, false);
+		header.put(1, "1");
+		header.put(2, "2");
+		lines.put(1, "1");
+		lines.put(3, "3");
+		byValue.put("A", "1");
+		assertTrue(CacheMgt.get().hasCache("CacheStoreTest_Doc"));
+
+		//record level reset for integer key, full reset for other key, dependent table included
+		CacheMgt.get().reset("CacheStoreTest_Doc", 1);
+		assertNull(header.get(1));
+		assertEquals("2", header.get(2));
+		assertNull(lines.get(1));
+		assertEquals("3", lines.get(3));
+		assertTrue(byValue.isEmpty());
+
+		CacheMgt.get().unregister(lines);
+		lines.put(3, "3");
+		CacheMgt.get().reset("CacheStoreTest_Doc");
+		assertTrue(header.isEmpty());
+		assertEquals("3", lines.get(3), "Unregistered cache should not be reset");
+	}
+
+	/**
+	 * Concurrent reads and writes must keep the segmented store within its max size
+	 */
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		final int maxSize = 1000;
+		Map<Integer, Integer> map = new SegmentedCacheStore<Integer, Integer>(maxSize);
+		int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+		int operations = 20000;
+		for (int i = 0; i < maxSize; i++)
+			map.put(i, i);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			for (int t = 0; t < threads; t++) {
+				futures[t] = executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < operations; i++) {
+						int key = random.nextInt(maxSize * 2);
+						//90% read, 10% write
+						if (i % 10 == 0)
+							map.put(key, key);
+						else
+							map.get(key);
+					}
+				});
+			}
+			for (Future<?> f : futures)
+				f.get();
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(map.size() <= maxSize);
+		assertTrue(map.size() > 0);
+	}
+}
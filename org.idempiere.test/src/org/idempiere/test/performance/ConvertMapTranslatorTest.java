@@ -0,0 +1,109 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.compiere.dbPort.Convert;
+import org.compiere.dbPort.ConvertMapTranslator;
+import org.compiere.dbPort.ConvertMap_PostgreSQL;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare {@link ConvertMapTranslator} with applying each convert map entry with {@link String#replaceAll(String, String)}
+ */
+public class ConvertMapTranslatorTest extends AbstractTestCase {
+
+	private static final List<String> STATEMENTS = List.of(
+		"SELECT AD_Table_ID, TableName FROM AD_Table WHERE IsActive='Y' AND Created>SYSDATE-1",
+		"SELECT NVL(Qty,0), TO_DATE('2020-01-01','YYYY-MM-DD'), getDate() FROM DUAL",
+		"SELECT COALESCE(MAX(Line),0)+10 FROM C_OrderLine WHERE C_Order_ID=<--QS0QS123456789012345678-->",
+		"CREATE TABLE T_Test (T_Test_ID NUMBER(10) NOT NULL, Name NVARCHAR2(60), Description VARCHAR2(255 CHAR), Value VARCHAR(40 CHAR), Created DATE DEFAULT SYSDATE, BinaryData BLOB, Text CLOB, Flag NCHAR(1)) TABLESPACE users STORAGE (INITIAL 64K)",
+		"CREATE GLOBAL TEMPORARY TABLE T_Temp (x NUMBER) ON COMMIT DELETE ROWS",
+		"CREATE SEQUENCE Test_Seq START WITH 1000000 INCREMENT BY 1 CACHE 20",
+		"DROP TABLE T_Test CASCADE CONSTRAINTS",
+		"CREATE BITMAP INDEX T_Test_Idx ON T_Test (Name) USING INDEX",
+		"SELECT CASE WHEN a=1 THEN 'x' END CASE FROM T",
+		"UPDATE AD_Table SET Updated=CURRENT_TIMESTAMP, old=new WHERE \"action\"='x' AND \"limit\"=1",
+		"SELECT DUMP(Name), TO_NCHAR(Name), DBMS_OUTPUT.PUT_LINE(x) FROM T ORDER BY 1 LIMIT 10",
+		"BEGIN IF x THEN y; ELSIF z THEN w; END IF; FOR REC IN c LOOP NULL; END LOOP; END;",
+		"SELECT Record_ID, RecordDate, DateAcct, Date1, x_Date, \u00e9Date, Date\u00e9, NUMBERS, numbers, NumBer FROM T",
+		"SELECT p.Name AS ProductNew, Old_Value, New_Value, date, Date FROM M_Product p\n\tWHERE p.IsActive='Y'",
+		"");
+
+	public ConvertMapTranslatorTest() {
+	}
+
+	@Test
+	public void testSameResult() {
+		Map<String, String> convertMap = ConvertMap_PostgreSQL.getConvertMap();
+		ConvertMapTranslator translator = new ConvertMapTranslator(convertMap, Convert.REGEX_FLAGS);
+		for (String statement : STATEMENTS) {
+			assertEquals(replaceAll(convertMap, statement), translator.translate(statement, error -> {}),
+				"Different result for " + statement);
+		}
+	}
+
+	@Test
+	public void testChainedWords() {
+		Map<String, String> convertMap = new TreeMap<String, String>();
+		convertMap.put("\\bAAA\\b", "BBB");
+		convertMap.put("\\bBBB\\b", "CCC DDD");
+		convertMap.put("\\bCCC\\s+DDD\\b", "EEE");
+		convertMap.put("\\bDDD\\b", "FFF");
+		convertMap.put("\\bEEE\\b", "x$0");
+		ConvertMapTranslator translator = new ConvertMapTranslator(convertMap, Convert.REGEX_FLAGS);
+		for (String statement : List.of("AAA BBB CCC DDD EEE", "aaa,bbb(ccc ddd)eee", "AAAA BBB_ DDD")) {
+			assertEquals(replaceAll(convertMap, statement), translator.translate(statement, error -> {}),
+				"Different result for " + statement);
+		}
+	}
+
+	@Test
+	public void testTranslatorReused() {
+		Map<String, String> convertMap = ConvertMap_PostgreSQL.getConvertMap();
+		ConvertMapTranslator translator = new ConvertMapTranslator(convertMap, Convert.REGEX_FLAGS);
+		//same translator for all statements, no state kept from the previous statement
+		for (int i = 0; i < 3; i++) {
+			for (String statement : STATEMENTS) {
+				assertEquals(replaceAll(convertMap, statement + i), translator.translate(statement + i, error -> {}),
+					"Different result for " + statement + i);
+			}
+		}
+	}
+
+	/**
+	 * Convert map applied entry by entry, as done before {@link ConvertMapTranslator}
+	 */
+	private String replaceAll(Map<String, String> convertMap, String statement) {
+		String retValue = statement;
+		for (Map.Entry<String, String> entry : convertMap.entrySet())
+			retValue = Pattern.compile(entry.getKey(), Convert.REGEX_FLAGS).matcher(retValue).replaceAll(entry.getValue());
+		return retValue;
+	}
+}
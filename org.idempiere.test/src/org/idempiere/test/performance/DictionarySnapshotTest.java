@@ -0,0 +1,94 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.compiere.model.DictionarySnapshot;
+import org.compiere.model.GridFieldVO;
+import org.compiere.model.GridTabVO;
+import org.compiere.model.GridWindowVO;
+import org.compiere.model.MField;
+import org.compiere.model.POInfo;
+import org.compiere.model.SystemIDs;
+import org.compiere.util.CacheMgt;
+import org.compiere.util.Env;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link DictionarySnapshot}
+ */
+public class DictionarySnapshotTest extends AbstractTestCase {
+
+	public DictionarySnapshotTest() {
+	}
+
+	@Test
+	public void testColdStartWindow() throws IOException {
+		File file = File.createTempFile("dictionary", ".snapshot");
+		try {
+			DictionarySnapshot.build(file);
+
+			//	cold start without snapshot
+			CacheMgt.get().reset();
+			assertFalse(DictionarySnapshot.isOpen());
+			List<String> expected = loadWindow(SystemIDs.WINDOW_SALES_ORDER);
+
+			//	cold start with snapshot
+			CacheMgt.get().reset();
+			assertTrue(DictionarySnapshot.open(file));
+			List<String> actual = loadWindow(SystemIDs.WINDOW_SALES_ORDER);
+			assertEquals(expected, actual);
+
+			//	dictionary change closes the snapshot
+			CacheMgt.get().reset(MField.Table_Name);
+			assertFalse(DictionarySnapshot.isOpen());
+		} finally {
+			DictionarySnapshot.close();
+			file.delete();
+		}
+	}
+
+	/**
+	 * @param AD_Window_ID
+	 * @return tab, column and field names of window
+	 */
+	private List<String> loadWindow(int AD_Window_ID) {
+		List<String> names = new ArrayList<String>();
+		GridWindowVO windowVO = GridWindowVO.create(Env.getCtx(), 1, AD_Window_ID);
+		for (GridTabVO tabVO : windowVO.Tabs) {
+			POInfo info = POInfo.getPOInfo(Env.getCtx(), tabVO.AD_Table_ID);
+			names.add(tabVO.Name + ":" + info.getTableName() + "#" + info.getColumnCount());
+			for (GridFieldVO fieldVO : tabVO.getFields())
+				names.add(fieldVO.ColumnName + "=" + fieldVO.Header + (fieldVO.lookupInfo != null ? "*" : ""));
+		}
+		return names;
+	}
+}
@@ -0,0 +1,95 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.compiere.util.Evaluatee;
+import org.idempiere.expression.logic.CompiledLogic;
+import org.idempiere.expression.logic.EvaluationVisitor;
+import org.idempiere.expression.logic.LogicEvaluator;
+import org.idempiere.expression.logic.SimpleBooleanLexer;
+import org.idempiere.expression.logic.SimpleBooleanParser;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare {@link CompiledLogic} with the evaluation of a new parse tree
+ */
+public class LogicEvaluatorTest extends AbstractTestCase {
+
+	private static final List<String> EXPRESSIONS = List.of(
+		"@IsSOTrx@=Y", "@IsSOTrx@='Y'", "@IsSOTrx@!Y & @Processed@=N", "@IsSOTrx@=Y | @Processed@=N",
+		"@Qty@>10", "@Qty@<=10.5", "@Qty@=10.0", "@DocStatus@=DR,IP", "@DocStatus@='DR,IP'", "@DocStatus@=\"DR,IP\"",
+		"$!(@IsSOTrx@=Y)", "@Name@~'^[a-z]+$'", "@Name@~@Pattern@", "@C_BPartner_ID@=0", "@M_Product_ID:0@>0",
+		"@Description:X@=X", "(@IsSOTrx@=Y | @Processed@=Y) & @Qty@>=5", "@DateOrdered@>'2020-01-01 00:00:00'", "true", "@IsSOTrx@=Y & false");
+
+	public LogicEvaluatorTest() {
+	}
+
+	@Test
+	public void testSameResult() {
+		List<Map<String, String>> contexts = List.of(
+			Map.of("IsSOTrx", "Y", "Processed", "N", "Qty", "10", "DocStatus", "DR", "Name", "abc", "Pattern", "^a.*",
+				"C_BPartner_ID", "100", "M_Product_ID", "200", "DateOrdered", "2021-01-01 00:00:00"),
+			Map.of("IsSOTrx", "N", "Qty", "11", "DocStatus", "CO", "Name", "AB1", "Pattern", "x", "Description", "Y"),
+			new HashMap<String, String>());
+		for (Map<String, String> context : contexts) {
+			Evaluatee evaluatee = variable -> context.get(variable);
+			for (String expression : EXPRESSIONS) {
+				assertEquals(parseAndEvaluate(evaluatee, expression), CompiledLogic.compile(expression).evaluate(evaluatee),
+					"Different result for " + expression + " with " + context);
+			}
+		}
+	}
+
+	@Test
+	public void testCache() {
+		String expression = EXPRESSIONS.get(0);
+		assertSame(LogicEvaluator.getCompiledLogic(expression), LogicEvaluator.getCompiledLogic(expression));
+	}
+
+	@Test
+	public void testCachedEvaluation() {
+		Evaluatee evaluatee = variable -> "Y";
+		//evaluation of the cached logic does not keep state between calls
+		for (int i = 0; i < 3; i++) {
+			for (String expression : EXPRESSIONS) {
+				assertEquals(Boolean.TRUE.equals(parseAndEvaluate(evaluatee, expression)), LogicEvaluator.evaluateLogic(evaluatee, expression),
+					"Different result for " + expression);
+			}
+		}
+	}
+
+	private Object parseAndEvaluate(Evaluatee evaluatee, String expression) {
+		SimpleBooleanLexer lexer = new SimpleBooleanLexer(CharStreams.fromString(expression));
+		SimpleBooleanParser parser = new SimpleBooleanParser(new CommonTokenStream(lexer));
+		return new EvaluationVisitor(evaluatee).visit(parser.parse());
+	}
+}
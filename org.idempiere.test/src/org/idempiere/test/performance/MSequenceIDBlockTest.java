@@ -0,0 +1,96 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+import org.compiere.model.MSequence;
+import org.compiere.model.MSysConfig;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Concurrent ID allocation of {@link MSequence#getNextID(int, String)} and the block allocator of {@link MSequence#getNextBlockID(String, int)}
+ */
+public class MSequenceIDBlockTest extends AbstractTestCase {
+
+	private static final String TABLE_NAME = "Test";
+	private static final int THREADS = 10;
+	private static final int IDS_PER_THREAD = 100;
+
+	public MSequenceIDBlockTest() {
+	}
+
+	@Test
+	public void testBlockAllocation() throws Exception {
+		//block allocation is not used with native sequence
+		if (MSysConfig.getBooleanValue(MSysConfig.SYSTEM_NATIVE_SEQUENCE, false))
+			return;
+
+		List<Integer> single = new Vector<Integer>();
+		run(single, 1);
+		assertUnique(single);
+
+		List<Integer> block = new Vector<Integer>();
+		run(block, 50);
+		assertUnique(block);
+
+		//block IDs are reserved after the IDs handed out one by one
+		assertTrue(Collections.min(block) > Collections.max(single));
+	}
+
+	@Test
+	public void testBlockSizeConfig() {
+		assertEquals(1, MSequence.getIDBlockSize(TABLE_NAME));
+	}
+
+	private void assertUnique(List<Integer> ids) {
+		assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+		Set<Integer> set = new HashSet<Integer>(ids);
+		assertEquals(ids.size(), set.size(), "Duplicate IDs");
+		assertTrue(Collections.min(ids) > 0);
+	}
+
+	private void run(List<Integer> ids, int blockSize) throws InterruptedException {
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < IDS_PER_THREAD; j++) {
+					int id = blockSize > 1
+						? MSequence.getNextBlockID(TABLE_NAME, blockSize)
+						: MSequence.getNextID(0, TABLE_NAME);
+					ids.add(Integer.valueOf(id));
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+	}
+}
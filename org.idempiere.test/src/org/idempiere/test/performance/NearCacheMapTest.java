@@ -0,0 +1,143 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.idempiere.cache.NearCacheInvalidation;
+import org.idempiere.cache.NearCacheMap;
+import org.idempiere.distributed.ITopic;
+import org.idempiere.distributed.ITopicSubscriber;
+import org.idempiere.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link NearCacheMap}, two nodes sharing one cluster map and one invalidation topic
+ */
+public class NearCacheMapTest extends AbstractTestCase {
+
+	public NearCacheMapTest() {
+	}
+
+	@Test
+	public void testFillIsNotPublished() {
+		MemoryTopic<NearCacheInvalidation> topic = new MemoryTopic<>();
+		Map<String, String> remote = new ConcurrentHashMap<>();
+		NearCacheMap<String, String> node1 = new NearCacheMap<>("NearCacheMapTest", remote, 100, topic, "node1");
+		NearCacheMap<String, String> node2 = new NearCacheMap<>("NearCacheMapTest", remote, 100, topic, "node2");
+
+		//fill after miss
+		assertNull(node1.get("k1"));
+		assertEquals("v1", node1.fill("k1", "v1"));
+		assertEquals("v1", node2.get("k1"));
+		assertEquals(1, node2.getLocalSize());
+
+		assertEquals(0, topic.published.size());
+
+		//put of a missing key is published
+		assertNull(node2.put("k2", "v2"));
+		assertEquals(1, topic.published.size());
+		assertEquals("v2", node1.get("k2"));
+		assertEquals(2, node1.getLocalSize());
+		assertEquals(2, node2.getLocalSize());
+
+		//L1 copies are still served
+		long l1Hit = node2.getL1Hit();
+		assertEquals("v1", node2.get("k1"));
+		assertEquals(l1Hit + 1, node2.getL1Hit());
+
+		//value added to L2 by another node is kept
+		remote.put("k3", "other");
+		assertEquals("other", node1.fill("k3", "mine"));
+		assertEquals("other", node1.get("k3"));
+	}
+
+	@Test
+	public void testWriteIsPublished() {
+		MemoryTopic<NearCacheInvalidation> topic = new MemoryTopic<>();
+		Map<String, String> remote = new ConcurrentHashMap<>();
+		NearCacheMap<String, String> node1 = new NearCacheMap<>("NearCacheMapTest_Write", remote, 100, topic, "node1");
+		NearCacheMap<String, String> node2 = new NearCacheMap<>("NearCacheMapTest_Write", remote, 100, topic, "node2");
+		node1.fill("k1", "v1");
+		assertEquals("v1", node2.get("k1"));
+
+		//change of existing entry drop the L1 copy of other node
+		assertEquals("v1", node1.put("k1", "v2"));
+		assertEquals(1, topic.published.size());
+		assertEquals(0, node2.getLocalSize());
+		assertEquals(1, node1.getLocalSize(), "Own message should be ignored");
+		assertEquals("v2", node2.get("k1"));
+
+		node2.remove("k1");
+		assertEquals(2, topic.published.size());
+		assertEquals(0, node1.getLocalSize());
+		assertNull(node1.get("k1"));
+
+		node1.fill("k1", "v3");
+		assertEquals("v3", node2.get("k1"));
+
+		//L1 copy of an entry evicted from L2 is dropped by the next put
+		remote.remove("k1");
+		assertNull(node1.put("k1", "v4"));
+		assertEquals("v4", node2.get("k1"));
+
+		node2.clear();
+		assertEquals(0, node1.getLocalSize());
+		assertNull(node1.get("k1"));
+	}
+
+	/**
+	 * Topic that deliver messages synchronously to subscribers of this JVM
+	 */
+	private static class MemoryTopic<T> implements ITopic<T> {
+		private final List<ITopicSubscriber<T>> subscribers = new CopyOnWriteArrayList<>();
+		private final List<T> published = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String getName() {
+			return NearCacheMap.TOPIC_NEAR_CACHE_INVALIDATION;
+		}
+
+		@Override
+		public void subscribe(ITopicSubscriber<T> subscriber) {
+			subscribers.add(subscriber);
+		}
+
+		@Override
+		public void unsubscribe(ITopicSubscriber<T> subscriber) {
+			subscribers.remove(subscriber);
+		}
+
+		@Override
+		public void publish(T message) {
+			published.add(message);
+			for (ITopicSubscriber<T> subscriber : subscribers)
+				subscriber.onMessage(message);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/***********************************************************************
+ * This file is part of iDempiere ERP Open Source                      *
+ * http://www.idempiere.org                                            *
+ *                                                                     *
+ * Copyright (C) Contributors                                          *
+ *                                                                     *
+ * This program is free software; you can redistribute it and/or       *
+ * modify it under the terms of the GNU General Public License         *
+ * as published by the Free Software Foundation; either version 2      *
+ * of the License, or (at your option) any later version.              *
+ *                                                                     *
+ * This program is distributed in the hope that it will be useful,     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of      *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the        *
+ * GNU General Public License for more details.                        *
+ *                                                                     *
+ * You should have received a copy of the GNU General Public License   *
+ * along with this program; if not, write to the Free Software         *
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,          *
+ * MA 02110-1301, USA.                                                 *
+ **********************************************************************/
+package org.idempiere.test.performance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.compiere.acct.DocManager;
+import org.compiere.acct.Fact;
+import org.compiere.model.FactsValidator;
+import org.compiere.model.MAcctSchema;
+import org.compiere.model.MPayment;
+import org.compiere.model.ModelValidationEngine;
+import org.compiere.model.PO;
+import org.compiere.process.DocAction;
+import org.compiere.process.DocumentEngine;
+import org.compiere.server.ParallelAcctPosting;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.TimeUtil;
+import org.idempiere.test.AbstractTestCase;
+import org.idempiere.test.DictionaryIDs;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Posting of a group of documents by {@link ParallelAcctPosting}
+ */
+public class ParallelAcctPostingTest extends AbstractTestCase {
+
+	public ParallelAcctPostingTest() {
+	}
+
+	@Test
+	public void testFailedDocumentInGroup() {
+		//the posting reads and posts committed documents, the payments are left posted in the database
+		MPayment[] payments = new MPayment[3];
+		for (int i = 0; i < payments.length; i++)
+			payments[i] = createPayment();
+		commit();
+
+		MAcctSchema[] ass = MAcctSchema.getClientAcctSchema(Env.getCtx(), getAD_Client_ID());
+		int failing_ID = payments[1].getC_Payment_ID();
+		FactsValidator validator = new FactsValidator() {
+			@Override
+			public int getAD_Client_ID() {
+				return ParallelAcctPostingTest.this.getAD_Client_ID();
+			}
+
+			@Override
+			public String factsValidate(MAcctSchema schema, List<Fact> facts, PO po) {
+				if (po.get_ID() != failing_ID)
+					return null;
+				//break the statement in the group transaction (aborts the transaction on PostgreSQL)
+				DB.getSQLValue(po.get_TrxName(), "SELECT 1/0 FROM Dual");
+				return "Test failure";
+			}
+		};
+		ModelValidationEngine.get().addFactsValidate(MPayment.Table_Name, validator);
+		try {
+			ParallelAcctPosting posting = new ParallelAcctPosting(ass, getAD_Client_ID(), MPayment.Table_ID, 1, () -> false);
+			posting.post(BigDecimal.valueOf(System.currentTimeMillis() + 60000));
+			assertTrue(posting.getErrors() > 0, posting.toString());
+
+			for (MPayment payment : payments)
+				payment.load((String)null);
+			assertTrue(payments[0].isPosted(), "Payment before the failed document not posted");
+			assertFalse(payments[1].isPosted(), "Failed payment posted");
+			assertTrue(payments[2].isPosted(), "Payment after the failed document not posted");
+			int facts = DB.getSQLValueEx(null, "SELECT COUNT(*) FROM Fact_Acct WHERE AD_Table_ID=? AND Record_ID=?",
+				MPayment.Table_ID, failing_ID);
+			assertEquals(0, facts, "Facts of the failed payment");
+		} finally {
+			ModelValidationEngine.get().removeFactsValidate(MPayment.Table_Name, validator);
+			DocManager.postDocument(ass, MPayment.Table_ID, failing_ID, false, false, null);
+		}
+	}
+
+	private MPayment createPayment() {
+		Timestamp today = TimeUtil.getDay(System.currentTimeMillis());
+		MPayment payment = new MPayment(Env.getCtx(), 0, getTrxName());
+		payment.setC_BPartner_ID(DictionaryIDs.C_BPartner.C_AND_W.id);
+		payment.setC_DocType_ID(true);
+		payment.setDocStatus(DocAction.STATUS_Drafted);
+		payment.setDocAction(DocAction.ACTION_Complete);
+		payment.setPayAmt(Env.ONE);
+		payment.setTenderType(MPayment.TENDERTYPE_Check);
+		payment.setC_BankAccount_ID(DictionaryIDs.C_BankAccount.ACCOUNT_1234.id);
+		payment.setC_Currency_ID(DictionaryIDs.C_Currency.USD.id);
+		payment.setDateTrx(today);
+		payment.setDateAcct(today);
+		payment.saveEx();
+
+		//leave the payment unposted for the accounting processor
+		payment.set_Attribute(DocumentEngine.DOCUMENT_POST_IMMEDIATE_AFTER_COMPLETE, Boolean.FALSE);
+		assertTrue(payment.processIt(DocAction.ACTION_Complete), payment.getProcessMsg());
+		payment.saveEx();
+		assertEquals(DocAction.STATUS_Completed, payment.getDocStatus());
+		assertFalse(payment.isPosted());
+		return payment;
+	}
+}
@@ -31,7 +31,9 @@ package org.idempiere.adinterface;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Properties;
@@ -626,16 +628,23 @@ public class ModelADServiceImpl extends AbstractService implements ModelADServic
 	    	if (rs != null) {
 	    		try
 	    		{
+	    			// columns are selected in the order of listColumnNames
+	    			ArrayList<String> outputColumns = new ArrayList<String>();
+	    			ArrayList<Integer> columnIndexes = new ArrayList<Integer>();
+	    			for (int i = 0; i < listColumnNames.size(); i++) {
+	    				if (m_webservicetype.isOutputColumnNameAllowed(listColumnNames.get(i))) {
+	    					outputColumns.add(listColumnNames.get(i));
+	    					columnIndexes.add(i + 1);
+	    				}
+	    			}
 	    			while (rs.next()) {
 	    				cnt++;
 	    				// Add values to the dataset
 	    				DataRow dr = ds.addNewDataRow();
-	    				for (String listColumnName : listColumnNames) {
-	    					if (m_webservicetype.isOutputColumnNameAllowed(listColumnName)) {
-	        					DataField dfid = dr.addNewField();
-	        					dfid.setColumn(listColumnName);
-	        					dfid.setVal(rs.getString(listColumnName));
-	    					}
+	    				for (int i = 0; i < outputColumns.size(); i++) {
+	    					DataField dfid = dr.addNewField();
+	    					dfid.setColumn(outputColumns.get(i));
+	    					dfid.setVal(rs.getString(columnIndexes.get(i)));
 	    				}
 	    			}
 	    			res.setSuccess(true);
@@ -1424,6 +1433,14 @@ public class ModelADServiceImpl extends AbstractService implements ModelADServic
 		}
 	}
 
+	/**
+	 * @param sqlType {@link Types}
+	 * @return true if the column is returned as base64 encoded binary data
+	 */
+	private static boolean isBinary(int sqlType) {
+		return sqlType == Types.BINARY || sqlType == Types.VARBINARY || sqlType == Types.LONGVARBINARY || sqlType == Types.BLOB;
+	}
+
 	public WindowTabDataDocument queryData(ModelCRUDRequestDocument req) {
 		Trx trx=null;
 		try {
@@ -1471,7 +1488,8 @@ public class ModelADServiceImpl extends AbstractService implements ModelADServic
 			if (manageTrx)
 				trx.setDisplayName(getClass().getName()+"_"+webServiceName+"_queryData");
 			
-	    	StringBuilder sqlBuilder = new StringBuilder(role.addAccessSQL("SELECT * FROM " + tableName, tableName, true, MRole.SQL_RO));
+	    	// conditions added to the access sql of the query and the count
+	    	StringBuilder sqlBuilder = new StringBuilder();
 			
 			ArrayList<Object> sqlParaList = new ArrayList<Object>();
 			PO holderPo = table.getPO(0, trxName);
@@ -1529,35 +1547,76 @@ public class ModelADServiceImpl extends AbstractService implements ModelADServic
 	    	int rowCnt = 0;
 			int offset = modelCRUD.getOffset();
 			int limit = modelCRUD.getLimit();
+			// the filter can end with an ORDER BY clause, the count is done without it
+			String whereClause = sqlBuilder.toString();
+			String orderBy = "";
+			int posOrder = Util.findIndexOf(whereClause.toUpperCase(), " ORDER BY ");
+			if (posOrder >= 0) {
+				orderBy = whereClause.substring(posOrder);
+				whereClause = whereClause.substring(0, posOrder);
+			}
+			String sql = role.addAccessSQL("SELECT * FROM " + tableName, tableName, true, MRole.SQL_RO) + whereClause;
+			// let the database skip the rows before the page, ordered by key when the filter has no order so that the pages are stable
+			boolean paging = (offset > 0 || limit > 0) && DB.getDatabase().isPagingSupported();
+			if (paging && orderBy.length() == 0) {
+				String[] keyColumns = table.getKeyColumns();
+				if (keyColumns != null && keyColumns.length > 0)
+					orderBy = " ORDER BY " + String.join(",", keyColumns);
+			}
+			sql += orderBy;
+			if (paging)
+				sql = DB.getDatabase().addPagingSQL(sql, offset + 1, limit > 0 ? offset + limit : 0);
 	
 	    	PreparedStatement pstmtquery = null;
 			ResultSet rsquery = null;
 			try
 			{
-				pstmtquery = DB.prepareStatement (sqlBuilder.toString(), trxName);
+				pstmtquery = DB.prepareStatement (sql, trxName);
 				DB.setParameters(pstmtquery, sqlParaList);
 				
 				rsquery = pstmtquery.executeQuery();
+				// resolve output columns once
+				ArrayList<String> outputColumns = new ArrayList<String>();
+				for (int i = 0; i < poinfo.getColumnCount(); i++) {
+		    		String columnName = poinfo.getColumnName(i);
+					if (m_webservicetype.isOutputColumnNameAllowed(columnName))
+						outputColumns.add(columnName);
+				}
+				int[] columnIndexes = new int[outputColumns.size()];
+				boolean[] binary = new boolean[outputColumns.size()];
+				ResultSetMetaData rsmd = rsquery.getMetaData();
+				for (int i = 0; i < columnIndexes.length; i++) {
+					columnIndexes[i] = rsquery.findColumn(outputColumns.get(i));
+					binary[i] = isBinary(rsmd.getColumnType(columnIndexes[i]));
+				}
 				// Angelo Dabala' (genied) must create just one DataSet, moved outside of the while loop
 				DataSet ds = resp.addNewDataSet();
 				while (rsquery.next ()) {
 					cnt++;
-					if ((offset >= cnt) || (limit > 0 && offset+limit < cnt))
+					if (!paging && ((offset >= cnt) || (limit > 0 && offset+limit < cnt)))
 						continue;
 					rowCnt++;
 					DataRow dr = ds.addNewDataRow();
-					for (int i = 0; i < poinfo.getColumnCount(); i++) {
-			    		String columnName = poinfo.getColumnName(i);
-						if (m_webservicetype.isOutputColumnNameAllowed(columnName)) {							
-							DataField dfid = dr.addNewField();
-							dfid.setColumn(columnName);
-							if(rsquery.getObject(columnName) instanceof byte[])
-								dfid.setVal(new String(Base64.encodeBase64(rsquery.getBytes(columnName))));						
-							else
-								dfid.setVal(rsquery.getString(columnName));
+					for (int i = 0; i < columnIndexes.length; i++) {
+						DataField dfid = dr.addNewField();
+						dfid.setColumn(outputColumns.get(i));
+						if (binary[i]) {
+							byte[] data = rsquery.getBytes(columnIndexes[i]);
+							dfid.setVal(data != null ? new String(Base64.encodeBase64(data)) : null);
+						} else {
+							dfid.setVal(rsquery.getString(columnIndexes[i]));
 						}
 			    	}
 				}
+				if (paging) {
+					if (limit > 0 && rowCnt == limit || rowCnt == 0 && offset > 0) {
+						// rows after the page or page after the last row
+						String countSql = role.addAccessSQL("SELECT COUNT(*) FROM " + tableName, tableName, true, MRole.SQL_RO) + whereClause;
+						cnt = DB.getSQLValueEx(trxName, countSql, sqlParaList);
+					} else {
+						cnt = offset + rowCnt;
+					}
+				}
 			}
 			catch (Exception e)
 			{